@@ -0,0 +1,192 @@
+package edu.stanford.protege.robot.benchmark;
+
+import static edu.stanford.protege.robot.benchmark.SyntheticOntologyGenerator.classIri;
+
+import edu.stanford.protege.robot.command.RobotCommand;
+import edu.stanford.protege.robot.command.annotate.AnnotateFlags;
+import edu.stanford.protege.robot.command.annotate.PlainAnnotation;
+import edu.stanford.protege.robot.command.annotate.RobotAnnotateCommand;
+import edu.stanford.protege.robot.command.collapse.RobotCollapseCommand;
+import edu.stanford.protege.robot.command.common.Reasoner;
+import edu.stanford.protege.robot.command.convert.OboConvertStrategy;
+import edu.stanford.protege.robot.command.convert.RobotConvertCommand;
+import edu.stanford.protege.robot.command.expand.RobotExpandCommand;
+import edu.stanford.protege.robot.command.export.EntityFormat;
+import edu.stanford.protege.robot.command.export.ExportFormat;
+import edu.stanford.protege.robot.command.export.RobotExportCommand;
+import edu.stanford.protege.robot.command.extract.ExtractIntermediates;
+import edu.stanford.protege.robot.command.extract.ExtractModule;
+import edu.stanford.protege.robot.command.extract.MireotExtractStrategy;
+import edu.stanford.protege.robot.command.extract.RobotExtractCommand;
+import edu.stanford.protege.robot.command.extract.RobotMultiExtractCommand;
+import edu.stanford.protege.robot.command.extract.SlmeExtractMethod;
+import edu.stanford.protege.robot.command.extract.SlmeExtractStrategy;
+import edu.stanford.protege.robot.command.extract.SubsetExtractStrategy;
+import edu.stanford.protege.robot.command.filter.RobotFilterCommand;
+import edu.stanford.protege.robot.command.reduce.RobotReduceCommand;
+import edu.stanford.protege.robot.command.relax.RobotRelaxCommand;
+import edu.stanford.protege.robot.command.remove.RobotRemoveCommand;
+import edu.stanford.protege.robot.command.repair.RepairFlags;
+import edu.stanford.protege.robot.command.repair.RobotRepairCommand;
+import edu.stanford.protege.robot.pipeline.RelativePath;
+import java.util.List;
+import java.util.stream.IntStream;
+import javax.annotation.Nullable;
+import org.semanticweb.owlapi.model.IRI;
+
+/**
+ * The ROBOT command wrappers covered by {@link RobotCommandBenchmark}, each configured to do a
+ * representative amount of work on a {@link SyntheticOntologyGenerator synthetic ontology}.
+ */
+public enum BenchmarkCommand {
+
+    EXTRACT_SLME("owl") {
+        @Override
+        RobotCommand create(SyntheticOntologySpec spec) {
+            return new RobotExtractCommand(new SlmeExtractStrategy(SlmeExtractMethod.BOT, seedTerms(spec)),
+                    null, null);
+        }
+    },
+    EXTRACT_MULTI("owl") {
+        @Override
+        RobotCommand create(SyntheticOntologySpec spec) {
+            // One module per seed term, the pipeline shape the multi-module extract replaces
+            var seedTerms = seedTerms(spec);
+            var modules = IntStream.range(0, seedTerms.size())
+                    .mapToObj(i -> new ExtractModule(List.of(seedTerms.get(i)),
+                            RelativePath.create("target/jmh-output/extract_multi-" + i + ".owl")))
+                    .toList();
+            return new RobotMultiExtractCommand(SlmeExtractMethod.BOT, modules, null, null);
+        }
+    },
+    EXTRACT_MIREOT("owl") {
+        @Override
+        RobotCommand create(SyntheticOntologySpec spec) {
+            return new RobotExtractCommand(new MireotExtractStrategy(List.of(term(0)), seedTerms(spec), List.of()),
+                    ExtractIntermediates.all, null);
+        }
+    },
+    EXTRACT_SUBSET("owl") {
+        @Override
+        RobotCommand create(SyntheticOntologySpec spec) {
+            return new RobotExtractCommand(new SubsetExtractStrategy(seedTerms(spec)), null, null);
+        }
+    },
+    FILTER("owl") {
+        @Override
+        RobotCommand create(SyntheticOntologySpec spec) {
+            return new RobotFilterCommand(null, List.of(term(1)), null, null,
+                    List.of("self", "descendants", "annotations"), null, null);
+        }
+    },
+    REMOVE("owl") {
+        @Override
+        RobotCommand create(SyntheticOntologySpec spec) {
+            return new RobotRemoveCommand(null, List.of(term(1)), null, null, List.of("self", "descendants"), null,
+                    null);
+        }
+    },
+    RELAX("owl") {
+        @Override
+        RobotCommand create(SyntheticOntologySpec spec) {
+            return new RobotRelaxCommand();
+        }
+    },
+    REDUCE("owl") {
+        @Override
+        RobotCommand create(SyntheticOntologySpec spec) {
+            return new RobotReduceCommand(Reasoner.ELK);
+        }
+    },
+    COLLAPSE("owl") {
+        @Override
+        RobotCommand create(SyntheticOntologySpec spec) {
+            return new RobotCollapseCommand(2, List.of(term(1)));
+        }
+    },
+    EXPAND("owl") {
+        @Override
+        RobotCommand create(SyntheticOntologySpec spec) {
+            return new RobotExpandCommand(List.of(), List.of());
+        }
+    },
+    REPAIR("owl") {
+        @Override
+        RobotCommand create(SyntheticOntologySpec spec) {
+            return new RobotRepairCommand(List.of("rdfs:comment"), RepairFlags.INVALID_REFERENCES,
+                    RepairFlags.MERGE_AXIOM_ANNOTATIONS);
+        }
+    },
+    CONVERT("obo", "--output") {
+        @Override
+        RobotCommand create(SyntheticOntologySpec spec) {
+            return new RobotConvertCommand(new OboConvertStrategy(false, null, null));
+        }
+    },
+    EXPORT("tsv", "--export") {
+        @Override
+        RobotCommand create(SyntheticOntologySpec spec) {
+            return new RobotExportCommand("ID|LABEL|SubClass Of", ExportFormat.tsv, List.of("ID"), null,
+                    List.of("classes"), null, EntityFormat.ID);
+        }
+    },
+    ANNOTATE("owl") {
+        @Override
+        RobotCommand create(SyntheticOntologySpec spec) {
+            return new RobotAnnotateCommand(IRI.create(SyntheticOntologyGenerator.BASE_IRI + "annotated"), null,
+                    List.of(new PlainAnnotation("rdfs:comment", "Annotated by the benchmark")),
+                    AnnotateFlags.ANNOTATE_DERIVED_FROM);
+        }
+    };
+
+    private static final int SEED_TERM_COUNT = 10;
+
+    private final String outputExtension;
+
+    @Nullable
+    private final String outputOption;
+
+    BenchmarkCommand(String outputExtension) {
+        this(outputExtension, null);
+    }
+
+    BenchmarkCommand(String outputExtension, @Nullable String outputOption) {
+        this.outputExtension = outputExtension;
+        this.outputOption = outputOption;
+    }
+
+    /**
+     * Creates the command wrapper for an ontology generated from the given spec.
+     */
+    abstract RobotCommand create(SyntheticOntologySpec spec);
+
+    /**
+     * Creates the command wrapper, adding the output file option if ROBOT requires one for this
+     * command.
+     */
+    RobotCommand create(SyntheticOntologySpec spec, String outputPath) {
+        var command = create(spec);
+        return outputOption == null ? command : new OutputFileCommand(command, outputOption, outputPath);
+    }
+
+    /**
+     * The file extension of the output that the pipeline stage writes.
+     */
+    String outputExtension() {
+        return outputExtension;
+    }
+
+    private static String term(int index) {
+        return classIri(index).toString();
+    }
+
+    /**
+     * Terms spread evenly over the class range, so that extraction starts from all depths.
+     */
+    private static List<String> seedTerms(SyntheticOntologySpec spec) {
+        var step = Math.max(1, spec.classCount() / SEED_TERM_COUNT);
+        return IntStream.range(0, Math.min(SEED_TERM_COUNT, spec.classCount()))
+                .mapToObj(i -> term(i * step))
+                .toList();
+    }
+}
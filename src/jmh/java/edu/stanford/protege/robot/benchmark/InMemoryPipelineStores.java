@@ -0,0 +1,169 @@
+package edu.stanford.protege.robot.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.stanford.protege.robot.pipeline.PipelineExecutionId;
+import edu.stanford.protege.robot.pipeline.PipelineStatus;
+import edu.stanford.protege.robot.pipeline.PipelineStatusRepository;
+import edu.stanford.protege.robot.pipeline.PipelineSuccessResult;
+import edu.stanford.protege.robot.pipeline.PipelineSuccessResultRepository;
+import edu.stanford.protege.robot.service.metrics.RobotPipelineMetrics;
+import edu.stanford.protege.robot.service.storer.MinioDocumentStorer;
+import edu.stanford.protege.robot.service.storer.MinioProperties;
+import edu.stanford.protege.webprotege.common.BlobLocation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.BucketExistsArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import io.minio.UploadObjectArgs;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import org.mockito.Mockito;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+/**
+ * In-memory stand-ins for the MongoDB repositories and the MinIO storer, so that benchmarks
+ * exercise the pipeline without external services.
+ *
+ * <p>
+ * The MongoTemplate handed to the repositories is an inert mock, and the MinIO client is never used,
+ * so no connection is ever attempted.
+ */
+final class InMemoryPipelineStores {
+
+    private static final String UNUSED_ENDPOINT = "http://localhost:1";
+
+    private InMemoryPipelineStores() {
+    }
+
+    private static MongoTemplate unusedMongoTemplate() {
+        return Mockito.mock(MongoTemplate.class);
+    }
+
+    /**
+     * Creates a MinIO client whose buckets always exist and whose uploads block for the given time
+     * without transferring anything, so that the real {@link MinioDocumentStorer} can run against it.
+     * A streamed upload reads its whole document first, so that the document is written as it is in
+     * the service.
+     */
+    static MinioClient stubMinioClient(@Nonnull Duration uploadLatency) {
+        Objects.requireNonNull(uploadLatency, "uploadLatency cannot be null");
+        // Stub only, so that the invocations of a long run are not recorded
+        var client = Mockito.mock(MinioClient.class, Mockito.withSettings().stubOnly());
+        try {
+            Mockito.when(client.bucketExists(Mockito.any(BucketExistsArgs.class))).thenReturn(true);
+            Mockito.when(client.uploadObject(Mockito.any(UploadObjectArgs.class))).thenAnswer(invocation -> {
+                simulateLatency(uploadLatency);
+                return null;
+            });
+            Mockito.when(client.putObject(Mockito.any(PutObjectArgs.class))).thenAnswer(invocation -> {
+                PutObjectArgs args = invocation.getArgument(0);
+                args.stream().transferTo(OutputStream.nullOutputStream());
+                simulateLatency(uploadLatency);
+                return null;
+            });
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not stub MinIO client", e);
+        }
+        return client;
+    }
+
+    /**
+     * Creates MinIO properties pointing at an endpoint that is never contacted.
+     */
+    static MinioProperties unusedMinioProperties() {
+        var properties = new MinioProperties();
+        properties.setEndPoint(UNUSED_ENDPOINT);
+        properties.setRobotOutputDocumentsBucketName("robot-benchmark");
+        return properties;
+    }
+
+    static void simulateLatency(Duration latency) {
+        if (latency.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static final class StatusRepository extends PipelineStatusRepository {
+
+        private final Map<PipelineExecutionId, PipelineStatus> statuses = new ConcurrentHashMap<>();
+
+        private final Duration writeLatency;
+
+        StatusRepository() {
+            this(Duration.ZERO);
+        }
+
+        /**
+         * Creates a repository that blocks each write for the given time, to model a remote database.
+         */
+        StatusRepository(@Nonnull Duration writeLatency) {
+            super(unusedMongoTemplate(), new ObjectMapper());
+            this.writeLatency = Objects.requireNonNull(writeLatency, "writeLatency cannot be null");
+        }
+
+        @Override
+        public void saveStatus(@Nonnull PipelineStatus status) {
+            simulateLatency(writeLatency);
+            statuses.put(status.executionId(), status);
+        }
+
+        @Override
+        public Optional<PipelineStatus> findStatus(@Nonnull PipelineExecutionId executionId) {
+            return Optional.ofNullable(statuses.get(executionId));
+        }
+
+        @Override
+        public boolean deleteStatus(@Nonnull PipelineExecutionId executionId) {
+            return statuses.remove(executionId) != null;
+        }
+    }
+
+    static final class SuccessResultRepository extends PipelineSuccessResultRepository {
+
+        private final Map<PipelineExecutionId, PipelineSuccessResult> results = new ConcurrentHashMap<>();
+
+        SuccessResultRepository() {
+            super(unusedMongoTemplate(), new ObjectMapper());
+        }
+
+        @Override
+        public void saveResult(@Nonnull PipelineSuccessResult result) {
+            results.put(result.pipelineExecutionId(), result);
+        }
+
+        @Override
+        public Optional<PipelineSuccessResult> findResult(@Nonnull PipelineExecutionId executionId) {
+            return Optional.ofNullable(results.get(executionId));
+        }
+    }
+
+    /**
+     * Accepts documents without uploading them. A streamed document is still written in full, since
+     * writing it is the work of the stage that produced it.
+     */
+    static final class DocumentStorer extends MinioDocumentStorer {
+
+        private final AtomicLong counter = new AtomicLong();
+
+        DocumentStorer() {
+            super(stubMinioClient(Duration.ZERO), unusedMinioProperties(),
+                    new RobotPipelineMetrics(new SimpleMeterRegistry()));
+        }
+
+        @Override
+        public BlobLocation storeDocument(String documentPath) {
+            return new BlobLocation("robot-benchmark", "document-" + counter.incrementAndGet());
+        }
+    }
+}
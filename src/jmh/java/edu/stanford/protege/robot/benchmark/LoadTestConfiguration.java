@@ -0,0 +1,127 @@
+package edu.stanford.protege.robot.benchmark;
+
+import edu.stanford.protege.robot.ExecuteRobotCommandsHandler;
+import edu.stanford.protege.robot.command.OperationContextFactory;
+import edu.stanford.protege.robot.pipeline.AsyncPipelineEventDispatcher;
+import edu.stanford.protege.robot.pipeline.PipelineLogger;
+import edu.stanford.protege.robot.service.RobotPipelineExecutor;
+import edu.stanford.protege.robot.service.RobotPipelineOrchestrator;
+import edu.stanford.protege.robot.service.config.ExecutorConfiguration;
+import edu.stanford.protege.robot.service.config.PipelineEventDispatchProperties;
+import edu.stanford.protege.robot.service.config.RobotPipelineExecutorConfiguration;
+import edu.stanford.protege.robot.service.metrics.RobotPipelineMetrics;
+import edu.stanford.protege.robot.service.storer.MinioDocumentStorer;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.inject.Provider;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import org.obolibrary.robot.CommandState;
+import org.obolibrary.robot.IOHelper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Wires the production request handler, orchestrator, executor and thread pool against in-process
+ * stand-ins for MongoDB, MinIO, the revision history and the message broker.
+ *
+ * <p>
+ * {@link RobotPipelineExecutorConfiguration} is imported as is, so the pipeline thread pool is
+ * built from {@code webprotege.robot.executor.*} properties exactly as in the service, and those
+ * properties can be overridden on the command line to compare settings.
+ */
+@Configuration
+@Import({RobotPipelineExecutorConfiguration.class, ExecutorConfiguration.class})
+class LoadTestConfiguration {
+
+    /**
+     * Percentiles are kept for the whole run rather than the default two-minute rolling window.
+     */
+    @Bean
+    MeterRegistry meterRegistry() {
+        var registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder()
+                        .percentiles(0.5, 0.99)
+                        .expiry(Duration.ofDays(1))
+                        .bufferLength(1)
+                        .build()
+                        .merge(config);
+            }
+        });
+        return registry;
+    }
+
+    @Bean
+    RobotPipelineMetrics robotPipelineMetrics(MeterRegistry meterRegistry) {
+        return new RobotPipelineMetrics(meterRegistry);
+    }
+
+    @Bean
+    RecordingEventDispatcher eventDispatcher() {
+        return new RecordingEventDispatcher();
+    }
+
+    @Bean
+    PipelineLogger pipelineLogger(RecordingEventDispatcher eventDispatcher,
+            PipelineEventDispatchProperties properties) {
+        if (!properties.isAsync()) {
+            return new PipelineLogger(eventDispatcher);
+        }
+        var asyncEventDispatcher = new AsyncPipelineEventDispatcher(eventDispatcher, properties.getBufferCapacity(),
+                properties.getBatchSize(), Duration.ofSeconds(properties.getShutdownTimeoutSeconds()),
+                properties.getThreadName());
+        return new PipelineLogger(eventDispatcher, asyncEventDispatcher);
+    }
+
+    @Bean
+    InMemoryPipelineStores.StatusRepository pipelineStatusRepository(LoadTestScenario scenario) {
+        return new InMemoryPipelineStores.StatusRepository(scenario.statusWriteLatency());
+    }
+
+    @Bean
+    InMemoryPipelineStores.SuccessResultRepository pipelineSuccessResultRepository() {
+        return new InMemoryPipelineStores.SuccessResultRepository();
+    }
+
+    @Bean
+    MinioDocumentStorer minioDocumentStorer(LoadTestScenario scenario, RobotPipelineMetrics metrics) {
+        return new MinioDocumentStorer(InMemoryPipelineStores.stubMinioClient(scenario.uploadLatency()),
+                InMemoryPipelineStores.unusedMinioProperties(), metrics);
+    }
+
+    @Bean
+    SyntheticSnapshotProvider snapshotProvider(LoadTestScenario scenario, RobotPipelineMetrics metrics) {
+        return new SyntheticSnapshotProvider(scenario.ontologySpec(), metrics);
+    }
+
+    @Bean
+    RobotPipelineExecutor robotPipelineExecutor(Provider<CommandState> commandStateProvider, IOHelper ioHelper,
+            MinioDocumentStorer minioDocumentStorer, InMemoryPipelineStores.StatusRepository statusRepository,
+            InMemoryPipelineStores.SuccessResultRepository successResultRepository, PipelineLogger pipelineLogger,
+            RobotPipelineMetrics metrics, OperationContextFactory operationContextFactory) {
+        return new RobotPipelineExecutor(commandStateProvider, ioHelper, minioDocumentStorer, statusRepository,
+                successResultRepository, pipelineLogger, metrics, operationContextFactory);
+    }
+
+    @Bean
+    RobotPipelineOrchestrator robotPipelineOrchestrator(RobotPipelineExecutor executor,
+            SyntheticSnapshotProvider snapshotProvider, InMemoryPipelineStores.StatusRepository statusRepository,
+            PipelineLogger pipelineLogger, @Qualifier("robotPipelineTaskExecutor") Executor pipelineExecutor,
+            RobotPipelineMetrics metrics) {
+        return new RobotPipelineOrchestrator(executor, snapshotProvider, statusRepository, pipelineLogger,
+                pipelineExecutor, metrics);
+    }
+
+    @Bean
+    ExecuteRobotCommandsHandler executeRobotCommandsHandler(RobotPipelineOrchestrator orchestrator) {
+        return new ExecuteRobotCommandsHandler(orchestrator);
+    }
+}
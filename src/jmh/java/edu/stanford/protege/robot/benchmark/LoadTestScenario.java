@@ -0,0 +1,138 @@
+package edu.stanford.protege.robot.benchmark;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import javax.annotation.Nonnull;
+
+/**
+ * Describes a load test run: how many projects and requests, how they are submitted, which
+ * commands the requests run and how slow the simulated external services are.
+ *
+ * @param projectCount
+ *            number of distinct projects; requests are spread over them round-robin
+ * @param requestCount
+ *            total number of {@code ExecuteRobotCommandsRequest}s to submit
+ * @param clientCount
+ *            number of threads submitting requests concurrently
+ * @param stagesPerPipeline
+ *            number of stages in each submitted pipeline
+ * @param mix
+ *            relative weight of each command when drawing pipeline stages
+ * @param ontologySpec
+ *            shape of the synthetic ontology of each project
+ * @param statusWriteLatency
+ *            simulated latency of each MongoDB status write
+ * @param uploadLatency
+ *            simulated latency of each MinIO upload
+ * @param timeout
+ *            how long to wait for all accepted executions to finish
+ */
+public record LoadTestScenario(
+        int projectCount,
+        int requestCount,
+        int clientCount,
+        int stagesPerPipeline,
+        @Nonnull Map<BenchmarkCommand, Integer> mix,
+        @Nonnull SyntheticOntologySpec ontologySpec,
+        @Nonnull Duration statusWriteLatency,
+        @Nonnull Duration uploadLatency,
+        @Nonnull Duration timeout) {
+
+    public LoadTestScenario {
+        Objects.requireNonNull(mix, "mix cannot be null");
+        Objects.requireNonNull(ontologySpec, "ontologySpec cannot be null");
+        Objects.requireNonNull(statusWriteLatency, "statusWriteLatency cannot be null");
+        Objects.requireNonNull(uploadLatency, "uploadLatency cannot be null");
+        Objects.requireNonNull(timeout, "timeout cannot be null");
+        if (projectCount < 1 || requestCount < 1 || clientCount < 1 || stagesPerPipeline < 1) {
+            throw new IllegalArgumentException("projectCount, requestCount, clientCount and stagesPerPipeline must "
+                    + "be positive");
+        }
+        if (mix.isEmpty() || mix.values().stream().anyMatch(weight -> weight < 1)) {
+            throw new IllegalArgumentException("mix must contain at least one command with a positive weight");
+        }
+        mix = Map.copyOf(mix);
+    }
+
+    /**
+     * Parses a scenario from {@code key=value} arguments. Unknown keys are rejected; missing keys
+     * take the defaults shown below.
+     *
+     * <pre>
+     * projects=10 requests=100 clients=4 stages=2 mix=REDUCE:2,EXTRACT_SLME:1,EXPORT:1
+     * classCount=500 depth=6 axiomsPerClass=3 annotationDensity=0.5
+     * statusWriteLatencyMs=2 uploadLatencyMs=20 timeoutSeconds=900
+     * </pre>
+     */
+    public static LoadTestScenario parse(@Nonnull List<String> args) {
+        var values = new HashMap<String, String>();
+        for (var arg : args) {
+            var separator = arg.indexOf('=');
+            if (separator < 1) {
+                throw new IllegalArgumentException("Expected key=value but found " + arg);
+            }
+            values.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        var scenario = new LoadTestScenario(
+                intValue(values, "projects", 10),
+                intValue(values, "requests", 100),
+                intValue(values, "clients", 4),
+                intValue(values, "stages", 2),
+                parseMix(values.getOrDefault("mix", "REDUCE:2,EXTRACT_SLME:1,EXPORT:1")),
+                new SyntheticOntologySpec(
+                        intValue(values, "classCount", 500),
+                        intValue(values, "depth", 6),
+                        intValue(values, "axiomsPerClass", 3),
+                        Double.parseDouble(values.getOrDefault("annotationDensity", "0.5")),
+                        SyntheticOntologySpec.DEFAULT_SEED),
+                Duration.ofMillis(intValue(values, "statusWriteLatencyMs", 2)),
+                Duration.ofMillis(intValue(values, "uploadLatencyMs", 20)),
+                Duration.ofSeconds(intValue(values, "timeoutSeconds", 900)));
+        values.keySet().removeAll(List.of("projects", "requests", "clients", "stages", "mix", "classCount", "depth",
+                "axiomsPerClass", "annotationDensity", "statusWriteLatencyMs", "uploadLatencyMs", "timeoutSeconds"));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown load test options: " + values.keySet());
+        }
+        return scenario;
+    }
+
+    /**
+     * Draws the commands of one pipeline according to the mix weights.
+     */
+    public List<BenchmarkCommand> drawStages(@Nonnull Random random) {
+        var totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        var stages = new ArrayList<BenchmarkCommand>(stagesPerPipeline);
+        for (int i = 0; i < stagesPerPipeline; i++) {
+            var ticket = random.nextInt(totalWeight);
+            for (var entry : new EnumMap<>(mix).entrySet()) {
+                ticket -= entry.getValue();
+                if (ticket < 0) {
+                    stages.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        return stages;
+    }
+
+    private static Map<BenchmarkCommand, Integer> parseMix(String mix) {
+        var weights = new EnumMap<BenchmarkCommand, Integer>(BenchmarkCommand.class);
+        for (var entry : mix.split(",")) {
+            var parts = entry.trim().split(":");
+            var weight = parts.length > 1 ? Integer.parseInt(parts[1]) : 1;
+            weights.merge(BenchmarkCommand.valueOf(parts[0]), weight, Integer::sum);
+        }
+        return weights;
+    }
+
+    private static int intValue(Map<String, String> values, String key, int defaultValue) {
+        var value = values.get(key);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
@@ -0,0 +1,41 @@
+package edu.stanford.protege.robot.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import edu.stanford.protege.robot.command.RobotCommand;
+import edu.stanford.protege.robot.command.RobotOperation;
+import java.util.List;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import org.obolibrary.robot.Command;
+
+/**
+ * Adds the output file option that ROBOT requires for {@code convert} and {@code export}, which the
+ * service wrappers do not pass because the executor saves stage outputs itself. A command with an
+ * operation is executed through it, as the executor does, and needs no output option.
+ */
+record OutputFileCommand(
+        @Nonnull RobotCommand delegate,
+        @Nonnull String outputOption,
+        @Nonnull String outputPath) implements RobotCommand {
+
+    @Override
+    public List<String> getArgs() {
+        if (delegate.getOperation().isPresent()) {
+            return delegate.getArgs();
+        }
+        return ImmutableList.<String>builder()
+                .addAll(delegate.getArgs())
+                .add(outputOption, outputPath)
+                .build();
+    }
+
+    @Override
+    public Command getCommand() {
+        return delegate.getCommand();
+    }
+
+    @Override
+    public Optional<RobotOperation> getOperation() {
+        return delegate.getOperation();
+    }
+}
@@ -0,0 +1,239 @@
+package edu.stanford.protege.robot.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Compares a JMH JSON result file against a committed baseline and fails when a benchmark has
+ * regressed by more than its tolerance.
+ *
+ * <p>
+ * A baseline entry matches a result when the benchmark names match, ignoring the package, and every
+ * parameter of the entry has the same value in the result. For throughput benchmarks a regression is
+ * a score below the baseline; for all other modes it is a score above it. A baseline entry without a
+ * matching result is also a failure, so that a benchmark cannot silently drop out of the gate.
+ *
+ * <p>
+ * Absolute scores differ between machines by more than any useful tolerance. When the baseline names
+ * a {@code reference} benchmark, such as {@link ReferenceBenchmark}, the gate first compares the
+ * reference result of this run with its baseline score to find how much slower or faster this
+ * machine is, and scales every other baseline score by that factor before comparing. A run without
+ * the reference benchmark fails.
+ *
+ * <p>
+ * Usage: {@code PerformanceGate <jmh-result.json> <baseline.json> [update]}. With {@code update}
+ * the baseline is rewritten from the results, keeping the reference and the tolerances of existing
+ * entries; use this after an intended performance change.
+ */
+public final class PerformanceGate {
+
+    private static final String THROUGHPUT = "thrpt";
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private PerformanceGate() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: PerformanceGate <jmh-result.json> <baseline.json> [update]");
+            System.exit(2);
+        }
+        var results = readResults(Path.of(args[0]));
+        var baselineFile = Path.of(args[1]);
+        var baseline = objectMapper.readValue(baselineFile.toFile(), Baseline.class);
+        if (args.length > 2 && args[2].equals("update")) {
+            var updated = baseline.updatedWith(results);
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(baselineFile.toFile(), updated);
+            System.out.printf(Locale.ROOT, "Updated %s with %d benchmarks%n", baselineFile,
+                    updated.benchmarks().size());
+            return;
+        }
+        var failures = check(baseline, results);
+        if (!failures.isEmpty()) {
+            System.out.printf(Locale.ROOT, "%nPerformance gate failed: %d of %d benchmarks regressed or were missing%n",
+                    failures.size(), baseline.benchmarks().size());
+            System.exit(1);
+        }
+        System.out.printf(Locale.ROOT, "%nPerformance gate passed for %d benchmarks%n", baseline.benchmarks().size());
+    }
+
+    /**
+     * Compares every baseline entry with its result, prints one line per entry and returns the lines
+     * of the entries that failed.
+     */
+    static List<String> check(@Nonnull Baseline baseline, @Nonnull List<Result> results) {
+        var failures = new ArrayList<String>();
+        var slowdown = 1.0;
+        var reference = baseline.referenceEntry();
+        if (reference.isPresent()) {
+            var result = results.stream().filter(reference.get()::matches).findFirst();
+            if (result.isEmpty()) {
+                var line = String.format(Locale.ROOT, "MISSING    reference %s", reference.get().describe());
+                System.out.println(line);
+                failures.add(line);
+                return failures;
+            }
+            slowdown = reference.get().slowdown(result.get().score());
+            System.out.printf(Locale.ROOT, "REFERENCE  %s: %.3f -> %.3f %s (machine speed factor %.2f)%n",
+                    reference.get().describe(), reference.get().score(), result.get().score(),
+                    reference.get().unit(), slowdown);
+        }
+        for (var entry : baseline.benchmarks()) {
+            if (reference.isPresent() && entry == reference.get()) {
+                continue;
+            }
+            var tolerance = entry.tolerance() == null ? baseline.defaultTolerance() : entry.tolerance();
+            var result = results.stream().filter(entry::matches).findFirst();
+            String line;
+            if (result.isEmpty()) {
+                line = String.format(Locale.ROOT, "MISSING    %s", entry.describe());
+                failures.add(line);
+            } else {
+                var expected = entry.scaledScore(slowdown);
+                var score = result.get().score();
+                var change = (score - expected) / expected;
+                var worse = THROUGHPUT.equals(entry.mode()) ? -change : change;
+                var verdict = worse > tolerance ? "REGRESSED" : worse < -tolerance ? "IMPROVED" : "OK";
+                line = String.format(Locale.ROOT, "%-10s %s: %.3f -> %.3f %s (%+.1f%%, tolerance %.0f%%)", verdict,
+                        entry.describe(), expected, score, entry.unit(), change * 100, tolerance * 100);
+                if (worse > tolerance) {
+                    failures.add(line);
+                }
+            }
+            System.out.println(line);
+        }
+        return failures;
+    }
+
+    static List<Result> readResults(@Nonnull Path file) throws IOException {
+        var results = new ArrayList<Result>();
+        for (var node : objectMapper.readTree(file.toFile())) {
+            var params = new LinkedHashMap<String, String>();
+            Optional.ofNullable(node.get("params"))
+                    .ifPresent(p -> p.properties().forEach(e -> params.put(e.getKey(), e.getValue().asText())));
+            JsonNode primaryMetric = node.get("primaryMetric");
+            results.add(new Result(node.get("benchmark").asText(), params, node.get("mode").asText(),
+                    primaryMetric.get("scoreUnit").asText(), primaryMetric.get("score").asDouble()));
+        }
+        return results;
+    }
+
+    private static String simpleName(String benchmark) {
+        var methodSeparator = benchmark.lastIndexOf('.');
+        var classSeparator = benchmark.lastIndexOf('.', methodSeparator - 1);
+        return benchmark.substring(classSeparator + 1);
+    }
+
+    /**
+     * A single benchmark score from a JMH result file.
+     */
+    record Result(String benchmark, Map<String, String> params, String mode, String unit, double score) {
+    }
+
+    /**
+     * The committed baseline.
+     *
+     * @param defaultTolerance
+     *            the allowed relative regression of entries that do not set their own
+     * @param reference
+     *            the benchmark whose score measures the speed of the machine, or {@code null} to
+     *            compare absolute scores
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record Baseline(double defaultTolerance, @Nullable String reference, @Nonnull List<BaselineEntry> benchmarks) {
+
+        Baseline {
+            Objects.requireNonNull(benchmarks, "benchmarks cannot be null");
+        }
+
+        Optional<BaselineEntry> referenceEntry() {
+            if (reference == null) {
+                return Optional.empty();
+            }
+            var entry = benchmarks.stream().filter(e -> e.benchmark().equals(reference)).findFirst();
+            if (entry.isEmpty()) {
+                throw new IllegalStateException("The baseline has no entry for the reference " + reference);
+            }
+            return entry;
+        }
+
+        Baseline updatedWith(List<Result> results) {
+            var entries = results.stream()
+                    .map(result -> {
+                        var tolerance = benchmarks.stream()
+                                .filter(entry -> entry.matches(result))
+                                .findFirst()
+                                .map(BaselineEntry::tolerance)
+                                .orElse(null);
+                        return new BaselineEntry(simpleName(result.benchmark()), result.params(), result.mode(),
+                                result.unit(), result.score(), tolerance);
+                    })
+                    .toList();
+            return new Baseline(defaultTolerance, reference, entries);
+        }
+    }
+
+    /**
+     * The baseline score of one benchmark.
+     *
+     * @param benchmark
+     *            the benchmark class and method, for example {@code SnapshotBenchmark.createSnapshot}
+     * @param tolerance
+     *            the allowed relative regression, or {@code null} for the baseline default
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    record BaselineEntry(
+            @Nonnull String benchmark,
+            @Nonnull Map<String, String> params,
+            @Nonnull String mode,
+            @Nonnull String unit,
+            double score,
+            @Nullable Double tolerance) {
+
+        BaselineEntry {
+            Objects.requireNonNull(benchmark, "benchmark cannot be null");
+            params = params == null ? Map.of() : new LinkedHashMap<>(params);
+            Objects.requireNonNull(mode, "mode cannot be null");
+            Objects.requireNonNull(unit, "unit cannot be null");
+        }
+
+        boolean matches(Result result) {
+            return simpleName(result.benchmark()).equals(benchmark)
+                    && mode.equals(result.mode())
+                    && params.entrySet().stream()
+                            .allMatch(param -> param.getValue().equals(result.params().get(param.getKey())));
+        }
+
+        /**
+         * Returns how many times slower than the baseline a run with the given score is.
+         */
+        double slowdown(double resultScore) {
+            return THROUGHPUT.equals(mode) ? score / resultScore : resultScore / score;
+        }
+
+        /**
+         * Returns the score expected from a machine that is the given number of times slower than the
+         * one that recorded the baseline.
+         */
+        double scaledScore(double slowdown) {
+            return THROUGHPUT.equals(mode) ? score / slowdown : score * slowdown;
+        }
+
+        String describe() {
+            return params.isEmpty() ? benchmark : benchmark + " " + params;
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package edu.stanford.protege.robot.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.stanford.protege.robot.ExecuteRobotCommandsHandler;
+import edu.stanford.protege.robot.pipeline.PipelineId;
+import edu.stanford.protege.robot.pipeline.PipelineStageId;
+import edu.stanford.protege.robot.pipeline.RelativePath;
+import edu.stanford.protege.robot.pipeline.RobotPipeline;
+import edu.stanford.protege.robot.pipeline.RobotPipelineStage;
+import edu.stanford.protege.robot.service.message.ExecuteRobotCommandsRequest;
+import edu.stanford.protege.robot.service.metrics.RobotPipelineMetrics;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import edu.stanford.protege.webprotege.ipc.ExecutionContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Replays a mix of {@link ExecuteRobotCommandsRequest}s across many projects against the service
+ * wired by {@link LoadTestConfiguration}, and reports throughput, per-phase latency percentiles,
+ * the heap high-water mark and the deepest pipeline queue.
+ *
+ * <p>
+ * Arguments of the form {@code key=value} describe the {@link LoadTestScenario}. Arguments starting
+ * with {@code --} are Spring properties, for example
+ * {@code --webprotege.robot.executor.core-pool-size=8}. The report is printed and also written as
+ * JSON to {@code target/load-test-result.json}.
+ */
+public final class PipelineLoadTest {
+
+    private static final Path OUTPUT_DIRECTORY = Path.of("target", "load-test-output");
+
+    private static final Path RESULT_FILE = Path.of("target", "load-test-result.json");
+
+    private static final Duration SAMPLE_INTERVAL = Duration.ofMillis(50);
+
+    private final ConfigurableApplicationContext context;
+
+    private final LoadTestScenario scenario;
+
+    private PipelineLoadTest(ConfigurableApplicationContext context, LoadTestScenario scenario) {
+        this.context = context;
+        this.scenario = scenario;
+    }
+
+    public static void main(String[] args) throws Exception {
+        var springArgs = Arrays.stream(args).filter(arg -> arg.startsWith("--")).toArray(String[]::new);
+        var scenario = LoadTestScenario.parse(Arrays.stream(args).filter(arg -> !arg.startsWith("--")).toList());
+        var application = new SpringApplicationBuilder(LoadTestConfiguration.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                // Neither application.yml applies; defaults come from the properties classes, with
+                // asynchronous event dispatch enabled as deployed
+                .properties("spring.config.name=load-test",
+                        "webprotege.robot.events.async=true",
+                        "logging.level.edu.stanford.protege.robot=WARN",
+                        "logging.level.org.obolibrary.robot=ERROR")
+                .initializers(context -> context.getBeanFactory().registerSingleton("loadTestScenario", scenario));
+        LoadTestReport report;
+        try (var context = application.run(springArgs)) {
+            report = new PipelineLoadTest(context, scenario).run();
+        }
+        report.print(System.out);
+        report.write(RESULT_FILE);
+    }
+
+    private LoadTestReport run() throws InterruptedException, IOException {
+        var handler = context.getBean(ExecuteRobotCommandsHandler.class);
+        var events = context.getBean(RecordingEventDispatcher.class);
+        var snapshotProvider = context.getBean(SyntheticSnapshotProvider.class);
+        var taskExecutor = context.getBean("robotPipelineTaskExecutor", ThreadPoolTaskExecutor.class);
+
+        var projects = IntStream.range(0, scenario.projectCount())
+                .mapToObj(i -> ProjectId.generate())
+                .toList();
+        for (int i = 0; i < projects.size(); i++) {
+            snapshotProvider.prepare(projects.get(i), i);
+        }
+        var requests = createRequests(projects);
+        System.gc();
+
+        var sampler = new ResourceSampler(taskExecutor);
+        var accepted = new AtomicInteger();
+        var rejected = new AtomicInteger();
+        var nextRequest = new AtomicInteger();
+        var startNanos = System.nanoTime();
+        sampler.start();
+        ExecutorService clients = Executors.newFixedThreadPool(scenario.clientCount());
+        for (int i = 0; i < scenario.clientCount(); i++) {
+            clients.execute(() -> {
+                int index;
+                while ((index = nextRequest.getAndIncrement()) < requests.size()) {
+                    var submittedNanos = System.nanoTime();
+                    try {
+                        var response = handler.handleRequest(requests.get(index), new ExecutionContext()).block();
+                        events.submitted(response.pipelineExecutionId(), submittedNanos);
+                        accepted.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            });
+        }
+        clients.shutdown();
+        clients.awaitTermination(scenario.timeout().toMillis(), TimeUnit.MILLISECONDS);
+        var allFinished = events.awaitFinished(accepted.get(), scenario.timeout());
+        var elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+        sampler.stop();
+
+        return LoadTestReport.create(scenario, elapsed, accepted.get(), rejected.get(), allFinished, events,
+                context.getBean(MeterRegistry.class), sampler);
+    }
+
+    /**
+     * Creates the requests up front, spreading them over the projects round-robin. Each request gets
+     * its own output directory so that concurrent executions never write the same file.
+     */
+    private List<ExecuteRobotCommandsRequest> createRequests(List<ProjectId> projects) throws IOException {
+        var random = new Random(scenario.ontologySpec().seed());
+        var requests = new ArrayList<ExecuteRobotCommandsRequest>(scenario.requestCount());
+        for (int i = 0; i < scenario.requestCount(); i++) {
+            var projectId = projects.get(i % projects.size());
+            var outputDirectory = OUTPUT_DIRECTORY.resolve("request-" + i);
+            Files.createDirectories(outputDirectory);
+            var stages = new ArrayList<RobotPipelineStage>();
+            var commands = scenario.drawStages(random);
+            for (int s = 0; s < commands.size(); s++) {
+                var command = commands.get(s);
+                var outputName = outputDirectory.resolve("stage-" + s + "-" + command.name().toLowerCase(Locale.ROOT))
+                        .toString();
+                stages.add(new RobotPipelineStage(PipelineStageId.generate(), command.name(), null,
+                        command.create(scenario.ontologySpec(), outputName + "." + command.outputExtension()),
+                        RelativePath.create(outputName + ".owl")));
+            }
+            var pipeline = new RobotPipeline(projectId, PipelineId.generate(), "load-test-" + i, null, stages);
+            requests.add(new ExecuteRobotCommandsRequest(projectId, pipeline));
+        }
+        return requests;
+    }
+
+    /**
+     * Samples used heap and the pipeline queue depth on a daemon thread.
+     */
+    static final class ResourceSampler {
+
+        private final ThreadPoolTaskExecutor taskExecutor;
+
+        private final AtomicLong heapHighWaterBytes = new AtomicLong();
+
+        private final AtomicInteger maxQueueDepth = new AtomicInteger();
+
+        private final AtomicInteger maxActiveThreads = new AtomicInteger();
+
+        private final Thread thread;
+
+        private volatile boolean running = true;
+
+        ResourceSampler(ThreadPoolTaskExecutor taskExecutor) {
+            this.taskExecutor = taskExecutor;
+            this.thread = new Thread(this::sample, "load-test-sampler");
+            this.thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        void stop() throws InterruptedException {
+            running = false;
+            thread.join();
+        }
+
+        long heapHighWaterBytes() {
+            return heapHighWaterBytes.get();
+        }
+
+        int maxQueueDepth() {
+            return maxQueueDepth.get();
+        }
+
+        int maxActiveThreads() {
+            return maxActiveThreads.get();
+        }
+
+        private void sample() {
+            var memory = ManagementFactory.getMemoryMXBean();
+            while (running) {
+                heapHighWaterBytes.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+                maxQueueDepth.accumulateAndGet(taskExecutor.getQueueSize(), Math::max);
+                maxActiveThreads.accumulateAndGet(taskExecutor.getActiveCount(), Math::max);
+                try {
+                    Thread.sleep(SAMPLE_INTERVAL);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Outcome of a load test run.
+     *
+     * @param phases
+     *            latency percentiles per phase, in milliseconds, keyed by phase name
+     */
+    record LoadTestReport(
+            LoadTestScenario scenario,
+            long elapsedMillis,
+            int accepted,
+            int rejected,
+            int succeeded,
+            int failed,
+            boolean allFinished,
+            double throughputPerSecond,
+            long heapHighWaterBytes,
+            int maxQueueDepth,
+            int maxActiveThreads,
+            long eventCount,
+            Map<String, PhaseLatency> phases) {
+
+        static LoadTestReport create(LoadTestScenario scenario, Duration elapsed, int accepted, int rejected,
+                boolean allFinished, RecordingEventDispatcher events, MeterRegistry registry,
+                ResourceSampler sampler) {
+            var traces = events.traces().values();
+            var succeeded = (int) traces.stream().filter(trace -> trace.finished != 0 && trace.succeeded).count();
+            var failed = (int) traces.stream().filter(trace -> trace.finished != 0 && !trace.succeeded).count();
+            var complete = traces.stream().filter(RecordingEventDispatcher.ExecutionTrace::isComplete).toList();
+
+            var phases = new LinkedHashMap<String, PhaseLatency>();
+            phases.put("queue-wait", PhaseLatency.of(complete.stream()
+                    .map(RecordingEventDispatcher.ExecutionTrace::queueWait).toList()));
+            phases.put("snapshot", PhaseLatency.of(successful(registry, RobotPipelineMetrics.SNAPSHOT_TIMER)));
+            registry.find(RobotPipelineMetrics.STAGE_TIMER).timers().stream()
+                    .map(timer -> timer.getId().getTag("command"))
+                    .distinct()
+                    .sorted()
+                    .forEach(command -> phases.put("stage:" + command, PhaseLatency.of(
+                            successful(registry, RobotPipelineMetrics.STAGE_TIMER).tag("command", command))));
+            phases.put("status-write", PhaseLatency.of(successful(registry, RobotPipelineMetrics.STATUS_WRITE_TIMER)));
+            phases.put("upload", PhaseLatency.of(successful(registry, RobotPipelineMetrics.UPLOAD_TIMER)));
+            phases.put("execution", PhaseLatency.of(successful(registry, RobotPipelineMetrics.EXECUTION_TIMER)));
+            phases.put("end-to-end", PhaseLatency.of(complete.stream()
+                    .map(RecordingEventDispatcher.ExecutionTrace::endToEnd).toList()));
+
+            var seconds = elapsed.toNanos() / 1e9;
+            return new LoadTestReport(scenario, elapsed.toMillis(), accepted, rejected, succeeded, failed,
+                    allFinished, (succeeded + failed) / seconds, sampler.heapHighWaterBytes(),
+                    sampler.maxQueueDepth(), sampler.maxActiveThreads(), events.eventCount(), phases);
+        }
+
+        private static Search successful(MeterRegistry registry, String timerName) {
+            return registry.find(timerName).tag("outcome", RobotPipelineMetrics.SUCCESS);
+        }
+
+        void print(PrintStream out) {
+            out.printf(Locale.ROOT, "%nLoad test: %d requests over %d projects from %d clients, %d stages each%n",
+                    scenario.requestCount(), scenario.projectCount(), scenario.clientCount(),
+                    scenario.stagesPerPipeline());
+            out.printf(Locale.ROOT, "Elapsed %.1fs, throughput %.2f executions/s%n", elapsedMillis / 1000.0,
+                    throughputPerSecond);
+            out.printf(Locale.ROOT, "Accepted %d, rejected %d, succeeded %d, failed %d%s%n", accepted, rejected,
+                    succeeded, failed, allFinished ? "" : " (timed out waiting for executions)");
+            out.printf(Locale.ROOT, "Heap high-water %.1f MiB, max queue depth %d, max active threads %d, "
+                    + "events %d%n%n", heapHighWaterBytes / (1024.0 * 1024.0), maxQueueDepth, maxActiveThreads,
+                    eventCount);
+            out.printf(Locale.ROOT, "%-24s %8s %10s %10s %10s%n", "phase", "count", "p50 ms", "p99 ms", "max ms");
+            phases.forEach((phase, latency) -> out.printf(Locale.ROOT, "%-24s %8d %10.1f %10.1f %10.1f%n", phase,
+                    latency.count(), latency.p50Millis(), latency.p99Millis(), latency.maxMillis()));
+        }
+
+        void write(Path file) throws IOException {
+            Files.createDirectories(file.getParent());
+            new ObjectMapper()
+                    .findAndRegisterModules()
+                    .writerWithDefaultPrettyPrinter()
+                    .writeValue(file.toFile(), this);
+        }
+    }
+
+    /**
+     * Latency percentiles of one phase, in milliseconds.
+     */
+    record PhaseLatency(long count, double p50Millis, double p99Millis, double maxMillis) {
+
+        static PhaseLatency of(List<Duration> durations) {
+            if (durations.isEmpty()) {
+                return new PhaseLatency(0, 0, 0, 0);
+            }
+            var sorted = durations.stream().sorted(Comparator.naturalOrder()).toList();
+            return new PhaseLatency(sorted.size(), percentile(sorted, 0.5), percentile(sorted, 0.99),
+                    millis(sorted.getLast()));
+        }
+
+        /**
+         * Reads the percentiles recorded by a timer, or zeros if the timer was never used.
+         */
+        static PhaseLatency of(Search search) {
+            var timer = search.timer();
+            if (timer == null || timer.count() == 0) {
+                return new PhaseLatency(0, 0, 0, 0);
+            }
+            var p50 = 0.0;
+            var p99 = 0.0;
+            for (var value : timer.takeSnapshot().percentileValues()) {
+                if (value.percentile() == 0.5) {
+                    p50 = value.value(TimeUnit.MILLISECONDS);
+                } else if (value.percentile() == 0.99) {
+                    p99 = value.value(TimeUnit.MILLISECONDS);
+                }
+            }
+            return new PhaseLatency(timer.count(), p50, p99, timer.max(TimeUnit.MILLISECONDS));
+        }
+
+        private static double percentile(List<Duration> sorted, double percentile) {
+            var index = (int) Math.ceil(percentile * sorted.size()) - 1;
+            return millis(sorted.get(Math.max(0, index)));
+        }
+
+        private static double millis(Duration duration) {
+            return duration.toNanos() / 1e6;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package edu.stanford.protege.robot.benchmark;
+
+import edu.stanford.protege.robot.pipeline.PipelineExecutionId;
+import edu.stanford.protege.robot.pipeline.event.ExecutePipelineFailedEvent;
+import edu.stanford.protege.robot.pipeline.event.ExecutePipelineFinishedEvent;
+import edu.stanford.protege.robot.pipeline.event.SnapshotOntologyFailedEvent;
+import edu.stanford.protege.robot.pipeline.event.SnapshotOntologyStartedEvent;
+import edu.stanford.protege.webprotege.common.Event;
+import edu.stanford.protege.webprotege.ipc.EventDispatcher;
+import edu.stanford.protege.webprotege.ipc.ExecutionContext;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+
+/**
+ * Stands in for the message broker and timestamps the lifecycle events of each execution as they
+ * are delivered.
+ *
+ * <p>
+ * Timestamps are taken on delivery, so with asynchronous event dispatch they include the time an
+ * event spent buffered.
+ */
+final class RecordingEventDispatcher implements EventDispatcher {
+
+    private final Map<PipelineExecutionId, ExecutionTrace> traces = new ConcurrentHashMap<>();
+
+    private final Semaphore finishedExecutions = new Semaphore(0);
+
+    private final AtomicLong eventCount = new AtomicLong();
+
+    @Override
+    public void dispatchEvent(Event event) {
+        eventCount.incrementAndGet();
+        var now = System.nanoTime();
+        switch (event) {
+            case SnapshotOntologyStartedEvent e -> trace(e.executionId()).snapshotStarted = now;
+            case ExecutePipelineFinishedEvent e -> finish(e.executionId(), now, true);
+            case ExecutePipelineFailedEvent e -> finish(e.executionId(), now, false);
+            case SnapshotOntologyFailedEvent e -> trace(e.executionId()).snapshotFailed = true;
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void dispatchEvent(Event event, ExecutionContext executionContext) {
+        dispatchEvent(event);
+    }
+
+    /**
+     * Records when the request that started the given execution was submitted.
+     */
+    void submitted(@Nonnull PipelineExecutionId executionId, long submittedNanos) {
+        trace(executionId).submitted = submittedNanos;
+    }
+
+    /**
+     * Waits until the given number of executions have finished, successfully or not.
+     *
+     * @return {@code true} if they all finished within the timeout
+     */
+    boolean awaitFinished(int executions, @Nonnull Duration timeout) throws InterruptedException {
+        return finishedExecutions.tryAcquire(executions, timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    Map<PipelineExecutionId, ExecutionTrace> traces() {
+        return traces;
+    }
+
+    long eventCount() {
+        return eventCount.get();
+    }
+
+    private void finish(PipelineExecutionId executionId, long now, boolean succeeded) {
+        var trace = trace(executionId);
+        // Guard against a duplicate terminal event releasing the waiter early
+        if (trace.finished == 0) {
+            trace.finished = now;
+            trace.succeeded = succeeded;
+            finishedExecutions.release();
+        }
+    }
+
+    private ExecutionTrace trace(PipelineExecutionId executionId) {
+        return traces.computeIfAbsent(executionId, id -> new ExecutionTrace());
+    }
+
+    /**
+     * Delivery times, in {@link System#nanoTime()} units, of the events of one execution. A value of
+     * zero means the event has not been seen.
+     */
+    static final class ExecutionTrace {
+
+        volatile long submitted;
+
+        volatile long snapshotStarted;
+
+        volatile long finished;
+
+        volatile boolean succeeded;
+
+        volatile boolean snapshotFailed;
+
+        boolean isComplete() {
+            return submitted != 0 && snapshotStarted != 0 && finished != 0;
+        }
+
+        Duration queueWait() {
+            return Duration.ofNanos(snapshotStarted - submitted);
+        }
+
+        Duration endToEnd() {
+            return Duration.ofNanos(finished - submitted);
+        }
+    }
+}
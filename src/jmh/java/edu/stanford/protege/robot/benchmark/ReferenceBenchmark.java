@@ -0,0 +1,58 @@
+package edu.stanford.protege.robot.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Measures how fast the machine does OWL API work that does not depend on the code of this service:
+ * building the synthetic ontology in a fresh ontology manager.
+ *
+ * <p>
+ * {@link PerformanceGate} uses this score to scale the baseline to the speed of the machine that runs
+ * the gate, so that the other benchmarks are compared relative to it rather than in absolute time.
+ * Keep the workload unchanged; changing it invalidates every committed baseline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ReferenceBenchmark {
+
+    @Param({"1000"})
+    public int classCount;
+
+    @Param({"6"})
+    public int depth;
+
+    @Param({"3"})
+    public int axiomsPerClass;
+
+    @Param({"0.5"})
+    public double annotationDensity;
+
+    private SyntheticOntologySpec spec;
+
+    @Setup
+    public void setUp() {
+        spec = new SyntheticOntologySpec(classCount, depth, axiomsPerClass, annotationDensity,
+                SyntheticOntologySpec.DEFAULT_SEED);
+    }
+
+    @Benchmark
+    public OWLOntology buildOntology() {
+        return SyntheticOntologyGenerator.generate(spec);
+    }
+}
@@ -0,0 +1,140 @@
+package edu.stanford.protege.robot.benchmark;
+
+import edu.stanford.protege.robot.command.OperationContextFactory;
+import edu.stanford.protege.robot.pipeline.PipelineExecutionId;
+import edu.stanford.protege.robot.pipeline.PipelineId;
+import edu.stanford.protege.robot.pipeline.PipelineLogger;
+import edu.stanford.protege.robot.pipeline.PipelineStageId;
+import edu.stanford.protege.robot.pipeline.PipelineStatus;
+import edu.stanford.protege.robot.pipeline.PipelineStatusRepository;
+import edu.stanford.protege.robot.pipeline.RelativePath;
+import edu.stanford.protege.robot.pipeline.RobotPipeline;
+import edu.stanford.protege.robot.pipeline.RobotPipelineStage;
+import edu.stanford.protege.robot.service.RobotPipelineExecutor;
+import edu.stanford.protege.robot.service.metrics.RobotPipelineMetrics;
+import edu.stanford.protege.webprotege.common.Event;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import edu.stanford.protege.webprotege.ipc.EventDispatcher;
+import edu.stanford.protege.webprotege.ipc.ExecutionContext;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import org.obolibrary.robot.CommandState;
+import org.obolibrary.robot.IOHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Runs a single-stage pipeline for each {@link BenchmarkCommand} end-to-end through
+ * {@link RobotPipelineExecutor}, including saving the stage output to disk.
+ *
+ * <p>
+ * MongoDB and MinIO are replaced by {@link InMemoryPipelineStores in-memory stand-ins}, and events
+ * are discarded, so that the measurement covers the ROBOT command and serialization only. Each
+ * invocation receives a fresh copy of the synthetic ontology because several commands modify their
+ * input in place.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class RobotCommandBenchmark {
+
+    @Param({"EXTRACT_SLME", "EXTRACT_MULTI", "EXTRACT_MIREOT", "EXTRACT_SUBSET", "FILTER", "REMOVE", "RELAX",
+            "REDUCE", "COLLAPSE", "EXPAND", "REPAIR", "CONVERT", "EXPORT", "ANNOTATE"})
+    public BenchmarkCommand command;
+
+    @Param({"1000"})
+    public int classCount;
+
+    @Param({"6"})
+    public int depth;
+
+    @Param({"3"})
+    public int axiomsPerClass;
+
+    @Param({"0.5"})
+    public double annotationDensity;
+
+    private OWLOntology template;
+
+    private OWLOntology ontology;
+
+    private RobotPipeline pipeline;
+
+    private RobotPipelineExecutor executor;
+
+    private PipelineStatusRepository statusRepository;
+
+    private ProjectId projectId;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws IOException {
+        var spec = new SyntheticOntologySpec(classCount, depth, axiomsPerClass, annotationDensity,
+                SyntheticOntologySpec.DEFAULT_SEED);
+        template = SyntheticOntologyGenerator.generate(spec);
+
+        var outputDirectory = Path.of("target", "jmh-output");
+        Files.createDirectories(outputDirectory);
+        var outputName = "target/jmh-output/" + command.name().toLowerCase(Locale.ROOT);
+        var outputPath = RelativePath.create(outputName + ".owl");
+        var robotCommand = command.create(spec, outputName + "." + command.outputExtension());
+        var stage = new RobotPipelineStage(PipelineStageId.generate(), command.name(), null, robotCommand,
+                outputPath);
+        projectId = ProjectId.generate();
+        pipeline = new RobotPipeline(projectId, PipelineId.generate(), command.name(), null, List.of(stage));
+
+        statusRepository = new InMemoryPipelineStores.StatusRepository();
+        executor = new RobotPipelineExecutor(CommandState::new, new IOHelper(),
+                new InMemoryPipelineStores.DocumentStorer(), statusRepository,
+                new InMemoryPipelineStores.SuccessResultRepository(),
+                new PipelineLogger(new DiscardingEventDispatcher()),
+                new RobotPipelineMetrics(new SimpleMeterRegistry()),
+                OperationContextFactory.uncached(new IOHelper()));
+    }
+
+    @Setup(Level.Invocation)
+    public void copyOntology() {
+        ontology = SyntheticOntologyGenerator.copy(template);
+    }
+
+    @Benchmark
+    public OWLOntology executeStage() {
+        var executionId = PipelineExecutionId.generate();
+        executor.executePipeline(projectId, executionId, ontology, 1L, pipeline);
+        // The executor reports failures through status and events only, so fail loudly here instead of
+        // measuring the time to fail
+        statusRepository.findStatus(executionId)
+                .filter(PipelineStatus::isSuccessful)
+                .orElseThrow(() -> new IllegalStateException(command + " stage did not succeed"));
+        return ontology;
+    }
+
+    private static final class DiscardingEventDispatcher implements EventDispatcher {
+
+        @Override
+        public void dispatchEvent(Event event) {
+        }
+
+        @Override
+        public void dispatchEvent(Event event, ExecutionContext executionContext) {
+        }
+    }
+}
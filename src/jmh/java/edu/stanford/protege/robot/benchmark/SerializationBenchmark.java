@@ -0,0 +1,70 @@
+package edu.stanford.protege.robot.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.obolibrary.robot.IOHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Measures how many times per second a stage output can be written with {@link IOHelper}, which is
+ * how {@code RobotPipelineExecutor} saves every stage output before uploading it. The format is
+ * chosen by file extension, as it is for pipeline output paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SerializationBenchmark {
+
+    @Param({"owl", "ofn", "owx", "ttl", "obo", "json"})
+    public String format;
+
+    @Param({"1000"})
+    public int classCount;
+
+    @Param({"6"})
+    public int depth;
+
+    @Param({"3"})
+    public int axiomsPerClass;
+
+    @Param({"0.5"})
+    public double annotationDensity;
+
+    private IOHelper ioHelper;
+
+    private OWLOntology ontology;
+
+    private String outputPath;
+
+    @Setup
+    public void setUp() throws IOException {
+        var spec = new SyntheticOntologySpec(classCount, depth, axiomsPerClass, annotationDensity,
+                SyntheticOntologySpec.DEFAULT_SEED);
+        ontology = SyntheticOntologyGenerator.generate(spec);
+        ioHelper = new IOHelper();
+        var outputDirectory = Files.createDirectories(Path.of("target", "jmh-output"));
+        outputPath = outputDirectory.resolve("serialization." + format).toString();
+    }
+
+    @Benchmark
+    public String saveOntology() throws IOException {
+        ioHelper.saveOntology(ontology, outputPath);
+        return outputPath;
+    }
+}
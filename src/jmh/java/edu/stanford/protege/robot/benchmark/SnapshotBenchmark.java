@@ -0,0 +1,104 @@
+package edu.stanford.protege.robot.benchmark;
+
+import edu.stanford.protege.robot.service.metrics.RobotPipelineMetrics;
+import edu.stanford.protege.robot.service.snapshot.ProjectOntologySnapshot;
+import edu.stanford.protege.robot.service.snapshot.ProjectOntologySnapshotProvider;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import edu.stanford.protege.webprotege.revision.ChangeHistoryFileFactory;
+import edu.stanford.protege.webprotege.revision.HeadRevisionNumberFinder;
+import edu.stanford.protege.webprotege.revision.RevisionManager;
+import edu.stanford.protege.webprotege.revision.RevisionManagerFactory;
+import edu.stanford.protege.webprotege.revision.RevisionNumber;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLOntologyManager;
+
+/**
+ * Measures {@link ProjectOntologySnapshotProvider#createSnapshot} for a synthetic project.
+ *
+ * <p>
+ * The revision manager is replaced by one that rebuilds the head revision by adding every axiom of
+ * the synthetic ontology to a fresh ontology manager, which stands in for replaying the change
+ * history. The provider's own revision checks, ontology selection and metrics run unchanged.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SnapshotBenchmark {
+
+    private static final RevisionNumber HEAD = RevisionNumber.getRevisionNumber(1);
+
+    @Param({"1000"})
+    public int classCount;
+
+    @Param({"6"})
+    public int depth;
+
+    @Param({"3"})
+    public int axiomsPerClass;
+
+    @Param({"0.5"})
+    public double annotationDensity;
+
+    private ProjectOntologySnapshotProvider snapshotProvider;
+
+    private ProjectId projectId;
+
+    @Setup
+    public void setUp() throws IOException {
+        var spec = new SyntheticOntologySpec(classCount, depth, axiomsPerClass, annotationDensity,
+                SyntheticOntologySpec.DEFAULT_SEED);
+        var axioms = SyntheticOntologyGenerator.generate(spec).getAxioms();
+        projectId = ProjectId.generate();
+
+        var revisionManager = Mockito.mock(RevisionManager.class);
+        Mockito.when(revisionManager.getCurrentRevision()).thenReturn(HEAD);
+        Mockito.when(revisionManager.getOntologyManagerForRevision(HEAD)).thenAnswer(invocation -> replay(axioms));
+        var revisionManagerFactory = Mockito.mock(RevisionManagerFactory.class);
+        Mockito.when(revisionManagerFactory.createRevisionManager(projectId)).thenReturn(revisionManager);
+        var headRevisionNumberFinder = Mockito.mock(HeadRevisionNumberFinder.class);
+        Mockito.when(headRevisionNumberFinder.getHeadRevisionNumber(projectId)).thenReturn(HEAD);
+        var changeHistoryFile = Files.createTempFile("robot-benchmark-change-history", ".binary").toFile();
+        changeHistoryFile.deleteOnExit();
+        var changeHistoryFileFactory = Mockito.mock(ChangeHistoryFileFactory.class);
+        Mockito.when(changeHistoryFileFactory.getChangeHistoryFile(projectId)).thenReturn(changeHistoryFile);
+
+        snapshotProvider = new ProjectOntologySnapshotProvider(revisionManagerFactory, headRevisionNumberFinder,
+                changeHistoryFileFactory, new RobotPipelineMetrics(new SimpleMeterRegistry()));
+    }
+
+    @Benchmark
+    public ProjectOntologySnapshot createSnapshot() {
+        return snapshotProvider.createSnapshot(projectId);
+    }
+
+    private static OWLOntologyManager replay(Set<OWLAxiom> axioms) throws OWLOntologyCreationException {
+        var manager = OWLManager.createOWLOntologyManager();
+        var ontology = manager.createOntology();
+        for (var axiom : axioms) {
+            manager.addAxiom(ontology, axiom);
+        }
+        return manager;
+    }
+}
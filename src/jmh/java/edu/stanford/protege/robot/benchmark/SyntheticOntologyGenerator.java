@@ -0,0 +1,146 @@
+package edu.stanford.protege.robot.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+/**
+ * Generates deterministic synthetic ontologies for benchmarks.
+ *
+ * <p>
+ * Classes {@code C0 .. Cn-1} form a tree in which the parent of {@code Ci} is
+ * {@code C((i - 1) / b)} for the branching factor {@code b} of the spec. Each class receives
+ * additional existential restrictions, redundant subclass axioms, equivalences and annotated
+ * axioms, so that reduce, relax, repair and the extraction commands all have work to do. Every class
+ * has an {@code rdfs:label}.
+ */
+public final class SyntheticOntologyGenerator {
+
+    public static final String BASE_IRI = "http://example.org/robot-benchmark/";
+
+    private static final int PROPERTY_COUNT = 8;
+
+    private static final IRI DEFINITION = IRI.create("http://purl.obolibrary.org/obo/IAO_0000115");
+
+    private SyntheticOntologyGenerator() {
+    }
+
+    public static IRI classIri(int index) {
+        return IRI.create(BASE_IRI + "C" + index);
+    }
+
+    public static IRI propertyIri(int index) {
+        return IRI.create(BASE_IRI + "p" + index);
+    }
+
+    /**
+     * Generates the ontology described by the given spec in a fresh ontology manager.
+     */
+    @Nonnull
+    public static OWLOntology generate(@Nonnull SyntheticOntologySpec spec) {
+        Objects.requireNonNull(spec, "spec cannot be null");
+        var manager = OWLManager.createOWLOntologyManager();
+        try {
+            var ontology = manager.createOntology(IRI.create(BASE_IRI + "ontology"));
+            manager.addAxioms(ontology, axioms(spec, manager.getOWLDataFactory()));
+            return ontology;
+        } catch (OWLOntologyCreationException e) {
+            throw new IllegalStateException("Could not create synthetic ontology", e);
+        }
+    }
+
+    /**
+     * Copies an ontology into a fresh ontology manager, so that a command can modify it without
+     * affecting the original.
+     */
+    @Nonnull
+    public static OWLOntology copy(@Nonnull OWLOntology ontology) {
+        var manager = OWLManager.createOWLOntologyManager();
+        try {
+            return manager.createOntology(ontology.getAxioms(), ontology.getOntologyID().getOntologyIRI().orNull());
+        } catch (OWLOntologyCreationException e) {
+            throw new IllegalStateException("Could not copy ontology", e);
+        }
+    }
+
+    private static Set<OWLAxiom> axioms(SyntheticOntologySpec spec, OWLDataFactory dataFactory) {
+        var random = new Random(spec.seed());
+        var branching = spec.branchingFactor();
+        var classCount = spec.classCount();
+        var axioms = new HashSet<OWLAxiom>();
+
+        var properties = new ArrayList<OWLObjectProperty>();
+        for (int i = 0; i < PROPERTY_COUNT; i++) {
+            var property = dataFactory.getOWLObjectProperty(propertyIri(i));
+            properties.add(property);
+            axioms.add(dataFactory.getOWLDeclarationAxiom(property));
+            if (i > 0) {
+                axioms.add(dataFactory.getOWLSubObjectPropertyOfAxiom(property, properties.get(0)));
+            }
+        }
+
+        var classes = new ArrayList<OWLClass>(classCount);
+        for (int i = 0; i < classCount; i++) {
+            classes.add(dataFactory.getOWLClass(classIri(i)));
+        }
+
+        var label = dataFactory.getRDFSLabel();
+        var comment = dataFactory.getRDFSComment();
+        var definition = dataFactory.getOWLAnnotationProperty(DEFINITION);
+        for (int i = 0; i < classCount; i++) {
+            var cls = classes.get(i);
+            axioms.add(dataFactory.getOWLDeclarationAxiom(cls));
+            axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(label, cls.getIRI(),
+                    dataFactory.getOWLLiteral("class " + i)));
+            if (random.nextDouble() < spec.annotationDensity()) {
+                axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(comment, cls.getIRI(),
+                        dataFactory.getOWLLiteral("Synthetic comment for class " + i)));
+                axioms.add(dataFactory.getOWLAnnotationAssertionAxiom(definition, cls.getIRI(),
+                        dataFactory.getOWLLiteral("A class generated for benchmarking, number " + i)));
+            }
+            if (i == 0) {
+                continue;
+            }
+            var parentIndex = (i - 1) / branching;
+            var parent = classes.get(parentIndex);
+            axioms.add(dataFactory.getOWLSubClassOfAxiom(cls, parent));
+            for (int k = 1; k < spec.axiomsPerClass(); k++) {
+                axioms.add(extraAxiom(dataFactory, random, classes, properties, i, parentIndex, branching));
+            }
+        }
+        return axioms;
+    }
+
+    private static OWLAxiom extraAxiom(OWLDataFactory dataFactory, Random random, List<OWLClass> classes,
+            List<OWLObjectProperty> properties, int index, int parentIndex, int branching) {
+        var cls = classes.get(index);
+        var filler = classes.get(random.nextInt(classes.size()));
+        var property = properties.get(random.nextInt(properties.size()));
+        var restriction = dataFactory.getOWLObjectSomeValuesFrom(property, filler);
+        return switch (random.nextInt(4)) {
+            case 0 -> dataFactory.getOWLSubClassOfAxiom(cls, restriction);
+            case 1 -> parentIndex == 0
+                    ? dataFactory.getOWLSubClassOfAxiom(cls, restriction)
+                    // Redundant with the asserted parent, so that reduce removes it
+                    : dataFactory.getOWLSubClassOfAxiom(cls, classes.get((parentIndex - 1) / branching));
+            case 2 -> dataFactory.getOWLEquivalentClassesAxiom(
+                    dataFactory.getOWLClass(IRI.create(BASE_IRI + "D" + index + "_" + random.nextInt(1_000))),
+                    dataFactory.getOWLObjectIntersectionOf(cls, restriction));
+            default -> dataFactory.getOWLSubClassOfAxiom(cls, restriction,
+                    Set.of(dataFactory.getOWLAnnotation(dataFactory.getRDFSComment(),
+                            dataFactory.getOWLLiteral("asserted by generator"))));
+        };
+    }
+}
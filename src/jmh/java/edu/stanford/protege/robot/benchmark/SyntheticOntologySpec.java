@@ -0,0 +1,50 @@
+package edu.stanford.protege.robot.benchmark;
+
+/**
+ * Shape of a synthetic benchmark ontology.
+ *
+ * @param classCount
+ *            the number of named classes
+ * @param depth
+ *            the approximate depth of the asserted class hierarchy
+ * @param axiomsPerClass
+ *            the number of logical axioms that have each class as their subject, including the
+ *            asserted parent
+ * @param annotationDensity
+ *            the probability, between 0 and 1, that a class carries a comment and a definition in
+ *            addition to its label
+ * @param seed
+ *            the seed of the random generator, so that the same spec always produces the same
+ *            ontology
+ */
+public record SyntheticOntologySpec(
+        int classCount,
+        int depth,
+        int axiomsPerClass,
+        double annotationDensity,
+        long seed) {
+
+    public static final long DEFAULT_SEED = 42L;
+
+    public SyntheticOntologySpec {
+        if (classCount < 2) {
+            throw new IllegalArgumentException("classCount must be at least 2");
+        }
+        if (depth < 1) {
+            throw new IllegalArgumentException("depth must be positive");
+        }
+        if (axiomsPerClass < 1) {
+            throw new IllegalArgumentException("axiomsPerClass must be positive");
+        }
+        if (annotationDensity < 0 || annotationDensity > 1) {
+            throw new IllegalArgumentException("annotationDensity must be between 0 and 1");
+        }
+    }
+
+    /**
+     * The branching factor that spreads {@link #classCount()} classes over {@link #depth()} levels.
+     */
+    public int branchingFactor() {
+        return Math.max(2, (int) Math.ceil(Math.pow(classCount, 1.0 / depth)));
+    }
+}
@@ -0,0 +1,68 @@
+package edu.stanford.protege.robot.benchmark;
+
+import edu.stanford.protege.robot.service.metrics.RobotPipelineMetrics;
+import edu.stanford.protege.robot.service.snapshot.ProjectOntologySnapshot;
+import edu.stanford.protege.robot.service.snapshot.ProjectOntologySnapshotProvider;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import edu.stanford.protege.webprotege.revision.ChangeHistoryFileFactory;
+import edu.stanford.protege.webprotege.revision.HeadRevisionNumberFinder;
+import edu.stanford.protege.webprotege.revision.RevisionManagerFactory;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import org.mockito.Mockito;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Serves snapshots of synthetic project ontologies instead of replaying change history.
+ *
+ * <p>
+ * Each project gets its own ontology, generated once with a project-specific seed. Every snapshot
+ * is a fresh copy of it, which stands in for the cost of loading a revision and ensures that
+ * concurrent executions of the same project never share an ontology.
+ */
+final class SyntheticSnapshotProvider extends ProjectOntologySnapshotProvider {
+
+    private static final long REVISION_NUMBER = 1L;
+
+    private final SyntheticOntologySpec spec;
+
+    private final RobotPipelineMetrics metrics;
+
+    private final Map<ProjectId, OWLOntology> templates = new ConcurrentHashMap<>();
+
+    SyntheticSnapshotProvider(@Nonnull SyntheticOntologySpec spec, @Nonnull RobotPipelineMetrics metrics) {
+        super(Mockito.mock(RevisionManagerFactory.class), Mockito.mock(HeadRevisionNumberFinder.class),
+                Mockito.mock(ChangeHistoryFileFactory.class), metrics);
+        this.spec = Objects.requireNonNull(spec, "spec cannot be null");
+        this.metrics = metrics;
+    }
+
+    /**
+     * Generates the ontology of the given project ahead of time, so that generation is not counted
+     * as snapshot time.
+     */
+    void prepare(@Nonnull ProjectId projectId, int projectIndex) {
+        var projectSpec = new SyntheticOntologySpec(spec.classCount(), spec.depth(), spec.axiomsPerClass(),
+                spec.annotationDensity(), spec.seed() + projectIndex);
+        templates.put(projectId, SyntheticOntologyGenerator.generate(projectSpec));
+    }
+
+    @Override
+    public ProjectOntologySnapshot createSnapshot(@Nonnull ProjectId projectId) {
+        var sample = metrics.startTimer();
+        var success = false;
+        try {
+            var template = templates.get(projectId);
+            if (template == null) {
+                throw new IllegalStateException("No synthetic ontology prepared for project " + projectId);
+            }
+            var snapshot = new ProjectOntologySnapshot(SyntheticOntologyGenerator.copy(template), REVISION_NUMBER);
+            success = true;
+            return snapshot;
+        } finally {
+            metrics.recordSnapshot(sample, success);
+        }
+    }
+}
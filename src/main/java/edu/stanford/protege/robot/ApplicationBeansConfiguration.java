@@ -1,9 +1,12 @@
 package edu.stanford.protege.robot;
 
+import edu.stanford.protege.robot.pipeline.AsyncPipelineEventDispatcher;
 import edu.stanford.protege.robot.pipeline.PipelineLogger;
 import edu.stanford.protege.robot.service.RobotPipelineOrchestrator;
+import edu.stanford.protege.robot.service.config.PipelineEventDispatchProperties;
 import edu.stanford.protege.webprotege.ipc.EventDispatcher;
 import edu.stanford.protege.webprotege.ipc.WebProtegeIpcApplication;
+import java.time.Duration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
@@ -30,7 +33,20 @@ public class ApplicationBeansConfiguration {
     }
 
     @Bean
-    PipelineLogger pipelineLogger(EventDispatcher eventDispatcher) {
-        return new PipelineLogger(eventDispatcher);
+    GetRobotPipelineExecutionsHandler createGetRobotPipelineExecutionsHandler(
+            edu.stanford.protege.robot.pipeline.PipelineStatusRepository statusRepository,
+            edu.stanford.protege.robot.pipeline.PipelineSuccessResultRepository successResultRepository) {
+        return new GetRobotPipelineExecutionsHandler(statusRepository, successResultRepository);
+    }
+
+    @Bean
+    PipelineLogger pipelineLogger(EventDispatcher eventDispatcher, PipelineEventDispatchProperties properties) {
+        if (!properties.isAsync()) {
+            return new PipelineLogger(eventDispatcher);
+        }
+        var asyncEventDispatcher = new AsyncPipelineEventDispatcher(eventDispatcher, properties.getBufferCapacity(),
+                properties.getBatchSize(), Duration.ofSeconds(properties.getShutdownTimeoutSeconds()),
+                properties.getThreadName());
+        return new PipelineLogger(eventDispatcher, asyncEventDispatcher);
     }
 }
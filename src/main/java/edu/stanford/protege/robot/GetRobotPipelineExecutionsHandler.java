@@ -0,0 +1,60 @@
+package edu.stanford.protege.robot;
+
+import edu.stanford.protege.robot.pipeline.PipelineExecutionCursor;
+import edu.stanford.protege.robot.pipeline.PipelineExecutionSummary;
+import edu.stanford.protege.robot.pipeline.PipelineStatusRepository;
+import edu.stanford.protege.robot.pipeline.PipelineSuccessResultRepository;
+import edu.stanford.protege.robot.service.message.GetRobotPipelineExecutionsRequest;
+import edu.stanford.protege.robot.service.message.GetRobotPipelineExecutionsResponse;
+import edu.stanford.protege.webprotege.ipc.CommandHandler;
+import edu.stanford.protege.webprotege.ipc.ExecutionContext;
+import edu.stanford.protege.webprotege.ipc.WebProtegeHandler;
+import java.util.Map;
+import javax.annotation.Nonnull;
+import reactor.core.publisher.Mono;
+
+@WebProtegeHandler
+public class GetRobotPipelineExecutionsHandler
+        implements
+            CommandHandler<GetRobotPipelineExecutionsRequest, GetRobotPipelineExecutionsResponse> {
+
+    private final PipelineStatusRepository statusRepository;
+
+    private final PipelineSuccessResultRepository successResultRepository;
+
+    public GetRobotPipelineExecutionsHandler(PipelineStatusRepository statusRepository,
+            PipelineSuccessResultRepository successResultRepository) {
+        this.statusRepository = statusRepository;
+        this.successResultRepository = successResultRepository;
+    }
+
+    @Nonnull
+    @Override
+    public String getChannelName() {
+        return GetRobotPipelineExecutionsRequest.CHANNEL;
+    }
+
+    @Override
+    public Class<GetRobotPipelineExecutionsRequest> getRequestClass() {
+        return GetRobotPipelineExecutionsRequest.class;
+    }
+
+    @Override
+    public Mono<GetRobotPipelineExecutionsResponse> handleRequest(GetRobotPipelineExecutionsRequest request,
+            ExecutionContext executionContext) {
+        var cursor = request.pageToken() == null ? null : PipelineExecutionCursor.fromPageToken(request.pageToken());
+        var page = statusRepository.findExecutions(request.projectId(), request.pipelineId(), cursor,
+                request.effectivePageSize());
+
+        // Output locations live with the success results; fetch them for the whole page in one query.
+        var executionIds = page.executions().stream().map(PipelineExecutionSummary::executionId).toList();
+        var outputFiles = successResultRepository.findOutputFiles(executionIds);
+        var executions = page.executions().stream()
+                .map(summary -> PipelineExecutionSummary.withOutputFiles(summary,
+                        outputFiles.getOrDefault(summary.executionId(), Map.of())))
+                .toList();
+
+        var nextPageToken = page.nextCursor() == null ? null : page.nextCursor().asPageToken();
+        return Mono.just(new GetRobotPipelineExecutionsResponse(executions, nextPageToken));
+    }
+}
@@ -0,0 +1,130 @@
+package edu.stanford.protege.robot.command;
+
+import edu.stanford.protege.webprotege.common.ProjectId;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * The project revision a pipeline execution started from, and whether its ontology is still as it
+ * was loaded.
+ *
+ * <p>
+ * Anything derived from the ontology and cached under the project and revision is only valid while
+ * the ontology is unmodified. Stages such as reduce change the ontology in place, so the snapshot
+ * listens for changes to it and also compares the axiom count, which catches changes applied without
+ * going through the ontology manager.
+ */
+public final class ExecutionSnapshot {
+
+    private final ProjectId projectId;
+
+    private final long revisionNumber;
+
+    private final OWLOntology ontology;
+
+    private final int axiomCount;
+
+    private volatile boolean modified;
+
+    private volatile OntologyIndex index;
+
+    private volatile SignatureIndex signatureIndex;
+
+    private ExecutionSnapshot(ProjectId projectId, long revisionNumber, OWLOntology ontology) {
+        this.projectId = projectId;
+        this.revisionNumber = revisionNumber;
+        this.ontology = ontology;
+        this.axiomCount = ontology.getAxiomCount();
+    }
+
+    /**
+     * Starts tracking changes to the ontology of a project revision.
+     *
+     * @param projectId
+     *            the project the ontology belongs to
+     * @param revisionNumber
+     *            the revision the ontology was loaded at
+     * @param ontology
+     *            the ontology, as loaded
+     * @return the snapshot
+     */
+    public static ExecutionSnapshot track(@Nonnull ProjectId projectId, long revisionNumber,
+            @Nonnull OWLOntology ontology) {
+        Objects.requireNonNull(projectId, "projectId cannot be null");
+        Objects.requireNonNull(ontology, "ontology cannot be null");
+        var snapshot = new ExecutionSnapshot(projectId, revisionNumber, ontology);
+        ontology.getOWLOntologyManager().addOntologyChangeListener(changes -> {
+            for (var change : changes) {
+                if (change.getOntology() == ontology) {
+                    snapshot.modified = true;
+                    return;
+                }
+            }
+        });
+        return snapshot;
+    }
+
+    public ProjectId projectId() {
+        return projectId;
+    }
+
+    public long revisionNumber() {
+        return revisionNumber;
+    }
+
+    public OWLOntology ontology() {
+        return ontology;
+    }
+
+    /**
+     * Returns whether the given ontology is the snapshot ontology, unchanged since it was loaded.
+     *
+     * @param candidate
+     *            the ontology a stage is about to work on
+     * @return {@code true} if results cached for this project revision apply to it
+     */
+    public boolean isUnmodified(@Nonnull OWLOntology candidate) {
+        return candidate == ontology && !modified && ontology.getAxiomCount() == axiomCount;
+    }
+
+    /**
+     * Returns the index of the snapshot ontology, built the first time it is needed. It only applies
+     * to the ontology while {@link #isUnmodified} holds for it.
+     *
+     * @return the index
+     */
+    public OntologyIndex index() {
+        var result = index;
+        if (result == null) {
+            synchronized (this) {
+                result = index;
+                if (result == null) {
+                    result = OntologyIndex.build(ontology);
+                    index = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the signature index of the snapshot ontology, built the first time it is needed. It only
+     * applies to the ontology while {@link #isUnmodified} holds for it.
+     *
+     * @return the signature index
+     */
+    public SignatureIndex signatureIndex() {
+        var result = signatureIndex;
+        if (result == null) {
+            synchronized (this) {
+                result = signatureIndex;
+                if (result == null) {
+                    result = SignatureIndex.build(ontology);
+                    signatureIndex = result;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,447 @@
+package edu.stanford.protege.robot.command;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import javax.annotation.Nonnull;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+/**
+ * A read-only index of the asserted class hierarchy and the annotated entities of an ontology, for
+ * answering selector queries and spanning the gaps collapse leaves without walking the OWL API axiom
+ * indexes once per term.
+ *
+ * <p>
+ * Every class expression that appears in a {@code SubClassOf} axiom gets an int id, and the
+ * asserted edges are kept as compressed sparse rows: the superclasses of node {@code n} are
+ * {@code superTargets[superOffsets[n]..superOffsets[n + 1]]}, and likewise for subclasses. Closures
+ * are breadth-first walks over these arrays with a {@link BitSet} of visited nodes. The superclass
+ * edges that ROBOT's {@code spanGaps} does not follow, from a class to itself or to one of its
+ * equivalent classes, are marked in a second {@link BitSet} over {@code superTargets}. The IRIs that are
+ * the subject of an annotation, or in the signature of an annotated axiom, are kept per annotation
+ * property, so an annotation selector only has to look at entities that can match it.
+ *
+ * <p>
+ * Like the {@code EntitySearcher} queries ROBOT uses, the index covers the axioms of the ontology
+ * itself and not of its imports. It reflects the ontology at the time it was built, and is safe to
+ * query from several threads.
+ */
+public final class OntologyIndex {
+
+    private final Map<OWLClassExpression, Integer> nodeIds;
+
+    private final OWLClassExpression[] nodes;
+
+    private final int[] superOffsets;
+
+    private final int[] superTargets;
+
+    private final int[] subOffsets;
+
+    private final int[] subTargets;
+
+    private final BitSet unspannedSuperEdges;
+
+    private final Map<IRI, BitSet> annotatedByProperty;
+
+    private final Map<IRI, Integer> subjectIds;
+
+    private OntologyIndex(Map<OWLClassExpression, Integer> nodeIds, OWLClassExpression[] nodes, int[] superOffsets,
+            int[] superTargets, int[] subOffsets, int[] subTargets, BitSet unspannedSuperEdges,
+            Map<IRI, BitSet> annotatedByProperty, Map<IRI, Integer> subjectIds) {
+        this.nodeIds = nodeIds;
+        this.nodes = nodes;
+        this.superOffsets = superOffsets;
+        this.superTargets = superTargets;
+        this.subOffsets = subOffsets;
+        this.subTargets = subTargets;
+        this.unspannedSuperEdges = unspannedSuperEdges;
+        this.annotatedByProperty = annotatedByProperty;
+        this.subjectIds = subjectIds;
+    }
+
+    /**
+     * Builds the index of an ontology in one pass over its {@code SubClassOf} axioms and one over its
+     * annotated axioms.
+     *
+     * @param ontology
+     *            the ontology, which must not change while the index is built
+     * @return the index
+     */
+    public static OntologyIndex build(@Nonnull OWLOntology ontology) {
+        Objects.requireNonNull(ontology, "ontology cannot be null");
+        var nodeIds = new HashMap<OWLClassExpression, Integer>();
+        var nodes = new ArrayList<OWLClassExpression>();
+        var axioms = ontology.getAxioms(AxiomType.SUBCLASS_OF);
+        var subs = new int[axioms.size()];
+        var supers = new int[axioms.size()];
+        var edge = 0;
+        for (var axiom : axioms) {
+            subs[edge] = nodeId(nodeIds, nodes, axiom.getSubClass());
+            supers[edge] = nodeId(nodeIds, nodes, axiom.getSuperClass());
+            edge++;
+        }
+        var superOffsets = new int[nodes.size() + 1];
+        var superTargets = new int[edge];
+        fillRows(subs, supers, superOffsets, superTargets);
+        var subOffsets = new int[nodes.size() + 1];
+        var subTargets = new int[edge];
+        fillRows(supers, subs, subOffsets, subTargets);
+        var unspannedSuperEdges = unspannedSuperEdges(ontology, nodes, superOffsets, superTargets);
+
+        var subjectIds = new HashMap<IRI, Integer>();
+        var annotatedByProperty = new HashMap<IRI, BitSet>();
+        for (var axiom : ontology.getAxioms(AxiomType.ANNOTATION_ASSERTION)) {
+            if (axiom.getSubject() instanceof IRI subject) {
+                annotatedByProperty.computeIfAbsent(axiom.getProperty().getIRI(), property -> new BitSet())
+                        .set(subjectId(subjectIds, subject));
+            }
+        }
+        for (var axiom : ontology.getAxioms()) {
+            if (!axiom.isAnnotated()) {
+                continue;
+            }
+            for (var annotation : axiom.getAnnotations()) {
+                var annotated = annotatedByProperty.computeIfAbsent(annotation.getProperty().getIRI(),
+                        property -> new BitSet());
+                for (var entity : axiom.getSignature()) {
+                    annotated.set(subjectId(subjectIds, entity.getIRI()));
+                }
+            }
+        }
+        return new OntologyIndex(nodeIds, nodes.toArray(OWLClassExpression[]::new), superOffsets, superTargets,
+                subOffsets, subTargets, unspannedSuperEdges, annotatedByProperty, subjectIds);
+    }
+
+    /**
+     * Returns the number of class expressions in the hierarchy, whose node ids are {@code 0} to this
+     * number exclusive.
+     */
+    public int size() {
+        return nodes.length;
+    }
+
+    /**
+     * Returns the class expression of a node.
+     */
+    public OWLClassExpression node(int id) {
+        return nodes[id];
+    }
+
+    /**
+     * Returns the node id of a class expression, or {@code -1} if it is in no {@code SubClassOf} axiom
+     * of the ontology.
+     */
+    public int nodeId(@Nonnull OWLClassExpression expression) {
+        return nodeIds.getOrDefault(expression, -1);
+    }
+
+    /**
+     * Returns the asserted superclasses of the classes among the given objects, named and anonymous,
+     * as ROBOT's {@code parents} selector does for classes.
+     *
+     * @param objects
+     *            the objects to select from; objects other than classes are ignored
+     * @return the superclasses
+     */
+    public Set<OWLObject> parents(@Nonnull Collection<? extends OWLObject> objects) {
+        return adjacent(objects, superOffsets, superTargets);
+    }
+
+    /**
+     * Returns the asserted subclasses of the classes among the given objects, named and anonymous,
+     * as ROBOT's {@code children} selector does for classes.
+     *
+     * @param objects
+     *            the objects to select from; objects other than classes are ignored
+     * @return the subclasses
+     */
+    public Set<OWLObject> children(@Nonnull Collection<? extends OWLObject> objects) {
+        return adjacent(objects, subOffsets, subTargets);
+    }
+
+    /**
+     * Returns the asserted ancestors of the classes among the given objects, as ROBOT's
+     * {@code ancestors} selector does for classes: the named superclasses reached transitively,
+     * without going above {@code owl:Thing}, and the anonymous superclasses of every class on the way.
+     *
+     * @param objects
+     *            the objects to select from; objects other than classes are ignored
+     * @return the ancestors
+     */
+    public Set<OWLObject> ancestors(@Nonnull Collection<? extends OWLObject> objects) {
+        return closure(objects, superOffsets, superTargets, true);
+    }
+
+    /**
+     * Returns the asserted descendants of the classes among the given objects, as ROBOT's
+     * {@code descendants} selector does for classes: the named subclasses reached transitively, and the
+     * anonymous subclasses of every class on the way.
+     *
+     * @param objects
+     *            the objects to select from; objects other than classes are ignored
+     * @return the descendants
+     */
+    public Set<OWLObject> descendants(@Nonnull Collection<? extends OWLObject> objects) {
+        return closure(objects, subOffsets, subTargets, false);
+    }
+
+    /**
+     * Returns the entities among the given objects that have an annotation with the given property,
+     * either asserted on their IRI or on an axiom they are in the signature of. Every entity an
+     * annotation selector on that property selects is among them.
+     *
+     * @param objects
+     *            the objects to select from; objects other than entities are ignored
+     * @param property
+     *            the IRI of the annotation property
+     * @return the entities that may carry an annotation with the property
+     */
+    public Set<OWLObject> annotatedWith(@Nonnull Collection<? extends OWLObject> objects, @Nonnull IRI property) {
+        var annotated = annotatedByProperty.get(property);
+        var selected = new HashSet<OWLObject>();
+        if (annotated == null) {
+            return selected;
+        }
+        for (var object : objects) {
+            if (object instanceof OWLEntity entity) {
+                var id = subjectIds.get(entity.getIRI());
+                if (id != null && annotated.get(id)) {
+                    selected.add(object);
+                }
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Returns the subclass axioms ROBOT's {@code RelatedObjectsHelper.spanGaps} returns for the classes
+     * among the remaining objects: from each remaining class to the superclasses whose signature is
+     * remaining, walking through the named superclasses that are not.
+     *
+     * <p>
+     * ROBOT walks the ontology again from every remaining class. Here the superclasses a class that is
+     * not remaining leads to are computed once per call and shared by all the classes below it.
+     *
+     * @param remaining
+     *            whether an object is remaining
+     * @param dataFactory
+     *            creates the axioms
+     * @return the axioms spanning the gaps
+     */
+    public Set<OWLSubClassOfAxiom> spanGaps(@Nonnull Predicate<OWLObject> remaining,
+            @Nonnull OWLDataFactory dataFactory) {
+        var remainingNodes = new BitSet(nodes.length);
+        for (var id = 0; id < nodes.length; id++) {
+            if (!nodes[id].isAnonymous() && remaining.test(nodes[id])) {
+                remainingNodes.set(id);
+            }
+        }
+        @SuppressWarnings("unchecked")
+        Set<OWLClassExpression>[] frontiers = new Set[nodes.length];
+        var entered = new BitSet(nodes.length);
+        var axioms = new HashSet<OWLSubClassOfAxiom>();
+        for (var id = remainingNodes.nextSetBit(0); id >= 0; id = remainingNodes.nextSetBit(id + 1)) {
+            for (var superClass : spanStep(id, remaining, remainingNodes, frontiers, entered)) {
+                axioms.add(dataFactory.getOWLSubClassOfAxiom(nodes[id], superClass));
+            }
+        }
+        return axioms;
+    }
+
+    /**
+     * Returns the superclasses a named node spans to: its remaining named superclasses, those its other
+     * named superclasses span to, and its anonymous superclasses with a remaining signature.
+     */
+    private Set<OWLClassExpression> spanStep(int id, Predicate<OWLObject> remaining, BitSet remainingNodes,
+            Set<OWLClassExpression>[] frontiers, BitSet entered) {
+        for (var i = superOffsets[id]; i < superOffsets[id + 1]; i++) {
+            var target = superTargets[i];
+            if (isSpannedNamedEdge(i) && !remainingNodes.get(target) && !entered.get(target)) {
+                computeFrontiers(target, remaining, remainingNodes, frontiers, entered);
+            }
+        }
+        var superClasses = new HashSet<OWLClassExpression>();
+        for (var i = superOffsets[id]; i < superOffsets[id + 1]; i++) {
+            var target = superTargets[i];
+            if (nodes[target].isAnonymous()) {
+                if (nodes[target].getSignature().stream().allMatch(remaining)) {
+                    superClasses.add(nodes[target]);
+                }
+            } else if (unspannedSuperEdges.get(i)) {
+                continue;
+            } else if (remainingNodes.get(target)) {
+                superClasses.add(nodes[target]);
+            } else if (frontiers[target] != null) {
+                superClasses.addAll(frontiers[target]);
+            }
+        }
+        return superClasses;
+    }
+
+    /**
+     * Computes the superclasses every named node that is not remaining above a start node spans to,
+     * superclasses first. A cycle, which ROBOT does not terminate on, is cut where it closes.
+     */
+    private void computeFrontiers(int start, Predicate<OWLObject> remaining, BitSet remainingNodes,
+            Set<OWLClassExpression>[] frontiers, BitSet entered) {
+        var stack = new ArrayDeque<Integer>();
+        stack.push(start);
+        while (!stack.isEmpty()) {
+            int id = stack.peek();
+            if (frontiers[id] != null) {
+                stack.pop();
+            } else if (!entered.get(id)) {
+                entered.set(id);
+                for (var i = superOffsets[id]; i < superOffsets[id + 1]; i++) {
+                    var target = superTargets[i];
+                    if (isSpannedNamedEdge(i) && !remainingNodes.get(target) && !entered.get(target)) {
+                        stack.push(target);
+                    }
+                }
+            } else {
+                stack.pop();
+                frontiers[id] = spanStep(id, remaining, remainingNodes, frontiers, entered);
+            }
+        }
+    }
+
+    private boolean isSpannedNamedEdge(int edge) {
+        return !nodes[superTargets[edge]].isAnonymous() && !unspannedSuperEdges.get(edge);
+    }
+
+    private Set<OWLObject> adjacent(Collection<? extends OWLObject> objects, int[] offsets, int[] targets) {
+        var selected = new BitSet(nodes.length);
+        for (var id : classIds(objects)) {
+            for (var i = offsets[id]; i < offsets[id + 1]; i++) {
+                selected.set(targets[i]);
+            }
+        }
+        return toObjects(selected);
+    }
+
+    /**
+     * Walks from the given classes along the rows, adding every node reached. Only named classes are
+     * walked further, and with {@code stopAtTop}, not {@code owl:Thing}.
+     */
+    private Set<OWLObject> closure(Collection<? extends OWLObject> objects, int[] offsets, int[] targets,
+            boolean stopAtTop) {
+        var selected = new BitSet(nodes.length);
+        var walked = new BitSet(nodes.length);
+        var queue = new ArrayDeque<Integer>();
+        for (var id : classIds(objects)) {
+            if (!walked.get(id)) {
+                walked.set(id);
+                queue.add(id);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int id = queue.poll();
+            for (var i = offsets[id]; i < offsets[id + 1]; i++) {
+                var target = targets[i];
+                selected.set(target);
+                var node = nodes[target];
+                if (!walked.get(target) && !node.isAnonymous() && !(stopAtTop && node.isOWLThing())) {
+                    walked.set(target);
+                    queue.add(target);
+                }
+            }
+        }
+        return toObjects(selected);
+    }
+
+    private List<Integer> classIds(Collection<? extends OWLObject> objects) {
+        var ids = new ArrayList<Integer>();
+        for (var object : objects) {
+            if (object instanceof OWLClass owlClass) {
+                var id = nodeIds.get(owlClass);
+                if (id != null) {
+                    ids.add(id);
+                }
+            }
+        }
+        return ids;
+    }
+
+    private Set<OWLObject> toObjects(BitSet ids) {
+        var objects = new HashSet<OWLObject>(ids.cardinality() * 2);
+        for (var id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            objects.add(nodes[id]);
+        }
+        return objects;
+    }
+
+    private static int nodeId(Map<OWLClassExpression, Integer> nodeIds, List<OWLClassExpression> nodes,
+            OWLClassExpression expression) {
+        return nodeIds.computeIfAbsent(expression, key -> {
+            nodes.add(key);
+            return nodes.size() - 1;
+        });
+    }
+
+    private static int subjectId(Map<IRI, Integer> subjectIds, IRI subject) {
+        return subjectIds.computeIfAbsent(subject, key -> subjectIds.size());
+    }
+
+    /**
+     * Marks the edges from a named class to itself or to one of its equivalent classes.
+     */
+    private static BitSet unspannedSuperEdges(OWLOntology ontology, List<OWLClassExpression> nodes,
+            int[] superOffsets, int[] superTargets) {
+        var unspanned = new BitSet(superTargets.length);
+        for (var id = 0; id < nodes.size(); id++) {
+            if (nodes.get(id).isAnonymous()) {
+                continue;
+            }
+            Set<OWLClassExpression> equivalents = null;
+            for (var i = superOffsets[id]; i < superOffsets[id + 1]; i++) {
+                var target = superTargets[i];
+                if (nodes.get(target).isAnonymous()) {
+                    continue;
+                }
+                if (equivalents == null) {
+                    equivalents = new HashSet<>();
+                    for (var axiom : ontology.getEquivalentClassesAxioms(nodes.get(id).asOWLClass())) {
+                        equivalents.addAll(axiom.getClassExpressions());
+                    }
+                }
+                if (target == id || equivalents.contains(nodes.get(target))) {
+                    unspanned.set(i);
+                }
+            }
+        }
+        return unspanned;
+    }
+
+    /**
+     * Lays out the edges {@code from[i] -> to[i]} as rows of targets per source node.
+     */
+    private static void fillRows(int[] from, int[] to, int[] offsets, int[] targets) {
+        for (var source : from) {
+            offsets[source + 1]++;
+        }
+        for (var node = 0; node < offsets.length - 1; node++) {
+            offsets[node + 1] += offsets[node];
+        }
+        var next = offsets.clone();
+        for (var i = 0; i < from.length; i++) {
+            targets[next[from[i]]++] = to[i];
+        }
+    }
+}
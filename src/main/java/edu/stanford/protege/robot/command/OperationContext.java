@@ -0,0 +1,134 @@
+package edu.stanford.protege.robot.command;
+
+import edu.stanford.protege.robot.command.common.Reasoner;
+import edu.stanford.protege.robot.command.common.ReasonerPool;
+import edu.stanford.protege.robot.command.common.TautologyCache;
+import edu.stanford.protege.robot.command.extract.ModuleExtractor;
+import edu.stanford.protege.robot.command.extract.ModuleExtractorCache;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import org.obolibrary.robot.IOHelper;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+/**
+ * The helpers a {@link RobotOperation} runs with, created once per pipeline execution by
+ * {@link OperationContextFactory}.
+ *
+ * @param ioHelper
+ *            resolves CURIEs and IRIs with the prefixes of the service
+ * @param termIndex
+ *            resolves the term lists of the stages, shared by all stages of the execution
+ * @param snapshot
+ *            the project revision the execution started from
+ * @param moduleExtractorCache
+ *            the module extractors of recently used project revisions
+ * @param reasonerPool
+ *            the classified reasoners of recently used project revisions
+ * @param tautologyCache
+ *            the tautology verdicts of recently checked axioms
+ * @param forkJoinPool
+ *            runs the parts of an operation that are computed concurrently
+ * @param outputs
+ *            collects the ontologies a stage produces besides the one it leaves in the command state
+ */
+public record OperationContext(
+        @Nonnull IOHelper ioHelper,
+        @Nonnull TermIndex termIndex,
+        @Nonnull ExecutionSnapshot snapshot,
+        @Nonnull ModuleExtractorCache moduleExtractorCache,
+        @Nonnull ReasonerPool reasonerPool,
+        @Nonnull TautologyCache tautologyCache,
+        @Nonnull ForkJoinPool forkJoinPool,
+        @Nonnull StageOutputs outputs) {
+
+    public OperationContext {
+        Objects.requireNonNull(ioHelper, "ioHelper cannot be null");
+        Objects.requireNonNull(termIndex, "termIndex cannot be null");
+        Objects.requireNonNull(snapshot, "snapshot cannot be null");
+        Objects.requireNonNull(moduleExtractorCache, "moduleExtractorCache cannot be null");
+        Objects.requireNonNull(reasonerPool, "reasonerPool cannot be null");
+        Objects.requireNonNull(tautologyCache, "tautologyCache cannot be null");
+        Objects.requireNonNull(forkJoinPool, "forkJoinPool cannot be null");
+        Objects.requireNonNull(outputs, "outputs cannot be null");
+    }
+
+    /**
+     * Returns a module extractor over the given ontology. The extractor is shared through the cache
+     * when the ontology is the unmodified snapshot, and built for this call otherwise.
+     *
+     * @param ontology
+     *            the ontology to extract modules from
+     * @param imports
+     *            whether the axioms of the imports closure are included
+     * @return the extractor
+     */
+    public ModuleExtractor moduleExtractor(@Nonnull OWLOntology ontology, @Nonnull Imports imports) {
+        if (!snapshot.isUnmodified(ontology)) {
+            return ModuleExtractor.create(ontology, imports);
+        }
+        return moduleExtractorCache.get(snapshot.projectId(), snapshot.revisionNumber(), imports,
+                () -> ModuleExtractor.create(ontology, imports));
+    }
+
+    /**
+     * Returns an index of the given ontology. The index is shared by all stages of the execution when
+     * the ontology is the unmodified snapshot, and built for this call otherwise.
+     *
+     * @param ontology
+     *            the ontology to index
+     * @return the index
+     */
+    public OntologyIndex ontologyIndex(@Nonnull OWLOntology ontology) {
+        if (!snapshot.isUnmodified(ontology)) {
+            return OntologyIndex.build(ontology);
+        }
+        return snapshot.index();
+    }
+
+    /**
+     * Returns a signature index of the given ontology. The index is shared by all stages of the
+     * execution when the ontology is the unmodified snapshot, and built for this call otherwise.
+     *
+     * @param ontology
+     *            the ontology to index
+     * @return the signature index
+     */
+    public SignatureIndex signatureIndex(@Nonnull OWLOntology ontology) {
+        if (!snapshot.isUnmodified(ontology)) {
+            return SignatureIndex.build(ontology);
+        }
+        return snapshot.signatureIndex();
+    }
+
+    /**
+     * Runs a query against a reasoner over an ontology derived from the given stage input. When the
+     * input is the unmodified snapshot, the classified reasoner is shared through the pool under the
+     * given view name; otherwise a reasoner is created for this query and disposed afterwards.
+     *
+     * @param ontology
+     *            the stage input the reasoning ontology is derived from
+     * @param reasoner
+     *            the reasoner
+     * @param view
+     *            names how the reasoning ontology is derived from the input, and must differ for
+     *            different derivations
+     * @param reasoningOntology
+     *            supplies the ontology to reason over, which may be the input itself
+     * @param query
+     *            the query, which must not keep the reasoner
+     * @return the result of the query
+     */
+    public <T> T reason(@Nonnull OWLOntology ontology, @Nonnull Reasoner reasoner, @Nonnull String view,
+            @Nonnull Supplier<OWLOntology> reasoningOntology, @Nonnull Function<OWLReasoner, T> query) {
+        if (!snapshot.isUnmodified(ontology)) {
+            return ReasonerPool.queryOnce(reasoner, reasoningOntology.get(), query);
+        }
+        return reasonerPool.query(snapshot.projectId(), snapshot.revisionNumber(), reasoner, view,
+                reasoningOntology, query);
+    }
+}
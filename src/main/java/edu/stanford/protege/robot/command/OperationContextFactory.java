@@ -0,0 +1,69 @@
+package edu.stanford.protege.robot.command;
+
+import edu.stanford.protege.robot.command.common.ReasonerPool;
+import edu.stanford.protege.robot.command.common.TautologyCache;
+import edu.stanford.protege.robot.command.extract.ModuleExtractorCache;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import javax.annotation.Nonnull;
+import org.obolibrary.robot.IOHelper;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Creates the {@link OperationContext} of each pipeline execution from the helpers that are shared
+ * between executions.
+ */
+public class OperationContextFactory {
+
+    private final IOHelper ioHelper;
+
+    private final ModuleExtractorCache moduleExtractorCache;
+
+    private final ReasonerPool reasonerPool;
+
+    private final TautologyCache tautologyCache;
+
+    private final ForkJoinPool forkJoinPool;
+
+    public OperationContextFactory(@Nonnull IOHelper ioHelper, @Nonnull ModuleExtractorCache moduleExtractorCache,
+            @Nonnull ReasonerPool reasonerPool, @Nonnull TautologyCache tautologyCache,
+            @Nonnull ForkJoinPool forkJoinPool) {
+        this.ioHelper = Objects.requireNonNull(ioHelper, "ioHelper cannot be null");
+        this.moduleExtractorCache = Objects.requireNonNull(moduleExtractorCache,
+                "moduleExtractorCache cannot be null");
+        this.reasonerPool = Objects.requireNonNull(reasonerPool, "reasonerPool cannot be null");
+        this.tautologyCache = Objects.requireNonNull(tautologyCache, "tautologyCache cannot be null");
+        this.forkJoinPool = Objects.requireNonNull(forkJoinPool, "forkJoinPool cannot be null");
+    }
+
+    /**
+     * Creates a factory that shares nothing between executions, and whose operations compute
+     * concurrently in the common fork-join pool.
+     *
+     * @param ioHelper
+     *            resolves CURIEs and IRIs
+     * @return the factory
+     */
+    public static OperationContextFactory uncached(@Nonnull IOHelper ioHelper) {
+        return new OperationContextFactory(ioHelper, ModuleExtractorCache.disabled(), ReasonerPool.disabled(),
+                TautologyCache.disabled(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates the context of an execution that starts from the given project revision.
+     *
+     * @param projectId
+     *            the project
+     * @param revisionNumber
+     *            the revision the ontology was loaded at
+     * @param ontology
+     *            the ontology the first stage receives
+     * @return the context
+     */
+    public OperationContext create(@Nonnull ProjectId projectId, long revisionNumber, @Nonnull OWLOntology ontology) {
+        return new OperationContext(ioHelper, TermIndex.create(ontology, ioHelper),
+                ExecutionSnapshot.track(projectId, revisionNumber, ontology), moduleExtractorCache, reasonerPool,
+                tautologyCache, forkJoinPool, new StageOutputs());
+    }
+}
@@ -9,6 +9,7 @@ import edu.stanford.protege.robot.command.convert.RobotConvertCommand;
 import edu.stanford.protege.robot.command.expand.RobotExpandCommand;
 import edu.stanford.protege.robot.command.export.RobotExportCommand;
 import edu.stanford.protege.robot.command.extract.RobotExtractCommand;
+import edu.stanford.protege.robot.command.extract.RobotMultiExtractCommand;
 import edu.stanford.protege.robot.command.filter.RobotFilterCommand;
 import edu.stanford.protege.robot.command.merge.RobotMergeCommand;
 import edu.stanford.protege.robot.command.reduce.RobotReduceCommand;
@@ -16,6 +17,7 @@ import edu.stanford.protege.robot.command.relax.RobotRelaxCommand;
 import edu.stanford.protege.robot.command.remove.RobotRemoveCommand;
 import edu.stanford.protege.robot.command.repair.RobotRepairCommand;
 import java.util.List;
+import java.util.Optional;
 import org.obolibrary.robot.Command;
 
 /**
@@ -25,6 +27,7 @@ import org.obolibrary.robot.Command;
 @JsonSubTypes({
         @JsonSubTypes.Type(RobotAnnotateCommand.class),
         @JsonSubTypes.Type(RobotExtractCommand.class),
+        @JsonSubTypes.Type(RobotMultiExtractCommand.class),
         @JsonSubTypes.Type(RobotCollapseCommand.class),
         @JsonSubTypes.Type(RobotConvertCommand.class),
         @JsonSubTypes.Type(RobotExpandCommand.class),
@@ -47,4 +50,18 @@ public interface RobotCommand {
     default String[] getArgsArray() {
         return getArgs().toArray(new String[getArgs().size()]);
     }
+
+    /**
+     * Returns the direct execution path of this command, if it has one.
+     *
+     * <p>
+     * When present, the pipeline executor runs the operation instead of passing
+     * {@link #getArgsArray()} to {@link #getCommand()}.
+     *
+     * @return the operation, or empty to execute the command through its arguments
+     */
+    @JsonIgnore
+    default Optional<RobotOperation> getOperation() {
+        return Optional.empty();
+    }
 }
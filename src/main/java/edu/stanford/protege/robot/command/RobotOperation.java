@@ -0,0 +1,29 @@
+package edu.stanford.protege.robot.command;
+
+import javax.annotation.Nonnull;
+import org.obolibrary.robot.CommandState;
+
+/**
+ * Executes a ROBOT command by calling ROBOT's operation classes directly.
+ *
+ * <p>
+ * {@link org.obolibrary.robot.Command#execute(CommandState, String[])} re-parses the arguments of
+ * a command with commons-cli and resolves every term string through a fresh
+ * {@link org.obolibrary.robot.IOHelper} on each call. An operation works from the typed fields of
+ * its command instead, so a stage with thousands of terms skips the argument round trip. An
+ * operation must leave the state exactly as the command-line execution of the same command would.
+ */
+@FunctionalInterface
+public interface RobotOperation {
+
+    /**
+     * Runs the operation against the ontology of the given state.
+     *
+     * @param state
+     *            the state holding the input ontology
+     * @param context
+     *            the helpers shared by all stages of a pipeline execution
+     * @return the state holding the output ontology
+     */
+    CommandState execute(@Nonnull CommandState state, @Nonnull OperationContext context) throws Exception;
+}
@@ -0,0 +1,259 @@
+package edu.stanford.protege.robot.command;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.obolibrary.robot.OntologyHelper;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLAnonymousClassExpression;
+import org.semanticweb.owlapi.model.OWLAnonymousIndividual;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLIndividual;
+import org.semanticweb.owlapi.model.OWLNamedObject;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLProperty;
+
+/**
+ * A read-only numbering of the objects ROBOT selects from, for evaluating selectors and filtering
+ * axioms with {@link BitSet}s instead of sets of OWL objects.
+ *
+ * <p>
+ * The objects are those of ROBOT's {@code OntologyHelper.getObjects}: the entities, class
+ * expressions and anonymous individuals of the axioms of the ontology, which are also what the
+ * {@code complement} selector selects from. Each object gets a dense int id. For every type selector,
+ * such as {@code classes} or {@code named}, the ids of the objects it keeps are held in a
+ * {@link BitSet}, so the selector is one intersection. The axioms of the ontology are kept in a
+ * fixed order, with the ids of the objects of each axiom without its annotations as compressed
+ * sparse rows: the objects of axiom {@code a} are
+ * {@code axiomObjects[axiomOffsets[a]..axiomOffsets[a + 1]]}.
+ *
+ * <p>
+ * Like the {@link OntologyIndex}, it covers the axioms of the ontology itself and not of its
+ * imports, reflects the ontology at the time it was built, and is safe to query from several
+ * threads.
+ */
+public final class SignatureIndex {
+
+    /**
+     * The type selectors, with the test ROBOT applies to each object.
+     */
+    private static final Map<String, Predicate<OWLObject>> TYPE_SELECTORS = Map.of(
+            "classes", OWLClass.class::isInstance,
+            "named", OWLNamedObject.class::isInstance,
+            "anonymous",
+            object -> object instanceof OWLAnonymousClassExpression || object instanceof OWLAnonymousIndividual,
+            "individuals", OWLIndividual.class::isInstance,
+            "properties", OWLProperty.class::isInstance,
+            "object-properties", OWLObjectProperty.class::isInstance,
+            "data-properties", OWLDataProperty.class::isInstance,
+            "annotation-properties", OWLAnnotationProperty.class::isInstance);
+
+    private final Map<OWLObject, Integer> objectIds;
+
+    private final OWLObject[] objects;
+
+    private final Map<String, BitSet> typeMasks;
+
+    private final OWLAxiom[] axioms;
+
+    private final int[] axiomOffsets;
+
+    private final int[] axiomObjects;
+
+    private SignatureIndex(Map<OWLObject, Integer> objectIds, OWLObject[] objects, Map<String, BitSet> typeMasks,
+            OWLAxiom[] axioms, int[] axiomOffsets, int[] axiomObjects) {
+        this.objectIds = objectIds;
+        this.objects = objects;
+        this.typeMasks = typeMasks;
+        this.axioms = axioms;
+        this.axiomOffsets = axiomOffsets;
+        this.axiomObjects = axiomObjects;
+    }
+
+    /**
+     * Builds the index of an ontology in one pass over its axioms.
+     *
+     * @param ontology
+     *            the ontology, which must not change while the index is built
+     * @return the index
+     */
+    public static SignatureIndex build(@Nonnull OWLOntology ontology) {
+        Objects.requireNonNull(ontology, "ontology cannot be null");
+        var objectIds = new HashMap<OWLObject, Integer>();
+        var objects = new ArrayList<OWLObject>();
+        var axioms = ontology.getAxioms().toArray(OWLAxiom[]::new);
+        var axiomOffsets = new int[axioms.length + 1];
+        var rows = new int[axioms.length][];
+        for (var a = 0; a < axioms.length; a++) {
+            for (var object : OntologyHelper.getObjects(axioms[a])) {
+                objectId(objectIds, objects, object);
+            }
+            var row = OntologyHelper.getObjects(axioms[a].getAxiomWithoutAnnotations());
+            rows[a] = row.stream().mapToInt(objectIds::get).toArray();
+            axiomOffsets[a + 1] = axiomOffsets[a] + rows[a].length;
+        }
+        var axiomObjects = new int[axiomOffsets[axioms.length]];
+        for (var a = 0; a < axioms.length; a++) {
+            System.arraycopy(rows[a], 0, axiomObjects, axiomOffsets[a], rows[a].length);
+        }
+
+        var typeMasks = new HashMap<String, BitSet>();
+        TYPE_SELECTORS.forEach((selector, test) -> typeMasks.put(selector, mask(objects, test)));
+        return new SignatureIndex(objectIds, objects.toArray(OWLObject[]::new), typeMasks, axioms, axiomOffsets,
+                axiomObjects);
+    }
+
+    /**
+     * Returns the number of objects, whose ids are {@code 0} up to but excluding it.
+     *
+     * @return the number of objects
+     */
+    public int objectCount() {
+        return objects.length;
+    }
+
+    /**
+     * Returns the id of an object, or {@code null} if it is not an object of the axioms of the
+     * ontology.
+     *
+     * @param object
+     *            the object
+     * @return the id, or {@code null}
+     */
+    @Nullable
+    public Integer objectId(@Nonnull Object object) {
+        return objectIds.get(object);
+    }
+
+    /**
+     * Returns the object with the given id.
+     *
+     * @param id
+     *            an id less than {@link #objectCount()}
+     * @return the object
+     */
+    public OWLObject object(int id) {
+        return objects[id];
+    }
+
+    /**
+     * Returns the ids of the objects that a type selector such as {@code classes}, {@code named} or
+     * {@code anonymous} keeps, or {@code null} if the selector is not a type selector. The result must
+     * not be modified.
+     *
+     * @param selector
+     *            the ROBOT selector
+     * @return the ids of the objects of the type, or {@code null}
+     */
+    @Nullable
+    public BitSet typeMask(@Nonnull String selector) {
+        return typeMasks.get(selector);
+    }
+
+    /**
+     * Returns whether a selector is a type selector, which keeps the objects of one kind.
+     *
+     * @param selector
+     *            the ROBOT selector
+     * @return {@code true} if the selector keeps the objects that are instances of one type
+     */
+    public static boolean isTypeSelector(@Nonnull String selector) {
+        return TYPE_SELECTORS.containsKey(selector);
+    }
+
+    /**
+     * Returns whether an object that is not numbered by any index is kept by a type selector.
+     *
+     * @param selector
+     *            a {@linkplain #isTypeSelector(String) type selector}
+     * @param object
+     *            the object
+     * @return {@code true} if the selector keeps the object
+     */
+    public static boolean isOfType(@Nonnull String selector, @Nonnull OWLObject object) {
+        return TYPE_SELECTORS.get(selector).test(object);
+    }
+
+    /**
+     * Returns the number of axioms, whose positions are {@code 0} up to but excluding it.
+     *
+     * @return the number of axioms of the ontology
+     */
+    public int axiomCount() {
+        return axioms.length;
+    }
+
+    /**
+     * Returns the axiom at the given position.
+     *
+     * @param position
+     *            a position less than {@link #axiomCount()}
+     * @return the axiom
+     */
+    public OWLAxiom axiom(int position) {
+        return axioms[position];
+    }
+
+    /**
+     * Returns whether every object of an axiom without its annotations is among the given ids.
+     *
+     * @param position
+     *            the position of the axiom
+     * @param ids
+     *            the ids of the selected objects
+     * @return {@code true} if all objects of the axiom are selected
+     */
+    public boolean allObjectsIn(int position, @Nonnull BitSet ids) {
+        for (var i = axiomOffsets[position]; i < axiomOffsets[position + 1]; i++) {
+            if (!ids.get(axiomObjects[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether any object of an axiom without its annotations is among the given ids.
+     *
+     * @param position
+     *            the position of the axiom
+     * @param ids
+     *            the ids of the selected objects
+     * @return {@code true} if at least one object of the axiom is selected
+     */
+    public boolean anyObjectIn(int position, @Nonnull BitSet ids) {
+        for (var i = axiomOffsets[position]; i < axiomOffsets[position + 1]; i++) {
+            if (ids.get(axiomObjects[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static BitSet mask(List<OWLObject> objects, Predicate<OWLObject> test) {
+        var mask = new BitSet(objects.size());
+        for (var id = 0; id < objects.size(); id++) {
+            if (test.test(objects.get(id))) {
+                mask.set(id);
+            }
+        }
+        return mask;
+    }
+
+    private static void objectId(Map<OWLObject, Integer> objectIds, List<OWLObject> objects, OWLObject object) {
+        objectIds.computeIfAbsent(object, key -> {
+            objects.add(key);
+            return objects.size() - 1;
+        });
+    }
+}
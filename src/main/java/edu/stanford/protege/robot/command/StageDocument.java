@@ -0,0 +1,29 @@
+package edu.stanford.protege.robot.command;
+
+import edu.stanford.protege.robot.pipeline.RelativePath;
+import java.io.OutputStream;
+import javax.annotation.Nonnull;
+
+/**
+ * A document a {@link RobotOperation} produces as the output of its stage instead of the ontology
+ * it leaves in the command state, such as the table of an export.
+ *
+ * <p>
+ * The document is written once the operation has returned, on the thread of the stage and straight
+ * into the upload of the stage output, so that it never has to be held in memory or written to a
+ * local file, and the time and CPU spent writing it count towards the stage. It is not written at
+ * all if the stage has no output path.
+ */
+@FunctionalInterface
+public interface StageDocument {
+
+    /**
+     * Writes the document.
+     *
+     * @param path
+     *            the output path of the stage, whose extension may select the format of the document
+     * @param out
+     *            receives the document; it is closed by the caller
+     */
+    void write(@Nonnull RelativePath path, @Nonnull OutputStream out) throws Exception;
+}
@@ -0,0 +1,98 @@
+package edu.stanford.protege.robot.command;
+
+import edu.stanford.protege.robot.pipeline.RelativePath;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import javax.annotation.Nonnull;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * The ontologies a {@link RobotOperation} produces in addition to the ontology it leaves in the
+ * command state, such as the modules of a multi-module extract.
+ *
+ * <p>
+ * Operations add outputs while they run, possibly from several threads. The pipeline executor takes
+ * them after each stage and saves each one to its path, as it does with the output of the stage. An
+ * operation may also set a {@link StageDocument}, which the executor uploads as the output of the
+ * stage in place of the ontology.
+ */
+public final class StageOutputs {
+
+    private final List<StageOutput> outputs = new ArrayList<>();
+
+    private StageDocument document;
+
+    /**
+     * Adds an ontology to save once the current stage has finished.
+     *
+     * @param path
+     *            where to save the ontology
+     * @param ontology
+     *            the ontology
+     * @throws IllegalArgumentException
+     *             if the stage has already produced an output with this path
+     */
+    public synchronized void add(@Nonnull RelativePath path, @Nonnull OWLOntology ontology) {
+        var output = new StageOutput(path, ontology);
+        if (outputs.stream().anyMatch(existing -> existing.path().equals(path))) {
+            throw new IllegalArgumentException("Duplicate stage output path: " + path.asString());
+        }
+        outputs.add(output);
+    }
+
+    /**
+     * Removes and returns the outputs added since the last call, in the order they were added.
+     *
+     * @return the outputs
+     */
+    public synchronized List<StageOutput> drain() {
+        var drained = List.copyOf(outputs);
+        outputs.clear();
+        return drained;
+    }
+
+    /**
+     * Sets the document to upload as the output of the current stage.
+     *
+     * @param document
+     *            the document
+     * @throws IllegalStateException
+     *             if the stage has already set a document
+     */
+    public synchronized void setDocument(@Nonnull StageDocument document) {
+        Objects.requireNonNull(document, "document cannot be null");
+        if (this.document != null) {
+            throw new IllegalStateException("The stage has already produced a document");
+        }
+        this.document = document;
+    }
+
+    /**
+     * Removes and returns the document set since the last call, if any.
+     *
+     * @return the document
+     */
+    public synchronized Optional<StageDocument> takeDocument() {
+        var taken = Optional.ofNullable(document);
+        document = null;
+        return taken;
+    }
+
+    /**
+     * An ontology and the path to save it to.
+     *
+     * @param path
+     *            where to save the ontology
+     * @param ontology
+     *            the ontology
+     */
+    public record StageOutput(@Nonnull RelativePath path, @Nonnull OWLOntology ontology) {
+
+        public StageOutput {
+            Objects.requireNonNull(path, "path cannot be null");
+            Objects.requireNonNull(ontology, "ontology cannot be null");
+        }
+    }
+}
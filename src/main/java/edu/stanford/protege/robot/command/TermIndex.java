@@ -0,0 +1,205 @@
+package edu.stanford.protege.robot.command;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import org.obolibrary.robot.IOHelper;
+import org.obolibrary.robot.OntologyHelper;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.vocab.OWLRDFVocabulary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves the term lists of all stages of one pipeline execution to IRIs and entities.
+ *
+ * <p>
+ * ROBOT resolves every term string on its own through {@link IOHelper#createIRI(String)}, which runs
+ * a JSON-LD expansion per term. The index instead expands CURIEs with a plain prefix lookup, checks
+ * full IRIs directly, and remembers every resolution, so a stage with thousands of terms pays for each
+ * distinct term once per execution rather than once per stage. Terms that are neither an IRI nor a
+ * CURIE are looked up as {@code rdfs:label} values of the snapshot ontology; the label table is built
+ * the first time a term needs it.
+ *
+ * <p>
+ * Only the mapping from term to IRI is cached. Entities are always looked up in the ontology passed
+ * to {@link #resolveEntities}, because stages can add and remove entities.
+ */
+public final class TermIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TermIndex.class);
+
+    private final OWLOntology snapshot;
+
+    private final IOHelper ioHelper;
+
+    private final Map<String, String> prefixes;
+
+    private final Map<String, Set<IRI>> resolvedTerms = new ConcurrentHashMap<>();
+
+    private volatile Map<String, Set<IRI>> labels;
+
+    private TermIndex(OWLOntology snapshot, IOHelper ioHelper) {
+        this.snapshot = snapshot;
+        this.ioHelper = ioHelper;
+        this.prefixes = Map.copyOf(ioHelper.getPrefixes());
+    }
+
+    /**
+     * Creates an empty index over the given snapshot.
+     *
+     * @param snapshot
+     *            the ontology whose labels resolve terms that are not IRIs or CURIEs
+     * @param ioHelper
+     *            supplies the prefixes and resolves terms the index cannot expand itself
+     * @return the index
+     */
+    public static TermIndex create(@Nonnull OWLOntology snapshot, @Nonnull IOHelper ioHelper) {
+        Objects.requireNonNull(snapshot, "snapshot cannot be null");
+        Objects.requireNonNull(ioHelper, "ioHelper cannot be null");
+        return new TermIndex(snapshot, ioHelper);
+    }
+
+    /**
+     * Resolves CURIEs, IRIs and labels to IRIs. Terms that resolve to nothing are logged and skipped,
+     * as ROBOT skips terms that are not valid IRIs.
+     *
+     * <p>
+     * As in ROBOT, each value is read with {@link IOHelper#extractTerms(String)}: it may hold one term
+     * per line, lines starting with {@code #} are skipped and a trailing {@code # comment} is removed.
+     *
+     * @param terms
+     *            the terms to resolve
+     * @return the IRIs of the terms
+     */
+    public Set<IRI> resolveIris(@Nonnull Collection<String> terms) {
+        var iris = new HashSet<IRI>(terms.size() * 2);
+        for (var term : terms) {
+            iris.addAll(resolvedTerms.computeIfAbsent(term, this::resolveValue));
+        }
+        return iris;
+    }
+
+    /**
+     * Resolves terms to the entities with those IRIs in the given ontology, with the same punning
+     * rules as ROBOT's {@link OntologyHelper#getEntities(OWLOntology, Set, boolean)}.
+     *
+     * @param ontology
+     *            the ontology to look the entities up in
+     * @param terms
+     *            the terms to resolve
+     * @param allowPunning
+     *            whether an IRI that names several entity types resolves to all of them
+     * @return the entities of the terms
+     */
+    public Set<OWLEntity> resolveEntities(@Nonnull OWLOntology ontology, @Nonnull Collection<String> terms,
+            boolean allowPunning) {
+        if (terms.isEmpty()) {
+            return new HashSet<>();
+        }
+        return OntologyHelper.getEntities(ontology, resolveIris(terms), allowPunning);
+    }
+
+    private Set<IRI> resolveValue(String value) {
+        var terms = ioHelper.extractTerms(value);
+        if (terms.size() == 1) {
+            return resolve(terms.iterator().next());
+        }
+        var iris = new HashSet<IRI>();
+        for (var term : terms) {
+            iris.addAll(resolve(term));
+        }
+        return Set.copyOf(iris);
+    }
+
+    private Set<IRI> resolve(String term) {
+        var iri = expandCurie(term);
+        if (iri == null) {
+            iri = parseIri(term);
+        }
+        if (iri == null) {
+            iri = ioHelper.createIRI(term);
+        }
+        if (iri != null) {
+            return Set.of(iri);
+        }
+        var labelled = labels().get(term);
+        if (labelled != null) {
+            return labelled;
+        }
+        logger.warn("{} is not a valid IRI, CURIE or label.", term);
+        return Set.of();
+    }
+
+    /**
+     * Expands a CURIE with a known prefix. Anything else, including a local part with whitespace or a
+     * local part starting with {@code //}, is left to {@link IOHelper#createIRI(String)}.
+     */
+    private IRI expandCurie(String term) {
+        var separator = term.indexOf(':');
+        if (separator <= 0) {
+            return null;
+        }
+        var namespace = prefixes.get(term.substring(0, separator));
+        var localPart = term.substring(separator + 1);
+        if (namespace == null || localPart.startsWith("//") || localPart.chars().anyMatch(Character::isWhitespace)) {
+            return null;
+        }
+        return IRI.create(namespace + localPart);
+    }
+
+    /**
+     * Accepts a full IRI with the same check that {@link IOHelper#createIRI(String)} applies.
+     */
+    @SuppressWarnings("deprecation")
+    private static IRI parseIri(String term) {
+        if (!term.contains("://")) {
+            return null;
+        }
+        try {
+            new URL(term);
+            return IRI.create(term);
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+
+    private Map<String, Set<IRI>> labels() {
+        var result = labels;
+        if (result == null) {
+            synchronized (this) {
+                result = labels;
+                if (result == null) {
+                    result = indexLabels(snapshot);
+                    labels = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, Set<IRI>> indexLabels(OWLOntology ontology) {
+        var labelIri = OWLRDFVocabulary.RDFS_LABEL.getIRI();
+        var index = new HashMap<String, Set<IRI>>();
+        for (var axiom : ontology.getAxioms(AxiomType.ANNOTATION_ASSERTION, Imports.INCLUDED)) {
+            if (axiom.getProperty().getIRI().equals(labelIri)
+                    && axiom.getValue() instanceof OWLLiteral literal
+                    && axiom.getSubject() instanceof IRI subject) {
+                index.computeIfAbsent(literal.getLiteral(), label -> new HashSet<>()).add(subject);
+            }
+        }
+        return index;
+    }
+}
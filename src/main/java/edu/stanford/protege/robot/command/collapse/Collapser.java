@@ -0,0 +1,241 @@
+package edu.stanford.protege.robot.command.collapse;
+
+import edu.stanford.protege.robot.command.OntologyIndex;
+import edu.stanford.protege.robot.command.common.ChangeBatch;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.obolibrary.robot.OntologyHelper;
+import org.obolibrary.robot.RelatedObjectsHelper;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+/**
+ * Collapses the class hierarchy as ROBOT's {@link OntologyHelper#collapseOntology} does, repeating
+ * until no intermediate class is left to remove.
+ *
+ * <p>
+ * Each round ROBOT removes the axioms of the classes to collapse and then adds back every axiom of
+ * the original ontology that spans the gaps between the remaining objects, and between rounds it
+ * looks at every class of the ontology again through the OWL API indexes. Here the rounds run over a
+ * working copy of the axioms: the gaps are spanned through the {@link OntologyIndex} of the original
+ * ontology, the named subclass and superclass axioms of each class are counted by its node in that
+ * index as axioms are removed and added, and a round only looks at the classes whose counts the
+ * previous one changed. The axioms of the collapsed classes are found through an index by IRI, and the ontology is
+ * changed once, by one {@link ChangeBatch}, when no class is left to remove.
+ */
+final class Collapser {
+
+    private Collapser() {
+    }
+
+    /**
+     * Collapses the ontology in place.
+     *
+     * @param ontology
+     *            the ontology to collapse
+     * @param index
+     *            the index of the ontology as it is before collapsing
+     * @param threshold
+     *            the number of named subclasses from which an intermediate class is kept
+     * @param precious
+     *            the IRIs of the classes that are always kept
+     */
+    static void collapse(OWLOntology ontology, OntologyIndex index, int threshold, Set<IRI> precious) {
+        var dataFactory = ontology.getOWLOntologyManager().getOWLDataFactory();
+        var working = new WorkingAxioms(ontology, index);
+        var batch = new ChangeBatch(ontology);
+        var candidates = new BitSet(index.size());
+        candidates.set(0, index.size());
+        var removeClasses = working.classesToRemove(candidates, threshold, precious);
+        while (!removeClasses.isEmpty()) {
+            var removed = working.partialAxioms(removeClasses);
+            removed.forEach(working::remove);
+            // The ontology itself is the original until the batch is applied
+            var spans = new HashSet<OWLAxiom>(index.spanGaps(working::isRemaining, dataFactory));
+            spans.addAll(RelatedObjectsHelper.spanGaps(ontology, working.remainingProperties()));
+            spans.forEach(working::add);
+            batch.removeAxioms(removed).addAxioms(spans);
+            removeClasses = working.classesToRemove(working.takeChangedClasses(), threshold, precious);
+        }
+        batch.apply();
+    }
+
+    /**
+     * The axioms of the ontology as the rounds of collapsing leave them, with the counts the rounds
+     * need.
+     */
+    private static final class WorkingAxioms {
+
+        private final OntologyIndex index;
+
+        private final Set<OWLAxiom> axioms;
+
+        /**
+         * The number of axioms whose ROBOT objects include each object; the remaining objects are the
+         * keys.
+         */
+        private final Map<OWLObject, Integer> objectCounts = new HashMap<>();
+
+        /**
+         * The axioms, present or not, that a class with each IRI can be a partial object of.
+         */
+        private final Map<IRI, List<OWLAxiom>> axiomsByIri = new HashMap<>();
+
+        private final int[] namedSubClassAxioms;
+
+        private final int[] namedSuperClassAxioms;
+
+        private final BitSet changedClasses;
+
+        private WorkingAxioms(OWLOntology ontology, OntologyIndex index) {
+            this.index = index;
+            this.axioms = new HashSet<>(ontology.getAxioms());
+            this.namedSubClassAxioms = new int[index.size()];
+            this.namedSuperClassAxioms = new int[index.size()];
+            this.changedClasses = new BitSet(index.size());
+            for (var axiom : axioms) {
+                count(axiom, 1);
+                index(axiom);
+            }
+            changedClasses.clear();
+        }
+
+        /**
+         * Returns the classes among the candidates that ROBOT's {@code getClassesToRemove} returns:
+         * those other than {@code owl:Thing} and the precious classes with a named superclass other
+         * than {@code owl:Thing}, and with at least one but fewer than the threshold named subclasses.
+         */
+        Set<OWLObject> classesToRemove(BitSet candidates, int threshold, Set<IRI> precious) {
+            var remove = new HashSet<OWLObject>();
+            for (var node = candidates.nextSetBit(0); node >= 0; node = candidates.nextSetBit(node + 1)) {
+                var expression = index.node(node);
+                if (expression.isAnonymous()) {
+                    continue;
+                }
+                var owlClass = expression.asOWLClass();
+                if (owlClass.isOWLThing() || precious.contains(owlClass.getIRI())) {
+                    continue;
+                }
+                if (namedSuperClassAxioms[node] > 0 && namedSubClassAxioms[node] > 0
+                        && namedSubClassAxioms[node] < threshold) {
+                    remove.add(owlClass);
+                }
+            }
+            return remove;
+        }
+
+        /**
+         * Returns the classes whose counts changed since this was last called.
+         */
+        BitSet takeChangedClasses() {
+            var changed = (BitSet) changedClasses.clone();
+            changedClasses.clear();
+            return changed;
+        }
+
+        /**
+         * Returns the axioms ROBOT's {@code getPartialAxioms} returns for the classes, testing only the
+         * axioms indexed under their IRIs.
+         */
+        Set<OWLAxiom> partialAxioms(Set<OWLObject> classes) {
+            var candidates = new HashSet<OWLAxiom>();
+            for (var object : classes) {
+                var iri = ((OWLClass) object).getIRI();
+                for (var axiom : axiomsByIri.getOrDefault(iri, List.of())) {
+                    if (axioms.contains(axiom)) {
+                        candidates.add(axiom);
+                    }
+                }
+            }
+            return RelatedObjectsHelper.filterPartialAxioms(candidates, classes, null, false);
+        }
+
+        boolean isRemaining(OWLObject object) {
+            return objectCounts.containsKey(object);
+        }
+
+        /**
+         * Returns the remaining properties, the objects ROBOT's {@code spanGaps} spans besides classes.
+         */
+        Set<OWLObject> remainingProperties() {
+            var properties = new HashSet<OWLObject>();
+            for (var object : objectCounts.keySet()) {
+                if (object instanceof OWLAnnotationProperty || object instanceof OWLDataProperty
+                        || object instanceof OWLObjectProperty) {
+                    properties.add(object);
+                }
+            }
+            return properties;
+        }
+
+        void add(OWLAxiom axiom) {
+            if (axioms.add(axiom)) {
+                count(axiom, 1);
+                index(axiom);
+            }
+        }
+
+        void remove(OWLAxiom axiom) {
+            if (axioms.remove(axiom)) {
+                count(axiom, -1);
+            }
+        }
+
+        private void count(OWLAxiom axiom, int delta) {
+            for (var object : OntologyHelper.getObjects(axiom)) {
+                objectCounts.merge(object, delta, (count, change) -> count + change == 0 ? null : count + change);
+            }
+            if (axiom instanceof OWLSubClassOfAxiom subClassAxiom && !subClassAxiom.getSubClass().isAnonymous()
+                    && !subClassAxiom.getSuperClass().isAnonymous()) {
+                var sub = index.nodeId(subClassAxiom.getSubClass());
+                var sup = index.nodeId(subClassAxiom.getSuperClass());
+                namedSubClassAxioms[sup] += delta;
+                changedClasses.set(sup);
+                if (!subClassAxiom.getSuperClass().isOWLThing()) {
+                    namedSuperClassAxioms[sub] += delta;
+                    changedClasses.set(sub);
+                }
+            }
+        }
+
+        /**
+         * Indexes an axiom under every IRI ROBOT's {@code getPartialAxioms} matches a class against: its
+         * signature, the subject and value of an annotation assertion and the properties and values of
+         * its annotations.
+         */
+        private void index(OWLAxiom axiom) {
+            var iris = new HashSet<IRI>();
+            axiom.getSignature().forEach(entity -> iris.add(entity.getIRI()));
+            if (axiom instanceof OWLAnnotationAssertionAxiom assertion) {
+                if (assertion.getSubject() instanceof IRI subject) {
+                    iris.add(subject);
+                }
+                if (assertion.getValue() instanceof IRI value) {
+                    iris.add(value);
+                }
+            }
+            for (var annotation : axiom.getAnnotations()) {
+                iris.add(annotation.getProperty().getIRI());
+                if (annotation.getValue() instanceof IRI value) {
+                    iris.add(value);
+                }
+            }
+            for (var iri : iris) {
+                axiomsByIri.computeIfAbsent(iri, key -> new ArrayList<>()).add(axiom);
+            }
+        }
+    }
+}
@@ -3,7 +3,9 @@ package edu.stanford.protege.robot.command.collapse;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.google.common.collect.ImmutableList;
 import edu.stanford.protege.robot.command.RobotCommand;
+import edu.stanford.protege.robot.command.RobotOperation;
 import java.util.List;
+import java.util.Optional;
 import javax.annotation.Nullable;
 import org.obolibrary.robot.CollapseCommand;
 import org.obolibrary.robot.Command;
@@ -89,4 +91,25 @@ public record RobotCollapseCommand(@Nullable Integer threshold, List<String> pre
     public Command getCommand() {
         return new CollapseCommand();
     }
+
+    /**
+     * Collapses the ontology through {@link Collapser}, which leaves it as ROBOT's
+     * {@code OntologyHelper.collapseOntology} does, rejecting a threshold below 2 as ROBOT collapse
+     * does.
+     *
+     * @return the direct collapse operation
+     */
+    @Override
+    public Optional<RobotOperation> getOperation() {
+        return Optional.of((state, context) -> {
+            var effectiveThreshold = threshold == null ? 2 : threshold;
+            if (effectiveThreshold < 2) {
+                throw new IllegalArgumentException("Threshold must be 2 or greater, got " + effectiveThreshold);
+            }
+            var preciousIris = context.termIndex().resolveIris(preciousTerms);
+            Collapser.collapse(state.getOntology(), context.ontologyIndex(state.getOntology()), effectiveThreshold,
+                    preciousIris);
+            return state;
+        });
+    }
 }
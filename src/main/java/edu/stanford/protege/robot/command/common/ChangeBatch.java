@@ -0,0 +1,103 @@
+package edu.stanford.protege.robot.command.common;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import org.semanticweb.owlapi.model.AddAxiom;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.RemoveAxiom;
+
+/**
+ * Buffers the axiom additions and removals of a stage and applies them to the ontology as one list
+ * of changes.
+ *
+ * <p>
+ * ROBOT's operations add and remove axioms one call at a time, and each call to the manager takes its
+ * lock, updates the indexes of the ontology and notifies every change listener. Repair and collapse
+ * also remove a set of axioms only to add many of them back. A batch keeps only the last change
+ * requested for each axiom and, when applied, drops those that would not change the ontology, so the
+ * manager updates the ontology once for the axioms that really change and its listeners, such as the
+ * {@link edu.stanford.protege.robot.command.ExecutionSnapshot} tracker, are notified once. Applying
+ * the batch leaves the ontology as applying the same calls one by one would.
+ *
+ * <p>
+ * A batch is used by one thread.
+ */
+public final class ChangeBatch {
+
+    private final OWLOntology ontology;
+
+    /**
+     * Whether each changed axiom is to be present, in the order the axioms were first changed.
+     */
+    private final Map<OWLAxiom, Boolean> changes = new LinkedHashMap<>();
+
+    /**
+     * Creates an empty batch of changes to an ontology.
+     *
+     * @param ontology
+     *            the ontology the changes are applied to
+     */
+    public ChangeBatch(@Nonnull OWLOntology ontology) {
+        this.ontology = Objects.requireNonNull(ontology, "ontology cannot be null");
+    }
+
+    /**
+     * Adds axioms to the ontology when the batch is applied.
+     *
+     * @param axioms
+     *            the axioms to add
+     * @return this batch
+     */
+    public ChangeBatch addAxioms(@Nonnull Collection<? extends OWLAxiom> axioms) {
+        axioms.forEach(axiom -> changes.put(axiom, true));
+        return this;
+    }
+
+    /**
+     * Removes axioms from the ontology when the batch is applied.
+     *
+     * @param axioms
+     *            the axioms to remove
+     * @return this batch
+     */
+    public ChangeBatch removeAxioms(@Nonnull Collection<? extends OWLAxiom> axioms) {
+        axioms.forEach(axiom -> changes.put(axiom, false));
+        return this;
+    }
+
+    /**
+     * Returns whether no change is buffered.
+     *
+     * @return {@code true} if applying the batch would do nothing
+     */
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * Applies the buffered changes that change the ontology in one call to its manager, and empties
+     * the batch.
+     *
+     * @return the changes applied
+     */
+    public List<OWLOntologyChange> apply() {
+        var effective = new ArrayList<OWLOntologyChange>();
+        changes.forEach((axiom, present) -> {
+            if (present != ontology.containsAxiom(axiom)) {
+                effective.add(present ? new AddAxiom(ontology, axiom) : new RemoveAxiom(ontology, axiom));
+            }
+        });
+        changes.clear();
+        if (!effective.isEmpty()) {
+            ontology.getOWLOntologyManager().applyChanges(effective);
+        }
+        return effective;
+    }
+}
@@ -1,5 +1,12 @@
 package edu.stanford.protege.robot.command.common;
 
+import org.geneontology.whelk.owlapi.WhelkOWLReasonerFactory;
+import org.semanticweb.HermiT.ReasonerFactory;
+import org.semanticweb.elk.owlapi.ElkReasonerFactory;
+import org.semanticweb.owlapi.reasoner.OWLReasonerFactory;
+import org.semanticweb.owlapi.reasoner.structural.StructuralReasonerFactory;
+import uk.ac.manchester.cs.jfact.JFactFactory;
+
 /**
  * Supported OWL reasoners for ROBOT commands.
  *
@@ -70,4 +77,33 @@ public enum Reasoner {
     public String getReasonerName() {
         return reasonerName;
     }
+
+    /**
+     * Creates the reasoner factory that ROBOT would select for {@code --reasoner <name>}.
+     *
+     * @return a new reasoner factory
+     */
+    public OWLReasonerFactory createReasonerFactory() {
+        return switch (this) {
+            case ELK -> new ElkReasonerFactory();
+            case HERMIT -> new ReasonerFactory();
+            case JFACT -> new JFactFactory();
+            case WHELK -> new WhelkOWLReasonerFactory();
+            case STRUCTURAL -> new StructuralReasonerFactory();
+        };
+    }
+
+    /**
+     * Returns whether a classified reasoner of this kind can take axiom additions and removals and
+     * update its classification incrementally, so that it pays off to keep it across revisions.
+     *
+     * <p>
+     * Only ELK classifies incrementally; the other reasoners either reclassify from scratch on any
+     * change or have no classification to keep.
+     *
+     * @return {@code true} for ELK
+     */
+    public boolean isIncremental() {
+        return this == ELK;
+    }
 }
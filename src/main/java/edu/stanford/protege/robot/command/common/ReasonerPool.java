@@ -0,0 +1,324 @@
+package edu.stanford.protege.robot.command.common;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.reasoner.InferenceType;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+/**
+ * Keeps classified reasoners per project revision and reasoner, so that stages and pipelines that
+ * reason over the same unchanged revision skip classification.
+ *
+ * <p>
+ * A pooled reasoner works on a private copy of the axioms it was created for, so later changes to
+ * the pipeline ontology cannot reach it. Commands that reason over an ontology derived from the
+ * revision, such as the class expression view of reduce, pool it under their own view name. Queries
+ * on one reasoner are serialized, because OWL reasoners are not safe for concurrent use. Reasoners
+ * are disposed when they are evicted, which happens once the pool holds the configured maximum or a
+ * reasoner has not been used for a while. A maximum of zero disables pooling.
+ *
+ * <p>
+ * A reasoner that {@linkplain Reasoner#isIncremental() classifies incrementally} is carried forward
+ * when a later revision of the same project and view is first queried: the axioms added and removed
+ * since the revision it was classified for are applied to its copy, and it is flushed, so that ELK
+ * reclassifies only what the edit affects. The reasoner then belongs to the later revision; queries
+ * for the earlier revision classify a reasoner of their own.
+ */
+public final class ReasonerPool implements MeterBinder {
+
+    private static final String CACHE_NAME = "robotReasoners";
+
+    private final Cache<Key, PooledReasoner> cache;
+
+    private final boolean enabled;
+
+    private final AtomicLong incrementalUpdates = new AtomicLong();
+
+    /**
+     * Creates a pool.
+     *
+     * @param maximumSize
+     *            the number of reasoners above which the least recently used one is evicted
+     * @param expireAfterAccess
+     *            how long an unused reasoner is kept
+     */
+    public ReasonerPool(long maximumSize, @Nonnull Duration expireAfterAccess) {
+        Objects.requireNonNull(expireAfterAccess, "expireAfterAccess cannot be null");
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize must be non-negative");
+        }
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .removalListener((RemovalListener<Key, PooledReasoner>) removal -> removal.getValue()
+                        .dispose(removal.getKey().revisionNumber()))
+                .recordStats()
+                .build();
+        this.enabled = maximumSize > 0;
+    }
+
+    /**
+     * Creates a pool that keeps nothing, so that every query classifies its own reasoner.
+     *
+     * @return the disabled pool
+     */
+    public static ReasonerPool disabled() {
+        return new ReasonerPool(0, Duration.ZERO);
+    }
+
+    /**
+     * Runs a query against the classified reasoner of a project revision, creating and classifying
+     * the reasoner if it is not pooled.
+     *
+     * @param projectId
+     *            the project
+     * @param revisionNumber
+     *            the revision the reasoning ontology is derived from
+     * @param reasoner
+     *            the reasoner
+     * @param view
+     *            names how the reasoning ontology is derived from the revision
+     * @param reasoningOntology
+     *            supplies the ontology to reason over when the reasoner is created; its axioms are
+     *            copied, including the imports closure
+     * @param query
+     *            the query, which must not keep the reasoner
+     * @return the result of the query
+     */
+    public <T> T query(@Nonnull ProjectId projectId, long revisionNumber, @Nonnull Reasoner reasoner,
+            @Nonnull String view, @Nonnull Supplier<OWLOntology> reasoningOntology,
+            @Nonnull Function<OWLReasoner, T> query) {
+        if (!enabled) {
+            return queryOnce(reasoner, reasoningOntology.get(), query);
+        }
+        var key = new Key(projectId, revisionNumber, reasoner, view);
+        while (true) {
+            var pooled = get(key, () -> load(key, reasoningOntology.get()));
+            try {
+                return pooled.query(revisionNumber, query);
+            } catch (UnavailableException e) {
+                // Evicted or carried forward between lookup and query, so the next lookup loads another
+            }
+        }
+    }
+
+    /**
+     * Creates a reasoner over the given ontology, runs the query and disposes the reasoner, as ROBOT
+     * does for every command.
+     *
+     * @param reasoner
+     *            the reasoner
+     * @param ontology
+     *            the ontology to reason over
+     * @param query
+     *            the query
+     * @return the result of the query
+     */
+    public static <T> T queryOnce(@Nonnull Reasoner reasoner, @Nonnull OWLOntology ontology,
+            @Nonnull Function<OWLReasoner, T> query) {
+        var owlReasoner = reasoner.createReasonerFactory().createReasoner(ontology);
+        try {
+            return query.apply(owlReasoner);
+        } finally {
+            owlReasoner.dispose();
+        }
+    }
+
+    /**
+     * Disposes all pooled reasoners.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    long incrementalUpdates() {
+        return incrementalUpdates.get();
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.size();
+    }
+
+    @Override
+    public void bindTo(@Nonnull MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        FunctionCounter.builder("robot.reasoners.incremental.updates", incrementalUpdates, AtomicLong::get)
+                .description("Pooled reasoners carried forward to a later revision by incremental reasoning")
+                .register(registry);
+    }
+
+    private PooledReasoner get(Key key, Supplier<PooledReasoner> loader) {
+        try {
+            return cache.get(key, loader::get);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to create reasoner", e.getCause());
+        }
+    }
+
+    private PooledReasoner load(Key key, OWLOntology reasoningOntology) {
+        if (key.reasoner().isIncremental()) {
+            var previous = findPrevious(key);
+            if (previous != null) {
+                var pooled = cache.getIfPresent(previous);
+                if (pooled != null && pooled.advance(previous.revisionNumber(), key.revisionNumber(),
+                        reasoningOntology)) {
+                    // The pooled reasoner now answers for the later revision only
+                    cache.asMap().remove(previous, pooled);
+                    incrementalUpdates.incrementAndGet();
+                    return pooled;
+                }
+            }
+        }
+        return PooledReasoner.classify(key.reasoner(), key.revisionNumber(), copy(reasoningOntology));
+    }
+
+    /**
+     * Finds the key of the latest pooled earlier revision with the same project, reasoner and view.
+     */
+    @Nullable
+    private Key findPrevious(Key key) {
+        Key previous = null;
+        for (var candidate : cache.asMap().keySet()) {
+            if (candidate.projectId().equals(key.projectId()) && candidate.reasoner() == key.reasoner()
+                    && candidate.view().equals(key.view()) && candidate.revisionNumber() < key.revisionNumber()
+                    && (previous == null || candidate.revisionNumber() > previous.revisionNumber())) {
+                previous = candidate;
+            }
+        }
+        return previous;
+    }
+
+    private static OWLOntology copy(OWLOntology ontology) {
+        try {
+            return OWLManager.createOWLOntologyManager().createOntology(ontology.getAxioms(Imports.INCLUDED));
+        } catch (OWLOntologyCreationException e) {
+            throw new IllegalStateException("Failed to copy the reasoning ontology", e);
+        }
+    }
+
+    private record Key(ProjectId projectId, long revisionNumber, Reasoner reasoner, String view) {
+    }
+
+    /**
+     * A classified reasoner over a private copy of a revision's axioms, used by one query at a time.
+     * It answers for the revision it currently holds, which changes when it is carried forward.
+     */
+    private static final class PooledReasoner {
+
+        private final OWLOntology ontology;
+
+        private final OWLReasoner reasoner;
+
+        private long revisionNumber;
+
+        private boolean disposed;
+
+        private PooledReasoner(OWLOntology ontology, OWLReasoner reasoner, long revisionNumber) {
+            this.ontology = ontology;
+            this.reasoner = reasoner;
+            this.revisionNumber = revisionNumber;
+        }
+
+        static PooledReasoner classify(Reasoner reasoner, long revisionNumber, OWLOntology ontology) {
+            var owlReasoner = reasoner.createReasonerFactory().createReasoner(ontology);
+            precompute(owlReasoner);
+            return new PooledReasoner(ontology, owlReasoner, revisionNumber);
+        }
+
+        synchronized <T> T query(long revisionNumber, Function<OWLReasoner, T> query) {
+            if (disposed || this.revisionNumber != revisionNumber) {
+                throw new UnavailableException();
+            }
+            return query.apply(reasoner);
+        }
+
+        /**
+         * Applies the difference between the held axioms and the given reasoning ontology, and lets
+         * the reasoner update its classification.
+         *
+         * @return {@code false} if the reasoner no longer holds the expected revision
+         */
+        synchronized boolean advance(long expectedRevisionNumber, long revisionNumber,
+                OWLOntology reasoningOntology) {
+            if (disposed || this.revisionNumber != expectedRevisionNumber) {
+                return false;
+            }
+            var target = reasoningOntology.getAxioms(Imports.INCLUDED);
+            var removals = new HashSet<OWLAxiom>();
+            for (var axiom : ontology.getAxioms()) {
+                if (!target.contains(axiom)) {
+                    removals.add(axiom);
+                }
+            }
+            var additions = new HashSet<OWLAxiom>();
+            for (var axiom : target) {
+                if (!ontology.containsAxiom(axiom)) {
+                    additions.add(axiom);
+                }
+            }
+            var manager = ontology.getOWLOntologyManager();
+            try {
+                manager.removeAxioms(ontology, removals);
+                manager.addAxioms(ontology, additions);
+                reasoner.flush();
+                precompute(reasoner);
+            } catch (RuntimeException e) {
+                // Half-applied changes would leave a reasoner that answers for neither revision
+                disposed = true;
+                reasoner.dispose();
+                throw e;
+            }
+            this.revisionNumber = revisionNumber;
+            return true;
+        }
+
+        /**
+         * Disposes the reasoner if it still holds the given revision; a reasoner that was carried
+         * forward is left to the entry of its later revision.
+         */
+        synchronized void dispose(long revisionNumber) {
+            if (!disposed && this.revisionNumber == revisionNumber) {
+                disposed = true;
+                reasoner.dispose();
+            }
+        }
+
+        private static void precompute(OWLReasoner reasoner) {
+            if (reasoner.isConsistent()) {
+                reasoner.precomputeInferences(InferenceType.CLASS_HIERARCHY);
+            }
+        }
+    }
+
+    private static final class UnavailableException extends RuntimeException {
+
+        UnavailableException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package edu.stanford.protege.robot.command.common;
+
+import edu.stanford.protege.robot.command.OperationContext;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.obolibrary.robot.CommandLineHelper;
+import org.obolibrary.robot.IOHelper;
+import org.obolibrary.robot.OntologyHelper;
+import org.obolibrary.robot.RelatedObjectsHelper;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AddImport;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAnnotationValue;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The term, selector and axiom selection shared by the filter and remove commands, applied through
+ * {@link RelatedObjectsHelper} without going through ROBOT's command-line parser.
+ *
+ * <p>
+ * ROBOT has no operation class for term-based filtering and removal; the logic lives in
+ * {@code FilterCommand} and {@code RemoveCommand}. This class follows those commands step by step,
+ * so {@link #filter} and {@link #remove} produce the same ontology as the command-line execution of
+ * the same arguments. Unlike the commands, term lists are resolved in bulk through the
+ * {@link edu.stanford.protege.robot.command.TermIndex} of the execution, selectors and axiom
+ * selectors are evaluated over object ids by a {@link SelectorEngine}, and the axioms remove takes
+ * out, the gaps it spans and the axiom annotations it drops are each applied as one
+ * {@link ChangeBatch}. Since nothing is removed before the gaps are spanned, remove needs no deep copy
+ * of the ontology for {@code --preserve-structure}.
+ */
+public final class RelatedObjectsSelection {
+
+    private static final Logger logger = LoggerFactory.getLogger(RelatedObjectsSelection.class);
+
+    /**
+     * Splits a {@code --select} value into selectors, keeping quoted annotation values together.
+     */
+    private static final Pattern SELECT_PATTERN = Pattern.compile("([^\\s]+=.*'[^']+'[^\\s']*|[^\\s']+)");
+
+    private final List<String> baseIris;
+    private final List<String> terms;
+    private final List<String> excludeTerms;
+    private final List<String> includeTerms;
+    private final List<String> selectors;
+    private final List<String> axioms;
+    private final List<String> dropAxiomAnnotations;
+    private final boolean signature;
+    private final boolean trim;
+    private final boolean preserveStructure;
+    private final boolean allowPunning;
+
+    public RelatedObjectsSelection(
+            @Nullable String baseIri,
+            @Nullable List<String> terms,
+            @Nullable List<String> excludeTerms,
+            @Nullable List<String> includeTerms,
+            @Nullable List<String> selectors,
+            @Nullable List<String> axioms,
+            @Nullable List<String> dropAxiomAnnotations,
+            CommandFlags... flags) {
+        this.baseIris = baseIri == null || baseIri.isEmpty() ? List.of() : List.of(baseIri);
+        this.terms = orEmpty(terms);
+        this.excludeTerms = orEmpty(excludeTerms);
+        this.includeTerms = orEmpty(includeTerms);
+        this.selectors = orEmpty(selectors);
+        this.axioms = orEmpty(axioms);
+        this.dropAxiomAnnotations = orEmpty(dropAxiomAnnotations);
+        var flagsList = Arrays.asList(flags);
+        this.signature = flagsList.contains(CommandFlags.SIGNATURE);
+        this.trim = !flagsList.contains(CommandFlags.NO_TRIM);
+        this.preserveStructure = !flagsList.contains(CommandFlags.NO_PRESERVE_STRUCTURE);
+        this.allowPunning = flagsList.contains(CommandFlags.ALLOW_PUNNING);
+    }
+
+    /**
+     * Copies the selected axioms of the input ontology into a new ontology, as ROBOT filter does.
+     *
+     * @param input
+     *            the ontology to filter, which is left unchanged
+     * @param context
+     *            resolves the terms, base IRIs and annotation properties
+     * @return a new ontology with the ontology IRI of the input
+     */
+    public OWLOntology filter(@Nonnull OWLOntology input, @Nonnull OperationContext context) throws Exception {
+        var ioHelper = context.ioHelper();
+        var manager = OWLManager.createOWLOntologyManager();
+        var outputIri = input.getOntologyID().getOntologyIRI().orNull();
+        var output = outputIri != null ? manager.createOntology(outputIri) : manager.createOntology();
+
+        var selectGroups = new ArrayList<List<String>>();
+        var includeAnnotations = false;
+        for (var selectGroup : splitSelects()) {
+            if (selectGroup.remove("annotations")) {
+                includeAnnotations = true;
+            }
+            if (selectGroup.remove("imports")) {
+                input.getImportsDeclarations().forEach(
+                        declaration -> manager.applyChange(new AddImport(output, declaration)));
+            }
+            if (selectGroup.remove("ontology")) {
+                input.getAnnotations().forEach(annotation -> OntologyHelper.addOntologyAnnotation(output, annotation));
+            }
+            if (!selectGroup.isEmpty()) {
+                selectGroups.add(selectGroup);
+            }
+        }
+
+        var annotationDropper = new AnnotationDropper(ioHelper, dropAxiomAnnotations);
+        var engine = new SelectorEngine(input, context);
+        var relatedIds = getObjects(input, context, engine, selectGroups);
+        if (!relatedIds.isEmpty()) {
+            var relatedObjects = engine.objects(relatedIds);
+            var axiomSelectors = getAxiomSelectors();
+            var baseNamespaces = getBaseNamespaces(ioHelper);
+            var selected = new HashSet<>(engine.filterAxioms(relatedIds, axiomSelectors, baseNamespaces, !trim,
+                    signature));
+            if (preserveStructure) {
+                var locality = getLocality(axiomSelectors);
+                selected.addAll(RelatedObjectsHelper.spanGaps(input, baseNamespaces, relatedObjects, false,
+                        "internal".equals(locality), "external".equals(locality)));
+            }
+            if (includeAnnotations) {
+                selected.addAll(RelatedObjectsHelper.getAnnotationAxioms(input, relatedObjects));
+            }
+            // The output only holds the selected axioms, so they are added with their annotations dropped
+            manager.addAxioms(output, selected.stream().map(annotationDropper::drop).collect(Collectors.toSet()));
+        }
+        return output;
+    }
+
+    /**
+     * Removes the selected axioms from the ontology in place, as ROBOT remove does.
+     *
+     * @param ontology
+     *            the ontology to remove axioms from
+     * @param context
+     *            resolves the terms, base IRIs and annotation properties
+     */
+    public void remove(@Nonnull OWLOntology ontology, @Nonnull OperationContext context) throws Exception {
+        var ioHelper = context.ioHelper();
+        var selectGroups = new ArrayList<List<String>>();
+        var anonymous = false;
+        for (var selectGroup : splitSelects()) {
+            if (selectGroup.remove("imports")) {
+                OntologyHelper.removeImports(ontology);
+            }
+            if (selectGroup.remove("ontology")) {
+                OntologyHelper.removeOntologyAnnotations(ontology);
+            }
+            if (selectGroup.contains("anonymous")) {
+                anonymous = true;
+            }
+            if (!selectGroup.isEmpty()) {
+                selectGroups.add(selectGroup);
+            }
+        }
+
+        var annotationDropper = new AnnotationDropper(ioHelper, dropAxiomAnnotations);
+        var engine = new SelectorEngine(ontology, context);
+        var relatedIds = getObjects(ontology, context, engine, selectGroups);
+        if (!relatedIds.isEmpty()) {
+            var relatedObjects = engine.objects(relatedIds);
+            var axiomSelectors = getAxiomSelectors();
+            var baseNamespaces = getBaseNamespaces(ioHelper);
+            var removed = engine.filterAxioms(relatedIds, axiomSelectors, baseNamespaces, trim, signature);
+            var batch = new ChangeBatch(ontology).removeAxioms(removed);
+            if (preserveStructure) {
+                // ROBOT spans the gaps between the objects left once the axioms are removed, over the
+                // ontology as it was before
+                var complementObjects = new HashSet<OWLObject>();
+                for (var axiom : ontology.getAxioms()) {
+                    if (!removed.contains(axiom)) {
+                        complementObjects.addAll(OntologyHelper.getObjects(axiom));
+                    }
+                }
+                complementObjects.removeAll(relatedObjects);
+                var locality = getLocality(axiomSelectors);
+                batch.addAxioms(RelatedObjectsHelper.spanGaps(ontology, baseNamespaces, complementObjects,
+                        anonymous, "internal".equals(locality), "external".equals(locality)));
+            }
+            batch.apply();
+        }
+        if (!annotationDropper.isEmpty()) {
+            var batch = new ChangeBatch(ontology);
+            for (var axiom : ontology.getAxioms()) {
+                var dropped = annotationDropper.drop(axiom);
+                if (dropped != axiom) {
+                    batch.removeAxioms(List.of(axiom)).addAxioms(List.of(dropped));
+                }
+            }
+            batch.apply();
+        }
+    }
+
+    /**
+     * Resolves the target terms and expands them with the selectors, mirroring
+     * {@code RemoveCommand.getObjects}, and returns the ids of the related objects.
+     */
+    private BitSet getObjects(OWLOntology ontology, OperationContext context, SelectorEngine engine,
+            List<List<String>> selectGroups) throws Exception {
+        var termIndex = context.termIndex();
+        var termIris = termIndex.resolveIris(terms);
+        var entities = OntologyHelper.getEntities(ontology, termIris, allowPunning);
+
+        var axiomSelector = getAxiomSelectors().stream()
+                .anyMatch(selector -> selector.equalsIgnoreCase("internal") || selector.equalsIgnoreCase("external")
+                        || selector.contains("tautologies"));
+        // Nothing matched an explicit selection or explicit terms
+        if (!selectors.isEmpty() && selectGroups.isEmpty() && entities.isEmpty() && !axiomSelector) {
+            return new BitSet();
+        }
+        if (entities.isEmpty() && !termIris.isEmpty() && !axiomSelector) {
+            return new BitSet();
+        }
+        var objects = entities.isEmpty() ? engine.all() : engine.ids(entities);
+
+        var relatedIds = engine.selectGroups(objects, selectGroups);
+        // Include terms take precedence over exclude terms
+        var includeIds = engine.ids(termIndex.resolveEntities(ontology, includeTerms, allowPunning));
+        var excludeIds = engine.ids(termIndex.resolveEntities(ontology, excludeTerms, allowPunning));
+        relatedIds = (BitSet) relatedIds.clone();
+        relatedIds.andNot(excludeIds);
+        relatedIds.or(includeIds);
+        return relatedIds;
+    }
+
+    private List<List<String>> splitSelects() {
+        var selects = selectors.isEmpty() ? List.of("self") : selectors;
+        var selectGroups = new ArrayList<List<String>>(selects.size());
+        for (var select : selects) {
+            var selectGroup = new ArrayList<String>();
+            var matcher = SELECT_PATTERN.matcher(select);
+            while (matcher.find()) {
+                selectGroup.add(matcher.group(1).trim());
+            }
+            selectGroups.add(selectGroup);
+        }
+        return selectGroups;
+    }
+
+    private List<String> getAxiomSelectors() {
+        if (axioms.isEmpty()) {
+            return List.of("all");
+        }
+        var axiomSelectors = new ArrayList<String>();
+        for (var axiom : axioms) {
+            axiomSelectors.addAll(Arrays.asList(axiom.split(" ")));
+        }
+        return axiomSelectors;
+    }
+
+    private List<String> getBaseNamespaces(IOHelper ioHelper) {
+        var baseNamespaces = new ArrayList<String>(baseIris.size());
+        for (var base : baseIris) {
+            if (base.contains(":")) {
+                baseNamespaces.add(base);
+                continue;
+            }
+            var expanded = ioHelper.getPrefixes().get(base);
+            if (expanded != null) {
+                baseNamespaces.add(expanded);
+            } else {
+                logger.error("Unknown prefix: '{}'", base);
+            }
+        }
+        return baseNamespaces;
+    }
+
+    /**
+     * Returns {@code internal} or {@code external}, whichever comes first in the axiom selectors.
+     */
+    @Nullable
+    private static String getLocality(List<String> axiomSelectors) {
+        for (var selector : axiomSelectors) {
+            if (selector.equalsIgnoreCase("internal")) {
+                return "internal";
+            }
+            if (selector.equalsIgnoreCase("external")) {
+                return "external";
+            }
+        }
+        return null;
+    }
+
+    private static List<String> orEmpty(@Nullable List<String> values) {
+        return values == null ? List.of() : values;
+    }
+
+    /**
+     * Drops the axiom annotations that {@code --drop-axiom-annotations} names, as
+     * {@link RelatedObjectsHelper#dropAxiomAnnotations} does. ROBOT removes each axiom that loses
+     * annotations and adds it back without them, one call at a time and one property at a time; here
+     * all the named annotations are dropped from an axiom at once, and the callers apply the cleaned
+     * axioms together.
+     */
+    private static final class AnnotationDropper {
+
+        private final boolean all;
+
+        private final Map<IRI, String> annotationsToDrop;
+
+        private final Map<String, Pattern> patterns = new HashMap<>();
+
+        AnnotationDropper(IOHelper ioHelper, List<String> dropAxiomAnnotations) throws IOException {
+            this.all = dropAxiomAnnotations.stream().anyMatch(value -> value.equalsIgnoreCase("all"));
+            this.annotationsToDrop = CommandLineHelper.createAnnotationToDropMap(ioHelper, dropAxiomAnnotations);
+        }
+
+        boolean isEmpty() {
+            return !all && annotationsToDrop.isEmpty();
+        }
+
+        /**
+         * Returns the axiom without the dropped annotations, or the axiom itself if it keeps them all.
+         */
+        OWLAxiom drop(OWLAxiom axiom) {
+            if (!axiom.isAnnotated() || isEmpty()) {
+                return axiom;
+            }
+            if (all) {
+                return axiom.getAxiomWithoutAnnotations();
+            }
+            var kept = new HashSet<OWLAnnotation>();
+            for (var annotation : axiom.getAnnotations()) {
+                if (!isDropped(annotation)) {
+                    kept.add(annotation);
+                }
+            }
+            return kept.size() == axiom.getAnnotations().size()
+                    ? axiom
+                    : axiom.getAxiomWithoutAnnotations().getAnnotatedAxiom(kept);
+        }
+
+        private boolean isDropped(OWLAnnotation annotation) {
+            var property = annotation.getProperty().getIRI();
+            if (!annotationsToDrop.containsKey(property)) {
+                return false;
+            }
+            var value = annotationsToDrop.get(property);
+            if (value == null) {
+                return true;
+            }
+            var annotationValue = valueAsString(annotation.getValue());
+            if (value.startsWith("~")) {
+                return patterns.computeIfAbsent(value, key -> Pattern.compile(key.substring(1).replace("'", "")))
+                        .matcher(annotationValue).find();
+            }
+            if (annotationValue.equals(value.replace("'", ""))) {
+                return true;
+            }
+            logger.warn("Axiom annotation value to drop must be a regex starting with ~' or the exact value: {}",
+                    value);
+            return false;
+        }
+
+        private static String valueAsString(OWLAnnotationValue value) {
+            if (value instanceof IRI iri) {
+                return iri.toString();
+            }
+            if (value instanceof OWLLiteral literal) {
+                return literal.getLiteral();
+            }
+            return value.toString();
+        }
+    }
+}
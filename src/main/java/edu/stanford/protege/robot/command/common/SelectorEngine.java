@@ -0,0 +1,458 @@
+package edu.stanford.protege.robot.command.common;
+
+import edu.stanford.protege.robot.command.OntologyIndex;
+import edu.stanford.protege.robot.command.OperationContext;
+import edu.stanford.protege.robot.command.SignatureIndex;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.obolibrary.robot.OntologyHelper;
+import org.obolibrary.robot.RelatedObjectsHelper;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLNamedObject;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+/**
+ * Evaluates ROBOT's object selectors and axiom selectors over the ids of a {@link SignatureIndex},
+ * giving the same results as {@link RelatedObjectsHelper#selectGroups} and
+ * {@link RelatedObjectsHelper#filterAxioms}.
+ *
+ * <p>
+ * A selection is a {@link BitSet} of object ids. Type selectors such as {@code classes} and
+ * {@code named} intersect it with the mask of the type, {@code complement} is the difference from
+ * all objects of the ontology, and the groups of a {@code --select} are unions and chains of bit
+ * sets. The hierarchy selectors on classes and the annotation selectors are answered from the
+ * {@link OntologyIndex} of the ontology; any other selector is applied by ROBOT to a {@link Set} view
+ * of the selection, and its result numbered again. Objects that are not in the axioms of the ontology,
+ * such as a term without any axioms, get ids after those of the index.
+ *
+ * <p>
+ * Axioms are filtered by type in one scan over the axioms of the index, partitioned over the
+ * fork-join pool of the execution, checking the precomputed object ids of each axiom against the
+ * final selection. The tautology selectors select from all axioms of the ontology through the
+ * {@link TautologyCache} of the context, and ROBOT's {@code internal} and {@code external} selectors are
+ * left to ROBOT. An engine belongs to one filter or remove call; apart from the axiom scan and the
+ * tautology checks it uses one thread.
+ */
+final class SelectorEngine {
+
+    private static final Set<String> HIERARCHY_SELECTORS = Set.of("parents", "children", "ancestors", "descendants");
+
+    private static final Set<String> ROBOT_AXIOM_SELECTORS = Set.of("internal", "external");
+
+    private final OWLOntology ontology;
+
+    private final OperationContext context;
+
+    private final SignatureIndex signature;
+
+    private final List<OWLObject> extraObjects = new ArrayList<>();
+
+    private final Map<OWLObject, Integer> extraIds = new HashMap<>();
+
+    @Nullable
+    private OntologyIndex hierarchy;
+
+    /**
+     * Creates an engine over the current axioms of an ontology.
+     *
+     * @param ontology
+     *            the ontology to select from, which must not change while the engine is used
+     * @param context
+     *            provides the indexes of the ontology and resolves prefixes
+     */
+    SelectorEngine(@Nonnull OWLOntology ontology, @Nonnull OperationContext context) {
+        this.ontology = ontology;
+        this.context = context;
+        this.signature = context.signatureIndex(ontology);
+    }
+
+    /**
+     * Returns the ids of all objects of the axioms of the ontology, as selected by ROBOT when no terms
+     * are given.
+     */
+    BitSet all() {
+        var ids = new BitSet(signature.objectCount());
+        ids.set(0, signature.objectCount());
+        return ids;
+    }
+
+    /**
+     * Returns the ids of the given objects, numbering those that are not in the index.
+     */
+    BitSet ids(@Nonnull Collection<? extends OWLObject> objects) {
+        if (objects instanceof ObjectView view && view.engine() == this) {
+            return (BitSet) view.ids.clone();
+        }
+        var ids = new BitSet(signature.objectCount());
+        for (var object : objects) {
+            ids.set(id(object));
+        }
+        return ids;
+    }
+
+    /**
+     * Returns a read-only view of the objects with the given ids. The ids must not change while the
+     * view is used.
+     */
+    Set<OWLObject> objects(@Nonnull BitSet ids) {
+        return new ObjectView(ids);
+    }
+
+    /**
+     * Applies the select groups in turn, each group selecting the union of its selectors.
+     */
+    BitSet selectGroups(@Nonnull BitSet ids, @Nonnull List<List<String>> selectGroups) throws Exception {
+        for (var selectGroup : selectGroups) {
+            if (selectGroup.isEmpty()) {
+                continue;
+            }
+            var union = new BitSet(signature.objectCount());
+            for (var selector : selectGroup) {
+                union.or(select(ids, selector));
+            }
+            ids = union;
+        }
+        return ids;
+    }
+
+    /**
+     * Applies one selector. The result may be the given ids themselves and must not be modified.
+     */
+    BitSet select(@Nonnull BitSet ids, @Nonnull String selector) throws Exception {
+        if ("self".equals(selector)) {
+            return ids;
+        }
+        if ("complement".equals(selector)) {
+            var complement = all();
+            complement.andNot(ids);
+            return complement;
+        }
+        if (SignatureIndex.isTypeSelector(selector)) {
+            return selectType(ids, selector);
+        }
+        if (HIERARCHY_SELECTORS.contains(selector)) {
+            return selectHierarchy(ids, selector);
+        }
+        var objects = objects(ids);
+        if (selector.contains("=")) {
+            // ROBOT matches the annotations of each object against the pattern; only objects annotated
+            // with the pattern's property can match
+            var property = context.ioHelper().createIRI(selector.split("=")[0]);
+            if (property != null) {
+                objects = hierarchy().annotatedWith(objects, property);
+            }
+        }
+        return ids(RelatedObjectsHelper.select(ontology, context.ioHelper(), objects, selector));
+    }
+
+    /**
+     * Returns the axioms of the ontology that ROBOT's {@code filterAxioms} returns for the selected
+     * objects.
+     *
+     * @param ids
+     *            the selected objects
+     * @param axiomSelectors
+     *            the axiom selectors, such as {@code all}, {@code logical} or {@code subclass}
+     * @param baseNamespaces
+     *            the namespaces of the {@code internal} and {@code external} selectors
+     * @param partial
+     *            whether axioms that contain any selected object are kept, rather than only those that
+     *            contain no other objects
+     * @param namedOnly
+     *            whether only the named objects of axioms are considered
+     * @return the selected axioms, some without their annotations
+     */
+    Set<OWLAxiom> filterAxioms(@Nonnull BitSet ids, @Nonnull List<String> axiomSelectors,
+            @Nonnull List<String> baseNamespaces, boolean partial, boolean namedOnly)
+            throws OWLOntologyCreationException {
+        var objects = objects(ids);
+        var robotSelectors = new ArrayList<String>();
+        var axiomTypes = new HashSet<Class<? extends OWLAxiom>>();
+        var filtered = new HashSet<OWLAxiom>();
+        for (var selector : axiomSelectors) {
+            var normalized = selector.toLowerCase(Locale.ROOT);
+            if (ROBOT_AXIOM_SELECTORS.contains(normalized)) {
+                robotSelectors.add(selector);
+            } else if (normalized.equals("tautologies") || normalized.equals("structural-tautologies")) {
+                filtered.addAll(context.tautologyCache().tautologies(ontology.getAxioms(),
+                        normalized.equals("structural-tautologies"), context.forkJoinPool()));
+            } else {
+                axiomTypes.addAll(RelatedObjectsHelper.getAxiomValues(selector));
+            }
+        }
+        if (!robotSelectors.isEmpty()) {
+            filtered.addAll(RelatedObjectsHelper.filterAxioms(ontology.getAxioms(), objects, robotSelectors,
+                    baseNamespaces, partial, namedOnly));
+        }
+        if (axiomTypes.isEmpty()) {
+            return filtered;
+        }
+        var iris = namedIris(ids);
+        var types = Set.copyOf(axiomTypes);
+        filtered.addAll(context.forkJoinPool().submit(() -> IntStream.range(0, signature.axiomCount()).parallel()
+                .mapToObj(position -> filterAxiom(position, types, ids, objects, iris, partial, namedOnly))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet())).join());
+        return filtered;
+    }
+
+    /**
+     * Returns the axiom at a position as ROBOT's filtering by axiom type keeps it, or {@code null} if
+     * it is not kept. Axioms are filtered concurrently.
+     */
+    @Nullable
+    private OWLAxiom filterAxiom(int position, Set<Class<? extends OWLAxiom>> axiomTypes, BitSet ids,
+            Set<OWLObject> objects, Set<IRI> iris, boolean partial, boolean namedOnly) {
+        var axiom = signature.axiom(position);
+        if (!OntologyHelper.extendsAxiomTypes(axiom, axiomTypes)) {
+            return null;
+        }
+        if (namedOnly) {
+            return filterNamedOnly(axiom, iris, partial);
+        }
+        if (partial) {
+            return isPartialMatch(position, axiom, ids, objects, iris) ? axiom : null;
+        }
+        if (!isCompleteMatch(position, axiom, ids, objects, iris)) {
+            return null;
+        }
+        return hasAllAnnotations(axiom, objects, iris) ? axiom : axiom.getAxiomWithoutAnnotations();
+    }
+
+    /**
+     * Filters an axiom on the IRIs of its signature and of its annotations, as ROBOT does for
+     * {@code --signature}.
+     */
+    @Nullable
+    private static OWLAxiom filterNamedOnly(OWLAxiom axiom, Set<IRI> iris, boolean partial) {
+        var signatureIris = OntologyHelper.getIRIsInSignature(axiom.getAxiomWithoutAnnotations());
+        var unannotatedMatch = axiom.isAnnotated() && iris.containsAll(signatureIris);
+        for (var annotation : axiom.getAnnotations()) {
+            signatureIris.add(annotation.getProperty().getIRI());
+            if (annotation.getValue() instanceof IRI value) {
+                signatureIris.add(value);
+            }
+        }
+        if (partial) {
+            return signatureIris.stream().anyMatch(iris::contains) ? axiom : null;
+        }
+        if (iris.containsAll(signatureIris)) {
+            return axiom;
+        }
+        return unannotatedMatch ? axiom.getAxiomWithoutAnnotations() : null;
+    }
+
+    private BitSet selectType(BitSet ids, String selector) {
+        var selected = (BitSet) ids.clone();
+        selected.and(signature.typeMask(selector));
+        for (var id = ids.nextSetBit(signature.objectCount()); id >= 0; id = ids.nextSetBit(id + 1)) {
+            if (SignatureIndex.isOfType(selector, object(id))) {
+                selected.set(id);
+            }
+        }
+        return selected;
+    }
+
+    private BitSet selectHierarchy(BitSet ids, String selector) throws Exception {
+        var classes = objects(selectType(ids, "classes"));
+        var related = switch (selector) {
+            case "parents" -> hierarchy().parents(classes);
+            case "children" -> hierarchy().children(classes);
+            case "ancestors" -> hierarchy().ancestors(classes);
+            default -> hierarchy().descendants(classes);
+        };
+        var selected = ids(related);
+        var properties = selectType(ids, "properties");
+        if (!properties.isEmpty()) {
+            selected.or(ids(RelatedObjectsHelper.select(ontology, context.ioHelper(), objects(properties), selector)));
+        }
+        return selected;
+    }
+
+    /**
+     * Returns whether all objects of an axiom are selected, as ROBOT's complete axiom filtering does.
+     * An annotation assertion matches on its subject, property and value instead.
+     */
+    private boolean isCompleteMatch(int position, OWLAxiom axiom, BitSet ids, Set<OWLObject> objects,
+            Set<IRI> iris) {
+        if (axiom instanceof OWLAnnotationAssertionAxiom assertion) {
+            if (!isSubjectSelected(assertion, objects, iris) || !iris.contains(assertion.getProperty().getIRI())) {
+                return false;
+            }
+            var value = assertion.getValue();
+            return value.isLiteral() || objects.contains(value) || iris.contains(value.asIRI().orNull());
+        }
+        return signature.allObjectsIn(position, ids);
+    }
+
+    /**
+     * Returns whether the annotations of a completely matched axiom only refer to selected objects, in
+     * which case ROBOT keeps the axiom with its annotations.
+     */
+    private static boolean hasAllAnnotations(OWLAxiom axiom, Set<OWLObject> objects, Set<IRI> iris) {
+        for (var annotation : axiom.getAnnotations()) {
+            var property = annotation.getProperty();
+            if (!objects.contains(property) && !iris.contains(property.getIRI())) {
+                return false;
+            }
+            var value = annotation.getValue();
+            if (!objects.contains(value) && !iris.contains(value.asIRI().orNull())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether any object of an axiom or of its annotations is selected, as ROBOT's partial
+     * axiom filtering does.
+     */
+    private boolean isPartialMatch(int position, OWLAxiom axiom, BitSet ids, Set<OWLObject> objects,
+            Set<IRI> iris) {
+        if (axiom instanceof OWLAnnotationAssertionAxiom assertion) {
+            if (isSubjectSelected(assertion, objects, iris)) {
+                return true;
+            }
+            var value = assertion.getValue();
+            if (iris.contains(assertion.getProperty().getIRI()) || objects.contains(value)
+                    || iris.contains(value.asIRI().orNull())) {
+                return true;
+            }
+        } else if (signature.anyObjectIn(position, ids)) {
+            return true;
+        }
+        for (var annotation : axiom.getAnnotations()) {
+            var property = annotation.getProperty();
+            var value = annotation.getValue();
+            if (objects.contains(property) || iris.contains(property.getIRI()) || objects.contains(value)
+                    || iris.contains(value.asIRI().orNull())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether the subject of an annotation assertion is selected. As in ROBOT, an IRI subject
+     * is looked up among the objects first, because the OWL API reports IRIs as anonymous.
+     */
+    private static boolean isSubjectSelected(OWLAnnotationAssertionAxiom assertion, Set<OWLObject> objects,
+            Set<IRI> iris) {
+        var subject = assertion.getSubject();
+        if (subject.isAnonymous() && objects.contains(subject)) {
+            return true;
+        }
+        return subject.isIRI() && iris.contains(subject);
+    }
+
+    private Set<IRI> namedIris(BitSet ids) {
+        var iris = new HashSet<IRI>();
+        for (var id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            if (object(id) instanceof OWLNamedObject named) {
+                iris.add(named.getIRI());
+            }
+        }
+        return iris;
+    }
+
+    private OntologyIndex hierarchy() {
+        if (hierarchy == null) {
+            hierarchy = context.ontologyIndex(ontology);
+        }
+        return hierarchy;
+    }
+
+    private int id(OWLObject object) {
+        var id = signature.objectId(object);
+        if (id != null) {
+            return id;
+        }
+        return extraIds.computeIfAbsent(object, key -> {
+            extraObjects.add(key);
+            return signature.objectCount() + extraObjects.size() - 1;
+        });
+    }
+
+    @Nullable
+    private Integer existingId(Object object) {
+        var id = signature.objectId(object);
+        return id != null ? id : extraIds.get(object);
+    }
+
+    private OWLObject object(int id) {
+        var count = signature.objectCount();
+        return id < count ? signature.object(id) : extraObjects.get(id - count);
+    }
+
+    /**
+     * The objects of a selection, as the sets ROBOT's helpers take.
+     */
+    private final class ObjectView extends AbstractSet<OWLObject> {
+
+        private final BitSet ids;
+
+        private final int size;
+
+        ObjectView(BitSet ids) {
+            this.ids = ids;
+            this.size = ids.cardinality();
+        }
+
+        SelectorEngine engine() {
+            return SelectorEngine.this;
+        }
+
+        @Override
+        public boolean contains(Object object) {
+            var id = existingId(object);
+            return id != null && ids.get(id);
+        }
+
+        @Override
+        public Iterator<OWLObject> iterator() {
+            return new Iterator<>() {
+
+                private int next = ids.nextSetBit(0);
+
+                @Override
+                public boolean hasNext() {
+                    return next >= 0;
+                }
+
+                @Override
+                public OWLObject next() {
+                    if (next < 0) {
+                        throw new NoSuchElementException();
+                    }
+                    var object = object(next);
+                    next = ids.nextSetBit(next + 1);
+                    return object;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package edu.stanford.protege.robot.command.common;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import javax.annotation.Nonnull;
+import org.obolibrary.robot.ReasonOperation;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLLogicalAxiom;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+/**
+ * Finds the tautological axioms that ROBOT's {@code tautologies} and {@code structural-tautologies}
+ * axiom selectors select, remembering the reasoner's verdict on each axiom.
+ *
+ * <p>
+ * Whether an axiom is a tautology does not depend on the ontology it is in: ROBOT checks it
+ * structurally, or asks HermiT whether an empty ontology entails it. The structural checks are cheap
+ * and run first, in parallel, and an axiom that is a structural tautology is also entailed by the
+ * empty ontology, so it is selected without asking HermiT, which rejects some of them such as
+ * assertions of {@code owl:topDataProperty}. Only the remaining logical axioms need the reasoner. Its
+ * verdicts are cached by axiom, so later stages and pipelines, on the same or any other revision, only
+ * reason about axioms they have not seen. The axioms that are not cached are checked in parallel,
+ * each worker with its own HermiT instance, since a reasoner is not safe for concurrent use.
+ *
+ * <p>
+ * The least recently used verdicts are evicted once the cache holds the configured maximum, and
+ * verdicts also expire when they have not been used for a while. A maximum of zero disables caching.
+ */
+public final class TautologyCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "robotTautologies";
+
+    /**
+     * The number of axioms one HermiT instance checks, so that each check pays for creating a
+     * reasoner over the empty ontology only once per batch.
+     */
+    private static final int AXIOMS_PER_CHECKER = 256;
+
+    private final Cache<OWLAxiom, Boolean> cache;
+
+    private final boolean enabled;
+
+    private final AtomicLong reasonerChecks = new AtomicLong();
+
+    /**
+     * Creates a cache.
+     *
+     * @param maximumSize
+     *            the number of verdicts above which the least recently used one is evicted
+     * @param expireAfterAccess
+     *            how long an unused verdict is kept
+     */
+    public TautologyCache(long maximumSize, @Nonnull Duration expireAfterAccess) {
+        Objects.requireNonNull(expireAfterAccess, "expireAfterAccess cannot be null");
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize must be non-negative");
+        }
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        this.enabled = maximumSize > 0;
+    }
+
+    /**
+     * Creates a cache that keeps nothing, so that every call asks the reasoner again.
+     *
+     * @return the disabled cache
+     */
+    public static TautologyCache disabled() {
+        return new TautologyCache(0, Duration.ZERO);
+    }
+
+    /**
+     * Returns the tautological axioms among the given ones, as ROBOT's
+     * {@code RelatedObjectsHelper.filterTautologicalAxioms} does.
+     *
+     * @param axioms
+     *            the axioms to check
+     * @param structural
+     *            whether only structural tautologies are selected, rather than all axioms the empty
+     *            ontology entails
+     * @param forkJoinPool
+     *            runs the checks concurrently
+     * @return the tautological axioms
+     */
+    public Set<OWLAxiom> tautologies(@Nonnull Collection<OWLAxiom> axioms, boolean structural,
+            @Nonnull ForkJoinPool forkJoinPool) {
+        var structuralTautologies = forkJoinPool.submit(() -> axioms.parallelStream()
+                .collect(Collectors.partitioningBy(axiom -> ReasonOperation.isTautological(axiom, null, true))))
+                .join();
+        var tautologies = new HashSet<>(structuralTautologies.get(true));
+        if (structural) {
+            return tautologies;
+        }
+        var unchecked = new ArrayList<OWLAxiom>();
+        for (var axiom : structuralTautologies.get(false)) {
+            if (!(axiom instanceof OWLLogicalAxiom)) {
+                // Other than declarations, which are checked structurally, ROBOT only reasons about
+                // logical axioms
+                continue;
+            }
+            var cached = enabled ? cache.getIfPresent(axiom) : null;
+            if (cached == null) {
+                unchecked.add(axiom);
+            } else if (cached) {
+                tautologies.add(axiom);
+            }
+        }
+        tautologies.addAll(checkEntailed(unchecked, forkJoinPool));
+        return tautologies;
+    }
+
+    /**
+     * Drops all cached verdicts.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    long reasonerChecks() {
+        return reasonerChecks.get();
+    }
+
+    @Override
+    public void bindTo(@Nonnull MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, cache, CACHE_NAME);
+        FunctionCounter.builder("robot.tautologies.reasoner.checks", reasonerChecks, AtomicLong::get)
+                .description("Axioms checked for tautology by a reasoner, because no verdict was cached")
+                .register(registry);
+    }
+
+    /**
+     * Asks HermiT which of the axioms the empty ontology entails, caching every verdict.
+     */
+    private Set<OWLAxiom> checkEntailed(List<OWLAxiom> axioms, ForkJoinPool forkJoinPool) {
+        if (axioms.isEmpty()) {
+            return Set.of();
+        }
+        var batches = (axioms.size() + AXIOMS_PER_CHECKER - 1) / AXIOMS_PER_CHECKER;
+        return forkJoinPool.submit(() -> IntStream.range(0, batches).parallel()
+                .mapToObj(batch -> checkEntailed(axioms.subList(batch * AXIOMS_PER_CHECKER,
+                        Math.min(axioms.size(), (batch + 1) * AXIOMS_PER_CHECKER))))
+                .flatMap(List::stream)
+                .collect(Collectors.toSet())).join();
+    }
+
+    private List<OWLAxiom> checkEntailed(List<OWLAxiom> batch) {
+        var checker = createChecker();
+        try {
+            var entailed = new ArrayList<OWLAxiom>();
+            for (var axiom : batch) {
+                var tautological = checker.isEntailed(axiom);
+                reasonerChecks.incrementAndGet();
+                if (enabled) {
+                    cache.put(axiom, tautological);
+                }
+                if (tautological) {
+                    entailed.add(axiom);
+                }
+            }
+            return entailed;
+        } finally {
+            checker.dispose();
+        }
+    }
+
+    private static OWLReasoner createChecker() {
+        try {
+            return ReasonOperation.getTautologyChecker(false);
+        } catch (OWLOntologyCreationException e) {
+            throw new IllegalStateException("Failed to create tautology checker", e);
+        }
+    }
+}
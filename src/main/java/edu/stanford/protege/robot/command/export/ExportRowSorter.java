@@ -0,0 +1,270 @@
+package edu.stanford.protege.robot.command.export;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Sorts rendered export rows with an external merge sort, so that the rows of a large export are
+ * never all held in memory.
+ *
+ * <p>
+ * Rows are buffered until their text exceeds the configured budget, then sorted and spilled to a
+ * temporary file. Once all rows are added, the spilled runs and the buffered rows are merged. The
+ * order is the order ROBOT's {@code Table.sortRows} produces: ROBOT sorts stably by each sort
+ * column in turn, so the last sort column is the most significant, and rows that are equal in all
+ * sort columns keep the order they were added in. Empty values sort after all others in ascending
+ * order, and before them in descending order.
+ */
+final class ExportRowSorter implements Closeable {
+
+    private final Comparator<SortableRow> comparator;
+
+    private final long maxBufferedChars;
+
+    private final List<SortableRow> buffer = new ArrayList<>();
+
+    private final List<Path> runs = new ArrayList<>();
+
+    private long bufferedChars;
+
+    /**
+     * Creates a sorter.
+     *
+     * @param reverse
+     *            whether each sort column, in the order ROBOT sorts by them, is sorted in
+     *            descending order
+     * @param maxBufferedChars
+     *            the number of characters of row text held in memory before the rows are spilled
+     */
+    ExportRowSorter(@Nonnull List<Boolean> reverse, long maxBufferedChars) {
+        Objects.requireNonNull(reverse, "reverse cannot be null");
+        if (maxBufferedChars <= 0) {
+            throw new IllegalArgumentException("maxBufferedChars must be positive");
+        }
+        this.comparator = comparator(List.copyOf(reverse));
+        this.maxBufferedChars = maxBufferedChars;
+    }
+
+    /**
+     * Adds a row.
+     *
+     * @param row
+     *            the row, whose sequence must be greater than that of all rows added before
+     */
+    void add(@Nonnull SortableRow row) throws IOException {
+        buffer.add(row);
+        bufferedChars += row.length();
+        if (bufferedChars > maxBufferedChars) {
+            spill();
+        }
+    }
+
+    /**
+     * Passes all added rows to the consumer in sorted order.
+     *
+     * @param consumer
+     *            receives the rows
+     */
+    void drainTo(@Nonnull RowConsumer consumer) throws IOException {
+        buffer.sort(comparator);
+        if (runs.isEmpty()) {
+            for (var row : buffer) {
+                consumer.accept(row);
+            }
+            buffer.clear();
+            return;
+        }
+        var readers = new ArrayList<RunReader>();
+        try {
+            for (var run : runs) {
+                readers.add(new RunReader(run));
+            }
+            var heads = new PriorityQueue<Head>((first, second) -> comparator.compare(first.row, second.row));
+            for (var reader : readers) {
+                var row = reader.next();
+                if (row != null) {
+                    heads.add(new Head(row, reader));
+                }
+            }
+            var buffered = buffer.iterator();
+            if (buffered.hasNext()) {
+                heads.add(new Head(buffered.next(), null));
+            }
+            while (!heads.isEmpty()) {
+                var head = heads.poll();
+                consumer.accept(head.row);
+                SortableRow next;
+                if (head.reader != null) {
+                    next = head.reader.next();
+                } else {
+                    next = buffered.hasNext() ? buffered.next() : null;
+                }
+                if (next != null) {
+                    heads.add(new Head(next, head.reader));
+                }
+            }
+        } finally {
+            for (var reader : readers) {
+                reader.close();
+            }
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Returns the number of runs spilled to temporary files.
+     */
+    int spilledRuns() {
+        return runs.size();
+    }
+
+    /**
+     * Deletes the spilled runs.
+     */
+    @Override
+    public void close() {
+        for (var run : runs) {
+            try {
+                Files.deleteIfExists(run);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        runs.clear();
+    }
+
+    private void spill() throws IOException {
+        buffer.sort(comparator);
+        var run = Files.createTempFile("robot-export-", ".rows");
+        runs.add(run);
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run)))) {
+            for (var row : buffer) {
+                out.writeLong(row.sequence());
+                out.writeInt(row.sortKeys().size());
+                for (var key : row.sortKeys()) {
+                    writeString(out, key);
+                }
+                writeString(out, row.text());
+            }
+        }
+        buffer.clear();
+        bufferedChars = 0;
+    }
+
+    private static Comparator<SortableRow> comparator(List<Boolean> reverse) {
+        return (first, second) -> {
+            for (var i = reverse.size() - 1; i >= 0; i--) {
+                var firstKey = first.sortKeys().get(i);
+                var secondKey = second.sortKeys().get(i);
+                var result = reverse.get(i) ? compareValues(secondKey, firstKey) : compareValues(firstKey, secondKey);
+                if (result != 0) {
+                    return result;
+                }
+            }
+            return Long.compare(first.sequence(), second.sequence());
+        };
+    }
+
+    private static int compareValues(String first, String second) {
+        var firstEmpty = first.trim().isEmpty();
+        var secondEmpty = second.trim().isEmpty();
+        if (firstEmpty || secondEmpty) {
+            return Boolean.compare(firstEmpty, secondEmpty);
+        }
+        return first.compareTo(second);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        var bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return new String(in.readNBytes(in.readInt()), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A rendered row and the values it is sorted by.
+     *
+     * @param sequence
+     *            the position of the row's entity in ROBOT's iteration order
+     * @param sortKeys
+     *            the sort value of each sort column, in the order ROBOT sorts by them
+     * @param text
+     *            the row as written to the export
+     */
+    record SortableRow(long sequence, @Nonnull List<String> sortKeys, @Nonnull String text) {
+
+        SortableRow {
+            Objects.requireNonNull(sortKeys, "sortKeys cannot be null");
+            Objects.requireNonNull(text, "text cannot be null");
+        }
+
+        private long length() {
+            var length = (long) text.length();
+            for (var key : sortKeys) {
+                length += key.length();
+            }
+            return length;
+        }
+    }
+
+    /**
+     * Receives sorted rows.
+     */
+    @FunctionalInterface
+    interface RowConsumer {
+
+        void accept(@Nonnull SortableRow row) throws IOException;
+    }
+
+    private record Head(SortableRow row, @Nullable RunReader reader) {
+    }
+
+    private static final class RunReader implements Closeable {
+
+        private final DataInputStream in;
+
+        RunReader(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run)));
+        }
+
+        @Nullable
+        SortableRow next() throws IOException {
+            long sequence;
+            try {
+                sequence = in.readLong();
+            } catch (EOFException e) {
+                return null;
+            }
+            var keyCount = in.readInt();
+            var sortKeys = new ArrayList<String>(keyCount);
+            for (var i = 0; i < keyCount; i++) {
+                sortKeys.add(readString(in));
+            }
+            return new SortableRow(sequence, sortKeys, readString(in));
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,813 @@
+package edu.stanford.protege.robot.command.export;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.obolibrary.robot.IOHelper;
+import org.obolibrary.robot.OntologyHelper;
+import org.obolibrary.robot.QuotedEntityChecker;
+import org.obolibrary.robot.export.Cell;
+import org.obolibrary.robot.export.Column;
+import org.obolibrary.robot.export.RendererType;
+import org.obolibrary.robot.export.Row;
+import org.obolibrary.robot.export.Table;
+import org.obolibrary.robot.providers.CURIEShortFormProvider;
+import org.obolibrary.robot.providers.EmptyIRIShortFormProvider;
+import org.obolibrary.robot.providers.EmptyShortFormProvider;
+import org.obolibrary.robot.providers.IRIValueShortFormProvider;
+import org.obolibrary.robot.providers.QuotedAnnotationValueShortFormProvider;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.EntityType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLCardinalityRestriction;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLDataProperty;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologySetProvider;
+import org.semanticweb.owlapi.model.OWLProperty;
+import org.semanticweb.owlapi.model.OWLQuantifiedDataRestriction;
+import org.semanticweb.owlapi.model.OWLQuantifiedObjectRestriction;
+import org.semanticweb.owlapi.search.EntitySearcher;
+import org.semanticweb.owlapi.util.AnnotationValueShortFormProvider;
+import org.semanticweb.owlapi.util.IRIShortFormProvider;
+import org.semanticweb.owlapi.util.ShortFormProvider;
+import org.semanticweb.owlapi.util.SimpleShortFormProvider;
+
+/**
+ * The column resolution, entity selection and row rendering of ROBOT's {@code ExportOperation},
+ * split so that rows can be computed one entity at a time.
+ *
+ * <p>
+ * {@code ExportOperation.createExportTable} resolves the columns, renders a row for every selected
+ * entity and sorts the rows, all in one {@link Table}. These methods do the same steps separately
+ * and produce the same columns and cells, so that {@link StreamingExporter} can render and write
+ * rows without holding the whole table.
+ *
+ * <p>
+ * The columns of a created table only read the ontology, so the cells of different entities can be
+ * computed concurrently as long as the ontology is not changed.
+ */
+final class ExportTables {
+
+    private static final OWLDataFactory dataFactory = OWLManager.getOWLDataFactory();
+
+    private static final Pattern TAGGED_COLUMN = Pattern.compile("^(.+) \\[([^\\[\\]]+)]$",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final List<String> ENTITY_FORMAT_TAGS = List.of("id", "iri", "label", "name");
+
+    private static final List<String> ENTITY_SELECT_TAGS = List.of("any", "named", "anon", "anonymous");
+
+    private static final List<String> SYNONYM_PROPERTIES = List.of(
+            "http://www.geneontology.org/formats/oboInOwl#hasExactSynonym",
+            "http://www.geneontology.org/formats/oboInOwl#hasBroadSynonym",
+            "http://www.geneontology.org/formats/oboInOwl#hasNarrowSynonym",
+            "http://www.geneontology.org/formats/oboInOwl#hasRelatedSynonym",
+            "http://purl.obolibrary.org/obo/IAO_0000118");
+
+    private static final String SUBCLASS_OF = "http://www.w3.org/2000/01/rdf-schema#subClassOf";
+
+    private static final String SUBPROPERTY_OF = "http://www.w3.org/2000/01/rdf-schema#subPropertyOf";
+
+    private static final String EQUIVALENT_CLASS = "http://www.w3.org/2002/07/owl#equivalentClass";
+
+    private static final String EQUIVALENT_PROPERTY = "http://www.w3.org/2002/07/owl#equivalentProperty";
+
+    private static final String DISJOINT_WITH = "http://www.w3.org/2002/07/owl#disjointWith";
+
+    private static final String TYPE = "http://www.w3.org/1999/02/22-rdf-syntax-ns#type";
+
+    private static final String DOMAIN = "http://www.w3.org/2000/01/rdf-schema#domain";
+
+    private static final String RANGE = "http://www.w3.org/2000/01/rdf-schema#range";
+
+    /**
+     * The column names ROBOT accepts for the built-in relations, besides the labels of the
+     * ontology.
+     */
+    private static final Map<String, String> RELATION_LABELS = Map.ofEntries(
+            Map.entry("SubClass Of", SUBCLASS_OF),
+            Map.entry("SubProperty Of", SUBPROPERTY_OF),
+            Map.entry("Equivalent Class", EQUIVALENT_CLASS),
+            Map.entry("Equivalent Classes", EQUIVALENT_CLASS),
+            Map.entry("Equivalent Property", EQUIVALENT_PROPERTY),
+            Map.entry("Equivalent Properties", EQUIVALENT_PROPERTY),
+            Map.entry("Disjoint With", DISJOINT_WITH),
+            Map.entry("Type", TYPE),
+            Map.entry("SubClassOf", SUBCLASS_OF),
+            Map.entry("SubPropertyOf", SUBPROPERTY_OF),
+            Map.entry("EquivalentClass", EQUIVALENT_CLASS),
+            Map.entry("EquivalentClasses", EQUIVALENT_CLASS),
+            Map.entry("EquivalentProperty", EQUIVALENT_PROPERTY),
+            Map.entry("EquivalentProperties", EQUIVALENT_PROPERTY),
+            Map.entry("DisjointWith", DISJOINT_WITH),
+            Map.entry("Domain", DOMAIN),
+            Map.entry("Range", RANGE),
+            Map.entry("subClassOf", SUBCLASS_OF),
+            Map.entry("subPropertyOf", SUBPROPERTY_OF),
+            Map.entry("equivalentClass", EQUIVALENT_CLASS),
+            Map.entry("equivalentClasses", EQUIVALENT_CLASS),
+            Map.entry("equivalentProperty", EQUIVALENT_PROPERTY),
+            Map.entry("equivalentProperties", EQUIVALENT_PROPERTY),
+            Map.entry("disjointWith", DISJOINT_WITH),
+            Map.entry("subclass of", SUBCLASS_OF),
+            Map.entry("subproperty of", SUBPROPERTY_OF),
+            Map.entry("equivalent class", EQUIVALENT_CLASS),
+            Map.entry("equivalent classes", EQUIVALENT_CLASS),
+            Map.entry("equivalent property", EQUIVALENT_PROPERTY),
+            Map.entry("equivalent properties", EQUIVALENT_PROPERTY),
+            Map.entry("disjoint with", DISJOINT_WITH),
+            Map.entry("type", TYPE),
+            Map.entry("subclassof", SUBCLASS_OF),
+            Map.entry("subpropertyof", SUBPROPERTY_OF),
+            Map.entry("equivalentclass", EQUIVALENT_CLASS),
+            Map.entry("equivalentclasses", EQUIVALENT_CLASS),
+            Map.entry("equivalentproperty", EQUIVALENT_PROPERTY),
+            Map.entry("equivalentproperties", EQUIVALENT_PROPERTY),
+            Map.entry("disjointwith", DISJOINT_WITH),
+            Map.entry("domain", DOMAIN),
+            Map.entry("range", RANGE));
+
+    private ExportTables() {
+    }
+
+    /**
+     * Creates a table without rows whose columns and sort columns are resolved as ROBOT resolves
+     * them.
+     *
+     * @param ontology
+     *            the ontology whose properties and labels the column names refer to
+     * @param ioHelper
+     *            resolves CURIEs in column names and renders IDs
+     * @param columnNames
+     *            the columns of the header
+     * @param format
+     *            the ROBOT format name, such as {@code tsv} or {@code html-list}
+     * @param sort
+     *            the pipe-separated sort columns, or {@code null} to sort by the first column
+     * @param entityFormat
+     *            the default entity rendering of the columns
+     * @param entitySelect
+     *            the default entity selection of the columns
+     * @return the table
+     * @throws IllegalArgumentException
+     *             if a column or tag cannot be resolved, or a sort column is not in the header
+     */
+    static Table createTable(OWLOntology ontology, IOHelper ioHelper, List<String> columnNames, String format,
+            @Nullable String sort, String entityFormat, String entitySelect) {
+        var sortColumn = sort != null ? sort : columnNames.get(0);
+        var table = new Table(format.toLowerCase());
+        var labelMap = OntologyHelper.getLabelIRIs(ontology);
+        RELATION_LABELS.forEach((label, iri) -> labelMap.put(label, IRI.create(iri)));
+
+        var checker = new QuotedEntityChecker();
+        checker.setIOHelper(ioHelper);
+        checker.addProvider(new SimpleShortFormProvider());
+        checker.addProperty(dataFactory.getRDFSLabel());
+        checker.addAll(ontology);
+
+        if (!ENTITY_FORMAT_TAGS.contains(entityFormat.toLowerCase())) {
+            throw new IllegalArgumentException(String.format(
+                    "export#ENTITY FORMAT ERROR '%s' is not a valid entity rendering format", entityFormat));
+        }
+        if (!ENTITY_SELECT_TAGS.contains(entitySelect.toLowerCase())) {
+            throw new IllegalArgumentException(String.format(
+                    "export#ENTITY SELECT ERROR '%s' is not a valid entity selection", entitySelect));
+        }
+
+        var manager = ontology.getOWLOntologyManager();
+        var labels = Collections.singletonList(dataFactory.getRDFSLabel());
+        var oboProvider = new CURIEShortFormProvider(ioHelper.getPrefixes());
+        var iriProvider = new IRIValueShortFormProvider();
+        var quotedProvider = new ThreadQuotedShortFormProvider(manager, oboProvider, ioHelper.getPrefixManager(),
+                labels);
+        var labelProvider = new AnnotationValueShortFormProvider(manager, new EmptyShortFormProvider(),
+                new EmptyIRIShortFormProvider(), labels, Collections.emptyMap());
+
+        var sorts = Arrays.asList(sortColumn.trim().split("\\|"));
+        for (var c : columnNames) {
+            String currentEntityFormat = null;
+            String currentEntitySelect = null;
+            var colName = c;
+            var matcher = TAGGED_COLUMN.matcher(c);
+            if (matcher.find()) {
+                colName = matcher.group(1);
+                for (var subTag : matcher.group(2).split(" ")) {
+                    switch (subTag.toUpperCase()) {
+                        case "NAMED", "ANON", "ANONYMOUS", "ANY" -> {
+                            if (currentEntitySelect != null) {
+                                throw new IllegalArgumentException(String.format("export#MULTIPLE SELECT ERROR "
+                                        + "column header '%s' contains more than one entity selection tag", c));
+                            }
+                            currentEntitySelect = subTag;
+                        }
+                        case "NAME", "LABEL", "ID", "IRI" -> {
+                            if (currentEntityFormat != null) {
+                                throw new IllegalArgumentException(String.format("export#MULTIPLE FORMAT ERROR "
+                                        + "column header '%s' contains more than one entity format tag", c));
+                            }
+                            currentEntityFormat = subTag;
+                        }
+                        default -> throw unknownTag(c, subTag);
+                    }
+                }
+            }
+            if (currentEntityFormat == null) {
+                currentEntityFormat = entityFormat;
+            }
+            if (currentEntitySelect == null) {
+                currentEntitySelect = entitySelect;
+            }
+
+            var iri = labelMap.get(colName);
+            if (iri == null) {
+                iri = ioHelper.createIRI(colName);
+            }
+            if (c.equalsIgnoreCase("ID") || c.equalsIgnoreCase("CURIE")) {
+                currentEntityFormat = "ID";
+                currentEntitySelect = "NAMED";
+            } else if (c.equalsIgnoreCase("IRI")) {
+                currentEntityFormat = "IRI";
+                currentEntitySelect = "NAMED";
+            } else if (c.equalsIgnoreCase("LABEL")) {
+                currentEntityFormat = "LABEL";
+                currentEntitySelect = "NAMED";
+            }
+
+            OWLAnnotationProperty ap = null;
+            if (iri != null && iri.equals(dataFactory.getRDFSLabel().getIRI())) {
+                currentEntityFormat = "LABEL";
+                currentEntitySelect = "NAMED";
+                ap = dataFactory.getRDFSLabel();
+            }
+            // As in ROBOT, an rdfs:label column still looks its property up by name
+            ap = ap == null && iri != null && ontology.containsAnnotationPropertyInSignature(iri)
+                    ? dataFactory.getOWLAnnotationProperty(iri)
+                    : checker.getOWLAnnotationProperty(colName);
+            OWLDataProperty dp = null;
+            OWLObjectProperty op = null;
+            if (ap == null) {
+                dp = iri != null && ontology.containsDataPropertyInSignature(iri)
+                        ? dataFactory.getOWLDataProperty(iri)
+                        : checker.getOWLDataProperty(colName);
+                if (dp == null) {
+                    op = iri != null && ontology.containsObjectPropertyInSignature(iri)
+                            ? dataFactory.getOWLObjectProperty(iri)
+                            : checker.getOWLObjectProperty(colName);
+                }
+            }
+
+            ShortFormProvider provider = switch (currentEntityFormat.toUpperCase()) {
+                case "ID", "CURIE" -> oboProvider;
+                case "IRI" -> iriProvider;
+                case "NAME" -> quotedProvider;
+                case "LABEL" -> labelProvider;
+                default -> throw unknownTag(c, currentEntityFormat);
+            };
+            if (iri != null && iri.toString().equals(TYPE)) {
+                ap = null;
+                dp = null;
+                op = null;
+            }
+
+            Column column;
+            if (ap != null) {
+                column = new Column(colName, c, ap, provider);
+            } else if (dp != null) {
+                column = new Column(colName, c, dp, provider, currentEntitySelect);
+            } else if (op != null) {
+                column = new Column(colName, c, op, provider, currentEntitySelect);
+            } else {
+                column = new Column(colName, c, iri, provider, currentEntitySelect);
+            }
+            for (var s : sorts) {
+                if (c.equalsIgnoreCase(s)) {
+                    column.setSort(sorts.indexOf(c), false);
+                    break;
+                }
+                if (s.equalsIgnoreCase("^" + c)) {
+                    column.setSort(sorts.indexOf("^" + c), true);
+                    break;
+                }
+            }
+            table.addColumn(column);
+        }
+        getSortColumns(table);
+        return table;
+    }
+
+    /**
+     * Returns the columns to sort the rows by, in the order ROBOT sorts by them: each sort is
+     * stable, so the last column is the most significant.
+     *
+     * @param table
+     *            the table
+     * @return the sort columns
+     * @throws IllegalArgumentException
+     *             if a sort column is not in the header
+     */
+    static List<Column> getSortColumns(Table table) {
+        var sortColumns = new HashMap<Integer, Column>();
+        var maxSort = 0;
+        for (var column : table.getColumns()) {
+            sortColumns.put(column.getSortOrder(), column);
+            maxSort = Math.max(maxSort, column.getSortOrder());
+        }
+        var result = new ArrayList<Column>();
+        for (var sortOrder = 0; sortOrder <= maxSort; sortOrder++) {
+            var column = sortColumns.get(sortOrder);
+            if (column == null) {
+                // ROBOT fails with a NullPointerException when it sorts the rows
+                throw new IllegalArgumentException(
+                        "export#SORT ERROR sort column " + (sortOrder + 1) + " does not name a column of the header");
+            }
+            result.add(column);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the entities ROBOT exports, in the order ROBOT iterates them.
+     *
+     * @param ontology
+     *            the ontology
+     * @param include
+     *            the entity types to include, separated by spaces, commas or tabs
+     * @return the entities
+     * @throws IllegalArgumentException
+     *             if no entity type is included
+     */
+    static Set<OWLEntity> getEntities(OWLOntology ontology, String include) {
+        var includeClasses = false;
+        var includeProperties = false;
+        var includeIndividuals = false;
+        var split = new String[] {include};
+        if (include.contains(" ")) {
+            split = include.split(" ");
+        } else if (include.contains(",")) {
+            split = include.split(",");
+        } else if (include.contains("\t")) {
+            split = include.split("\t");
+        }
+        for (var i : split) {
+            switch (i.toLowerCase().trim()) {
+                case "classes" -> includeClasses = true;
+                case "properties" -> includeProperties = true;
+                case "individuals" -> includeIndividuals = true;
+                default -> {
+                }
+            }
+        }
+        if (!includeClasses && !includeProperties && !includeIndividuals) {
+            throw new IllegalArgumentException(
+                    "export#INCLUDE NOTHING ERROR you must include some types of ontology terms");
+        }
+
+        var entities = OntologyHelper.getEntities(ontology);
+        entities.remove(dataFactory.getOWLThing());
+        entities.remove(dataFactory.getOWLNothing());
+        entities.remove(dataFactory.getOWLTopObjectProperty());
+        entities.remove(dataFactory.getOWLBottomObjectProperty());
+        entities.remove(dataFactory.getOWLTopDataProperty());
+        entities.remove(dataFactory.getOWLBottomDataProperty());
+        // Rows that sort equal keep this order, so the set is built exactly as ROBOT builds it
+        var trimmedEntities = new HashSet<OWLEntity>();
+        for (var e : entities) {
+            if (e.isOWLClass() && !includeClasses
+                    || (e.isOWLObjectProperty() || e.isOWLDataProperty() || e.isOWLAnnotationProperty())
+                            && !includeProperties
+                    || e.isOWLNamedIndividual() && !includeIndividuals
+                    || e.isOWLDatatype()) {
+                continue;
+            }
+            trimmedEntities.add(e);
+        }
+        return trimmedEntities;
+    }
+
+    /**
+     * Renders the cells of one entity's row. A column has no cell if it does not apply to the
+     * entity, such as a {@code SubClass Of} column for an individual.
+     *
+     * @param ontology
+     *            the ontology
+     * @param table
+     *            the table whose columns and renderers to use
+     * @param entity
+     *            the entity
+     * @return the cells by column display name
+     * @throws IllegalArgumentException
+     *             if a column names neither a property nor a built-in relation
+     */
+    static Map<String, Cell> getCells(OWLOntology ontology, Table table, OWLEntity entity) {
+        var format = table.getFormat();
+        var displayRendererType = table.getDisplayRendererType();
+        var sortRendererType = table.getSortRendererType();
+        var cells = new HashMap<String, Cell>();
+        for (var col : table.getColumns()) {
+            var includeNamed = col.getIncludeNamed();
+            var includeAnonymous = col.getIncludeAnonymous();
+            var colName = col.getName();
+            OWLProperty colProperty = col.getProperty();
+            if (colProperty instanceof OWLAnnotationProperty maybeLabel && maybeLabel.isLabel()) {
+                colName = "LABEL";
+            }
+            var provider = col.getShortFormProvider();
+            switch (colName.toUpperCase()) {
+                case "IRI" -> {
+                    var iriString = entity.getIRI().toString();
+                    if (format.toLowerCase().startsWith("html")) {
+                        var display = String.format("<a href=\"%s\">%s</a>", iriString,
+                                iriString.replace("&", "&amp;"));
+                        add(cells, new Cell(col, display, iriString));
+                    } else {
+                        add(cells, new Cell(col, iriString));
+                    }
+                    continue;
+                }
+                case "ID", "CURIE" -> {
+                    var display = OntologyHelper.renderManchester(entity, provider, displayRendererType);
+                    var sort = OntologyHelper.renderManchester(entity, provider, sortRendererType);
+                    add(cells, new Cell(col, display, sort));
+                    continue;
+                }
+                case "LABEL" -> {
+                    var providerLabel = provider.getShortForm(entity);
+                    add(cells, new Cell(col, providerLabel, providerLabel));
+                    continue;
+                }
+                case "SYNONYMS" -> {
+                    add(cells, new Cell(col, getSynonyms(ontology, entity)));
+                    continue;
+                }
+                case "SUBCLASSES" -> {
+                    if (entity.isOWLClass()) {
+                        var subclasses = EntitySearcher.getSubClasses(entity.asOWLClass(), ontology);
+                        add(cells, getObjectCell(subclasses, col, displayRendererType, sortRendererType, provider,
+                                includeNamed, includeAnonymous));
+                    }
+                    continue;
+                }
+                default -> {
+                }
+            }
+
+            if (colProperty != null) {
+                var display = getPropertyValues(ontology, displayRendererType, provider, entity, colProperty,
+                        includeNamed, includeAnonymous);
+                var sort = sortRendererType != null
+                        ? getPropertyValues(ontology, sortRendererType, provider, entity, colProperty, includeNamed,
+                                includeAnonymous)
+                        : display;
+                add(cells, new Cell(col, display, sort));
+                continue;
+            }
+
+            var colIRI = col.getIRI();
+            var objects = getRelated(ontology, entity, colIRI != null ? colIRI.toString() : "", colName);
+            if (objects != null) {
+                add(cells, getObjectCell(objects, col, displayRendererType, sortRendererType, provider, includeNamed,
+                        includeAnonymous));
+            } else if (TYPE.equals(colIRI != null ? colIRI.toString() : null)) {
+                add(cells, getEntityTypeCell(entity.getEntityType(), col));
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Creates the ROBOT row holding the given cells, which renders them as ROBOT does.
+     *
+     * @param entity
+     *            the entity of the row
+     * @param cells
+     *            the cells of the row
+     * @return the row
+     */
+    static Row toRow(OWLEntity entity, Map<String, Cell> cells) {
+        var row = new Row(entity.getIRI());
+        cells.values().forEach(row::add);
+        return row;
+    }
+
+    /**
+     * Adds a cell as ROBOT's {@link Row#add(Cell)} does, replacing the cell of an earlier column
+     * with the same display name.
+     */
+    private static void add(Map<String, Cell> cells, Cell cell) {
+        cells.put(cell.getColumnName(), cell);
+    }
+
+    /**
+     * Returns the objects an entity is related to by a built-in relation column, or {@code null} if
+     * the entity has no cell in that column. An individual without asserted types and any other
+     * entity in a {@code Type} column also return {@code null}; their cell holds the entity type.
+     */
+    @Nullable
+    private static Collection<? extends OWLObject> getRelated(OWLOntology ontology, OWLEntity entity,
+            String relation, String colName) {
+        switch (relation) {
+            case SUBCLASS_OF -> {
+                if (!entity.isOWLClass()) {
+                    return null;
+                }
+                var supers = new ArrayList<>(EntitySearcher.getSuperClasses(entity.asOWLClass(), ontology));
+                supers.remove(dataFactory.getOWLThing());
+                return supers;
+            }
+            case SUBPROPERTY_OF -> {
+                if (entity.isOWLAnnotationProperty()) {
+                    return EntitySearcher.getSuperProperties(entity.asOWLAnnotationProperty(), ontology);
+                }
+                if (entity.isOWLDataProperty()) {
+                    return EntitySearcher.getSuperProperties(entity.asOWLDataProperty(), ontology);
+                }
+                if (entity.isOWLObjectProperty()) {
+                    return EntitySearcher.getSuperProperties(entity.asOWLObjectProperty(), ontology);
+                }
+                return null;
+            }
+            case EQUIVALENT_CLASS -> {
+                return entity.isOWLClass() ? EntitySearcher.getEquivalentClasses(entity.asOWLClass(), ontology)
+                        : null;
+            }
+            case EQUIVALENT_PROPERTY -> {
+                if (entity.isOWLDataProperty()) {
+                    return EntitySearcher.getEquivalentProperties(entity.asOWLDataProperty(), ontology);
+                }
+                if (entity.isOWLObjectProperty()) {
+                    return EntitySearcher.getEquivalentProperties(entity.asOWLObjectProperty(), ontology);
+                }
+                return null;
+            }
+            case DISJOINT_WITH -> {
+                if (entity.isOWLClass()) {
+                    var disjoints = new ArrayList<>(EntitySearcher.getDisjointClasses(entity.asOWLClass(), ontology));
+                    disjoints.remove(entity.asOWLClass());
+                    return disjoints;
+                }
+                if (entity.isOWLDataProperty()) {
+                    var disjoints = new ArrayList<>(
+                            EntitySearcher.getDisjointProperties(entity.asOWLDataProperty(), ontology));
+                    disjoints.remove(entity.asOWLDataProperty());
+                    return disjoints;
+                }
+                if (entity.isOWLObjectProperty()) {
+                    var disjoints = new ArrayList<>(
+                            EntitySearcher.getDisjointProperties(entity.asOWLObjectProperty(), ontology));
+                    disjoints.remove(entity.asOWLObjectProperty());
+                    return disjoints;
+                }
+                return null;
+            }
+            case TYPE -> {
+                if (entity.isOWLNamedIndividual()) {
+                    var types = EntitySearcher.getTypes(entity.asOWLNamedIndividual(), ontology);
+                    return types.isEmpty() ? null : types;
+                }
+                return null;
+            }
+            case DOMAIN -> {
+                if (entity.isOWLObjectProperty()) {
+                    return EntitySearcher.getDomains(entity.asOWLObjectProperty(), ontology);
+                }
+                if (entity.isOWLDataProperty()) {
+                    return EntitySearcher.getDomains(entity.asOWLDataProperty(), ontology);
+                }
+                if (entity.isOWLAnnotationProperty()) {
+                    return EntitySearcher.getDomains(entity.asOWLAnnotationProperty(), ontology);
+                }
+                return null;
+            }
+            case RANGE -> {
+                if (entity.isOWLObjectProperty()) {
+                    return EntitySearcher.getRanges(entity.asOWLObjectProperty(), ontology);
+                }
+                if (entity.isOWLDataProperty()) {
+                    return EntitySearcher.getRanges(entity.asOWLDataProperty(), ontology);
+                }
+                if (entity.isOWLAnnotationProperty()) {
+                    return EntitySearcher.getRanges(entity.asOWLAnnotationProperty(), ontology);
+                }
+                return null;
+            }
+            default -> throw new IllegalArgumentException(String.format(
+                    "export#INVALID COLUMN ERROR unable to find property for column header '%s'", colName));
+        }
+    }
+
+    private static Cell getEntityTypeCell(EntityType<?> type, Column column) {
+        var provider = column.getShortFormProvider();
+        String cellValue;
+        if (provider instanceof CURIEShortFormProvider curieProvider) {
+            cellValue = curieProvider.getShortForm(type.getIRI());
+        } else if (provider instanceof AnnotationValueShortFormProvider) {
+            cellValue = type.getPrintName();
+        } else {
+            cellValue = type.getIRI().toString();
+        }
+        return new Cell(column, cellValue);
+    }
+
+    private static Cell getObjectCell(Collection<? extends OWLObject> objects, Column column,
+            RendererType displayRendererType, @Nullable RendererType sortRendererType, ShortFormProvider provider,
+            boolean includeNamed, boolean includeAnonymous) {
+        var displays = owlObjectsToString(displayRendererType, provider, objects, includeNamed, includeAnonymous);
+        var sorts = sortRendererType != null
+                ? owlObjectsToString(sortRendererType, provider, objects, includeNamed, includeAnonymous)
+                : displays;
+        return new Cell(column, displays, sorts);
+    }
+
+    private static List<String> getPropertyValues(OWLOntology ontology, RendererType rt,
+            ShortFormProvider provider, OWLEntity entity, OWLProperty property, boolean includeNamed,
+            boolean includeAnonymous) {
+        if (property instanceof OWLAnnotationProperty ap) {
+            var values = new ArrayList<String>();
+            for (var a : EntitySearcher.getAnnotationAssertionAxioms(entity, ontology)) {
+                if (!a.getProperty().getIRI().equals(ap.getIRI())) {
+                    continue;
+                }
+                if (a.getValue().isIRI()) {
+                    var iri = a.getValue().asIRI().orNull();
+                    if (iri == null) {
+                        continue;
+                    }
+                    var entities = ontology.getEntitiesInSignature(iri);
+                    if (entities.isEmpty()) {
+                        values.add(iri.toString());
+                    }
+                    for (var e : entities) {
+                        values.add(OntologyHelper.renderManchester(e, provider, rt));
+                    }
+                    continue;
+                }
+                var lit = a.getValue().asLiteral().orNull();
+                if (lit != null) {
+                    values.add(lit.getLiteral());
+                }
+            }
+            return values;
+        }
+        if (entity.isOWLNamedIndividual()) {
+            var individual = entity.asOWLNamedIndividual();
+            if (property instanceof OWLDataProperty dp) {
+                return EntitySearcher.getDataPropertyValues(individual, dp, ontology).stream()
+                        .map(Object::toString)
+                        .collect(Collectors.toList());
+            }
+            return EntitySearcher.getObjectPropertyValues(individual, (OWLObjectProperty) property, ontology)
+                    .stream()
+                    .filter(value -> value.isNamed())
+                    .map(value -> OntologyHelper.renderManchester(value.asOWLNamedIndividual(), provider, rt))
+                    .collect(Collectors.toList());
+        }
+        if (entity.isOWLClass()) {
+            var values = new ArrayList<String>();
+            for (var expr : EntitySearcher.getSuperClasses(entity.asOWLClass(), ontology)) {
+                if (expr.isAnonymous()) {
+                    values.addAll(getRestrictionFillers(expr.asConjunctSet(), property, rt, provider, includeNamed,
+                            includeAnonymous));
+                }
+            }
+            for (var expr : EntitySearcher.getEquivalentClasses(entity.asOWLClass(), ontology)) {
+                if (expr.isAnonymous()) {
+                    values.addAll(getRestrictionFillers(expr.asConjunctSet(), property, rt, provider, includeNamed,
+                            includeAnonymous));
+                }
+            }
+            return values;
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Renders the fillers of the quantified and cardinality restrictions on the given data or
+     * object property.
+     */
+    private static Set<String> getRestrictionFillers(Set<OWLClassExpression> exprs, OWLProperty property,
+            RendererType rt, ShortFormProvider provider, boolean includeNamed, boolean includeAnonymous) {
+        var fillers = new HashSet<String>();
+        for (var ce : exprs) {
+            OWLObject filler;
+            Integer n = null;
+            switch (ce.getClassExpressionType()) {
+                case DATA_ALL_VALUES_FROM, DATA_SOME_VALUES_FROM, DATA_EXACT_CARDINALITY, DATA_MIN_CARDINALITY,
+                        DATA_MAX_CARDINALITY -> {
+                    var restriction = (OWLQuantifiedDataRestriction) ce;
+                    if (!(property instanceof OWLDataProperty) || restriction.getProperty().isAnonymous()
+                            || !restriction.getProperty().asOWLDataProperty().getIRI().equals(property.getIRI())) {
+                        continue;
+                    }
+                    filler = restriction.getFiller();
+                    if (ce instanceof OWLCardinalityRestriction<?> cardinality) {
+                        n = cardinality.getCardinality();
+                    }
+                }
+                case OBJECT_ALL_VALUES_FROM, OBJECT_SOME_VALUES_FROM, OBJECT_EXACT_CARDINALITY,
+                        OBJECT_MIN_CARDINALITY, OBJECT_MAX_CARDINALITY -> {
+                    var restriction = (OWLQuantifiedObjectRestriction) ce;
+                    if (!(property instanceof OWLObjectProperty) || restriction.getProperty().isAnonymous()
+                            || !restriction.getProperty().asOWLObjectProperty().getIRI().equals(property.getIRI())) {
+                        continue;
+                    }
+                    filler = restriction.getFiller();
+                    if (ce instanceof OWLCardinalityRestriction<?> cardinality) {
+                        n = cardinality.getCardinality();
+                    }
+                }
+                default -> {
+                    continue;
+                }
+            }
+            if (filler.isAnonymous() ? includeAnonymous : includeNamed) {
+                fillers.add(renderRestrictionString(rt, provider, filler, n));
+            }
+        }
+        return fillers;
+    }
+
+    private static List<String> getSynonyms(OWLOntology ontology, OWLEntity entity) {
+        var synonyms = new ArrayList<String>();
+        for (var ax : ontology.getAnnotationAssertionAxioms(entity.getIRI())) {
+            if (!SYNONYM_PROPERTIES.contains(ax.getProperty().getIRI().toString())) {
+                continue;
+            }
+            var lit = ax.getValue().asLiteral().orNull();
+            if (lit != null) {
+                synonyms.add(lit.getLiteral());
+            }
+        }
+        Collections.sort(synonyms);
+        return synonyms;
+    }
+
+    private static List<String> owlObjectsToString(RendererType rt, ShortFormProvider provider,
+            Collection<? extends OWLObject> objects, boolean includeNamed, boolean includeAnonymous) {
+        var strings = new ArrayList<String>();
+        for (var object : objects) {
+            if (object.isAnonymous() ? includeAnonymous : includeNamed) {
+                strings.add(OntologyHelper.renderManchester(object, provider, rt));
+            }
+        }
+        return strings;
+    }
+
+    private static String renderRestrictionString(RendererType rt, ShortFormProvider provider, OWLObject filler,
+            @Nullable Integer n) {
+        var render = OntologyHelper.renderManchester(filler, provider, rt);
+        if (filler instanceof OWLEntity) {
+            return n != null ? String.format("%d %s", n, render) : render;
+        }
+        return n != null ? String.format("%d (%s)", n, render) : String.format("(%s)", render);
+    }
+
+    private static IllegalArgumentException unknownTag(String column, String tag) {
+        return new IllegalArgumentException(String.format(
+                "export#UNKNOWN TAG ERROR Column '%s' contains an unknown rendering tag: %s", column, tag));
+    }
+
+    /**
+     * A {@link QuotedAnnotationValueShortFormProvider} whose quoting is switched per thread.
+     * ROBOT's {@code OntologyHelper.renderManchester} switches the quoting of the provider on while
+     * it renders an anonymous expression, which would quote the names other threads render at the
+     * same time.
+     */
+    private static final class ThreadQuotedShortFormProvider extends QuotedAnnotationValueShortFormProvider {
+
+        private final ThreadLocal<Boolean> quoting = ThreadLocal.withInitial(() -> false);
+
+        ThreadQuotedShortFormProvider(OWLOntologySetProvider ontologies, ShortFormProvider alternate,
+                IRIShortFormProvider alternateIri, List<OWLAnnotationProperty> labels) {
+            super(ontologies, alternate, alternateIri, labels, Collections.emptyMap());
+        }
+
+        @Override
+        public void toggleQuoting() {
+            quoting.set(!quoting.get());
+        }
+
+        @Nonnull
+        @Override
+        public String getShortForm(@Nonnull OWLEntity entity) {
+            // The quoting of the superclass is never switched on
+            var shortForm = super.getShortForm(entity);
+            return quoting.get() && shortForm.contains(" ") ? String.format("'%s'", shortForm) : shortForm;
+        }
+    }
+}
@@ -3,10 +3,24 @@ package edu.stanford.protege.robot.command.export;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.google.common.collect.ImmutableList;
 import edu.stanford.protege.robot.command.RobotCommand;
+import edu.stanford.protege.robot.command.RobotOperation;
+import edu.stanford.protege.robot.pipeline.RelativePath;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 import javax.annotation.Nullable;
 import org.obolibrary.robot.Command;
 import org.obolibrary.robot.ExportCommand;
+import org.obolibrary.robot.ExportOperation;
+import org.obolibrary.robot.IOHelper;
+import org.semanticweb.owlapi.model.OWLOntology;
 
 /**
  * ROBOT export command for generating tabular representations of ontology entities.
@@ -67,6 +81,8 @@ public record RobotExportCommand(
         implements
             RobotCommand {
 
+    private static final List<String> SUPPORTED_FORMATS = List.of("csv", "html", "html-list", "json", "tsv", "xlsx");
+
     /**
      * Converts this export command to ROBOT command-line arguments.
      *
@@ -135,4 +151,85 @@ public record RobotExportCommand(
     public Command getCommand() {
         return new ExportCommand();
     }
+
+    /**
+     * Returns the operation that exports the table as the document of the stage, leaving the
+     * ontology unchanged.
+     *
+     * <p>
+     * The table is written into the upload of the stage output once the operation has returned, as
+     * the last step of the stage. The {@code tsv}, {@code csv}, {@code json} and {@code html_list}
+     * formats are streamed row by row by {@link StreamingExporter}, with the rows computed in
+     * parallel in the execution's fork-join pool and sorted in bounded memory; {@code html} and
+     * {@code xlsx} are rendered by ROBOT as a whole. As in ROBOT, the format defaults to the
+     * extension of the output path, or {@code tsv}, and the rows are sorted by the first column
+     * when no sort columns are given. ROBOT reads only the first of repeated {@code --sort} and
+     * {@code --include} options; here all sort columns and entity types apply.
+     *
+     * @return the export operation
+     */
+    @Override
+    public Optional<RobotOperation> getOperation() {
+        return Optional.of((state, context) -> {
+            var ontology = state.getOntology();
+            var ioHelper = context.ioHelper();
+            var forkJoinPool = context.forkJoinPool();
+            context.outputs().setDocument((path, out) -> export(ontology, ioHelper, forkJoinPool, path, out));
+            return state;
+        });
+    }
+
+    private void export(OWLOntology ontology, IOHelper ioHelper, ForkJoinPool forkJoinPool, RelativePath path,
+            OutputStream out) throws Exception {
+        var robotFormat = robotFormat(path);
+        var columnNames = Arrays.asList(header.split("\\|"));
+        var sortColumns = sort.isEmpty() ? null : String.join("|", sort);
+        var split = delimiter != null ? delimiter : "|";
+        var includedTypes = include.isEmpty() ? "classes individuals" : String.join(" ", include);
+        var rendering = entityFormat != null ? entityFormat.name() : EntityFormat.NAME.name();
+        var selection = entitySelect != null ? entitySelect.name() : EntitySelect.ANY.name();
+        if (StreamingExporter.canStream(robotFormat)) {
+            new StreamingExporter(ontology, ioHelper, columnNames, sortColumns, split, includedTypes, rendering,
+                    selection, StreamingExporter.DEFAULT_MAX_BUFFERED_CHARS, forkJoinPool).export(robotFormat, out);
+            return;
+        }
+
+        var options = new HashMap<>(ExportOperation.getDefaultOptions());
+        options.put("format", robotFormat);
+        options.put("sort", sortColumns);
+        options.put("split", split);
+        options.put("include", includedTypes);
+        options.put("entity-format", rendering);
+        options.put("entity-select", selection);
+        var table = ExportOperation.createExportTable(ontology, ioHelper, columnNames, options);
+        var file = Files.createTempFile("robot-export-", "." + robotFormat);
+        try {
+            ExportOperation.saveTable(table, file.toString(), options);
+            Files.copy(file, out);
+        } finally {
+            deleteQuietly(file);
+        }
+    }
+
+    /**
+     * Returns the ROBOT name of the export format, taken from the output path when no format is
+     * given.
+     */
+    private String robotFormat(RelativePath path) {
+        if (format != null) {
+            return format == ExportFormat.html_list ? "html-list" : format.name();
+        }
+        var fileName = path.asString().substring(path.asString().lastIndexOf('/') + 1);
+        var dot = fileName.lastIndexOf('.');
+        var extension = dot == -1 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return SUPPORTED_FORMATS.contains(extension) ? extension : ExportFormat.tsv.name();
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // A leftover temporary file does not affect the export
+        }
+    }
 }
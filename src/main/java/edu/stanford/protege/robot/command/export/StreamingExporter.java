@@ -0,0 +1,349 @@
+package edu.stanford.protege.robot.command.export;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import com.opencsv.CSVWriter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.obolibrary.robot.IOHelper;
+import org.obolibrary.robot.export.Column;
+import org.obolibrary.robot.export.Row;
+import org.obolibrary.robot.export.Table;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Writes the export table of an ontology row by row, producing the same output as ROBOT's export
+ * for the formats that can be written incrementally: {@code tsv}, {@code csv}, {@code json} and
+ * {@code html-list}.
+ *
+ * <p>
+ * ROBOT renders every row into one {@code Table}, sorts it and renders the whole document into a
+ * string before writing it. This exporter renders each entity's row into its final text as soon as
+ * it is computed and sorts the rendered rows with an {@link ExportRowSorter}, which spills them to
+ * temporary files once they exceed a memory budget. The document is then written straight to the
+ * output stream, so memory use does not grow with the number of rows.
+ *
+ * <p>
+ * Given a fork-join pool, the rows of each batch of entities are computed in parallel, each from
+ * the unchanged ontology, and added to the sorter in ROBOT's iteration order, so the output does
+ * not depend on the pool.
+ *
+ * <p>
+ * As in ROBOT, the rows are sorted by the first column when no sort columns are given. For
+ * {@code html-list}, the output is the list ROBOT's {@code Table.toHTMLList} renders; ROBOT itself
+ * appends the JSON rendering to it when writing a file.
+ */
+final class StreamingExporter {
+
+    static final long DEFAULT_MAX_BUFFERED_CHARS = 8L * 1024 * 1024;
+
+    static final int ROWS_PER_BATCH = 4096;
+
+    private static final Set<String> STREAMING_FORMATS = Set.of("tsv", "csv", "json", "html-list");
+
+    private static final String BOOTSTRAP_CSS =
+            "https://stackpath.bootstrapcdn.com/bootstrap/4.5.2/css/bootstrap.min.css";
+
+    private final OWLOntology ontology;
+
+    private final IOHelper ioHelper;
+
+    private final List<String> columnNames;
+
+    @Nullable
+    private final String sort;
+
+    private final String split;
+
+    private final String include;
+
+    private final String entityFormat;
+
+    private final String entitySelect;
+
+    private final long maxBufferedChars;
+
+    @Nullable
+    private final ForkJoinPool forkJoinPool;
+
+    /**
+     * Creates an exporter. The options have the values of the corresponding ROBOT export options.
+     *
+     * @param ontology
+     *            the ontology to export
+     * @param ioHelper
+     *            resolves CURIEs in column names and renders IDs
+     * @param columnNames
+     *            the columns of the header
+     * @param sort
+     *            the pipe-separated sort columns, or {@code null} to sort by the first column
+     * @param split
+     *            the separator of multiple values in one cell
+     * @param include
+     *            the entity types to export
+     * @param entityFormat
+     *            the default entity rendering of the columns
+     * @param entitySelect
+     *            the default entity selection of the columns
+     * @param maxBufferedChars
+     *            the number of characters of rendered rows held in memory before they are spilled
+     * @param forkJoinPool
+     *            computes the rows of each batch of entities in parallel, or {@code null} to compute
+     *            them on the calling thread
+     */
+    StreamingExporter(@Nonnull OWLOntology ontology, @Nonnull IOHelper ioHelper, @Nonnull List<String> columnNames,
+            @Nullable String sort, @Nonnull String split, @Nonnull String include, @Nonnull String entityFormat,
+            @Nonnull String entitySelect, long maxBufferedChars, @Nullable ForkJoinPool forkJoinPool) {
+        this.ontology = Objects.requireNonNull(ontology, "ontology cannot be null");
+        this.ioHelper = Objects.requireNonNull(ioHelper, "ioHelper cannot be null");
+        this.columnNames = List.copyOf(columnNames);
+        this.sort = sort;
+        this.split = Objects.requireNonNull(split, "split cannot be null");
+        this.include = Objects.requireNonNull(include, "include cannot be null");
+        this.entityFormat = Objects.requireNonNull(entityFormat, "entityFormat cannot be null");
+        this.entitySelect = Objects.requireNonNull(entitySelect, "entitySelect cannot be null");
+        this.maxBufferedChars = maxBufferedChars;
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    /**
+     * Returns whether a ROBOT export format can be written by this exporter.
+     *
+     * @param format
+     *            the ROBOT format name
+     * @return {@code true} for {@code tsv}, {@code csv}, {@code json} and {@code html-list}
+     */
+    static boolean canStream(@Nonnull String format) {
+        return STREAMING_FORMATS.contains(format);
+    }
+
+    /**
+     * Writes the export table in the given format. The stream is flushed but not closed.
+     *
+     * @param format
+     *            the ROBOT format name, one that {@linkplain #canStream(String) can be streamed}
+     * @param out
+     *            receives the document, encoded in UTF-8
+     * @throws IllegalArgumentException
+     *             if the format cannot be streamed, or the columns or options cannot be resolved
+     */
+    void export(@Nonnull String format, @Nonnull OutputStream out) throws IOException {
+        if (!canStream(format)) {
+            throw new IllegalArgumentException("Export format cannot be streamed: " + format);
+        }
+        var table = ExportTables.createTable(ontology, ioHelper, columnNames, format, sort, entityFormat,
+                entitySelect);
+        var columns = table.getColumns();
+        var sortColumns = ExportTables.getSortColumns(table);
+        var reverse = sortColumns.stream().map(Column::isReverseSort).toList();
+        var renderer = RowRenderer.create(format, columns, split);
+        var entities = List.copyOf(ExportTables.getEntities(ontology, include));
+
+        try (var sorter = new ExportRowSorter(reverse, maxBufferedChars)) {
+            for (var start = 0; start < entities.size(); start += ROWS_PER_BATCH) {
+                var end = Math.min(start + ROWS_PER_BATCH, entities.size());
+                for (var row : computeRows(entities, start, end, table, sortColumns, renderer)) {
+                    sorter.add(row);
+                }
+            }
+
+            var writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            renderer.writeStart(writer);
+            sorter.drainTo(row -> renderer.writeRow(writer, row.text()));
+            renderer.writeEnd(writer);
+            writer.flush();
+        }
+    }
+
+    /**
+     * Computes the rows of the entities in the given range, in the order of the entities.
+     */
+    private List<ExportRowSorter.SortableRow> computeRows(List<OWLEntity> entities, int start, int end,
+            Table table, List<Column> sortColumns, RowRenderer renderer) {
+        var rows = IntStream.range(start, end)
+                .mapToObj(i -> computeRow(i, entities.get(i), table, sortColumns, renderer));
+        if (forkJoinPool == null) {
+            return rows.toList();
+        }
+        return forkJoinPool.submit(() -> rows.parallel().toList()).join();
+    }
+
+    private ExportRowSorter.SortableRow computeRow(long sequence, OWLEntity entity, Table table,
+            List<Column> sortColumns, RowRenderer renderer) {
+        var cells = ExportTables.getCells(ontology, table, entity);
+        var sortKeys = new ArrayList<String>(sortColumns.size());
+        for (var column : sortColumns) {
+            // ROBOT fails when it sorts by a column without a cell; the row sorts as empty instead
+            var cell = cells.get(column.getDisplayName());
+            sortKeys.add(cell != null ? cell.getSortValueString() : "");
+        }
+        var text = renderer.render(ExportTables.toRow(entity, cells));
+        return new ExportRowSorter.SortableRow(sequence, sortKeys, text);
+    }
+
+    /**
+     * Renders rows into their text in one format and writes the document around them.
+     */
+    private abstract static class RowRenderer {
+
+        static RowRenderer create(String format, List<Column> columns, String split) {
+            return switch (format) {
+                case "tsv" -> new DelimitedRenderer(columns, split, '\t');
+                case "csv" -> new DelimitedRenderer(columns, split, ',');
+                case "json" -> new JsonRenderer(columns);
+                default -> new HtmlListRenderer(columns);
+            };
+        }
+
+        /**
+         * Renders the text of a row. Rows are rendered concurrently.
+         */
+        abstract String render(Row row);
+
+        abstract void writeStart(Writer writer) throws IOException;
+
+        abstract void writeRow(Writer writer, String text) throws IOException;
+
+        abstract void writeEnd(Writer writer) throws IOException;
+    }
+
+    /**
+     * Renders rows as ROBOT's {@code IOHelper.writeTable} does, one line of delimited values per
+     * row after a header line of column names.
+     */
+    private static final class DelimitedRenderer extends RowRenderer {
+
+        private final List<Column> columns;
+
+        private final String split;
+
+        private final char separator;
+
+        DelimitedRenderer(List<Column> columns, String split, char separator) {
+            this.columns = columns;
+            this.split = split;
+            this.separator = separator;
+        }
+
+        @Override
+        String render(Row row) {
+            return renderLine(row.toArray(columns, split));
+        }
+
+        @Override
+        void writeStart(Writer writer) throws IOException {
+            writer.write(renderLine(columns.stream().map(Column::getDisplayName).toArray(String[]::new)));
+        }
+
+        @Override
+        void writeRow(Writer writer, String text) throws IOException {
+            writer.write(text);
+        }
+
+        @Override
+        void writeEnd(Writer writer) {
+        }
+
+        private String renderLine(String[] values) {
+            var line = new StringWriter();
+            var csvWriter = new CSVWriter(line, separator, '"', '"', "\n");
+            csvWriter.writeNext(values, false);
+            try {
+                csvWriter.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return line.toString();
+        }
+    }
+
+    /**
+     * Renders rows as the objects of ROBOT's pretty-printed JSON array. Rows are kept as compact
+     * JSON and indented when the array is written.
+     */
+    private static final class JsonRenderer extends RowRenderer {
+
+        private final List<Column> columns;
+
+        private final Gson compact = new GsonBuilder().disableHtmlEscaping().create();
+
+        private final Gson pretty = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+        private JsonWriter jsonWriter;
+
+        JsonRenderer(List<Column> columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        String render(Row row) {
+            return compact.toJson(row.toJSON(columns));
+        }
+
+        @Override
+        void writeStart(Writer writer) throws IOException {
+            jsonWriter = pretty.newJsonWriter(writer);
+            jsonWriter.beginArray();
+        }
+
+        @Override
+        void writeRow(Writer writer, String text) {
+            pretty.toJson(JsonParser.parseString(text), jsonWriter);
+        }
+
+        @Override
+        void writeEnd(Writer writer) throws IOException {
+            jsonWriter.endArray();
+            jsonWriter.flush();
+        }
+    }
+
+    /**
+     * Renders rows as the Bootstrap-styled lists of ROBOT's {@code Table.toHTMLList}.
+     */
+    private static final class HtmlListRenderer extends RowRenderer {
+
+        private final List<Column> columns;
+
+        HtmlListRenderer(List<Column> columns) {
+            this.columns = columns;
+        }
+
+        @Override
+        String render(Row row) {
+            return row.toHTMLList(columns);
+        }
+
+        @Override
+        void writeStart(Writer writer) throws IOException {
+            writer.write("<head>\n  <link rel=\"stylesheet\" href=\"" + BOOTSTRAP_CSS + "\">\n</head>\n<body>\n");
+        }
+
+        @Override
+        void writeRow(Writer writer, String text) throws IOException {
+            writer.write(text);
+        }
+
+        @Override
+        void writeEnd(Writer writer) throws IOException {
+            writer.write("</body>");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package edu.stanford.protege.robot.command.extract;
+
+import edu.stanford.protege.robot.pipeline.RelativePath;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+
+/**
+ * One module of a {@link RobotMultiExtractCommand}.
+ *
+ * @param terms
+ *            seed terms of the module (as CURIEs, full IRIs or labels)
+ * @param outputPath
+ *            where the module is saved
+ */
+public record ExtractModule(@Nonnull List<String> terms, @Nonnull RelativePath outputPath) {
+
+    public ExtractModule {
+        Objects.requireNonNull(terms, "terms cannot be null");
+        Objects.requireNonNull(outputPath, "outputPath cannot be null");
+    }
+}
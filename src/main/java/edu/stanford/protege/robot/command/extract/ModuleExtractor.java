@@ -0,0 +1,107 @@
+package edu.stanford.protege.robot.command.extract;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import javax.annotation.Nonnull;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import uk.ac.manchester.cs.owlapi.modularity.ModuleType;
+import uk.ac.manchester.cs.owlapi.modularity.SyntacticLocalityModuleExtractor;
+
+/**
+ * A syntactic locality module extractor over the axioms of one ontology that extracts any number of
+ * STAR, BOT and TOP modules.
+ *
+ * <p>
+ * Building a {@link SyntacticLocalityModuleExtractor} copies every axiom into an indexed ontology of
+ * its own, which dominates the cost of an extract on a large ontology. ROBOT builds a new one for
+ * every extract; this class keeps one so that it can be reused for different seed signatures and
+ * module types. The extractor has its own ontology manager, so it holds no reference to the ontology
+ * it was built from.
+ *
+ * <p>
+ * Extraction only reads the indexed ontology, so modules of the same type are extracted
+ * concurrently. The module type is state of the underlying extractor; switching it waits for the
+ * extracts of the current type to finish.
+ */
+public final class ModuleExtractor {
+
+    private final SyntacticLocalityModuleExtractor extractor;
+
+    private final int axiomCount;
+
+    private final ReentrantReadWriteLock moduleTypeLock = new ReentrantReadWriteLock();
+
+    private ModuleExtractor(SyntacticLocalityModuleExtractor extractor, int axiomCount) {
+        this.extractor = extractor;
+        this.axiomCount = axiomCount;
+    }
+
+    /**
+     * Builds an extractor over the axioms of the ontology, in the same way as
+     * {@link org.obolibrary.robot.ExtractOperation} with individuals included.
+     *
+     * @param ontology
+     *            the ontology to extract modules from
+     * @param imports
+     *            whether the axioms of the imports closure are included
+     * @return the extractor
+     */
+    public static ModuleExtractor create(@Nonnull OWLOntology ontology, @Nonnull Imports imports) {
+        Objects.requireNonNull(ontology, "ontology cannot be null");
+        Objects.requireNonNull(imports, "imports cannot be null");
+        var axioms = new HashSet<OWLAxiom>(ontology.getAxioms());
+        if (imports == Imports.INCLUDED) {
+            for (var importedOntology : ontology.getImportsClosure()) {
+                axioms.addAll(importedOntology.getAxioms());
+            }
+        }
+        var ontologyIri = ontology.getOntologyID().getOntologyIRI().orNull();
+        var extractor = new SyntacticLocalityModuleExtractor(OWLManager.createOWLOntologyManager(), ontologyIri,
+                axioms, ModuleType.STAR, false);
+        return new ModuleExtractor(extractor, axioms.size());
+    }
+
+    /**
+     * Extracts the module of a seed signature.
+     *
+     * @param signature
+     *            the seed signature
+     * @param moduleType
+     *            the kind of module to extract
+     * @return the axioms of the module
+     */
+    public Set<OWLAxiom> extract(@Nonnull Set<OWLEntity> signature, @Nonnull ModuleType moduleType) {
+        var readLock = moduleTypeLock.readLock();
+        readLock.lock();
+        if (extractor.getModuleType() != moduleType) {
+            readLock.unlock();
+            var writeLock = moduleTypeLock.writeLock();
+            writeLock.lock();
+            try {
+                extractor.setModuleType(moduleType);
+                // Downgrade, so that no other type can be set before this extract has run
+                readLock.lock();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+        try {
+            return extractor.extract(signature);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of axioms the extractor was built over, which is a proxy for its heap size.
+     */
+    public int axiomCount() {
+        return axiomCount;
+    }
+}
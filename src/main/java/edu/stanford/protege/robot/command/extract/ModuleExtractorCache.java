@@ -0,0 +1,120 @@
+package edu.stanford.protege.robot.command.extract;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import javax.annotation.Nonnull;
+import org.semanticweb.owlapi.model.parameters.Imports;
+
+/**
+ * Keeps {@link ModuleExtractor}s per project revision, so that repeated SLME extracts from the same
+ * revision with different seed terms skip building the extractor.
+ *
+ * <p>
+ * Entries are weighed by their estimated heap size, the axiom count times a configured number of
+ * bytes per axiom, and the least recently used entries are evicted once the total exceeds the
+ * configured maximum. Entries also expire when they have not been used for a while, since an old
+ * revision of a project is unlikely to be extracted from again. A maximum of zero disables caching.
+ */
+public final class ModuleExtractorCache implements MeterBinder {
+
+    private static final String CACHE_NAME = "robotModuleExtractors";
+
+    private final Cache<Key, ModuleExtractor> cache;
+
+    private final boolean enabled;
+
+    /**
+     * Creates a cache.
+     *
+     * @param maximumHeapBytes
+     *            the estimated heap size above which entries are evicted
+     * @param bytesPerAxiom
+     *            the estimated heap size of one axiom in an extractor
+     * @param expireAfterAccess
+     *            how long an unused entry is kept
+     */
+    public ModuleExtractorCache(long maximumHeapBytes, int bytesPerAxiom, @Nonnull Duration expireAfterAccess) {
+        Objects.requireNonNull(expireAfterAccess, "expireAfterAccess cannot be null");
+        if (maximumHeapBytes < 0 || bytesPerAxiom <= 0) {
+            throw new IllegalArgumentException("maximumHeapBytes must be non-negative and bytesPerAxiom positive");
+        }
+        // Weights are kept in kilobytes so that a single large extractor fits in an int. The cache holds
+        // few, large entries, so a single segment keeps the maximum exact rather than split per segment.
+        this.cache = CacheBuilder.newBuilder()
+                .concurrencyLevel(1)
+                .maximumWeight(maximumHeapBytes / 1024)
+                .<Key, ModuleExtractor>weigher((key, extractor) -> (int) Math.max(1, Math.min(Integer.MAX_VALUE,
+                        (long) extractor.axiomCount() * bytesPerAxiom / 1024)))
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+        this.enabled = maximumHeapBytes > 0;
+    }
+
+    /**
+     * Creates a cache that keeps nothing, so that every extract builds its own extractor.
+     *
+     * @return the disabled cache
+     */
+    public static ModuleExtractorCache disabled() {
+        return new ModuleExtractorCache(0, 1, Duration.ZERO);
+    }
+
+    /**
+     * Returns the extractor of a project revision, building it with the given loader if it is not
+     * cached. Concurrent requests for the same revision wait for a single build.
+     *
+     * @param projectId
+     *            the project
+     * @param revisionNumber
+     *            the revision of the ontology the extractor is built over
+     * @param imports
+     *            whether the extractor includes the imports closure
+     * @param loader
+     *            builds the extractor
+     * @return the extractor
+     */
+    public ModuleExtractor get(@Nonnull ProjectId projectId, long revisionNumber, @Nonnull Imports imports,
+            @Nonnull Supplier<ModuleExtractor> loader) {
+        if (!enabled) {
+            return loader.get();
+        }
+        try {
+            return cache.get(new Key(projectId, revisionNumber, imports), loader::get);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Failed to build module extractor", e.getCause());
+        }
+    }
+
+    /**
+     * Drops all cached extractors.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    long size() {
+        cache.cleanUp();
+        return cache.size();
+    }
+
+    @Override
+    public void bindTo(@Nonnull MeterRegistry registry) {
+        GuavaCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    private record Key(ProjectId projectId, long revisionNumber, Imports imports) {
+    }
+}
@@ -3,11 +3,15 @@ package edu.stanford.protege.robot.command.extract;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.google.common.collect.ImmutableList;
 import edu.stanford.protege.robot.command.RobotCommand;
+import edu.stanford.protege.robot.command.RobotOperation;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import javax.annotation.Nullable;
 import org.obolibrary.robot.Command;
 import org.obolibrary.robot.ExtractCommand;
+import org.obolibrary.robot.ExtractOperation;
 
 /**
  * Main command for extracting ontology term subsets using ROBOT's extract functionality.
@@ -76,4 +80,40 @@ public record RobotExtractCommand(
     public Command getCommand() {
         return new ExtractCommand();
     }
+
+    /**
+     * Returns the direct operation for {@link SlmeExtractStrategy}. MIREOT and subset extracts are
+     * executed through their arguments.
+     *
+     * @return the direct SLME extract operation, or empty for other strategies
+     */
+    @Override
+    public Optional<RobotOperation> getOperation() {
+        if (!(extractStrategy instanceof SlmeExtractStrategy slmeExtractStrategy)) {
+            return Optional.empty();
+        }
+        return Optional.of((state, context) -> {
+            var options = extractOptions(extractIntermediates, handlingImports, flags);
+            state.setOntology(slmeExtractStrategy.extract(state.getOntology(), options, context));
+            return state;
+        });
+    }
+
+    /**
+     * Returns ROBOT's default extract options with the given settings applied.
+     */
+    static Map<String, String> extractOptions(@Nullable ExtractIntermediates extractIntermediates,
+            @Nullable HandlingImports handlingImports, ExtractFlags... flags) {
+        var options = ExtractOperation.getDefaultOptions();
+        if (extractIntermediates != null) {
+            options.put("intermediates", extractIntermediates.name());
+        }
+        if (handlingImports != null) {
+            options.put("imports", handlingImports.name());
+        }
+        if (Arrays.asList(flags).contains(ExtractFlags.COPY_ONTOLOGY_ANNOTATIONS)) {
+            options.put("copy-ontology-annotations", "true");
+        }
+        return options;
+    }
 }
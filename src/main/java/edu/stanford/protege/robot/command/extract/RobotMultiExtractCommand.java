@@ -0,0 +1,128 @@
+package edu.stanford.protege.robot.command.extract;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import com.google.common.collect.ImmutableList;
+import edu.stanford.protege.robot.command.RobotCommand;
+import edu.stanford.protege.robot.command.RobotOperation;
+import edu.stanford.protege.robot.pipeline.RelativePath;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.obolibrary.robot.Command;
+import org.obolibrary.robot.ExtractCommand;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Extracts several SLME modules from the same ontology in one stage, each from its own seed terms
+ * and saved to its own output path.
+ *
+ * <p>
+ * Running one {@link RobotExtractCommand} stage per module builds the locality index of the whole
+ * ontology once per module. This command builds it once and extracts all modules concurrently from
+ * it in the fork-join pool of the execution. The modules are saved as additional outputs of the
+ * stage; the ontology in the command state is left unchanged, so later stages continue from the
+ * source ontology.
+ *
+ * @param method
+ *            the SLME extraction method used for all modules
+ * @param modules
+ *            the seed terms and output path of each module, none of which may be the output path
+ *            of the stage
+ * @param extractIntermediates
+ *            how to handle intermediate classes in the hierarchy
+ * @param handlingImports
+ *            whether to include or exclude imported ontologies
+ * @param flags
+ *            optional behavior flags
+ *
+ * @see <a href="https://robot.obolibrary.org/extract#slme">ROBOT SLME Documentation</a>
+ */
+@JsonTypeName("MultiExtractCommand")
+public record RobotMultiExtractCommand(
+        @Nonnull SlmeExtractMethod method,
+        @Nonnull List<ExtractModule> modules,
+        @Nullable ExtractIntermediates extractIntermediates,
+        @Nullable HandlingImports handlingImports,
+        ExtractFlags... flags)
+        implements
+            RobotCommand {
+
+    public RobotMultiExtractCommand {
+        Objects.requireNonNull(method, "method cannot be null");
+        modules = List.copyOf(Objects.requireNonNull(modules, "modules cannot be null"));
+        var outputPaths = new HashSet<RelativePath>();
+        for (var module : modules) {
+            if (!outputPaths.add(module.outputPath())) {
+                throw new IllegalArgumentException(
+                        "Duplicate module output path: " + module.outputPath().asString());
+            }
+        }
+    }
+
+    /**
+     * Returns the arguments of the equivalent sequence of ROBOT extracts, one per module and each
+     * ending with its {@code --output}. ROBOT cannot run them as one command, so this command is
+     * always executed through {@link #getOperation()}; the arguments describe it in logs.
+     *
+     * @return immutable list of command-line arguments
+     */
+    @Override
+    public List<String> getArgs() {
+        var args = ImmutableList.<String>builder();
+        for (var module : modules) {
+            args.addAll(new RobotExtractCommand(new SlmeExtractStrategy(method, module.terms()),
+                    extractIntermediates, handlingImports, flags).getArgs());
+            args.add("--output");
+            args.add(module.outputPath().asString());
+        }
+        return args.build();
+    }
+
+    /**
+     * Returns the ROBOT ExtractCommand instance, which names the stage in logs and metrics.
+     *
+     * @return a new ExtractCommand instance
+     */
+    @Override
+    public Command getCommand() {
+        return new ExtractCommand();
+    }
+
+    /**
+     * Returns the operation that extracts all modules concurrently from one module extractor.
+     *
+     * @return the multi-module extract operation
+     */
+    @Override
+    public Optional<RobotOperation> getOperation() {
+        return Optional.of((state, context) -> {
+            var input = state.getOntology();
+            var options = RobotExtractCommand.extractOptions(extractIntermediates, handlingImports, flags);
+            var imports = SlmeExtractStrategy.imports(options);
+            var moduleExtractor = context.moduleExtractor(input, imports);
+
+            // Seeds are resolved up front, so that the tasks only read the input ontology
+            var tasks = new ArrayList<Callable<OWLOntology>>(modules.size());
+            for (var module : modules) {
+                var strategy = new SlmeExtractStrategy(method, module.terms());
+                var seeds = strategy.resolveSeeds(input, imports, context);
+                tasks.add(() -> strategy.extractModule(input, seeds, moduleExtractor, options));
+            }
+            var results = context.forkJoinPool().invokeAll(tasks);
+            for (var i = 0; i < modules.size(); i++) {
+                try {
+                    context.outputs().add(modules.get(i).outputPath(), results.get(i).get());
+                } catch (ExecutionException e) {
+                    throw e.getCause() instanceof Exception cause ? cause : e;
+                }
+            }
+            return state;
+        });
+    }
+}
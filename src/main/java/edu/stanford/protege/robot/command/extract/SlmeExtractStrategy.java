@@ -2,7 +2,22 @@ package edu.stanford.protege.robot.command.extract;
 
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.google.common.collect.ImmutableList;
+import edu.stanford.protege.robot.command.OperationContext;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.obolibrary.robot.OntologyHelper;
+import org.obolibrary.robot.RelatedObjectsHelper;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.search.EntitySearcher;
+import uk.ac.manchester.cs.owlapi.modularity.ModuleType;
 
 /**
  * SLME (Syntactic Locality Module Extractor) extraction strategy.
@@ -61,4 +76,105 @@ public record SlmeExtractStrategy(SlmeExtractMethod method, List<String> terms)
                 });
         return args.build();
     }
+
+    /**
+     * Extracts the module of the seed terms as ROBOT extract does for this method, with individuals
+     * included. The seed terms are resolved through the term index of the execution, and the module
+     * extractor comes from {@link OperationContext#moduleExtractor}, so that extracts from an
+     * unmodified snapshot reuse the extractor of its revision.
+     *
+     * @param input
+     *            the ontology to extract the module from
+     * @param options
+     *            the ROBOT extract options
+     * @param context
+     *            the context of the pipeline execution
+     * @return the module, with the ontology IRI of the input
+     * @throws IllegalArgumentException
+     *             if none of the seed terms is in the ontology
+     */
+    OWLOntology extract(@Nonnull OWLOntology input, @Nonnull Map<String, String> options,
+            @Nonnull OperationContext context) throws Exception {
+        var imports = imports(options);
+        var seeds = resolveSeeds(input, imports, context);
+        return extractModule(input, seeds, context.moduleExtractor(input, imports), options);
+    }
+
+    /**
+     * Returns whether the extract options include the imports closure, as ROBOT reads them.
+     */
+    static Imports imports(Map<String, String> options) {
+        return "exclude".equalsIgnoreCase(options.get("imports")) ? Imports.EXCLUDED : Imports.INCLUDED;
+    }
+
+    /**
+     * Resolves the seed terms to the IRIs and entities of the input ontology.
+     */
+    Seeds resolveSeeds(OWLOntology input, Imports imports, OperationContext context) {
+        var seedIris = OntologyHelper.filterExistingTerms(input, context.termIndex().resolveIris(terms), false,
+                imports);
+        var seedEntities = new HashSet<OWLEntity>();
+        for (var iri : seedIris) {
+            seedEntities.addAll(input.getEntitiesInSignature(iri, imports));
+        }
+        return new Seeds(seedIris, seedEntities);
+    }
+
+    /**
+     * Extracts the module of resolved seeds with the given extractor into a new ontology. The input
+     * ontology is only read, so modules of one input are extracted concurrently.
+     */
+    OWLOntology extractModule(OWLOntology input, Seeds seeds, ModuleExtractor moduleExtractor,
+            Map<String, String> options) throws Exception {
+        var module = moduleExtractor.extract(seeds.entities(), ModuleType.valueOf(method.name()));
+
+        var outputIri = input.getOntologyID().getOntologyIRI().orNull();
+        var output = OWLManager.createOWLOntologyManager().createOntology(module, outputIri);
+        if (Boolean.parseBoolean(options.get("copy-ontology-annotations"))) {
+            input.getAnnotations().forEach(annotation -> OntologyHelper.addOntologyAnnotation(output, annotation));
+        }
+        var intermediates = options.getOrDefault("intermediates", "all");
+        if ("none".equalsIgnoreCase(intermediates)) {
+            removeIntermediates(output, seeds.entities());
+        } else if ("minimal".equalsIgnoreCase(intermediates)) {
+            OntologyHelper.collapseOntology(output, seeds.iris());
+        }
+        return output;
+    }
+
+    /**
+     * Removes the classes of the module that are neither seeds nor directly referenced by the
+     * superclasses, equivalent classes or disjoint classes of a seed, as ROBOT does for
+     * {@code --intermediates none}.
+     */
+    private static void removeIntermediates(OWLOntology module, Set<OWLEntity> seeds) {
+        var precious = new HashSet<OWLObject>();
+        for (var seed : seeds) {
+            if (!seed.isOWLClass()) {
+                continue;
+            }
+            var seedClass = seed.asOWLClass();
+            precious.add(seedClass);
+            EntitySearcher.getSuperClasses(seedClass, module)
+                    .forEach(expression -> precious.addAll(expression.getClassesInSignature()));
+            EntitySearcher.getEquivalentClasses(seedClass, module)
+                    .forEach(expression -> precious.addAll(expression.getClassesInSignature()));
+            EntitySearcher.getDisjointClasses(seedClass, module)
+                    .forEach(expression -> precious.addAll(expression.getClassesInSignature()));
+        }
+        var intermediates = RelatedObjectsHelper.selectClasses(RelatedObjectsHelper.selectComplement(module, precious));
+        module.getOWLOntologyManager().removeAxioms(module,
+                RelatedObjectsHelper.getPartialAxioms(module, intermediates, null));
+    }
+
+    /**
+     * The seed terms of an extract that are in the input ontology.
+     *
+     * @param iris
+     *            the IRIs of the seed terms
+     * @param entities
+     *            the entities with those IRIs
+     */
+    record Seeds(Set<IRI> iris, Set<OWLEntity> entities) {
+    }
 }
@@ -3,9 +3,12 @@ package edu.stanford.protege.robot.command.filter;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.google.common.collect.ImmutableList;
 import edu.stanford.protege.robot.command.RobotCommand;
+import edu.stanford.protege.robot.command.RobotOperation;
 import edu.stanford.protege.robot.command.common.CommandFlags;
+import edu.stanford.protege.robot.command.common.RelatedObjectsSelection;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import javax.annotation.Nullable;
 import org.obolibrary.robot.Command;
 import org.obolibrary.robot.FilterCommand;
@@ -158,4 +161,19 @@ public record RobotFilterCommand(
     public Command getCommand() {
         return new FilterCommand();
     }
+
+    /**
+     * Filters the ontology through {@link RelatedObjectsSelection} instead of ROBOT's argument parser.
+     *
+     * @return the direct filter operation
+     */
+    @Override
+    public Optional<RobotOperation> getOperation() {
+        return Optional.of((state, context) -> {
+            var selection = new RelatedObjectsSelection(baseIri, terms, excludeTerms, includeTerms, selectors, axioms,
+                    dropAxiomAnnotations, flags);
+            state.setOntology(selection.filter(state.getOntology(), context));
+            return state;
+        });
+    }
 }
@@ -0,0 +1,269 @@
+package edu.stanford.protege.robot.command.reduce;
+
+import edu.stanford.protege.robot.command.OperationContext;
+import edu.stanford.protege.robot.command.common.Reasoner;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLObjectPropertyCharacteristicAxiom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.semanticweb.owlapi.model.OWLSubObjectPropertyOfAxiom;
+import org.semanticweb.owlapi.model.OWLSubPropertyChainOfAxiom;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.reasoner.Node;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Removes redundant subclass axioms as ROBOT's {@code ReduceOperation} does, with the reasoner
+ * obtained through {@link OperationContext#reason}, so that a reduce of an unchanged revision reuses
+ * its classified reasoner.
+ *
+ * <p>
+ * ROBOT reasons over the input ontology for {@code --named-classes-only}, and otherwise over a
+ * derived ontology in which every anonymous class expression of a subclass axiom is named by a new
+ * class. ROBOT names those classes with random UUIDs; here the names are derived from the
+ * expressions, so that the derived ontology of a revision is always the same and its reasoner can be
+ * pooled. The names never appear in the reduced ontology.
+ *
+ * <p>
+ * ROBOT asks the reasoner for the superclasses of a class once per axiom that mentions it. Here the
+ * reasoner is queried once per class, and the taxonomy taken from it is then only read, so the
+ * redundancy tests run in parallel in the fork-join pool of the execution and the reasoner is held
+ * just for the taxonomy.
+ */
+final class Reducer {
+
+    private static final Logger logger = LoggerFactory.getLogger(Reducer.class);
+
+    private static final String NAMED_CLASSES_VIEW = "reduce-named-classes";
+
+    private static final String CLASS_EXPRESSIONS_VIEW = "reduce-class-expressions";
+
+    private static final String CLASS_EXPRESSIONS_WITH_SUBPROPERTIES_VIEW = "reduce-class-expressions-subproperties";
+
+    private Reducer() {
+    }
+
+    /**
+     * Removes the redundant subclass axioms of the ontology in place.
+     *
+     * @param ontology
+     *            the ontology to reduce
+     * @param reasoner
+     *            the reasoner that decides redundancy
+     * @param flags
+     *            the reduce flags
+     * @param context
+     *            supplies the reasoner
+     */
+    static void reduce(OWLOntology ontology, Reasoner reasoner, Set<ReduceFlags> flags, OperationContext context) {
+        var preserveAnnotatedAxioms = flags.contains(ReduceFlags.PRESERVE_ANNOTATED_AXIOMS);
+        if (flags.contains(ReduceFlags.NAMED_CLASSES_ONLY)) {
+            reduceNamedOnly(ontology, reasoner, preserveAnnotatedAxioms, context);
+        } else {
+            reduceAllClassExpressions(ontology, reasoner, preserveAnnotatedAxioms,
+                    flags.contains(ReduceFlags.INCLUDE_SUBPROPERTIES), context);
+        }
+    }
+
+    private static void reduceAllClassExpressions(OWLOntology ontology, Reasoner reasoner,
+            boolean preserveAnnotatedAxioms, boolean includeSubproperties, OperationContext context) {
+        var dataFactory = OWLManager.getOWLDataFactory();
+        var assertedSubClassAxioms = ontology.getAxioms(AxiomType.SUBCLASS_OF);
+        var namedClasses = new HashMap<OWLClassExpression, OWLClass>();
+        var assertedSuperClasses = new HashMap<OWLClass, Set<OWLClass>>();
+        for (var axiom : assertedSubClassAxioms) {
+            var subClass = nameClass(dataFactory, namedClasses, axiom.getSubClass());
+            var superClass = nameClass(dataFactory, namedClasses, axiom.getSuperClass());
+            assertedSuperClasses.computeIfAbsent(subClass, key -> new HashSet<>()).add(superClass);
+        }
+
+        var view = includeSubproperties ? CLASS_EXPRESSIONS_WITH_SUBPROPERTIES_VIEW : CLASS_EXPRESSIONS_VIEW;
+        var inferredSuperClasses = context.reason(ontology, reasoner, view,
+                () -> createClassExpressionOntology(ontology, dataFactory, namedClasses, includeSubproperties),
+                owlReasoner -> isCoherentEnough(owlReasoner)
+                        ? inferSuperClasses(owlReasoner, namedClasses.values())
+                        : null);
+        if (inferredSuperClasses == null) {
+            return;
+        }
+        var redundant = context.forkJoinPool().submit(() -> assertedSubClassAxioms.parallelStream()
+                .filter(axiom -> !isProtected(axiom, preserveAnnotatedAxioms))
+                .filter(axiom -> isRedundant(axiom, namedClasses, assertedSuperClasses, inferredSuperClasses))
+                .collect(Collectors.toSet())).join();
+        redundant.forEach(axiom -> logger.debug("Removing redundant: {}", axiom));
+        ontology.getOWLOntologyManager().removeAxioms(ontology, redundant);
+    }
+
+    /**
+     * Takes the inferred strict superclasses of each class from the reasoner.
+     */
+    private static Map<OWLClass, Set<OWLClass>> inferSuperClasses(OWLReasoner reasoner,
+            Collection<OWLClass> classes) {
+        var superClasses = new HashMap<OWLClass, Set<OWLClass>>();
+        for (var owlClass : classes) {
+            if (!superClasses.containsKey(owlClass)) {
+                superClasses.put(owlClass, reasoner.getSuperClasses(owlClass, false).getFlattened());
+            }
+        }
+        return superClasses;
+    }
+
+    private static boolean isRedundant(OWLSubClassOfAxiom axiom, Map<OWLClassExpression, OWLClass> namedClasses,
+            Map<OWLClass, Set<OWLClass>> assertedSuperClasses, Map<OWLClass, Set<OWLClass>> inferredSuperClasses) {
+        var subClass = namedClasses.get(axiom.getSubClass());
+        var superClass = namedClasses.get(axiom.getSuperClass());
+        for (var assertedSuper : assertedSuperClasses.get(subClass)) {
+            if (inferredSuperClasses.get(assertedSuper).contains(superClass)) {
+                return true;
+            }
+        }
+        if (axiom.getSubClass().isAnonymous()) {
+            for (var intermediateParent : inferredSuperClasses.get(subClass)) {
+                if (assertedSuperClasses.containsKey(intermediateParent)
+                        && inferredSuperClasses.get(intermediateParent).contains(superClass)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean isProtected(OWLSubClassOfAxiom axiom, boolean preserveAnnotatedAxioms) {
+        if (preserveAnnotatedAxioms && !axiom.getAnnotations().isEmpty()) {
+            logger.debug("Protecting axiom with annotations: {}", axiom);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Creates the ontology ROBOT reasons over when class expressions are reduced: the subclass and
+     * property characteristic axioms of the imports closure, optionally the sub-property axioms, and
+     * an equivalence between every named class expression and its name.
+     */
+    private static OWLOntology createClassExpressionOntology(OWLOntology ontology, OWLDataFactory dataFactory,
+            Map<OWLClassExpression, OWLClass> namedClasses, boolean includeSubproperties) {
+        var axioms = new HashSet<OWLAxiom>();
+        for (var axiom : ontology.getAxioms(Imports.INCLUDED)) {
+            if (axiom instanceof OWLSubClassOfAxiom || axiom instanceof OWLObjectPropertyCharacteristicAxiom
+                    || includeSubproperties && (axiom instanceof OWLSubObjectPropertyOfAxiom
+                            || axiom instanceof OWLSubPropertyChainOfAxiom)) {
+                axioms.add(axiom);
+            }
+        }
+        namedClasses.forEach((expression, name) -> axioms.add(
+                dataFactory.getOWLEquivalentClassesAxiom(name, expression)));
+        try {
+            return OWLManager.createOWLOntologyManager().createOntology(axioms);
+        } catch (OWLOntologyCreationException e) {
+            throw new IllegalStateException("Failed to create the reasoning ontology of reduce", e);
+        }
+    }
+
+    /**
+     * Names an anonymous class expression by a class whose IRI is derived from the expression, and
+     * maps a named class to itself.
+     */
+    private static OWLClass nameClass(OWLDataFactory dataFactory, Map<OWLClassExpression, OWLClass> namedClasses,
+            OWLClassExpression expression) {
+        return namedClasses.computeIfAbsent(expression, key -> {
+            if (!key.isAnonymous()) {
+                return key.asOWLClass();
+            }
+            var uuid = UUID.nameUUIDFromBytes(key.toString().getBytes(StandardCharsets.UTF_8));
+            return dataFactory.getOWLClass(IRI.create("urn:uuid" + uuid));
+        });
+    }
+
+    private static void reduceNamedOnly(OWLOntology ontology, Reasoner reasoner, boolean preserveAnnotatedAxioms,
+            OperationContext context) {
+        var assertedSuperClasses = new HashSet<OWLClass>();
+        var assertedSubClassAxioms = ontology.getAxioms(AxiomType.SUBCLASS_OF);
+        for (var axiom : assertedSubClassAxioms) {
+            if (!axiom.getSubClass().isAnonymous() && !axiom.getSuperClass().isAnonymous()) {
+                assertedSuperClasses.add(axiom.getSuperClass().asOWLClass());
+            }
+        }
+
+        var directSubClasses = context.reason(ontology, reasoner, NAMED_CLASSES_VIEW, () -> ontology,
+                owlReasoner -> isCoherentEnough(owlReasoner)
+                        ? inferDirectSubClasses(owlReasoner, assertedSuperClasses)
+                        : null);
+        if (directSubClasses == null) {
+            return;
+        }
+        // An asserted axiom is kept if the inferred hierarchy has its subclass directly below its superclass
+        var redundant = context.forkJoinPool().submit(() -> assertedSubClassAxioms.parallelStream()
+                .filter(axiom -> !axiom.getSubClass().isAnonymous() && !axiom.getSuperClass().isAnonymous())
+                .filter(axiom -> !isProtected(axiom, preserveAnnotatedAxioms))
+                .filter(axiom -> !directSubClasses.getOrDefault(axiom.getSuperClass().asOWLClass(), Set.of())
+                        .contains(axiom.getSubClass().asOWLClass()))
+                .collect(Collectors.toSet())).join();
+        ontology.getOWLOntologyManager().removeAxioms(ontology, redundant);
+    }
+
+    /**
+     * Takes the direct subclasses of every asserted superclass that is reached walking the inferred
+     * hierarchy down from the top node, which is where ROBOT looks for non-redundant axioms.
+     */
+    private static Map<OWLClass, Set<OWLClass>> inferDirectSubClasses(OWLReasoner reasoner,
+            Set<OWLClass> assertedSuperClasses) {
+        var directSubClasses = new HashMap<OWLClass, Set<OWLClass>>();
+        var seen = new HashSet<Node<OWLClass>>();
+        var pending = new ArrayDeque<Node<OWLClass>>();
+        pending.push(reasoner.getTopClassNode());
+        while (!pending.isEmpty()) {
+            var node = pending.pop();
+            if (!seen.add(node)) {
+                continue;
+            }
+            var subClasses = reasoner.getSubClasses(node.getRepresentativeElement(), true);
+            for (var superClass : node.getEntities()) {
+                if (assertedSuperClasses.contains(superClass)) {
+                    directSubClasses.put(superClass, subClasses.getFlattened());
+                }
+            }
+            subClasses.getNodes().forEach(pending::push);
+        }
+        return directSubClasses;
+    }
+
+    /**
+     * Returns whether the ontology is consistent, and logs its unsatisfiable classes, as ROBOT does
+     * before reducing.
+     */
+    private static boolean isCoherentEnough(OWLReasoner reasoner) {
+        if (!reasoner.isConsistent()) {
+            logger.info("Ontology is not consistent!");
+            return false;
+        }
+        var unsatisfiableClasses = reasoner.getUnsatisfiableClasses();
+        if (unsatisfiableClasses.getSize() > 1) {
+            logger.info("There are {} unsatisfiable classes in the ontology.", unsatisfiableClasses.getSize());
+            for (var unsatisfiable : unsatisfiableClasses) {
+                if (!unsatisfiable.isOWLNothing()) {
+                    logger.info("    unsatisfiable: {}", unsatisfiable.getIRI());
+                }
+            }
+        }
+        return true;
+    }
+}
@@ -3,11 +3,15 @@ package edu.stanford.protege.robot.command.reduce;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.google.common.collect.ImmutableList;
 import edu.stanford.protege.robot.command.RobotCommand;
+import edu.stanford.protege.robot.command.RobotOperation;
 import edu.stanford.protege.robot.command.common.Reasoner;
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Optional;
 import org.obolibrary.robot.Command;
 import org.obolibrary.robot.ReduceCommand;
+import org.obolibrary.robot.ReduceOperation;
 
 /**
  * ROBOT reduce command for removing redundant subClassOf axioms using automated reasoning.
@@ -78,4 +82,20 @@ public record RobotReduceCommand(Reasoner reasoner, ReduceFlags... flags)
     public Command getCommand() {
         return new ReduceCommand();
     }
+
+    /**
+     * Reduces the ontology through {@link Reducer}, which removes the same axioms as ROBOT's
+     * {@link ReduceOperation} but obtains its reasoner from the operation context, so that reducing
+     * an unchanged revision reuses a classified reasoner.
+     *
+     * @return the direct reduce operation
+     */
+    @Override
+    public Optional<RobotOperation> getOperation() {
+        return Optional.of((state, context) -> {
+            var flagSet = flags.length == 0 ? EnumSet.noneOf(ReduceFlags.class) : EnumSet.copyOf(Arrays.asList(flags));
+            Reducer.reduce(state.getOntology(), reasoner, flagSet, context);
+            return state;
+        });
+    }
 }
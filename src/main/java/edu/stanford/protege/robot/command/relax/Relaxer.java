@@ -0,0 +1,143 @@
+package edu.stanford.protege.robot.command.relax;
+
+import edu.stanford.protege.robot.command.common.ChangeBatch;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLClassExpression;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLEquivalentClassesAxiom;
+import org.semanticweb.owlapi.model.OWLObjectCardinalityRestriction;
+import org.semanticweb.owlapi.model.OWLObjectIntersectionOf;
+import org.semanticweb.owlapi.model.OWLObjectSomeValuesFrom;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Adds the axioms ROBOT's {@code RelaxOperation} adds: for each named class equivalent to, or with
+ * {@code --include-subclass-of} a subclass of, an expression, a subclass axiom to every named class
+ * and existential restriction the expression implies through its intersections.
+ *
+ * <p>
+ * The axioms relaxed from one equivalence or subclass axiom only depend on that axiom, so ROBOT's
+ * sequential loop is replaced by parallel streams over the equivalence and subclass axioms, run in
+ * the fork-join pool of the execution. ROBOT adds the relaxed axioms one at a time through a manager
+ * of its own; here their union is added as one {@link ChangeBatch}, through the manager of the
+ * ontology.
+ */
+final class Relaxer {
+
+    private static final Logger logger = LoggerFactory.getLogger(Relaxer.class);
+
+    private Relaxer() {
+    }
+
+    /**
+     * Relaxes the ontology in place.
+     *
+     * @param ontology
+     *            the ontology to relax
+     * @param enforceOboFormat
+     *            whether only restrictions on a named property and a named filler are added
+     * @param excludeNamedClasses
+     *            whether equivalences between named classes are skipped
+     * @param includeSubclassOf
+     *            whether subclass axioms to anonymous expressions are relaxed as well
+     * @param forkJoinPool
+     *            relaxes the axioms concurrently
+     */
+    static void relax(OWLOntology ontology, boolean enforceOboFormat, boolean excludeNamedClasses,
+            boolean includeSubclassOf, ForkJoinPool forkJoinPool) {
+        var dataFactory = OWLManager.getOWLDataFactory();
+        var equivalenceAxioms = ontology.getAxioms(AxiomType.EQUIVALENT_CLASSES);
+        var subClassAxioms = includeSubclassOf
+                ? ontology.getAxioms(AxiomType.SUBCLASS_OF)
+                : Set.<OWLSubClassOfAxiom>of();
+        var newAxioms = forkJoinPool.submit(() -> Stream.concat(
+                equivalenceAxioms.parallelStream().flatMap(axiom -> relaxEquivalence(axiom, enforceOboFormat,
+                        excludeNamedClasses, dataFactory)),
+                subClassAxioms.parallelStream()
+                        .filter(axiom -> !axiom.getSubClass().isAnonymous() && axiom.getSuperClass().isAnonymous())
+                        .flatMap(axiom -> relaxExpression(axiom.getSubClass().asOWLClass(), axiom.getSuperClass(),
+                                enforceOboFormat, dataFactory)))
+                .collect(Collectors.toSet())).join();
+        newAxioms.forEach(axiom -> logger.debug("Relaxed: {}", axiom));
+        new ChangeBatch(ontology).addAxioms(newAxioms).apply();
+    }
+
+    /**
+     * Relaxes each named class of an equivalence axiom, {@code owl:Thing} and {@code owl:Nothing}
+     * included, to the other expressions of the axiom.
+     */
+    private static Stream<OWLAxiom> relaxEquivalence(OWLEquivalentClassesAxiom axiom, boolean enforceOboFormat,
+            boolean excludeNamedClasses, OWLDataFactory dataFactory) {
+        return axiom.getClassExpressions().stream()
+                .filter(expression -> !expression.isAnonymous())
+                .map(OWLClassExpression::asOWLClass)
+                .flatMap(namedClass -> axiom.getClassExpressionsMinus(namedClass).stream()
+                        .filter(equivalent -> equivalent.isAnonymous() || !excludeNamedClasses)
+                        .flatMap(equivalent -> relaxExpression(namedClass, equivalent, enforceOboFormat,
+                                dataFactory)));
+    }
+
+    private static Stream<OWLAxiom> relaxExpression(OWLClass namedClass, OWLClassExpression expression,
+            boolean enforceOboFormat, OWLDataFactory dataFactory) {
+        return Stream.concat(
+                someValuesFromAncestors(expression, enforceOboFormat, dataFactory).stream()
+                        .map(restriction -> dataFactory.getOWLSubClassOfAxiom(namedClass, restriction)),
+                namedAncestors(expression).stream()
+                        .map(ancestor -> dataFactory.getOWLSubClassOfAxiom(namedClass, ancestor)));
+    }
+
+    /**
+     * Returns the existential restrictions an expression implies: itself, a positive minimum, exact
+     * or maximum cardinality restriction read as existential, or those of the operands of an
+     * intersection.
+     */
+    private static Set<OWLObjectSomeValuesFrom> someValuesFromAncestors(OWLClassExpression expression,
+            boolean enforceOboFormat, OWLDataFactory dataFactory) {
+        var restrictions = new HashSet<OWLObjectSomeValuesFrom>();
+        if (expression instanceof OWLObjectSomeValuesFrom restriction) {
+            if (!enforceOboFormat || isOboFormatConformant(restriction)) {
+                restrictions.add(restriction);
+            }
+        } else if (expression instanceof OWLObjectCardinalityRestriction cardinality) {
+            if (cardinality.getCardinality() > 0) {
+                var restriction = dataFactory.getOWLObjectSomeValuesFrom(cardinality.getProperty(),
+                        cardinality.getFiller());
+                if (!enforceOboFormat || isOboFormatConformant(restriction)) {
+                    restrictions.add(restriction);
+                }
+            }
+        } else if (expression instanceof OWLObjectIntersectionOf intersection) {
+            for (var operand : intersection.getOperands()) {
+                restrictions.addAll(someValuesFromAncestors(operand, enforceOboFormat, dataFactory));
+            }
+        }
+        return restrictions;
+    }
+
+    private static boolean isOboFormatConformant(OWLObjectSomeValuesFrom restriction) {
+        return !restriction.getProperty().isAnonymous() && !restriction.getFiller().isAnonymous();
+    }
+
+    private static Set<OWLClass> namedAncestors(OWLClassExpression expression) {
+        var ancestors = new HashSet<OWLClass>();
+        if (!expression.isAnonymous()) {
+            ancestors.add(expression.asOWLClass());
+        } else if (expression instanceof OWLObjectIntersectionOf intersection) {
+            for (var operand : intersection.getOperands()) {
+                ancestors.addAll(namedAncestors(operand));
+            }
+        }
+        return ancestors;
+    }
+}
@@ -3,8 +3,10 @@ package edu.stanford.protege.robot.command.relax;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.google.common.collect.ImmutableList;
 import edu.stanford.protege.robot.command.RobotCommand;
+import edu.stanford.protege.robot.command.RobotOperation;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import org.obolibrary.robot.Command;
 import org.obolibrary.robot.RelaxCommand;
 
@@ -71,4 +73,24 @@ public record RobotRelaxCommand(RelaxFlags... flags) implements RobotCommand {
     public Command getCommand() {
         return new RelaxCommand();
     }
+
+    /**
+     * Relaxes the ontology through {@link Relaxer}, which adds the same axioms as ROBOT's
+     * {@code RelaxOperation}, relaxing the axioms in parallel and adding the result in one batch,
+     * with the same defaults as ROBOT relax.
+     *
+     * @return the direct relax operation
+     */
+    @Override
+    public Optional<RobotOperation> getOperation() {
+        return Optional.of((state, context) -> {
+            var flagsList = Arrays.asList(flags);
+            Relaxer.relax(state.getOntology(),
+                    flagsList.contains(RelaxFlags.ENFORCE_OBO_FORMAT),
+                    !flagsList.contains(RelaxFlags.INCLUDE_NAMED_CLASSES),
+                    flagsList.contains(RelaxFlags.INCLUDE_SUBCLASS_OF),
+                    context.forkJoinPool());
+            return state;
+        });
+    }
 }
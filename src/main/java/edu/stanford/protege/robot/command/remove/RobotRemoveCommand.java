@@ -3,9 +3,12 @@ package edu.stanford.protege.robot.command.remove;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.google.common.collect.ImmutableList;
 import edu.stanford.protege.robot.command.RobotCommand;
+import edu.stanford.protege.robot.command.RobotOperation;
 import edu.stanford.protege.robot.command.common.CommandFlags;
+import edu.stanford.protege.robot.command.common.RelatedObjectsSelection;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 import javax.annotation.Nullable;
 import org.obolibrary.robot.Command;
 import org.obolibrary.robot.RemoveCommand;
@@ -157,4 +160,19 @@ public record RobotRemoveCommand(
     public Command getCommand() {
         return new RemoveCommand();
     }
+
+    /**
+     * Removes axioms through {@link RelatedObjectsSelection} instead of ROBOT's argument parser.
+     *
+     * @return the direct remove operation
+     */
+    @Override
+    public Optional<RobotOperation> getOperation() {
+        return Optional.of((state, context) -> {
+            var selection = new RelatedObjectsSelection(baseIri, terms, excludeTerms, includeTerms, selectors, axioms,
+                    dropAxiomAnnotations, flags);
+            selection.remove(state.getOntology(), context);
+            return state;
+        });
+    }
 }
@@ -0,0 +1,267 @@
+package edu.stanford.protege.robot.command.repair;
+
+import edu.stanford.protege.robot.command.common.ChangeBatch;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.obolibrary.robot.IOHelper;
+import org.obolibrary.robot.RepairOperation;
+import org.obolibrary.robot.checks.InvalidReferenceChecker;
+import org.semanticweb.owlapi.model.AddOntologyAnnotation;
+import org.semanticweb.owlapi.model.AxiomType;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotation;
+import org.semanticweb.owlapi.model.OWLAnnotationAssertionAxiom;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLDeclarationAxiom;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLLiteral;
+import org.semanticweb.owlapi.model.OWLObjectProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.RemoveOntologyAnnotation;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import org.semanticweb.owlapi.util.OWLObjectDuplicator;
+import org.semanticweb.owlapi.util.RemappingIndividualProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Repairs the ontology as ROBOT's {@link RepairOperation} does: replaces the references to deprecated
+ * entities by their {@code term replaced by} entities, and merges the annotations of axioms that only
+ * differ in their annotations.
+ *
+ * <p>
+ * ROBOT asks the ontology whether each entity of each axiom is deprecated, renames the deprecated
+ * entities through an {@code OWLEntityRenamer} and, when merging, removes every axiom to add the
+ * merged ones back. Here the deprecated IRIs are collected once, the axioms are scanned for them and
+ * renamed in parallel in the fork-join pool of the execution, each batch with a duplicator of its own,
+ * and the annotations of the axioms are grouped by the axiom without them in concurrent buckets. The
+ * changes are applied as one {@link ChangeBatch}, in which the renamer's changes are replayed in its
+ * order so the ontology ends up as ROBOT leaves it.
+ */
+final class Repairer {
+
+    private static final Logger logger = LoggerFactory.getLogger(Repairer.class);
+
+    private static final IRI TERM_REPLACED_BY = IRI.create("http://purl.obolibrary.org/obo/IAO_0100001");
+
+    /**
+     * The number of axioms each duplicator renames, since a duplicator is not safe to share between
+     * threads.
+     */
+    private static final int AXIOMS_PER_DUPLICATOR = 256;
+
+    private Repairer() {
+    }
+
+    /**
+     * Replaces the references to deprecated entities in place, as
+     * {@link RepairOperation#repairInvalidReferences} does with the deprecated-entity violations of
+     * the ontology.
+     *
+     * @param ontology
+     *            the ontology to repair
+     * @param ioHelper
+     *            expands a replacement given as a CURIE
+     * @param migrateAnnotations
+     *            the annotation properties whose assertions on a deprecated entity move to its
+     *            replacement
+     * @param forkJoinPool
+     *            scans and renames the axioms concurrently
+     */
+    static void repairInvalidReferences(OWLOntology ontology, IOHelper ioHelper,
+            Set<OWLAnnotationProperty> migrateAnnotations, ForkJoinPool forkJoinPool) {
+        if (ontology.getImportsClosure().size() > 1) {
+            // ROBOT's renamer rewrites the imported ontologies as well
+            RepairOperation.repairInvalidReferences(ioHelper, ontology,
+                    InvalidReferenceChecker.getInvalidReferenceViolations(ontology, true), migrateAnnotations);
+            return;
+        }
+        var renameMap = renameMap(ontology, ioHelper, deprecatedEntities(ontology, forkJoinPool));
+        if (renameMap.isEmpty()) {
+            return;
+        }
+        var preserve = new HashSet<OWLAxiom>();
+        for (var entity : renameMap.keySet()) {
+            if (entity instanceof OWLClass owlClass) {
+                preserve.addAll(ontology.getAxioms(owlClass, Imports.EXCLUDED));
+            }
+            if (entity instanceof OWLObjectProperty property) {
+                preserve.addAll(ontology.getAxioms(property, Imports.EXCLUDED));
+            }
+            preserve.addAll(ontology.getDeclarationAxioms(entity));
+            ontology.getAnnotationAssertionAxioms(entity.getIRI()).stream()
+                    .filter(axiom -> !migrateAnnotations.contains(axiom.getProperty()))
+                    .forEach(preserve::add);
+            logger.debug("Replacing: {} -> {}", entity, renameMap.get(entity));
+        }
+
+        // The axioms the renamer rewrites for each entity, once the preserved axioms are removed
+        var axiomsByEntity = new LinkedHashMap<OWLEntity, List<OWLAxiom>>();
+        var axioms = new LinkedHashSet<OWLAxiom>();
+        for (var entity : renameMap.keySet()) {
+            var referencing = ontology.getReferencingAxioms(entity, Imports.EXCLUDED);
+            referencing.addAll(ontology.getDeclarationAxioms(entity));
+            referencing.addAll(ontology.getAnnotationAssertionAxioms(entity.getIRI()));
+            referencing.removeAll(preserve);
+            axiomsByEntity.put(entity, new ArrayList<>(referencing));
+            axioms.addAll(referencing);
+        }
+        var renamed = rename(new ArrayList<>(axioms), renameMap, ontology, forkJoinPool);
+
+        var batch = new ChangeBatch(ontology).removeAxioms(preserve);
+        axiomsByEntity.values().forEach(entityAxioms -> entityAxioms.forEach(axiom -> batch
+                .removeAxioms(List.of(axiom))
+                .addAxioms(List.of(renamed.get(axiom)))));
+        batch.addAxioms(preserve).apply();
+        renameOntologyAnnotations(ontology, renameMap);
+    }
+
+    /**
+     * Merges the annotations of axioms that only differ in their annotations in place, as
+     * {@link RepairOperation#mergeAxiomAnnotations} does.
+     *
+     * @param ontology
+     *            the ontology to repair
+     * @param forkJoinPool
+     *            groups the axioms concurrently
+     */
+    static void mergeAxiomAnnotations(OWLOntology ontology, ForkJoinPool forkJoinPool) {
+        var axioms = ontology.getAxioms();
+        var duplicates = forkJoinPool.submit(() -> axioms.parallelStream()
+                .collect(Collectors.groupingByConcurrent(OWLAxiom::getAxiomWithoutAnnotations))
+                .entrySet().parallelStream()
+                .filter(bucket -> bucket.getValue().size() > 1)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue))).join();
+        var batch = new ChangeBatch(ontology);
+        duplicates.forEach((axiom, annotatedAxioms) -> {
+            var annotations = new HashSet<OWLAnnotation>();
+            annotatedAxioms.forEach(annotatedAxiom -> annotations.addAll(annotatedAxiom.getAnnotations()));
+            batch.removeAxioms(annotatedAxioms).addAxioms(List.of(axiom.getAnnotatedAxiom(annotations)));
+        });
+        batch.apply();
+    }
+
+    /**
+     * Returns the deprecated entities the non-declaration axioms of the ontology refer to, the
+     * subject of an annotation assertion standing for every entity with its IRI, as ROBOT's
+     * {@link InvalidReferenceChecker} finds them.
+     */
+    private static Set<OWLEntity> deprecatedEntities(OWLOntology ontology, ForkJoinPool forkJoinPool) {
+        var deprecatedIris = new HashSet<IRI>();
+        for (var axiom : ontology.getAxioms(AxiomType.ANNOTATION_ASSERTION)) {
+            if (axiom.isDeprecatedIRIAssertion() && axiom.getSubject() instanceof IRI subject
+                    && axiom.getValue() instanceof OWLLiteral value && value.parseBoolean()) {
+                deprecatedIris.add(subject);
+            }
+        }
+        if (deprecatedIris.isEmpty()) {
+            return Set.of();
+        }
+        var axioms = ontology.getAxioms();
+        var referenced = forkJoinPool.submit(() -> axioms.parallelStream()
+                .filter(axiom -> !(axiom instanceof OWLDeclarationAxiom))
+                .flatMap(axiom -> {
+                    var signature = axiom.getSignature().stream()
+                            .filter(entity -> deprecatedIris.contains(entity.getIRI()))
+                            .map(Object.class::cast);
+                    return axiom instanceof OWLAnnotationAssertionAxiom assertion
+                            && assertion.getSubject() instanceof IRI subject && deprecatedIris.contains(subject)
+                                    ? Stream.concat(signature, Stream.of(subject))
+                                    : signature;
+                })
+                .collect(Collectors.toSet())).join();
+        var entities = new HashSet<OWLEntity>();
+        for (var object : referenced) {
+            if (object instanceof IRI subject) {
+                entities.addAll(ontology.getEntitiesInSignature(subject));
+            } else {
+                entities.add((OWLEntity) object);
+            }
+        }
+        return entities;
+    }
+
+    /**
+     * Maps each deprecated entity with a {@code term replaced by} annotation to its replacement, the
+     * last one ROBOT reads when there are several.
+     */
+    private static Map<OWLEntity, IRI> renameMap(OWLOntology ontology, IOHelper ioHelper,
+            Set<OWLEntity> deprecated) {
+        var renameMap = new HashMap<OWLEntity, IRI>();
+        for (var entity : deprecated) {
+            IRI replacedBy = null;
+            for (var axiom : ontology.getAnnotationAssertionAxioms(entity.getIRI())) {
+                if (!axiom.getProperty().getIRI().equals(TERM_REPLACED_BY)) {
+                    continue;
+                }
+                if (axiom.getValue() instanceof IRI value) {
+                    replacedBy = value;
+                } else if (axiom.getValue() instanceof OWLLiteral value) {
+                    replacedBy = ioHelper.createIRI(value.getLiteral());
+                }
+            }
+            if (replacedBy != null) {
+                renameMap.put(entity, replacedBy);
+            }
+        }
+        return renameMap;
+    }
+
+    /**
+     * Renames the entities of the axioms in batches, each with a duplicator of its own.
+     */
+    private static Map<OWLAxiom, OWLAxiom> rename(List<OWLAxiom> axioms, Map<OWLEntity, IRI> renameMap,
+            OWLOntology ontology, ForkJoinPool forkJoinPool) {
+        var batches = (axioms.size() + AXIOMS_PER_DUPLICATOR - 1) / AXIOMS_PER_DUPLICATOR;
+        return forkJoinPool.submit(() -> IntStream.range(0, batches).parallel()
+                .mapToObj(batch -> {
+                    var duplicator = duplicator(renameMap, ontology);
+                    var renamed = new HashMap<OWLAxiom, OWLAxiom>();
+                    for (var axiom : axioms.subList(batch * AXIOMS_PER_DUPLICATOR,
+                            Math.min(axioms.size(), (batch + 1) * AXIOMS_PER_DUPLICATOR))) {
+                        renamed.put(axiom, duplicator.duplicateObject(axiom));
+                    }
+                    return renamed;
+                })
+                .flatMap(renamed -> renamed.entrySet().stream())
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue))).join();
+    }
+
+    private static void renameOntologyAnnotations(OWLOntology ontology, Map<OWLEntity, IRI> renameMap) {
+        var duplicator = duplicator(renameMap, ontology);
+        var changes = new ArrayList<OWLOntologyChange>();
+        for (var annotation : ontology.getAnnotations()) {
+            OWLAnnotation renamed = duplicator.duplicateObject(annotation);
+            if (!renamed.equals(annotation)) {
+                changes.add(new RemoveOntologyAnnotation(ontology, annotation));
+                changes.add(new AddOntologyAnnotation(ontology, renamed));
+            }
+        }
+        if (!changes.isEmpty()) {
+            ontology.getOWLOntologyManager().applyChanges(changes);
+        }
+    }
+
+    /**
+     * Creates the duplicator ROBOT's renamer uses, which keeps the ids of anonymous individuals.
+     */
+    private static OWLObjectDuplicator duplicator(Map<OWLEntity, IRI> renameMap, OWLOntology ontology) {
+        var dataFactory = ontology.getOWLOntologyManager().getOWLDataFactory();
+        return new OWLObjectDuplicator(renameMap, dataFactory, Collections.emptyMap(),
+                new RemappingIndividualProvider(dataFactory, false));
+    }
+}
@@ -3,8 +3,11 @@ package edu.stanford.protege.robot.command.repair;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import com.google.common.collect.ImmutableList;
 import edu.stanford.protege.robot.command.RobotCommand;
+import edu.stanford.protege.robot.command.RobotOperation;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 import org.obolibrary.robot.Command;
 import org.obolibrary.robot.RepairCommand;
 
@@ -83,4 +86,37 @@ public record RobotRepairCommand(List<String> annotationProperties, RepairFlags.
     public Command getCommand() {
         return new RepairCommand();
     }
+
+    /**
+     * Repairs the ontology through {@link Repairer}, which leaves it as ROBOT's
+     * {@code RepairOperation} does, running the default repair of invalid references when neither
+     * flag is given, as ROBOT repair does.
+     *
+     * @return the direct repair operation
+     */
+    @Override
+    public Optional<RobotOperation> getOperation() {
+        return Optional.of((state, context) -> {
+            var ontology = state.getOntology();
+            var dataFactory = ontology.getOWLOntologyManager().getOWLDataFactory();
+            var properties = context.termIndex().resolveIris(annotationProperties).stream()
+                    .map(dataFactory::getOWLAnnotationProperty)
+                    .collect(Collectors.toSet());
+            var flagsList = Arrays.asList(flags);
+            var mergeAxiomAnnotations = flagsList.contains(RepairFlags.MERGE_AXIOM_ANNOTATIONS);
+            var invalidReferences = flagsList.contains(RepairFlags.INVALID_REFERENCES);
+            if (mergeAxiomAnnotations) {
+                Repairer.mergeAxiomAnnotations(ontology, context.forkJoinPool());
+            }
+            if (invalidReferences || !mergeAxiomAnnotations) {
+                Repairer.repairInvalidReferences(ontology, context.ioHelper(), properties, context.forkJoinPool());
+            }
+            // ROBOT repair points the document IRI at the ontology IRI
+            var ontologyIri = ontology.getOntologyID().getOntologyIRI().orNull();
+            if (ontologyIri != null) {
+                ontology.getOWLOntologyManager().setOntologyDocumentIRI(ontology, ontologyIri);
+            }
+            return state;
+        });
+    }
 }
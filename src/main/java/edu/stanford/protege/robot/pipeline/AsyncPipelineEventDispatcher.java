@@ -0,0 +1,251 @@
+package edu.stanford.protege.robot.pipeline;
+
+import edu.stanford.protege.webprotege.common.Event;
+import edu.stanford.protege.webprotege.ipc.EventDispatcher;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dispatches pipeline events off the pipeline thread.
+ *
+ * <p>
+ * Each execution gets its own bounded ring buffer, so events of one execution are always published
+ * in the order they were produced, and a burst of events from one execution cannot crowd out the
+ * others. A single dedicated publisher thread takes executions with pending events in turn and
+ * publishes up to {@code batchSize} events of an execution per turn.
+ *
+ * <p>
+ * When a buffer is full, the oldest buffered event of that execution is discarded, so a slow broker
+ * never blocks a pipeline. Dispatch failures are logged and do not affect subsequent events. After
+ * {@link #close()}, events are dispatched synchronously on the calling thread, behind the events of
+ * the same execution that are still buffered.
+ */
+public class AsyncPipelineEventDispatcher implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncPipelineEventDispatcher.class);
+
+    private static final long POLL_TIMEOUT_MS = 100;
+
+    private final EventDispatcher eventDispatcher;
+
+    private final int bufferCapacity;
+
+    private final int batchSize;
+
+    private final Duration shutdownTimeout;
+
+    private final ConcurrentMap<PipelineExecutionId, ExecutionBuffer> buffers = new ConcurrentHashMap<>();
+
+    private final BlockingQueue<ExecutionBuffer> readyBuffers = new LinkedBlockingQueue<>();
+
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private final Thread publisherThread;
+
+    private volatile boolean closed = false;
+
+    public AsyncPipelineEventDispatcher(@Nonnull EventDispatcher eventDispatcher, int bufferCapacity, int batchSize,
+            @Nonnull Duration shutdownTimeout, @Nonnull String threadName) {
+        this.eventDispatcher = Objects.requireNonNull(eventDispatcher, "eventDispatcher cannot be null");
+        this.shutdownTimeout = Objects.requireNonNull(shutdownTimeout, "shutdownTimeout cannot be null");
+        Objects.requireNonNull(threadName, "threadName cannot be null");
+        if (bufferCapacity < 1) {
+            throw new IllegalArgumentException("bufferCapacity must be positive");
+        }
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.bufferCapacity = bufferCapacity;
+        this.batchSize = batchSize;
+        this.publisherThread = new Thread(this::publishLoop, threadName);
+        this.publisherThread.setDaemon(true);
+        this.publisherThread.start();
+    }
+
+    /**
+     * Queues an event of the given execution for publication.
+     *
+     * @param executionId
+     *            the execution that produced the event
+     * @param event
+     *            the event to publish
+     */
+    public void dispatch(@Nonnull PipelineExecutionId executionId, @Nonnull Event event) {
+        var buffer = buffers.computeIfAbsent(executionId, ExecutionBuffer::new);
+        buffer.offer(event);
+        if (closed) {
+            // The publisher may already have stopped, so publish what is left of this execution here
+            buffer.publishAll();
+        }
+    }
+
+    /**
+     * Signals that the given execution will produce no further events, so that its buffer can be
+     * released once it has been drained.
+     *
+     * @param executionId
+     *            the finished execution
+     */
+    public void complete(@Nonnull PipelineExecutionId executionId) {
+        var buffer = buffers.get(executionId);
+        if (buffer != null) {
+            buffer.complete();
+        }
+    }
+
+    /**
+     * Returns the number of events discarded so far because an execution buffer was full.
+     */
+    public long getDroppedEventCount() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Stops accepting events and waits up to the shutdown timeout for buffered events to be
+     * published.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            publisherThread.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (publisherThread.isAlive()) {
+            logger.warn("Pipeline event publisher did not drain within {}; {} executions still have pending events",
+                    shutdownTimeout, readyBuffers.size());
+            publisherThread.interrupt();
+        }
+    }
+
+    private void publishLoop() {
+        var batch = new ArrayList<Event>(batchSize);
+        while (!closed || !readyBuffers.isEmpty()) {
+            ExecutionBuffer buffer;
+            try {
+                buffer = readyBuffers.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (buffer == null) {
+                continue;
+            }
+            buffer.publishBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void dispatchNow(Event event) {
+        try {
+            eventDispatcher.dispatchEvent(event);
+        } catch (Throwable t) {
+            logger.error("Failed to dispatch pipeline event {}", event.getClass().getSimpleName(), t);
+        }
+    }
+
+    /**
+     * Bounded FIFO of pending events for a single execution.
+     *
+     * <p>
+     * The buffer is in the ready queue at most once at any time, which, together with the single
+     * publisher thread, guarantees that its events are published in order. Events are taken from the
+     * buffer and dispatched while holding its publish lock, so that the events a caller publishes
+     * after {@link #close()} cannot overtake a batch the publisher thread is still dispatching.
+     */
+    private final class ExecutionBuffer {
+
+        private final PipelineExecutionId executionId;
+
+        private final ArrayDeque<Event> events = new ArrayDeque<>();
+
+        private final Object publishLock = new Object();
+
+        private boolean scheduled = false;
+
+        private boolean completed = false;
+
+        private boolean overflowReported = false;
+
+        private ExecutionBuffer(PipelineExecutionId executionId) {
+            this.executionId = executionId;
+        }
+
+        synchronized void offer(Event event) {
+            if (events.size() == bufferCapacity) {
+                events.pollFirst();
+                droppedEvents.incrementAndGet();
+                if (!overflowReported) {
+                    overflowReported = true;
+                    logger.warn("{} Pipeline event buffer is full; discarding oldest events", executionId);
+                }
+            }
+            events.addLast(event);
+            if (!scheduled) {
+                scheduled = true;
+                readyBuffers.add(this);
+            }
+        }
+
+        synchronized void complete() {
+            completed = true;
+            if (!scheduled) {
+                buffers.remove(executionId, this);
+            }
+        }
+
+        void publishBatch(List<Event> batch) {
+            synchronized (publishLock) {
+                drainTo(batch);
+                batch.forEach(AsyncPipelineEventDispatcher.this::dispatchNow);
+            }
+        }
+
+        void publishAll() {
+            synchronized (publishLock) {
+                var pending = new ArrayList<Event>();
+                drainAll(pending);
+                pending.forEach(AsyncPipelineEventDispatcher.this::dispatchNow);
+            }
+        }
+
+        /**
+         * Takes every pending event, leaving the buffer in the ready queue if it is there, where the
+         * publisher thread, if still running, will find it empty.
+         */
+        private synchronized void drainAll(List<Event> pending) {
+            pending.addAll(events);
+            events.clear();
+            if (completed && !scheduled) {
+                buffers.remove(executionId, this);
+            }
+        }
+
+        private synchronized void drainTo(List<Event> batch) {
+            for (int i = 0; i < batchSize && !events.isEmpty(); i++) {
+                batch.add(events.pollFirst());
+            }
+            if (events.isEmpty()) {
+                scheduled = false;
+                if (completed) {
+                    buffers.remove(executionId, this);
+                }
+            } else {
+                readyBuffers.add(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package edu.stanford.protege.robot.pipeline;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+
+/**
+ * Keyset position within the execution history of a project.
+ *
+ * <p>
+ * Executions are listed newest first, ordered by start time and then by execution id. A cursor
+ * records the sort key of the last execution on a page so that the next page can be fetched with
+ * an index range scan instead of skipping over previously returned documents.
+ *
+ * <p>
+ * Clients only see the cursor as an opaque page token produced by {@link #asPageToken()}.
+ *
+ * @param startTimeMillis
+ *            the start time, in epoch milliseconds, of the last execution on the previous page
+ * @param executionId
+ *            the execution id of the last execution on the previous page
+ */
+public record PipelineExecutionCursor(long startTimeMillis, @Nonnull PipelineExecutionId executionId) {
+
+    private static final char SEPARATOR = '/';
+
+    public PipelineExecutionCursor {
+        Objects.requireNonNull(executionId, "executionId cannot be null");
+    }
+
+    /**
+     * Parses a page token previously produced by {@link #asPageToken()}.
+     *
+     * @param pageToken
+     *            the opaque page token
+     * @return the decoded cursor
+     * @throws IllegalArgumentException
+     *             if the page token is malformed
+     */
+    @Nonnull
+    public static PipelineExecutionCursor fromPageToken(@Nonnull String pageToken) {
+        Objects.requireNonNull(pageToken, "pageToken cannot be null");
+        try {
+            var decoded = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+            var separatorIndex = decoded.indexOf(SEPARATOR);
+            if (separatorIndex == -1) {
+                throw new IllegalArgumentException("Malformed page token: " + pageToken);
+            }
+            var startTimeMillis = Long.parseLong(decoded.substring(0, separatorIndex));
+            var executionId = PipelineExecutionId.valueOf(decoded.substring(separatorIndex + 1));
+            return new PipelineExecutionCursor(startTimeMillis, executionId);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed page token: " + pageToken, e);
+        }
+    }
+
+    /**
+     * Encodes this cursor as an opaque, URL-safe page token.
+     */
+    @Nonnull
+    public String asPageToken() {
+        var raw = startTimeMillis + String.valueOf(SEPARATOR) + executionId.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
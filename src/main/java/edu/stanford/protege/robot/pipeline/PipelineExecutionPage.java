@@ -0,0 +1,24 @@
+package edu.stanford.protege.robot.pipeline;
+
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A single page of execution history.
+ *
+ * @param executions
+ *            the executions on this page, newest first
+ * @param nextCursor
+ *            the cursor to fetch the following page, or {@code null} if this is the last page
+ */
+public record PipelineExecutionPage(
+        @Nonnull List<PipelineExecutionSummary> executions,
+        @Nullable PipelineExecutionCursor nextCursor) {
+
+    public PipelineExecutionPage {
+        Objects.requireNonNull(executions, "executions cannot be null");
+        executions = List.copyOf(executions);
+    }
+}
@@ -0,0 +1,62 @@
+package edu.stanford.protege.robot.pipeline;
+
+import edu.stanford.protege.webprotege.common.BlobLocation;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * A lightweight, projected view of a single pipeline execution used for listing execution history.
+ *
+ * <p>
+ * Unlike {@link PipelineStatus} and {@link PipelineSuccessResult}, this record does not embed the
+ * executed {@link RobotPipeline} definition. It only carries identifiers, timestamps, the overall
+ * execution state and the locations of the produced output files.
+ *
+ * @param executionId
+ *            the unique pipeline execution identifier
+ * @param pipelineId
+ *            the identifier of the executed pipeline
+ * @param startTime
+ *            the time the execution was started
+ * @param endTime
+ *            the time the execution ended, or {@code null} if it is still in progress
+ * @param state
+ *            the overall execution state
+ * @param outputFiles
+ *            the stored output files of a successful execution (empty otherwise)
+ */
+public record PipelineExecutionSummary(
+        @Nonnull PipelineExecutionId executionId,
+        @Nonnull PipelineId pipelineId,
+        @Nonnull Instant startTime,
+        @Nullable Instant endTime,
+        @Nonnull StageStatus state,
+        @Nonnull Map<RelativePath, BlobLocation> outputFiles) {
+
+    public PipelineExecutionSummary {
+        Objects.requireNonNull(executionId, "executionId cannot be null");
+        Objects.requireNonNull(pipelineId, "pipelineId cannot be null");
+        Objects.requireNonNull(startTime, "startTime cannot be null");
+        Objects.requireNonNull(state, "state cannot be null");
+        Objects.requireNonNull(outputFiles, "outputFiles cannot be null");
+        outputFiles = Map.copyOf(outputFiles);
+    }
+
+    /**
+     * Creates a new PipelineExecutionSummary with the output files replaced.
+     */
+    public static PipelineExecutionSummary withOutputFiles(
+            @Nonnull PipelineExecutionSummary previousSummary,
+            @Nonnull Map<RelativePath, BlobLocation> outputFiles) {
+        return new PipelineExecutionSummary(
+                previousSummary.executionId,
+                previousSummary.pipelineId,
+                previousSummary.startTime,
+                previousSummary.endTime,
+                previousSummary.state,
+                outputFiles);
+    }
+}
@@ -1,131 +1,179 @@
 package edu.stanford.protege.robot.pipeline;
 
 import edu.stanford.protege.robot.pipeline.event.*;
+import edu.stanford.protege.webprotege.common.Event;
 import edu.stanford.protege.webprotege.common.EventId;
 import edu.stanford.protege.webprotege.common.ProjectId;
 import edu.stanford.protege.webprotege.ipc.EventDispatcher;
+import javax.annotation.Nullable;
 import org.obolibrary.robot.Command;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class PipelineLogger {
+public class PipelineLogger implements AutoCloseable {
 
     private final Logger logger = LoggerFactory.getLogger(PipelineLogger.class);
 
     private final EventDispatcher eventDispatcher;
 
+    @Nullable
+    private final AsyncPipelineEventDispatcher asyncEventDispatcher;
+
+    /**
+     * Creates a logger that dispatches events synchronously on the calling thread.
+     */
     public PipelineLogger(EventDispatcher eventDispatcher) {
+        this(eventDispatcher, null);
+    }
+
+    /**
+     * Creates a logger that hands events to the given asynchronous dispatcher, or dispatches them
+     * synchronously if it is {@code null}.
+     */
+    public PipelineLogger(EventDispatcher eventDispatcher,
+            @Nullable AsyncPipelineEventDispatcher asyncEventDispatcher) {
         this.eventDispatcher = eventDispatcher;
+        this.asyncEventDispatcher = asyncEventDispatcher;
     }
 
     public void pipelineExecutionStarted(ProjectId projectId, PipelineExecutionId executionId, PipelineId pipelineId) {
         logger.info("{} {} {} ROBOT pipeline execution started", projectId, executionId, pipelineId);
-        eventDispatcher
-                .dispatchEvent(new ExecutePipelineStartedEvent(projectId, executionId, pipelineId, EventId.generate()));
+        dispatch(executionId, new ExecutePipelineStartedEvent(projectId, executionId, pipelineId, EventId.generate()));
     }
 
     public void pipelineExecutionFinishedWithSuccess(ProjectId projectId, PipelineExecutionId executionId,
             PipelineId pipelineId) {
         logger.info("{} {} {} ROBOT pipeline execution finished with success", projectId, executionId, pipelineId);
-        eventDispatcher
-                .dispatchEvent(
-                        new ExecutePipelineFinishedEvent(projectId, executionId, pipelineId, EventId.generate()));
+        dispatch(executionId,
+                new ExecutePipelineFinishedEvent(projectId, executionId, pipelineId, EventId.generate()));
+        completeExecution(executionId);
     }
 
     public void pipelineExecutionFinishedWithError(ProjectId projectId, PipelineExecutionId executionId,
             PipelineId pipelineId, Throwable t) {
         logger.info("{} {} {} ROBOT pipeline execution finished with error: {}", projectId, executionId, pipelineId,
                 t.getMessage());
-        eventDispatcher
-                .dispatchEvent(
-                        new ExecutePipelineFailedEvent(projectId, executionId, pipelineId, EventId.generate(),
-                                t.getMessage()));
+        dispatch(executionId,
+                new ExecutePipelineFailedEvent(projectId, executionId, pipelineId, EventId.generate(),
+                        t.getMessage()));
+        completeExecution(executionId);
     }
 
     public void loadingOntologyStarted(ProjectId projectId, PipelineExecutionId executionId, PipelineId pipelineId) {
         logger.info("{} {} {} ROBOT pipeline loading ontology", projectId, executionId, pipelineId);
-        eventDispatcher
-                .dispatchEvent(new LoadOntologyStartedEvent(projectId, executionId, pipelineId, EventId.generate()));
+        dispatch(executionId, new LoadOntologyStartedEvent(projectId, executionId, pipelineId, EventId.generate()));
     }
 
     public void loadingOntologySucceeded(ProjectId projectId, PipelineExecutionId executionId, PipelineId pipelineId) {
         logger.info("{} {} {} ROBOT pipeline loaded ontology", projectId, executionId, pipelineId);
-        eventDispatcher
-                .dispatchEvent(new LoadOntologySucceededEvent(projectId, executionId, pipelineId, EventId.generate()));
+        dispatch(executionId, new LoadOntologySucceededEvent(projectId, executionId, pipelineId, EventId.generate()));
     }
 
     public void loadingOntologyFailed(ProjectId projectId, PipelineExecutionId executionId, PipelineId pipelineId,
             Throwable t) {
         logger.error("{} {} {} ROBOT pipeline loading ontology failed", projectId, executionId, pipelineId, t);
-        eventDispatcher.dispatchEvent(
+        dispatch(executionId,
                 new LoadOntologyFailedEvent(projectId, executionId, pipelineId, EventId.generate(), t.getMessage()));
     }
 
     public void snapshotOntologyStarted(ProjectId projectId, PipelineExecutionId executionId, PipelineId pipelineId) {
         logger.info("{} {} {} ROBOT pipeline snapshotting ontology", projectId, executionId, pipelineId);
-        eventDispatcher.dispatchEvent(
+        dispatch(executionId,
                 new SnapshotOntologyStartedEvent(projectId, executionId, pipelineId, EventId.generate()));
     }
 
     public void snapshotOntologySucceeded(ProjectId projectId, PipelineExecutionId executionId, PipelineId pipelineId) {
         logger.info("{} {} {} ROBOT pipeline snapshotting ontology succeeded", projectId, executionId, pipelineId);
-        eventDispatcher.dispatchEvent(
+        dispatch(executionId,
                 new SnapshotOntologySucceededEvent(projectId, executionId, pipelineId, EventId.generate()));
     }
 
     public void snapshotOntologyFailed(ProjectId projectId, PipelineExecutionId executionId, PipelineId pipelineId,
             Throwable t) {
         logger.error("{} {} {} ROBOT pipeline snapshotting ontology failed", projectId, executionId, pipelineId, t);
-        eventDispatcher.dispatchEvent(
+        dispatch(executionId,
                 new SnapshotOntologyFailedEvent(projectId, executionId, pipelineId, EventId.generate(),
                         t.getMessage()));
     }
 
     public void pipelineStageStarted(ProjectId projectId, PipelineExecutionId executionId, PipelineId pipelineId,
-            Command command) {
-        logger.info("{} {} {} ROBOT pipeline stage started: {}", projectId, executionId, pipelineId, command.getName());
-        eventDispatcher
-                .dispatchEvent(
-                        new RunPipelineStageStartedEvent(projectId, executionId, pipelineId, EventId.generate()));
+            PipelineStageId stageId, Command command) {
+        logger.info("{} {} {} ROBOT pipeline stage started: {} {}", projectId, executionId, pipelineId, stageId,
+                command.getName());
+        dispatch(executionId,
+                new RunPipelineStageStartedEvent(projectId, executionId, pipelineId, EventId.generate(), stageId,
+                        command.getName()));
     }
 
     public void pipelineStageFinishedWithSuccess(ProjectId projectId, PipelineExecutionId executionId,
-            PipelineId pipelineId,
-            Command command) {
-        logger.info("{} {} {} ROBOT pipeline stage finished: {}", projectId, executionId, pipelineId,
-                command.getName());
-        eventDispatcher
-                .dispatchEvent(
-                        new RunPipelineStageFinishedEvent(projectId, executionId, pipelineId, EventId.generate()));
+            PipelineId pipelineId, PipelineStageId stageId, Command command, PipelineStageMetrics metrics) {
+        logger.info("{} {} {} ROBOT pipeline stage finished: {} {} {}", projectId, executionId, pipelineId, stageId,
+                command.getName(), describe(metrics));
+        dispatch(executionId,
+                new RunPipelineStageFinishedEvent(projectId, executionId, pipelineId, EventId.generate(), stageId,
+                        command.getName(), metrics));
     }
 
     public void pipelineStageFinishedWithError(ProjectId projectId, PipelineExecutionId executionId,
-            PipelineId pipelineId,
-            RobotPipelineStage pipelineStage, Throwable t) {
-        logger.error("{} {} {} ROBOT pipeline stage failed: {}", projectId, executionId, pipelineId, pipelineStage, t);
-        eventDispatcher
-                .dispatchEvent(
-                        new RunPipelineStageFailedEvent(projectId, executionId, pipelineId, EventId.generate(),
-                                t.getMessage()));
+            PipelineId pipelineId, RobotPipelineStage pipelineStage, @Nullable PipelineStageMetrics metrics,
+            Throwable t) {
+        logger.error("{} {} {} ROBOT pipeline stage failed: {} {}", projectId, executionId, pipelineId, pipelineStage,
+                describe(metrics), t);
+        var commandName = pipelineStage.command().getCommand().getName();
+        dispatch(executionId,
+                new RunPipelineStageFailedEvent(projectId, executionId, pipelineId, EventId.generate(),
+                        pipelineStage.stageId(), commandName, t.getMessage(), metrics));
     }
 
     public void savingOntologyStarted(ProjectId projectId, PipelineExecutionId executionId, PipelineId pipelineId,
             String ontologyPath) {
         logger.info("{} {} {} ROBOT pipeline saving ontology: {}", projectId, executionId, pipelineId, ontologyPath);
-        eventDispatcher
-                .dispatchEvent(new SaveOntologyStartedEvent(projectId, executionId, pipelineId, EventId.generate()));
+        dispatch(executionId, new SaveOntologyStartedEvent(projectId, executionId, pipelineId, EventId.generate()));
     }
 
     public void savingOntologySucceeded(ProjectId projectId, PipelineExecutionId executionId, PipelineId pipelineId) {
         logger.info("{} {} {} ROBOT pipeline saved ontology succeeded", projectId, executionId, pipelineId);
-        eventDispatcher
-                .dispatchEvent(new SaveOntologySucceededEvent(projectId, executionId, pipelineId, EventId.generate()));
+        dispatch(executionId, new SaveOntologySucceededEvent(projectId, executionId, pipelineId, EventId.generate()));
     }
 
     public void savingOntologyFailed(ProjectId projectId, PipelineExecutionId executionId, PipelineId pipelineId,
             Throwable t) {
         logger.error("{} {} {} ROBOT pipeline saving ontology failed", projectId, executionId, pipelineId, t);
-        eventDispatcher.dispatchEvent(
+        dispatch(executionId,
                 new SaveOntologyFailedEvent(projectId, executionId, pipelineId, EventId.generate(), t.getMessage()));
     }
+
+    /**
+     * Stops the asynchronous dispatcher, if any, after publishing the events it has buffered.
+     */
+    @Override
+    public void close() {
+        if (asyncEventDispatcher != null) {
+            asyncEventDispatcher.close();
+        }
+    }
+
+    private static String describe(@Nullable PipelineStageMetrics metrics) {
+        if (metrics == null) {
+            return "";
+        }
+        return String.format("[wall=%dms threadCpu=%dms axioms=%d->%d entities=%d->%d threadAllocated=%dB]",
+                metrics.wallTimeMillis(), metrics.callingThreadCpuTimeMillis(), metrics.axiomCountBefore(),
+                metrics.axiomCountAfter(), metrics.entityCountBefore(), metrics.entityCountAfter(),
+                metrics.callingThreadAllocatedBytes());
+    }
+
+    private void dispatch(PipelineExecutionId executionId, Event event) {
+        if (asyncEventDispatcher != null) {
+            asyncEventDispatcher.dispatch(executionId, event);
+        } else {
+            eventDispatcher.dispatchEvent(event);
+        }
+    }
+
+    private void completeExecution(PipelineExecutionId executionId) {
+        if (asyncEventDispatcher != null) {
+            asyncEventDispatcher.complete(executionId);
+        }
+    }
 }
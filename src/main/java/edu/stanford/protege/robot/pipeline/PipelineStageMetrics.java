@@ -0,0 +1,36 @@
+package edu.stanford.protege.robot.pipeline;
+
+/**
+ * Resource usage and ontology size measured around a single pipeline stage.
+ *
+ * <p>
+ * CPU time and allocations are those of the calling thread, the thread that runs the stage. Work a
+ * command hands to the shared fork-join pool, such as parallel module extraction, is not included:
+ * the pool's threads also run the work of other executions, so it cannot be attributed to a stage.
+ *
+ * @param wallTimeMillis
+ *            elapsed wall-clock time of the stage, in milliseconds
+ * @param callingThreadCpuTimeMillis
+ *            CPU time consumed by the calling thread, in milliseconds, or {@code -1} if the JVM does
+ *            not support thread CPU time measurement
+ * @param axiomCountBefore
+ *            the number of axioms in the ontology handed to the stage
+ * @param axiomCountAfter
+ *            the number of axioms in the ontology produced by the stage
+ * @param entityCountBefore
+ *            the number of entities in the signature of the ontology handed to the stage
+ * @param entityCountAfter
+ *            the number of entities in the signature of the ontology produced by the stage
+ * @param callingThreadAllocatedBytes
+ *            heap memory allocated by the calling thread during the stage, in bytes, or {@code -1} if
+ *            the JVM does not support thread allocation measurement
+ */
+public record PipelineStageMetrics(
+        long wallTimeMillis,
+        long callingThreadCpuTimeMillis,
+        long axiomCountBefore,
+        long axiomCountAfter,
+        long entityCountBefore,
+        long entityCountAfter,
+        long callingThreadAllocatedBytes) {
+}
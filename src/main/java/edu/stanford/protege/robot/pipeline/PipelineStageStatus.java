@@ -10,11 +10,15 @@ import javax.annotation.Nullable;
  * <p>
  * This is an immutable record. To change the status, create a new instance using the factory
  * methods.
+ *
+ * <p>
+ * Finished stages may carry the {@link PipelineStageMetrics} measured while they ran.
  */
 public record PipelineStageStatus(
         @Nonnull PipelineStageId stageId,
         @Nonnull StageStatus status,
-        @Nullable RelativePath outputFile) {
+        @Nullable RelativePath outputFile,
+        @Nullable PipelineStageMetrics metrics) {
 
     public PipelineStageStatus {
         Objects.requireNonNull(stageId, "stageId cannot be null");
@@ -27,7 +31,7 @@ public record PipelineStageStatus(
     public static PipelineStageStatus waiting(
             @Nonnull PipelineStageId stageId,
             @Nullable RelativePath outputFile) {
-        return new PipelineStageStatus(stageId, StageStatus.WAITING, outputFile);
+        return new PipelineStageStatus(stageId, StageStatus.WAITING, outputFile, null);
     }
 
     /**
@@ -36,7 +40,7 @@ public record PipelineStageStatus(
     public static PipelineStageStatus running(
             @Nonnull PipelineStageId stageId,
             @Nullable RelativePath outputFile) {
-        return new PipelineStageStatus(stageId, StageStatus.RUNNING, outputFile);
+        return new PipelineStageStatus(stageId, StageStatus.RUNNING, outputFile, null);
     }
 
     /**
@@ -45,7 +49,17 @@ public record PipelineStageStatus(
     public static PipelineStageStatus finishedWithSuccess(
             @Nonnull PipelineStageId stageId,
             @Nullable RelativePath outputFile) {
-        return new PipelineStageStatus(stageId, StageStatus.FINISHED_WITH_SUCCESS, outputFile);
+        return finishedWithSuccess(stageId, outputFile, null);
+    }
+
+    /**
+     * Creates a PipelineStageStatus in FINISHED_WITH_SUCCESS state with the metrics of the stage.
+     */
+    public static PipelineStageStatus finishedWithSuccess(
+            @Nonnull PipelineStageId stageId,
+            @Nullable RelativePath outputFile,
+            @Nullable PipelineStageMetrics metrics) {
+        return new PipelineStageStatus(stageId, StageStatus.FINISHED_WITH_SUCCESS, outputFile, metrics);
     }
 
     /**
@@ -54,7 +68,17 @@ public record PipelineStageStatus(
     public static PipelineStageStatus finishedWithError(
             @Nonnull PipelineStageId stageId,
             @Nullable RelativePath outputFile) {
-        return new PipelineStageStatus(stageId, StageStatus.FINISHED_WITH_ERROR, outputFile);
+        return finishedWithError(stageId, outputFile, null);
+    }
+
+    /**
+     * Creates a PipelineStageStatus in FINISHED_WITH_ERROR state with the metrics of the stage.
+     */
+    public static PipelineStageStatus finishedWithError(
+            @Nonnull PipelineStageId stageId,
+            @Nullable RelativePath outputFile,
+            @Nullable PipelineStageMetrics metrics) {
+        return new PipelineStageStatus(stageId, StageStatus.FINISHED_WITH_ERROR, outputFile, metrics);
     }
 
     /**
@@ -83,8 +83,20 @@ public record PipelineStatus(
     public static PipelineStatus withStageSuccess(
             @Nonnull PipelineStatus previousStatus,
             @Nonnull PipelineStageId stageId) {
+        return withStageSuccess(previousStatus, stageId, null);
+    }
+
+    /**
+     * Creates a new PipelineStatus with the specified stage marked as FINISHED_WITH_SUCCESS and
+     * carrying the given metrics.
+     */
+    public static PipelineStatus withStageSuccess(
+            @Nonnull PipelineStatus previousStatus,
+            @Nonnull PipelineStageId stageId,
+            @Nullable PipelineStageMetrics metrics) {
         var stages = previousStatus.stages();
-        var updatedStages = replaceStageStatus(stages, stageId, PipelineStageStatus::finishedWithSuccess);
+        var updatedStages = replaceStageStatus(stages, stageId,
+                (id, outputFile) -> PipelineStageStatus.finishedWithSuccess(id, outputFile, metrics));
         return new PipelineStatus(
                 previousStatus.executionId,
                 previousStatus.startTime,
@@ -100,8 +112,20 @@ public record PipelineStatus(
     public static PipelineStatus withStageError(
             @Nonnull PipelineStatus previousStatus,
             @Nonnull PipelineStageId stageId) {
+        return withStageError(previousStatus, stageId, null);
+    }
+
+    /**
+     * Creates a new PipelineStatus with the specified stage marked as FINISHED_WITH_ERROR and
+     * carrying the given metrics.
+     */
+    public static PipelineStatus withStageError(
+            @Nonnull PipelineStatus previousStatus,
+            @Nonnull PipelineStageId stageId,
+            @Nullable PipelineStageMetrics metrics) {
         var stages = previousStatus.stages();
-        var updatedStages = replaceStageStatus(stages, stageId, PipelineStageStatus::finishedWithError);
+        var updatedStages = replaceStageStatus(stages, stageId,
+                (id, outputFile) -> PipelineStageStatus.finishedWithError(id, outputFile, metrics));
         return new PipelineStatus(
                 previousStatus.executionId,
                 previousStatus.startTime,
@@ -185,6 +209,27 @@ public record PipelineStatus(
         return stages.stream().anyMatch(PipelineStageStatus::isFailed);
     }
 
+    /**
+     * Summarizes the preparation and stage statuses into a single state for the whole execution.
+     *
+     * <p>
+     * A failure anywhere takes precedence. An execution that has an end time and no failures is
+     * considered successful, even if it has no stages.
+     */
+    public StageStatus executionState() {
+        if (isFailed()) {
+            return StageStatus.FINISHED_WITH_ERROR;
+        }
+        if (isSuccessful() || endTime != null) {
+            return StageStatus.FINISHED_WITH_SUCCESS;
+        }
+        var preparationRunning = preparationStatus != null && preparationStatus.isRunning();
+        if (preparationRunning || stages.stream().anyMatch(PipelineStageStatus::isRunning)) {
+            return StageStatus.RUNNING;
+        }
+        return StageStatus.WAITING;
+    }
+
     /**
      * Functional interface for creating a new PipelineStageStatus with a specific status.
      */
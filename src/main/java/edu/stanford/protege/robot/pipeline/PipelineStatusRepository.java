@@ -1,11 +1,18 @@
 package edu.stanford.protege.robot.pipeline;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.bson.Document;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
 import org.springframework.stereotype.Component;
@@ -16,6 +23,11 @@ import org.springframework.stereotype.Component;
  * <p>
  * This repository stores {@link PipelineStatus} objects to track the execution state
  * of ROBOT pipelines, including start/end timestamps and success/failure status.
+ *
+ * <p>
+ * Besides the serialized status, each document carries a few denormalized, indexed fields (project
+ * id, pipeline id, start time as a BSON date and the overall execution state) so that the
+ * execution history of a project can be listed without loading the embedded pipeline definitions.
  */
 @Component
 public class PipelineStatusRepository {
@@ -23,10 +35,20 @@ public class PipelineStatusRepository {
     private static final String COLLECTION_NAME = "RobotPipelineStatus";
     private static final String FIELD_ID = "_id";
     private static final String FIELD_PIPELINE_EXECUTION_ID = "executionId";
+    private static final String FIELD_PROJECT_ID = "projectId";
+    private static final String FIELD_PIPELINE_ID = "pipelineId";
+    private static final String FIELD_STARTED_AT = "startedAt";
+    private static final String FIELD_STATE = "state";
+    private static final String FIELD_END_TIME = "endTime";
+
+    private static final String PROJECT_HISTORY_INDEX = "projectId_startedAt";
+    private static final String PIPELINE_HISTORY_INDEX = "projectId_pipelineId_startedAt";
 
     private final MongoTemplate mongoTemplate;
     private final ObjectMapper objectMapper;
 
+    private volatile boolean indexesCreated = false;
+
     public PipelineStatusRepository(@Nonnull MongoTemplate mongoTemplate, @Nonnull ObjectMapper objectMapper) {
         this.mongoTemplate = Objects.requireNonNull(mongoTemplate, "MongoTemplate must not be null");
         this.objectMapper = Objects.requireNonNull(objectMapper, "ObjectMapper must not be null");
@@ -38,6 +60,11 @@ public class PipelineStatusRepository {
         var document = objectMapper.convertValue(status, Document.class);
         document.put(FIELD_ID, status.executionId().id());
         document.remove(FIELD_PIPELINE_EXECUTION_ID);
+        document.put(FIELD_PROJECT_ID, status.pipeline().projectId().id());
+        document.put(FIELD_PIPELINE_ID, status.pipeline().pipelineId().id());
+        document.put(FIELD_STARTED_AT, Date.from(status.startTime()));
+        document.put(FIELD_STATE, status.executionState().name());
+        ensureIndexes();
         mongoTemplate.save(document, COLLECTION_NAME);
     }
 
@@ -60,11 +87,115 @@ public class PipelineStatusRepository {
         return result.getDeletedCount() > 0;
     }
 
+    /**
+     * Lists the executions of a project, newest first, one page at a time.
+     *
+     * <p>
+     * Only the identifiers, timestamps and state are read from storage; the embedded pipeline
+     * definition and the per-stage statuses are excluded by projection. Pages are addressed with a
+     * keyset cursor so that fetching any page is an index range scan, regardless of how many
+     * executions the project has. The returned summaries do not carry output files; those are
+     * stored with the success results (see
+     * {@link PipelineSuccessResultRepository#findOutputFiles(java.util.Collection)}).
+     *
+     * @param projectId
+     *            the project whose executions should be listed (must not be null)
+     * @param pipelineId
+     *            optionally restricts the listing to the executions of a single pipeline
+     * @param cursor
+     *            the position after which to continue, or {@code null} for the first page
+     * @param pageSize
+     *            the maximum number of executions to return (must be positive)
+     * @return the requested page, with a cursor for the next page if more executions exist
+     */
+    public PipelineExecutionPage findExecutions(@Nonnull ProjectId projectId,
+            @Nullable PipelineId pipelineId,
+            @Nullable PipelineExecutionCursor cursor,
+            int pageSize) {
+        Objects.requireNonNull(projectId, "projectId cannot be null");
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("pageSize must be positive");
+        }
+        ensureIndexes();
+
+        var criteria = Criteria.where(FIELD_PROJECT_ID).is(projectId.id());
+        if (pipelineId != null) {
+            criteria = criteria.and(FIELD_PIPELINE_ID).is(pipelineId.id());
+        }
+        if (cursor != null) {
+            var cursorStartedAt = new Date(cursor.startTimeMillis());
+            criteria = criteria.orOperator(
+                    Criteria.where(FIELD_STARTED_AT).lt(cursorStartedAt),
+                    Criteria.where(FIELD_STARTED_AT).is(cursorStartedAt)
+                            .and(FIELD_ID).lt(cursor.executionId().id()));
+        }
+        var query = Query.query(criteria)
+                .with(Sort.by(Sort.Direction.DESC, FIELD_STARTED_AT, FIELD_ID))
+                .limit(pageSize + 1);
+        query.fields().include(FIELD_ID, FIELD_PIPELINE_ID, FIELD_STARTED_AT, FIELD_END_TIME, FIELD_STATE);
+
+        var documents = mongoTemplate.find(query, Document.class, COLLECTION_NAME);
+        var hasMore = documents.size() > pageSize;
+        var pageDocuments = hasMore ? documents.subList(0, pageSize) : documents;
+        var executions = pageDocuments.stream()
+                .map(this::convertDocumentToExecutionSummary)
+                .toList();
+
+        PipelineExecutionCursor nextCursor = null;
+        if (hasMore) {
+            var lastDocument = pageDocuments.get(pageDocuments.size() - 1);
+            nextCursor = new PipelineExecutionCursor(lastDocument.getDate(FIELD_STARTED_AT).getTime(),
+                    PipelineExecutionId.valueOf(lastDocument.getString(FIELD_ID)));
+        }
+        return new PipelineExecutionPage(executions, nextCursor);
+    }
+
+    /**
+     * Creates the indexes backing the execution history listing. Index creation is idempotent, so
+     * it is only attempted once per repository instance, on first use.
+     */
+    private void ensureIndexes() {
+        if (indexesCreated) {
+            return;
+        }
+        var indexOperations = mongoTemplate.indexOps(COLLECTION_NAME);
+        indexOperations.createIndex(new Index()
+                .on(FIELD_PROJECT_ID, Sort.Direction.ASC)
+                .on(FIELD_STARTED_AT, Sort.Direction.DESC)
+                .on(FIELD_ID, Sort.Direction.DESC)
+                .named(PROJECT_HISTORY_INDEX));
+        indexOperations.createIndex(new Index()
+                .on(FIELD_PROJECT_ID, Sort.Direction.ASC)
+                .on(FIELD_PIPELINE_ID, Sort.Direction.ASC)
+                .on(FIELD_STARTED_AT, Sort.Direction.DESC)
+                .on(FIELD_ID, Sort.Direction.DESC)
+                .named(PIPELINE_HISTORY_INDEX));
+        indexesCreated = true;
+    }
+
     /**
      * Converts a MongoDB Document to a PipelineStatus, restoring the executionId from _id.
      */
     private PipelineStatus convertDocumentToPipelineStatus(Document document) {
         document.put(FIELD_PIPELINE_EXECUTION_ID, document.get(FIELD_ID));
+        document.remove(FIELD_PROJECT_ID);
+        document.remove(FIELD_PIPELINE_ID);
+        document.remove(FIELD_STARTED_AT);
+        document.remove(FIELD_STATE);
         return objectMapper.convertValue(document, PipelineStatus.class);
     }
+
+    /**
+     * Converts a projected MongoDB Document to a PipelineExecutionSummary without output files.
+     */
+    private PipelineExecutionSummary convertDocumentToExecutionSummary(Document document) {
+        var endTime = document.get(FIELD_END_TIME);
+        return new PipelineExecutionSummary(
+                PipelineExecutionId.valueOf(document.getString(FIELD_ID)),
+                PipelineId.valueOf(document.getString(FIELD_PIPELINE_ID)),
+                document.getDate(FIELD_STARTED_AT).toInstant(),
+                endTime == null ? null : objectMapper.convertValue(endTime, Instant.class),
+                StageStatus.valueOf(document.getString(FIELD_STATE)),
+                Map.of());
+    }
 }
@@ -1,6 +1,11 @@
 package edu.stanford.protege.robot.pipeline;
 
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.stanford.protege.webprotege.common.BlobLocation;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import javax.annotation.Nonnull;
@@ -16,6 +21,10 @@ public class PipelineSuccessResultRepository {
     private static final String COLLECTION_NAME = "RobotPipelineSuccessResult";
     private static final String FIELD_ID = "_id";
     private static final String FIELD_PIPELINE_EXECUTION_ID = "executionId";
+    private static final String FIELD_OUTPUT_FILES = "outputFiles";
+
+    private static final TypeReference<Map<RelativePath, BlobLocation>> OUTPUT_FILES_TYPE = new TypeReference<>() {
+    };
 
     private final MongoTemplate mongoTemplate;
     private final ObjectMapper objectMapper;
@@ -45,6 +54,39 @@ public class PipelineSuccessResultRepository {
         return Optional.of(convertDocumentToPipelineSuccessResult(document));
     }
 
+    /**
+     * Looks up the output files of several executions in a single query.
+     *
+     * <p>
+     * Only the {@code outputFiles} field is read; the executed pipeline definition is excluded by
+     * projection. Executions without a success result are absent from the returned map.
+     *
+     * @param executionIds
+     *            the executions to look up (must not be null)
+     * @return the output files of each execution that has a success result
+     */
+    public Map<PipelineExecutionId, Map<RelativePath, BlobLocation>> findOutputFiles(
+            @Nonnull Collection<PipelineExecutionId> executionIds) {
+        Objects.requireNonNull(executionIds, "executionIds cannot be null");
+        if (executionIds.isEmpty()) {
+            return Map.of();
+        }
+
+        var ids = executionIds.stream().map(PipelineExecutionId::id).toList();
+        var query = Query.query(Criteria.where(FIELD_ID).in(ids));
+        query.fields().include(FIELD_ID, FIELD_OUTPUT_FILES);
+        var documents = mongoTemplate.find(query, Document.class, COLLECTION_NAME);
+
+        var outputFiles = new HashMap<PipelineExecutionId, Map<RelativePath, BlobLocation>>();
+        for (var document : documents) {
+            var executionId = PipelineExecutionId.valueOf(document.getString(FIELD_ID));
+            var files = document.get(FIELD_OUTPUT_FILES);
+            outputFiles.put(executionId,
+                    files == null ? Map.of() : objectMapper.convertValue(files, OUTPUT_FILES_TYPE));
+        }
+        return outputFiles;
+    }
+
     /**
      * Converts a MongoDB Document to a PipelineSuccessResult, restoring the executionId from
      * _id.
@@ -5,9 +5,12 @@ import static edu.stanford.protege.robot.pipeline.event.RunPipelineStageFailedEv
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import edu.stanford.protege.robot.pipeline.PipelineExecutionId;
 import edu.stanford.protege.robot.pipeline.PipelineId;
+import edu.stanford.protege.robot.pipeline.PipelineStageId;
+import edu.stanford.protege.robot.pipeline.PipelineStageMetrics;
 import edu.stanford.protege.webprotege.common.EventId;
 import edu.stanford.protege.webprotege.common.ProjectId;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 @JsonTypeName(CHANNEL)
 public record RunPipelineStageFailedEvent(
@@ -15,7 +18,10 @@ public record RunPipelineStageFailedEvent(
         @Nonnull PipelineExecutionId executionId,
         @Nonnull PipelineId pipelineId,
         @Nonnull EventId eventId,
-        @Nonnull String errorMessage) implements RunPipelineStageEvent {
+        @Nonnull PipelineStageId stageId,
+        @Nonnull String commandName,
+        @Nonnull String errorMessage,
+        @Nullable PipelineStageMetrics metrics) implements RunPipelineStageEvent {
 
     public static final String CHANNEL = "webprotege.events.robot.RunPipelineStageFailed";
 
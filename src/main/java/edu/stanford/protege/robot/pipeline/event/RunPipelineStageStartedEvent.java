@@ -5,6 +5,7 @@ import static edu.stanford.protege.robot.pipeline.event.RunPipelineStageStartedE
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import edu.stanford.protege.robot.pipeline.PipelineExecutionId;
 import edu.stanford.protege.robot.pipeline.PipelineId;
+import edu.stanford.protege.robot.pipeline.PipelineStageId;
 import edu.stanford.protege.webprotege.common.EventId;
 import edu.stanford.protege.webprotege.common.ProjectId;
 import javax.annotation.Nonnull;
@@ -14,7 +15,9 @@ public record RunPipelineStageStartedEvent(
         @Nonnull ProjectId projectId,
         @Nonnull PipelineExecutionId executionId,
         @Nonnull PipelineId pipelineId,
-        @Nonnull EventId eventId) implements RunPipelineStageEvent {
+        @Nonnull EventId eventId,
+        @Nonnull PipelineStageId stageId,
+        @Nonnull String commandName) implements RunPipelineStageEvent {
 
     public static final String CHANNEL = "webprotege.events.robot.RunPipelineStageStarted";
 
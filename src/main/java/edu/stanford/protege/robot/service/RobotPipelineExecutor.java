@@ -1,15 +1,28 @@
 package edu.stanford.protege.robot.service;
 
 import com.google.common.collect.Maps;
+import com.google.common.io.CountingOutputStream;
+import edu.stanford.protege.robot.command.OperationContextFactory;
+import edu.stanford.protege.robot.command.StageDocument;
+import edu.stanford.protege.robot.command.StageOutputs;
 import edu.stanford.protege.robot.pipeline.*;
 import edu.stanford.protege.robot.service.exception.RobotServiceException;
+import edu.stanford.protege.robot.service.jfr.RunPipelineStageJfrEvent;
+import edu.stanford.protege.robot.service.jfr.SaveOntologyJfrEvent;
+import edu.stanford.protege.robot.service.jfr.UploadDocumentJfrEvent;
+import edu.stanford.protege.robot.service.metrics.RobotPipelineMetrics;
 import edu.stanford.protege.robot.service.storer.MinioDocumentStorer;
 import edu.stanford.protege.webprotege.common.BlobLocation;
 import edu.stanford.protege.webprotege.common.ProjectId;
 import jakarta.inject.Provider;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import javax.annotation.Nonnull;
 import org.obolibrary.robot.CommandState;
 import org.obolibrary.robot.IOHelper;
@@ -26,6 +39,10 @@ import org.springframework.stereotype.Service;
  * This executor enables programmatic composition of ROBOT command pipelines. Each command
  * receives the output from the previous command via CommandState, creating processing pipelines
  * without intermediate file I/O.
+ *
+ * <p>
+ * Commands that provide a {@link edu.stanford.protege.robot.command.RobotOperation} are executed
+ * through it; all others are executed by ROBOT's command-line implementation.
  */
 @Service
 public class RobotPipelineExecutor {
@@ -38,6 +55,8 @@ public class RobotPipelineExecutor {
     private final PipelineStatusRepository pipelineStatusRepository;
     private final PipelineSuccessResultRepository successResultRepository;
     private final PipelineLogger pipelineLogger;
+    private final RobotPipelineMetrics metrics;
+    private final OperationContextFactory operationContextFactory;
 
     public RobotPipelineExecutor(
             @Nonnull Provider<CommandState> commandStateProvider,
@@ -45,13 +64,17 @@ public class RobotPipelineExecutor {
             @Nonnull MinioDocumentStorer minioDocumentStorer,
             @Nonnull PipelineStatusRepository pipelineStatusRepository,
             @Nonnull PipelineSuccessResultRepository successResultRepository,
-            @Nonnull PipelineLogger pipelineLogger) {
+            @Nonnull PipelineLogger pipelineLogger,
+            @Nonnull RobotPipelineMetrics metrics,
+            @Nonnull OperationContextFactory operationContextFactory) {
         this.commandStateProvider = commandStateProvider;
         this.ioHelper = ontologyStorer;
         this.minioDocumentStorer = minioDocumentStorer;
         this.pipelineStatusRepository = pipelineStatusRepository;
         this.successResultRepository = successResultRepository;
         this.pipelineLogger = pipelineLogger;
+        this.metrics = metrics;
+        this.operationContextFactory = operationContextFactory;
     }
 
     /**
@@ -86,6 +109,7 @@ public class RobotPipelineExecutor {
 
         var existingStatus = pipelineStatusRepository.findStatus(executionId).orElse(null);
         var startTimestamp = existingStatus == null ? Instant.now() : existingStatus.startTime();
+        var executionSample = metrics.startTimer();
 
         try {
             // Create the initial pipeline status
@@ -101,6 +125,8 @@ public class RobotPipelineExecutor {
             // Seed input ontology in state (no file roundtrip required for chained commands).
             state.setOntology(ontology);
 
+            var operationContext = operationContextFactory.create(projectId, revisionNumber, ontology);
+
             // The map between output relative path to the blob location
             var outputFileMap = Maps.<RelativePath, BlobLocation>newHashMap();
 
@@ -109,24 +135,65 @@ public class RobotPipelineExecutor {
                 var stageId = pipelineStage.stageId();
                 var robotCommand = pipelineStage.command();
                 var command = robotCommand.getCommand();
-                var args = robotCommand.getArgsArray();
+                var operation = robotCommand.getOperation();
+                var probe = StageMetricsProbe.start(state.getOntology());
+                PipelineStageMetrics stageMetrics = null;
                 try {
                     // Update status that a pipeline stage is running
                     status = PipelineStatus.withStageRunning(status, stageId);
                     safeSaveStatus(pipelineId, status);
-                    pipelineLogger.pipelineStageStarted(projectId, executionId, pipelineId, command);
+                    pipelineLogger.pipelineStageStarted(projectId, executionId, pipelineId, stageId, command);
 
                     // Update the state
-                    state = command.execute(state, args);
+                    var stageEvent = RunPipelineStageJfrEvent.start(projectId, executionId, pipelineId, stageId,
+                            command.getName());
+                    List<StageOutputs.StageOutput> outputs;
+                    try {
+                        // Prefer the direct operation, which skips parsing the arguments back
+                        state = operation.isPresent()
+                                ? operation.get().execute(state, operationContext)
+                                : command.execute(state, robotCommand.getArgsArray());
+
+                        // Save the ontologies the operation produced besides the stage output, such as the
+                        // modules of a multi-module extract
+                        outputs = new ArrayList<>(operationContext.outputs().drain());
+                        if (pipelineStage.producedOutput() && outputs.stream()
+                                .anyMatch(output -> output.path().equals(pipelineStage.outputPath()))) {
+                            throw new RobotServiceException("Stage output path "
+                                    + pipelineStage.outputPath().asString()
+                                    + " is also the path of another output of the stage");
+                        }
+                        // A document the operation produced, such as an export table, replaces the ontology
+                        // as the stage output; it is discarded if the stage has no output path. Writing it is
+                        // where a streamed export does its work, so it is uploaded within the stage
+                        var document = operationContext.outputs().takeDocument();
+                        // Check if the pipeline stage produces an output
+                        if (pipelineStage.producedOutput() && document.isPresent()) {
+                            try {
+                                var blobLocation = uploadDocumentOutput(projectId, executionId, pipelineId,
+                                        stageId, command.getName(), document.get(), pipelineStage.outputPath());
+                                outputFileMap.put(pipelineStage.outputPath(), blobLocation);
+                            } catch (Throwable t) {
+                                pipelineLogger.savingOntologyFailed(projectId, executionId, pipelineId, t);
+                                throw new RobotServiceException(
+                                        "Pipeline stage failed due to I/O Exception: " + t.getMessage(), t);
+                            }
+                        } else if (pipelineStage.producedOutput()) {
+                            outputs.add(new StageOutputs.StageOutput(pipelineStage.outputPath(),
+                                    state.getOntology()));
+                        }
+                    } catch (Throwable t) {
+                        stageEvent.finish(false);
+                        throw t;
+                    }
+                    stageEvent.finish(true);
+                    stageMetrics = probe.finish(state.getOntology());
 
-                    // Check if the pipeline stage produces an output
-                    if (pipelineStage.producedOutput()) {
-                        var outputLocation = pipelineStage.outputPath();
-                        var outputOntology = state.getOntology();
+                    for (var output : outputs) {
                         try {
-                            var blobLocation = saveOntologyOutput(projectId, executionId, pipelineId, outputOntology,
-                                    outputLocation);
-                            outputFileMap.put(outputLocation, blobLocation);
+                            var blobLocation = saveOntologyOutput(projectId, executionId, pipelineId, stageId,
+                                    command.getName(), output.ontology(), output.path());
+                            outputFileMap.put(output.path(), blobLocation);
                         } catch (Throwable t) {
                             pipelineLogger.savingOntologyFailed(projectId, executionId, pipelineId, t);
                             throw new RobotServiceException(
@@ -134,14 +201,22 @@ public class RobotPipelineExecutor {
                         }
                     }
                     // Update status that a pipeline stage is finished successfully
-                    status = PipelineStatus.withStageSuccess(status, stageId);
+                    status = PipelineStatus.withStageSuccess(status, stageId, stageMetrics);
+                    metrics.recordStage(command.getName(), stageMetrics, true);
                     safeSaveStatus(pipelineId, status);
-                    pipelineLogger.pipelineStageFinishedWithSuccess(projectId, executionId, pipelineId, command);
+                    pipelineLogger.pipelineStageFinishedWithSuccess(projectId, executionId, pipelineId, stageId,
+                            command, stageMetrics);
                 } catch (Throwable t) {
                     // Update status that the pipeline stage is finished but with errors
-                    status = PipelineStatus.withStageError(status, stageId);
+                    // The command itself may have failed before producing an ontology
+                    if (stageMetrics == null) {
+                        stageMetrics = probe.finish(null);
+                    }
+                    status = PipelineStatus.withStageError(status, stageId, stageMetrics);
+                    metrics.recordStage(command.getName(), stageMetrics, false);
                     safeSaveStatus(pipelineId, status);
-                    pipelineLogger.pipelineStageFinishedWithError(projectId, executionId, pipelineId, pipelineStage, t);
+                    pipelineLogger.pipelineStageFinishedWithError(projectId, executionId, pipelineId, pipelineStage,
+                            stageMetrics, t);
                     throw new RobotServiceException("Pipeline stage failed: " + t.getMessage(), t);
                 }
             }
@@ -157,8 +232,10 @@ public class RobotPipelineExecutor {
                     endTimestamp, outputFileMap);
             safeSaveResult(pipelineId, result);
 
+            metrics.recordExecution(executionSample, true);
             pipelineLogger.pipelineExecutionFinishedWithSuccess(projectId, executionId, pipelineId);
         } catch (Throwable t) {
+            metrics.recordExecution(executionSample, false);
             pipelineLogger.pipelineExecutionFinishedWithError(projectId, executionId, pipelineId, t);
         }
     }
@@ -172,9 +249,12 @@ public class RobotPipelineExecutor {
     }
 
     private void safeSaveStatus(PipelineId pipelineId, PipelineStatus status) {
+        var sample = metrics.startTimer();
         try {
             pipelineStatusRepository.saveStatus(status);
+            metrics.recordStatusWrite(sample, true);
         } catch (Throwable t) {
+            metrics.recordStatusWrite(sample, false);
             logger.error("{} Pipeline progress status failed to save in MongoDB", pipelineId, t);
         }
     }
@@ -183,12 +263,68 @@ public class RobotPipelineExecutor {
      * Saves the ontology to the local filesystem and uploads it to MinIO storage.
      */
     private BlobLocation saveOntologyOutput(ProjectId projectId, PipelineExecutionId executionId, PipelineId pipelineId,
-            OWLOntology ontology, RelativePath outputLocation) throws IOException {
+            PipelineStageId stageId, String commandName, OWLOntology ontology, RelativePath outputLocation)
+            throws IOException {
         var ontologyPath = outputLocation.asString();
         pipelineLogger.savingOntologyStarted(projectId, executionId, pipelineId, ontologyPath);
-        ioHelper.saveOntology(ontology, ontologyPath);
-        var blobLocation = minioDocumentStorer.storeDocument(ontologyPath);
-        pipelineLogger.savingOntologySucceeded(projectId, executionId, pipelineId);
-        return blobLocation;
+
+        var saveEvent = SaveOntologyJfrEvent.start(projectId, executionId, pipelineId, stageId, commandName,
+                ontologyPath);
+        var saved = false;
+        try {
+            ioHelper.saveOntology(ontology, ontologyPath);
+            saved = true;
+        } finally {
+            saveEvent.finish(saved);
+        }
+
+        var uploadEvent = UploadDocumentJfrEvent.start(projectId, executionId, pipelineId, stageId, commandName,
+                ontologyPath);
+        var uploaded = false;
+        try {
+            if (uploadEvent.isEnabled()) {
+                uploadEvent.setBytes(Files.size(Path.of(ontologyPath)));
+            }
+            var blobLocation = minioDocumentStorer.storeDocument(ontologyPath);
+            uploaded = true;
+            pipelineLogger.savingOntologySucceeded(projectId, executionId, pipelineId);
+            return blobLocation;
+        } finally {
+            uploadEvent.finish(uploaded);
+        }
+    }
+
+    /**
+     * Writes a stage document straight into its upload to MinIO storage. The document is written on
+     * the calling thread, so its cost is measured with the stage that produced it.
+     */
+    private BlobLocation uploadDocumentOutput(ProjectId projectId, PipelineExecutionId executionId,
+            PipelineId pipelineId, PipelineStageId stageId, String commandName, StageDocument document,
+            RelativePath outputLocation) {
+        var documentPath = outputLocation.asString();
+        pipelineLogger.savingOntologyStarted(projectId, executionId, pipelineId, documentPath);
+
+        var uploadEvent = UploadDocumentJfrEvent.start(projectId, executionId, pipelineId, stageId, commandName,
+                documentPath);
+        var uploaded = false;
+        var bytes = new AtomicLong();
+        try {
+            var blobLocation = minioDocumentStorer.storeDocument(documentPath, out -> {
+                var counting = new CountingOutputStream(out);
+                try {
+                    document.write(outputLocation, counting);
+                } finally {
+                    bytes.set(counting.getCount());
+                }
+            });
+            uploaded = true;
+            pipelineLogger.savingOntologySucceeded(projectId, executionId, pipelineId);
+            return blobLocation;
+        } finally {
+            if (uploadEvent.isEnabled()) {
+                uploadEvent.setBytes(bytes.get());
+            }
+            uploadEvent.finish(uploaded);
+        }
     }
 }
@@ -1,6 +1,9 @@
 package edu.stanford.protege.robot.service;
 
 import edu.stanford.protege.robot.pipeline.*;
+import edu.stanford.protege.robot.service.jfr.SnapshotOntologyJfrEvent;
+import edu.stanford.protege.robot.service.metrics.RobotPipelineMetrics;
+import edu.stanford.protege.robot.service.snapshot.ProjectOntologySnapshot;
 import edu.stanford.protege.robot.service.snapshot.ProjectOntologySnapshotProvider;
 import edu.stanford.protege.webprotege.common.ProjectId;
 import java.time.Instant;
@@ -35,16 +38,20 @@ public class RobotPipelineOrchestrator {
 
     private final Executor pipelineExecutor;
 
+    private final RobotPipelineMetrics metrics;
+
     public RobotPipelineOrchestrator(RobotPipelineExecutor executor,
             ProjectOntologySnapshotProvider snapshotProvider,
             PipelineStatusRepository pipelineStatusRepository,
             PipelineLogger pipelineLogger,
-            @Qualifier("robotPipelineTaskExecutor") Executor pipelineExecutor) {
+            @Qualifier("robotPipelineTaskExecutor") Executor pipelineExecutor,
+            RobotPipelineMetrics metrics) {
         this.executor = executor;
         this.snapshotProvider = snapshotProvider;
         this.pipelineStatusRepository = pipelineStatusRepository;
         this.pipelineLogger = pipelineLogger;
         this.pipelineExecutor = pipelineExecutor;
+        this.metrics = metrics;
     }
 
     /**
@@ -69,7 +76,7 @@ public class RobotPipelineOrchestrator {
                 Instant.now(),
                 pipeline,
                 PipelinePreparationStatus.waiting("Preparing ontology snapshot"));
-        pipelineStatusRepository.saveStatus(status);
+        saveStatus(status);
 
         // Fire-and-forget: snapshot + pipeline execute off-thread to keep the handler non-blocking.
         CompletableFuture.runAsync(() -> executeAsyncInternal(projectId, executionId, pipeline), pipelineExecutor);
@@ -92,7 +99,16 @@ public class RobotPipelineOrchestrator {
             updatePreparationStatus(executionId, pipeline,
                     PipelinePreparationStatus.running("Preparing ontology snapshot"));
             pipelineLogger.snapshotOntologyStarted(projectId, executionId, pipeline.pipelineId());
-            var snapshot = snapshotProvider.createSnapshot(projectId);
+            var snapshotEvent = SnapshotOntologyJfrEvent.start(projectId, executionId, pipeline.pipelineId());
+            ProjectOntologySnapshot snapshot;
+            try {
+                snapshot = snapshotProvider.createSnapshot(projectId);
+            } catch (RuntimeException e) {
+                snapshotEvent.finish(false);
+                throw e;
+            }
+            snapshotEvent.setRevisionNumber(snapshot.revisionNumber());
+            snapshotEvent.finish(true);
             var ontology = snapshot.ontology();
             var revisionNumber = snapshot.revisionNumber();
             updatePreparationStatus(executionId, pipeline,
@@ -133,7 +149,7 @@ public class RobotPipelineOrchestrator {
                         pipeline,
                         preparationStatus));
         var updated = PipelineStatus.withPreparationStatus(status, preparationStatus);
-        pipelineStatusRepository.saveStatus(updated);
+        saveStatus(updated);
     }
 
     /**
@@ -158,6 +174,20 @@ public class RobotPipelineOrchestrator {
                         preparationStatus));
         var updated = PipelineStatus.withPreparationStatus(status, preparationStatus);
         updated = PipelineStatus.withEndTime(updated, Instant.now());
-        pipelineStatusRepository.saveStatus(updated);
+        saveStatus(updated);
+    }
+
+    /**
+     * Persists a pipeline status, recording the write latency.
+     */
+    private void saveStatus(PipelineStatus status) {
+        var sample = metrics.startTimer();
+        var success = false;
+        try {
+            pipelineStatusRepository.saveStatus(status);
+            success = true;
+        } finally {
+            metrics.recordStatusWrite(sample, success);
+        }
     }
 }
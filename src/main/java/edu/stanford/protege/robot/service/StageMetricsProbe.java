@@ -0,0 +1,102 @@
+package edu.stanford.protege.robot.service;
+
+import edu.stanford.protege.robot.pipeline.PipelineStageMetrics;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import javax.annotation.Nullable;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Measures a single pipeline stage on the thread that executes it.
+ *
+ * <p>
+ * A probe is started before the ROBOT command runs and finished afterwards, on the same thread. CPU
+ * time and allocated bytes are read for that thread only, so stages of other executions running at
+ * the same time do not affect them, and neither does the work a command hands to the shared fork-join
+ * pool.
+ */
+final class StageMetricsProbe {
+
+    private static final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    private final long startNanos;
+
+    private final long startCpuNanos;
+
+    private final long startAllocatedBytes;
+
+    private final long axiomCountBefore;
+
+    private final long entityCountBefore;
+
+    private StageMetricsProbe(@Nullable OWLOntology ontology) {
+        this.axiomCountBefore = axiomCount(ontology);
+        this.entityCountBefore = entityCount(ontology);
+        this.startAllocatedBytes = currentThreadAllocatedBytes();
+        this.startCpuNanos = currentThreadCpuNanos();
+        this.startNanos = System.nanoTime();
+    }
+
+    /**
+     * Starts measuring a stage that receives the given ontology.
+     */
+    static StageMetricsProbe start(@Nullable OWLOntology ontology) {
+        return new StageMetricsProbe(ontology);
+    }
+
+    /**
+     * Finishes measuring the stage. Must be called on the thread that started the probe.
+     *
+     * @param ontology
+     *            the ontology produced by the stage, or {@code null} if it failed without producing one
+     */
+    PipelineStageMetrics finish(@Nullable OWLOntology ontology) {
+        var wallTimeMillis = (System.nanoTime() - startNanos) / 1_000_000;
+        var endCpuNanos = currentThreadCpuNanos();
+        var cpuTimeMillis = startCpuNanos < 0 || endCpuNanos < 0 ? -1 : (endCpuNanos - startCpuNanos) / 1_000_000;
+        var endAllocatedBytes = currentThreadAllocatedBytes();
+        var allocatedBytes = startAllocatedBytes < 0 || endAllocatedBytes < 0
+                ? -1
+                : endAllocatedBytes - startAllocatedBytes;
+        var axiomCountAfter = ontology == null ? axiomCountBefore : axiomCount(ontology);
+        var entityCountAfter = ontology == null ? entityCountBefore : entityCount(ontology);
+        return new PipelineStageMetrics(wallTimeMillis, cpuTimeMillis, axiomCountBefore, axiomCountAfter,
+                entityCountBefore, entityCountAfter, allocatedBytes);
+    }
+
+    private static long currentThreadCpuNanos() {
+        if (!threadMXBean.isCurrentThreadCpuTimeSupported() || !threadMXBean.isThreadCpuTimeEnabled()) {
+            return -1;
+        }
+        return threadMXBean.getCurrentThreadCpuTime();
+    }
+
+    private static long currentThreadAllocatedBytes() {
+        if (!(threadMXBean instanceof com.sun.management.ThreadMXBean allocationBean)
+                || !allocationBean.isThreadAllocatedMemorySupported()
+                || !allocationBean.isThreadAllocatedMemoryEnabled()) {
+            return -1;
+        }
+        return allocationBean.getCurrentThreadAllocatedBytes();
+    }
+
+    private static long axiomCount(@Nullable OWLOntology ontology) {
+        return ontology == null ? 0 : ontology.getAxiomCount();
+    }
+
+    /**
+     * Counts the entities of the signature per type, which, unlike {@link OWLOntology#getSignature()},
+     * does not build a set of all of them.
+     */
+    private static long entityCount(@Nullable OWLOntology ontology) {
+        if (ontology == null) {
+            return 0;
+        }
+        return ontology.getClassesInSignature().size()
+                + ontology.getObjectPropertiesInSignature().size()
+                + ontology.getDataPropertiesInSignature().size()
+                + ontology.getAnnotationPropertiesInSignature().size()
+                + ontology.getIndividualsInSignature().size()
+                + ontology.getDatatypesInSignature().size();
+    }
+}
@@ -1,5 +1,12 @@
 package edu.stanford.protege.robot.service.config;
 
+import edu.stanford.protege.robot.command.OperationContextFactory;
+import edu.stanford.protege.robot.command.common.ReasonerPool;
+import edu.stanford.protege.robot.command.common.TautologyCache;
+import edu.stanford.protege.robot.command.extract.ModuleExtractorCache;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.obolibrary.robot.CommandState;
 import org.obolibrary.robot.IOHelper;
 import org.springframework.context.annotation.Bean;
@@ -45,4 +52,84 @@ public class ExecutorConfiguration {
             throw new RuntimeException("Failed to initialize IOHelper", e);
         }
     }
+
+    /**
+     * Provides the cache of SLME module extractors, shared by all pipeline executions.
+     *
+     * <p>
+     * The cache is a {@link io.micrometer.core.instrument.binder.MeterBinder}, so its hit and
+     * eviction counts are published with the other metrics.
+     *
+     * @return the module extractor cache
+     */
+    @Bean
+    public ModuleExtractorCache moduleExtractorCache(ModuleExtractorCacheProperties properties) {
+        return new ModuleExtractorCache(properties.getMaxHeapMegabytes() * 1024 * 1024,
+                properties.getBytesPerAxiom(), Duration.ofMinutes(properties.getExpireAfterAccessMinutes()));
+    }
+
+    /**
+     * Provides the pool of classified reasoners, shared by all pipeline executions.
+     *
+     * <p>
+     * Like the module extractor cache, the pool publishes its hit and eviction counts with the other
+     * metrics.
+     *
+     * @return the reasoner pool
+     */
+    @Bean
+    public ReasonerPool reasonerPool(ReasonerPoolProperties properties) {
+        return new ReasonerPool(properties.getMaxSize(),
+                Duration.ofMinutes(properties.getExpireAfterAccessMinutes()));
+    }
+
+    /**
+     * Provides the cache of tautology verdicts, shared by all pipeline executions.
+     *
+     * <p>
+     * Like the reasoner pool, the cache publishes its hit and eviction counts with the other metrics.
+     *
+     * @return the tautology cache
+     */
+    @Bean
+    public TautologyCache tautologyCache(TautologyCacheProperties properties) {
+        return new TautologyCache(properties.getMaxSize(),
+                Duration.ofMinutes(properties.getExpireAfterAccessMinutes()));
+    }
+
+    /**
+     * Provides the fork-join pool in which direct ROBOT operations compute their concurrent parts,
+     * such as the modules of a multi-module extract.
+     *
+     * <p>
+     * The pool is separate from the common pool, so that operations of concurrent pipeline
+     * executions share a bounded number of threads without competing with other parallel work.
+     *
+     * @return the operation pool
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool robotOperationPool(RobotOperationProperties properties) {
+        var parallelism = properties.getParallelism() > 0
+                ? properties.getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        var threadCount = new AtomicInteger();
+        return new ForkJoinPool(parallelism, pool -> {
+            var thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(properties.getThreadNamePrefix() + threadCount.incrementAndGet());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * Provides the factory of the per-execution contexts of direct ROBOT operations.
+     *
+     * @return the operation context factory
+     */
+    @Bean
+    public OperationContextFactory operationContextFactory(IOHelper ioHelper,
+            ModuleExtractorCache moduleExtractorCache, ReasonerPool reasonerPool, TautologyCache tautologyCache,
+            ForkJoinPool robotOperationPool) {
+        return new OperationContextFactory(ioHelper, moduleExtractorCache, reasonerPool, tautologyCache,
+                robotOperationPool);
+    }
 }
@@ -0,0 +1,35 @@
+package edu.stanford.protege.robot.service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "webprotege.robot.cache.module-extractor")
+public class ModuleExtractorCacheProperties {
+
+    private long maxHeapMegabytes = 512;
+    private int bytesPerAxiom = 600;
+    private int expireAfterAccessMinutes = 30;
+
+    public long getMaxHeapMegabytes() {
+        return maxHeapMegabytes;
+    }
+
+    public void setMaxHeapMegabytes(long maxHeapMegabytes) {
+        this.maxHeapMegabytes = maxHeapMegabytes;
+    }
+
+    public int getBytesPerAxiom() {
+        return bytesPerAxiom;
+    }
+
+    public void setBytesPerAxiom(int bytesPerAxiom) {
+        this.bytesPerAxiom = bytesPerAxiom;
+    }
+
+    public int getExpireAfterAccessMinutes() {
+        return expireAfterAccessMinutes;
+    }
+
+    public void setExpireAfterAccessMinutes(int expireAfterAccessMinutes) {
+        this.expireAfterAccessMinutes = expireAfterAccessMinutes;
+    }
+}
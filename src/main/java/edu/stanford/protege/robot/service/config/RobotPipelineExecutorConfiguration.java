@@ -7,7 +7,9 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
-@EnableConfigurationProperties(RobotPipelineExecutorProperties.class)
+@EnableConfigurationProperties({RobotPipelineExecutorProperties.class, PipelineEventDispatchProperties.class,
+        ModuleExtractorCacheProperties.class, ReasonerPoolProperties.class, TautologyCacheProperties.class,
+        RobotOperationProperties.class})
 public class RobotPipelineExecutorConfiguration {
 
     @Bean(name = "robotPipelineTaskExecutor")
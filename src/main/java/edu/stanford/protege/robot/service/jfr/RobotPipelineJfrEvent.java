@@ -0,0 +1,52 @@
+package edu.stanford.protege.robot.service.jfr;
+
+import edu.stanford.protege.robot.pipeline.PipelineExecutionId;
+import edu.stanford.protege.robot.pipeline.PipelineId;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base class for the Java Flight Recorder events emitted on the pipeline hot paths.
+ *
+ * <p>
+ * Events are timed from {@link #begin()} to {@link #finish(boolean)} and carry the ids of the
+ * project, pipeline and execution they belong to, so that GC pauses and allocation samples in a
+ * continuous recording can be attributed to individual pipeline runs. Fields are only populated
+ * when the event type is enabled in the running recording.
+ */
+@Category({"WebProtege", "ROBOT"})
+@StackTrace(false)
+public abstract class RobotPipelineJfrEvent extends Event {
+
+    @Label("Project Id")
+    String projectId;
+
+    @Label("Execution Id")
+    String executionId;
+
+    @Label("Pipeline Id")
+    String pipelineId;
+
+    @Label("Succeeded")
+    boolean succeeded;
+
+    void setContext(ProjectId projectId, PipelineExecutionId executionId, PipelineId pipelineId) {
+        this.projectId = projectId.id();
+        this.executionId = executionId.id();
+        this.pipelineId = pipelineId.id();
+    }
+
+    /**
+     * Ends the timed region and commits the event if it passes the recording thresholds.
+     *
+     * @param succeeded
+     *            whether the timed operation completed normally
+     */
+    public void finish(boolean succeeded) {
+        this.succeeded = succeeded;
+        commit();
+    }
+}
@@ -0,0 +1,45 @@
+package edu.stanford.protege.robot.service.jfr;
+
+import edu.stanford.protege.robot.pipeline.PipelineExecutionId;
+import edu.stanford.protege.robot.pipeline.PipelineId;
+import edu.stanford.protege.robot.pipeline.PipelineStageId;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import javax.annotation.Nonnull;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Execution of the ROBOT command of a single pipeline stage.
+ */
+@Name(RunPipelineStageJfrEvent.NAME)
+@Label("ROBOT Pipeline Stage")
+@Description("Execution of the ROBOT command of a single pipeline stage.")
+public final class RunPipelineStageJfrEvent extends RobotPipelineJfrEvent {
+
+    public static final String NAME = "edu.stanford.protege.robot.RunPipelineStage";
+
+    @Label("Stage Id")
+    String stageId;
+
+    @Label("Command")
+    String command;
+
+    private RunPipelineStageJfrEvent() {
+    }
+
+    /**
+     * Starts timing the ROBOT command of the given stage.
+     */
+    public static RunPipelineStageJfrEvent start(@Nonnull ProjectId projectId, @Nonnull PipelineExecutionId executionId,
+            @Nonnull PipelineId pipelineId, @Nonnull PipelineStageId stageId, @Nonnull String command) {
+        var event = new RunPipelineStageJfrEvent();
+        if (event.isEnabled()) {
+            event.setContext(projectId, executionId, pipelineId);
+            event.stageId = stageId.id();
+            event.command = command;
+            event.begin();
+        }
+        return event;
+    }
+}
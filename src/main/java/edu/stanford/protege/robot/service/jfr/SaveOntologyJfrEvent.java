@@ -0,0 +1,50 @@
+package edu.stanford.protege.robot.service.jfr;
+
+import edu.stanford.protege.robot.pipeline.PipelineExecutionId;
+import edu.stanford.protege.robot.pipeline.PipelineId;
+import edu.stanford.protege.robot.pipeline.PipelineStageId;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import javax.annotation.Nonnull;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Serialization of a stage output ontology to the local file system.
+ */
+@Name(SaveOntologyJfrEvent.NAME)
+@Label("ROBOT Save Ontology")
+@Description("Serialization of a stage output ontology to the local file system.")
+public final class SaveOntologyJfrEvent extends RobotPipelineJfrEvent {
+
+    public static final String NAME = "edu.stanford.protege.robot.SaveOntology";
+
+    @Label("Stage Id")
+    String stageId;
+
+    @Label("Command")
+    String command;
+
+    @Label("Path")
+    String path;
+
+    private SaveOntologyJfrEvent() {
+    }
+
+    /**
+     * Starts timing the serialization of the output of the given stage.
+     */
+    public static SaveOntologyJfrEvent start(@Nonnull ProjectId projectId, @Nonnull PipelineExecutionId executionId,
+            @Nonnull PipelineId pipelineId, @Nonnull PipelineStageId stageId, @Nonnull String command,
+            @Nonnull String path) {
+        var event = new SaveOntologyJfrEvent();
+        if (event.isEnabled()) {
+            event.setContext(projectId, executionId, pipelineId);
+            event.stageId = stageId.id();
+            event.command = command;
+            event.path = path;
+            event.begin();
+        }
+        return event;
+    }
+}
@@ -0,0 +1,43 @@
+package edu.stanford.protege.robot.service.jfr;
+
+import edu.stanford.protege.robot.pipeline.PipelineExecutionId;
+import edu.stanford.protege.robot.pipeline.PipelineId;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import javax.annotation.Nonnull;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Loading of the project ontology snapshot that a pipeline execution runs against.
+ */
+@Name(SnapshotOntologyJfrEvent.NAME)
+@Label("ROBOT Ontology Snapshot")
+@Description("Loading of the project ontology snapshot that a pipeline execution runs against.")
+public final class SnapshotOntologyJfrEvent extends RobotPipelineJfrEvent {
+
+    public static final String NAME = "edu.stanford.protege.robot.SnapshotOntology";
+
+    @Label("Revision Number")
+    long revisionNumber = -1;
+
+    private SnapshotOntologyJfrEvent() {
+    }
+
+    /**
+     * Starts timing the snapshot of the given execution.
+     */
+    public static SnapshotOntologyJfrEvent start(@Nonnull ProjectId projectId, @Nonnull PipelineExecutionId executionId,
+            @Nonnull PipelineId pipelineId) {
+        var event = new SnapshotOntologyJfrEvent();
+        if (event.isEnabled()) {
+            event.setContext(projectId, executionId, pipelineId);
+            event.begin();
+        }
+        return event;
+    }
+
+    public void setRevisionNumber(long revisionNumber) {
+        this.revisionNumber = revisionNumber;
+    }
+}
@@ -0,0 +1,59 @@
+package edu.stanford.protege.robot.service.jfr;
+
+import edu.stanford.protege.robot.pipeline.PipelineExecutionId;
+import edu.stanford.protege.robot.pipeline.PipelineId;
+import edu.stanford.protege.robot.pipeline.PipelineStageId;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import javax.annotation.Nonnull;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Upload of a stage output document to MinIO.
+ */
+@Name(UploadDocumentJfrEvent.NAME)
+@Label("ROBOT Upload Document")
+@Description("Upload of a stage output document to MinIO.")
+public final class UploadDocumentJfrEvent extends RobotPipelineJfrEvent {
+
+    public static final String NAME = "edu.stanford.protege.robot.UploadDocument";
+
+    @Label("Stage Id")
+    String stageId;
+
+    @Label("Command")
+    String command;
+
+    @Label("Path")
+    String path;
+
+    @Label("Size")
+    @DataAmount
+    long bytes = -1;
+
+    private UploadDocumentJfrEvent() {
+    }
+
+    /**
+     * Starts timing the upload of the output of the given stage.
+     */
+    public static UploadDocumentJfrEvent start(@Nonnull ProjectId projectId, @Nonnull PipelineExecutionId executionId,
+            @Nonnull PipelineId pipelineId, @Nonnull PipelineStageId stageId, @Nonnull String command,
+            @Nonnull String path) {
+        var event = new UploadDocumentJfrEvent();
+        if (event.isEnabled()) {
+            event.setContext(projectId, executionId, pipelineId);
+            event.stageId = stageId.id();
+            event.command = command;
+            event.path = path;
+            event.begin();
+        }
+        return event;
+    }
+
+    public void setBytes(long bytes) {
+        this.bytes = bytes;
+    }
+}
@@ -0,0 +1,57 @@
+package edu.stanford.protege.robot.service.message;
+
+import static edu.stanford.protege.robot.service.message.GetRobotPipelineExecutionsRequest.CHANNEL;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import edu.stanford.protege.robot.pipeline.PipelineId;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import edu.stanford.protege.webprotege.common.Request;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Request message for listing the execution history of a project.
+ *
+ * @param projectId
+ *            WebProtege unique project identifier
+ * @param pipelineId
+ *            optionally restricts the listing to the executions of a single pipeline
+ * @param pageToken
+ *            the {@code nextPageToken} of a previous response, or {@code null} for the first page
+ * @param pageSize
+ *            the maximum number of executions to return. Non-positive values select the default
+ *            page size; values above the maximum page size are capped.
+ */
+@JsonTypeName(CHANNEL)
+public record GetRobotPipelineExecutionsRequest(
+        @Nonnull ProjectId projectId,
+        @Nullable PipelineId pipelineId,
+        @Nullable String pageToken,
+        int pageSize) implements Request<GetRobotPipelineExecutionsResponse> {
+
+    public static final String CHANNEL = "webprotege.robot.GetRobotPipelineExecutions";
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    public GetRobotPipelineExecutionsRequest {
+        Objects.requireNonNull(projectId, "Project ID cannot be null");
+    }
+
+    /**
+     * Returns the requested page size, applying the default and the upper bound.
+     */
+    public int effectivePageSize() {
+        if (pageSize < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(pageSize, MAX_PAGE_SIZE);
+    }
+
+    @Override
+    public String getChannel() {
+        return CHANNEL;
+    }
+}
@@ -0,0 +1,32 @@
+package edu.stanford.protege.robot.service.message;
+
+import static edu.stanford.protege.robot.service.message.GetRobotPipelineExecutionsRequest.CHANNEL;
+
+import com.fasterxml.jackson.annotation.JsonTypeName;
+import edu.stanford.protege.robot.pipeline.PipelineExecutionSummary;
+import edu.stanford.protege.webprotege.common.Response;
+import java.util.List;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Response message for listing the execution history of a project.
+ *
+ * @param executions
+ *            the executions on the requested page, newest first
+ * @param nextPageToken
+ *            the token to request the following page, or {@code null} if there are no more
+ *            executions
+ */
+@JsonTypeName(CHANNEL)
+public record GetRobotPipelineExecutionsResponse(
+        @Nonnull List<PipelineExecutionSummary> executions,
+        @Nullable String nextPageToken)
+        implements
+            Response {
+
+    public GetRobotPipelineExecutionsResponse {
+        Objects.requireNonNull(executions, "executions cannot be null");
+    }
+}
@@ -0,0 +1,132 @@
+package edu.stanford.protege.robot.service.metrics;
+
+import edu.stanford.protege.robot.pipeline.PipelineStageMetrics;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.Objects;
+import javax.annotation.Nonnull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Micrometer meters for the pipeline lifecycle.
+ *
+ * <p>
+ * All meters are tagged with an {@code outcome} of either {@value #SUCCESS} or {@value #ERROR}.
+ * Stage meters are additionally tagged with the ROBOT command name. Executor queue depth and active
+ * thread count are published by Spring Boot as {@code executor.queued} and {@code executor.active},
+ * tagged with {@code name=robotPipelineTaskExecutor}.
+ */
+@Component
+public class RobotPipelineMetrics {
+
+    public static final String EXECUTION_TIMER = "robot.pipeline.execution";
+
+    public static final String SNAPSHOT_TIMER = "robot.pipeline.snapshot";
+
+    public static final String STAGE_TIMER = "robot.pipeline.stage";
+
+    public static final String STAGE_CPU_TIMER = "robot.pipeline.stage.cpu";
+
+    public static final String STAGE_AXIOMS_SUMMARY = "robot.pipeline.stage.axioms";
+
+    public static final String STATUS_WRITE_TIMER = "robot.pipeline.status.write";
+
+    public static final String UPLOAD_TIMER = "robot.storage.upload";
+
+    public static final String UPLOAD_SIZE_SUMMARY = "robot.storage.upload.size";
+
+    public static final String SUCCESS = "success";
+
+    public static final String ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+
+    public RobotPipelineMetrics(@Nonnull MeterRegistry meterRegistry) {
+        this.meterRegistry = Objects.requireNonNull(meterRegistry, "meterRegistry cannot be null");
+    }
+
+    /**
+     * Starts timing an operation. Pass the sample to one of the {@code record} methods when it ends.
+     */
+    public Timer.Sample startTimer() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * Records the time from snapshot request to loaded ontology.
+     */
+    public void recordSnapshot(@Nonnull Timer.Sample sample, boolean success) {
+        sample.stop(timer(SNAPSHOT_TIMER, "Time to build a project ontology snapshot", success));
+    }
+
+    /**
+     * Records the time to run the stages of a pipeline execution and upload their outputs. Snapshot
+     * time is recorded separately.
+     */
+    public void recordExecution(@Nonnull Timer.Sample sample, boolean success) {
+        sample.stop(timer(EXECUTION_TIMER, "Time to run the stages of a pipeline execution", success));
+    }
+
+    /**
+     * Records the wall time, calling-thread CPU time and output size of a single pipeline stage.
+     */
+    public void recordStage(@Nonnull String commandName, @Nonnull PipelineStageMetrics metrics, boolean success) {
+        Timer.builder(STAGE_TIMER)
+                .description("Wall time of a pipeline stage")
+                .tag("command", commandName)
+                .tag("outcome", outcome(success))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(Duration.ofMillis(metrics.wallTimeMillis()));
+        if (metrics.callingThreadCpuTimeMillis() >= 0) {
+            Timer.builder(STAGE_CPU_TIMER)
+                    .description("CPU time of the thread running a pipeline stage, without fork-join pool work")
+                    .tag("command", commandName)
+                    .tag("outcome", outcome(success))
+                    .register(meterRegistry)
+                    .record(Duration.ofMillis(metrics.callingThreadCpuTimeMillis()));
+        }
+        DistributionSummary.builder(STAGE_AXIOMS_SUMMARY)
+                .description("Number of axioms produced by a pipeline stage")
+                .baseUnit("axioms")
+                .tag("command", commandName)
+                .tag("outcome", outcome(success))
+                .register(meterRegistry)
+                .record(metrics.axiomCountAfter());
+    }
+
+    /**
+     * Records the latency of persisting a pipeline status document.
+     */
+    public void recordStatusWrite(@Nonnull Timer.Sample sample, boolean success) {
+        sample.stop(timer(STATUS_WRITE_TIMER, "Latency of pipeline status writes to MongoDB", success));
+    }
+
+    /**
+     * Records the time and size of an upload to object storage.
+     */
+    public void recordUpload(@Nonnull Timer.Sample sample, long bytes, boolean success) {
+        sample.stop(timer(UPLOAD_TIMER, "Time to upload an output document to MinIO", success));
+        if (success) {
+            DistributionSummary.builder(UPLOAD_SIZE_SUMMARY)
+                    .description("Size of output documents uploaded to MinIO")
+                    .baseUnit("bytes")
+                    .register(meterRegistry)
+                    .record(bytes);
+        }
+    }
+
+    private Timer timer(String name, String description, boolean success) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("outcome", outcome(success))
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private static String outcome(boolean success) {
+        return success ? SUCCESS : ERROR;
+    }
+}
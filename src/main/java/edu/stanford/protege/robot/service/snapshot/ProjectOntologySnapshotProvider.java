@@ -1,6 +1,7 @@
 package edu.stanford.protege.robot.service.snapshot;
 
 import edu.stanford.protege.robot.service.exception.RobotServiceRuntimeException;
+import edu.stanford.protege.robot.service.metrics.RobotPipelineMetrics;
 import edu.stanford.protege.webprotege.common.ProjectId;
 import edu.stanford.protege.webprotege.revision.ChangeHistoryFileFactory;
 import edu.stanford.protege.webprotege.revision.HeadRevisionNumberFinder;
@@ -28,16 +29,31 @@ public class ProjectOntologySnapshotProvider {
     private final RevisionManagerFactory revisionManagerFactory;
     private final HeadRevisionNumberFinder headRevisionNumberFinder;
     private final ChangeHistoryFileFactory changeHistoryFileFactory;
+    private final RobotPipelineMetrics metrics;
 
     public ProjectOntologySnapshotProvider(@Nonnull RevisionManagerFactory revisionManagerFactory,
             @Nonnull HeadRevisionNumberFinder headRevisionNumberFinder,
-            @Nonnull ChangeHistoryFileFactory changeHistoryFileFactory) {
+            @Nonnull ChangeHistoryFileFactory changeHistoryFileFactory,
+            @Nonnull RobotPipelineMetrics metrics) {
         this.revisionManagerFactory = revisionManagerFactory;
         this.headRevisionNumberFinder = headRevisionNumberFinder;
         this.changeHistoryFileFactory = changeHistoryFileFactory;
+        this.metrics = metrics;
     }
 
     public ProjectOntologySnapshot createSnapshot(@Nonnull ProjectId projectId) {
+        var sample = metrics.startTimer();
+        var success = false;
+        try {
+            var snapshot = loadSnapshot(projectId);
+            success = true;
+            return snapshot;
+        } finally {
+            metrics.recordSnapshot(sample, success);
+        }
+    }
+
+    private ProjectOntologySnapshot loadSnapshot(ProjectId projectId) {
         var changeHistoryFile = changeHistoryFileFactory.getChangeHistoryFile(projectId);
         if (!changeHistoryFile.exists()) {
             throw new RobotServiceRuntimeException("Change history file not found for project " + projectId
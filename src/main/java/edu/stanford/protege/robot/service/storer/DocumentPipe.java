@@ -0,0 +1,197 @@
+package edu.stanford.protege.robot.service.storer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+/**
+ * Connects a thread that writes a document to the upload that reads it, holding at most a few
+ * chunks of the document in between.
+ *
+ * <p>
+ * {@link java.io.PipedInputStream} cannot be used for this, because it fails once the last thread
+ * that read from it has ended, and the MinIO client reads the parts of an upload from pool threads.
+ * If the writer fails, the reader sees an {@link IOException} instead of the end of the document, so
+ * a truncated document is never stored. If the reader is closed, for example because the upload
+ * failed, further writes fail.
+ */
+final class DocumentPipe {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    private static final int MAX_CHUNKS = 4;
+
+    private static final byte[] END = new byte[0];
+
+    private final BlockingQueue<byte[]> chunks = new ArrayBlockingQueue<>(MAX_CHUNKS);
+
+    private final Sink sink = new Sink();
+
+    private final Source source = new Source();
+
+    private volatile boolean readerClosed;
+
+    private volatile Throwable writerFailure;
+
+    /**
+     * Returns the stream the document is written to. Closing it ends the document.
+     */
+    OutputStream sink() {
+        return sink;
+    }
+
+    /**
+     * Returns the stream the document is read from.
+     */
+    InputStream source() {
+        return source;
+    }
+
+    /**
+     * Ends the document with a failure, which the reader sees instead of the end of the document.
+     *
+     * @param failure
+     *            why the document could not be written
+     */
+    void fail(@Nonnull Throwable failure) {
+        writerFailure = failure;
+        try {
+            sink.close();
+        } catch (IOException e) {
+            // The reader has gone, so there is no one left to tell
+        }
+    }
+
+    private void put(byte[] chunk) throws IOException {
+        try {
+            while (!chunks.offer(chunk, 100, TimeUnit.MILLISECONDS)) {
+                if (readerClosed) {
+                    throw new IOException("Document pipe closed by the reader");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while writing document");
+        }
+    }
+
+    private final class Sink extends OutputStream {
+
+        private final byte[] buffer = new byte[CHUNK_SIZE];
+
+        private int count;
+
+        private boolean closed;
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(@Nonnull byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                if (count == buffer.length) {
+                    flushBuffer();
+                }
+                var n = Math.min(len, buffer.length - count);
+                System.arraycopy(b, off, buffer, count, n);
+                count += n;
+                off += n;
+                len -= n;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (writerFailure == null) {
+                flushBuffer();
+            }
+            put(END);
+        }
+
+        private void flushBuffer() throws IOException {
+            if (count == 0) {
+                return;
+            }
+            if (readerClosed) {
+                throw new IOException("Document pipe closed by the reader");
+            }
+            put(Arrays.copyOf(buffer, count));
+            count = 0;
+        }
+    }
+
+    private final class Source extends InputStream {
+
+        private byte[] chunk = new byte[0];
+
+        private int position;
+
+        private boolean ended;
+
+        @Override
+        public int read() throws IOException {
+            if (!fill()) {
+                return -1;
+            }
+            return chunk[position++] & 0xff;
+        }
+
+        @Override
+        public int read(@Nonnull byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            var n = Math.min(len, chunk.length - position);
+            System.arraycopy(chunk, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+            readerClosed = true;
+            chunks.clear();
+        }
+
+        /**
+         * Makes unread bytes available, returning {@code false} at the end of the document.
+         */
+        private boolean fill() throws IOException {
+            while (position == chunk.length) {
+                if (ended) {
+                    if (writerFailure != null) {
+                        throw new IOException("Failed to write document", writerFailure);
+                    }
+                    return false;
+                }
+                try {
+                    chunk = chunks.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while reading document");
+                }
+                position = 0;
+                ended = chunk == END;
+            }
+            return true;
+        }
+    }
+}
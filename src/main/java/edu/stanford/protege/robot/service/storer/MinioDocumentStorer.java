@@ -1,18 +1,27 @@
 package edu.stanford.protege.robot.service.storer;
 
 import edu.stanford.protege.robot.service.exception.StorageException;
+import edu.stanford.protege.robot.service.metrics.RobotPipelineMetrics;
 import edu.stanford.protege.webprotege.common.BlobLocation;
 import io.minio.BucketExistsArgs;
 import io.minio.MakeBucketArgs;
 import io.minio.MinioClient;
+import io.minio.ObjectWriteArgs;
+import io.minio.PutObjectArgs;
 import io.minio.UploadObjectArgs;
 import io.minio.errors.*;
+import java.io.FilterOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.security.InvalidKeyException;
 import java.security.NoSuchAlgorithmException;
 import java.util.Locale;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.Nonnull;
 import org.springframework.stereotype.Component;
 
@@ -23,10 +32,14 @@ public class MinioDocumentStorer {
 
     private final MinioProperties minioProperties;
 
+    private final RobotPipelineMetrics metrics;
+
     public MinioDocumentStorer(
-            @Nonnull MinioClient minioClient, @Nonnull MinioProperties minioProperties) {
+            @Nonnull MinioClient minioClient, @Nonnull MinioProperties minioProperties,
+            @Nonnull RobotPipelineMetrics metrics) {
         this.minioClient = Objects.requireNonNull(minioClient, "minioClient cannot be null");
         this.minioProperties = Objects.requireNonNull(minioProperties, "minioProperties cannot be null");
+        this.metrics = Objects.requireNonNull(metrics, "metrics cannot be null");
     }
 
     /**
@@ -47,7 +60,11 @@ public class MinioDocumentStorer {
      *             issues, authentication failures, or MinIO server errors
      */
     public BlobLocation storeDocument(String documentPath) {
+        var sample = metrics.startTimer();
+        var success = false;
+        var bytes = 0L;
         try {
+            bytes = Files.size(Path.of(documentPath));
             var location = generateBlobLocation();
             // Create bucket if necessary
             createBucketIfNecessary(location);
@@ -57,6 +74,7 @@ public class MinioDocumentStorer {
                     .object(location.name())
                     .contentType(determineContentType(documentPath))
                     .build());
+            success = true;
             return location;
         } catch (ErrorResponseException
                 | XmlParserException
@@ -68,6 +86,88 @@ public class MinioDocumentStorer {
                 | InternalException
                 | InsufficientDataException e) {
             throw new StorageException("Problem writing revision history document to storage " + documentPath, e);
+        } finally {
+            metrics.recordUpload(sample, bytes, success);
+        }
+    }
+
+    /**
+     * Stores a document in MinIO object storage while it is being written and returns its blob
+     * location.
+     *
+     * <p>
+     * The writer runs on the calling thread while a virtual thread uploads its output in parts as it
+     * is produced, so the document is never held in memory or written to a local file. If the writer
+     * fails, the upload sees the failure instead of the end of the document, so it fails with it and
+     * no object is stored.
+     *
+     * @param documentName
+     *            the name of the document, whose extension determines the content type
+     * @param writer
+     *            writes the document
+     * @return a {@link BlobLocation} containing the bucket name and object key where the document has
+     *         been stored
+     * @throws StorageException
+     *             if the writer fails or any error occurs during the upload process
+     */
+    public BlobLocation storeDocument(@Nonnull String documentName, @Nonnull DocumentWriter writer) {
+        Objects.requireNonNull(documentName, "documentName cannot be null");
+        Objects.requireNonNull(writer, "writer cannot be null");
+        var sample = metrics.startTimer();
+        var success = false;
+        var bytes = new AtomicLong();
+        try {
+            var location = generateBlobLocation();
+            // Create bucket if necessary
+            createBucketIfNecessary(location);
+            var pipe = new DocumentPipe();
+            var uploadFailure = new AtomicReference<Throwable>();
+            var upload = Thread.ofVirtual().name("robot-document-upload").start(() -> {
+                // Closing the source stops a writer whose upload failed
+                try (var in = pipe.source()) {
+                    minioClient.putObject(PutObjectArgs.builder()
+                            .stream(in, -1, ObjectWriteArgs.MIN_MULTIPART_SIZE)
+                            .bucket(location.bucket())
+                            .object(location.name())
+                            .contentType(determineContentType(documentName))
+                            .build());
+                } catch (Throwable t) {
+                    uploadFailure.set(t);
+                }
+            });
+            Throwable writeFailure = null;
+            var out = new CountingOutputStream(pipe.sink(), bytes);
+            try {
+                writer.write(out);
+                out.close();
+            } catch (Throwable t) {
+                // The sink must not be closed first, as that would end the document normally
+                pipe.fail(t);
+                writeFailure = t;
+            }
+            upload.join();
+            // A failed writer also fails the upload, which then reports it as its cause
+            var failure = uploadFailure.get() != null ? uploadFailure.get() : writeFailure;
+            if (failure != null) {
+                throw new StorageException("Problem writing document to storage " + documentName, failure);
+            }
+            success = true;
+            return location;
+        } catch (ErrorResponseException
+                | XmlParserException
+                | ServerException
+                | NoSuchAlgorithmException
+                | IOException
+                | InvalidResponseException
+                | InvalidKeyException
+                | InternalException
+                | InsufficientDataException e) {
+            throw new StorageException("Problem writing document to storage " + documentName, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new StorageException("Interrupted while writing document to storage " + documentName, e);
+        } finally {
+            metrics.recordUpload(sample, bytes.get(), success);
         }
     }
 
@@ -107,6 +207,11 @@ public class MinioDocumentStorer {
             case "owl" -> "application/rdf+xml";
             case "owx" -> "application/owl+xml"; // W3C-Specified (not IANA-registered)
             case "ttl" -> "text/turtle";
+            // ROBOT export formats
+            case "tsv" -> "text/tab-separated-values";
+            case "csv" -> "text/csv";
+            case "html" -> "text/html";
+            case "xlsx" -> "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
             default -> "application/octet-stream";
         };
     }
@@ -118,4 +223,41 @@ public class MinioDocumentStorer {
         }
         return filePath.substring(lastDotIndex + 1);
     }
+
+    /**
+     * Writes a document to be stored.
+     */
+    @FunctionalInterface
+    public interface DocumentWriter {
+
+        /**
+         * Writes the document.
+         *
+         * @param out
+         *            receives the document; it is closed once this method returns normally
+         */
+        void write(@Nonnull OutputStream out) throws Exception;
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private final AtomicLong count;
+
+        CountingOutputStream(OutputStream out, AtomicLong count) {
+            super(out);
+            this.count = count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count.incrementAndGet();
+        }
+
+        @Override
+        public void write(@Nonnull byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count.addAndGet(len);
+        }
+    }
 }
@@ -1,8 +1,12 @@
 package edu.stanford.protege.robot;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
 import java.nio.file.Path;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -18,7 +22,18 @@ class WebProtegeRobotServiceApplicationTest {
         registry.add("webprotege.directories.data", () -> tempDir.toString());
     }
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     void contextLoads() {
     }
+
+    @Test
+    void pipelineTaskExecutorMetricsAreRegistered() {
+        assertThat(meterRegistry.find("executor.queued").tag("name", "robotPipelineTaskExecutor").gauge())
+                .isNotNull();
+        assertThat(meterRegistry.find("executor.active").tag("name", "robotPipelineTaskExecutor").gauge())
+                .isNotNull();
+    }
 }
@@ -0,0 +1,257 @@
+package edu.stanford.protege.robot.command;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.obolibrary.robot.IOHelper;
+import org.obolibrary.robot.OntologyHelper;
+import org.obolibrary.robot.RelatedObjectsHelper;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLSubClassOfAxiom;
+
+class OntologyIndexTest {
+
+    private static final String ONTOLOGY = """
+            Prefix(:=<http://purl.obolibrary.org/obo/EX_>)
+            Prefix(owl:=<http://www.w3.org/2002/07/owl#>)
+            Prefix(rdfs:=<http://www.w3.org/2000/01/rdf-schema#>)
+            Prefix(oio:=<http://www.geneontology.org/formats/oboInOwl#>)
+            Ontology(<http://purl.obolibrary.org/obo/ex.owl>
+            Declaration(Class(:0001))
+            Declaration(Class(:0002))
+            Declaration(Class(:0003))
+            Declaration(Class(:0004))
+            Declaration(Class(:0005))
+            Declaration(Class(:0006))
+            Declaration(Class(:0007))
+            Declaration(Class(:0008))
+            Declaration(ObjectProperty(:part_of))
+            Declaration(ObjectProperty(:0009))
+            Declaration(ObjectProperty(:has_part))
+            Declaration(NamedIndividual(:i1))
+            AnnotationAssertion(rdfs:label :0001 "root")
+            AnnotationAssertion(rdfs:label :0002 "middle")
+            AnnotationAssertion(Annotation(rdfs:comment "source") rdfs:label :0003 "leaf")
+            AnnotationAssertion(oio:inSubset :0004 "slim")
+            AnnotationAssertion(rdfs:label :0009 "punned")
+            SubClassOf(:0001 owl:Thing)
+            SubClassOf(owl:Thing :0008)
+            SubClassOf(:0002 :0001)
+            SubClassOf(:0003 :0002)
+            SubClassOf(:0003 :0001)
+            SubClassOf(Annotation(rdfs:comment "asserted") :0004 :0002)
+            SubClassOf(:0004 ObjectSomeValuesFrom(:part_of :0003))
+            SubClassOf(ObjectSomeValuesFrom(:part_of :0004) :0002)
+            SubClassOf(:0005 :0006)
+            SubClassOf(:0006 :0007)
+            SubClassOf(:0007 :0005)
+            SubClassOf(:0009 :0005)
+            SubObjectPropertyOf(:part_of :has_part)
+            ClassAssertion(:0003 :i1)
+            )
+            """;
+
+    private static final String SPAN_ONTOLOGY = """
+            Prefix(:=<http://purl.obolibrary.org/obo/EX_>)
+            Prefix(owl:=<http://www.w3.org/2002/07/owl#>)
+            Ontology(<http://purl.obolibrary.org/obo/ex.owl>
+            Declaration(Class(:0001))
+            Declaration(Class(:0002))
+            Declaration(Class(:0003))
+            Declaration(Class(:0004))
+            Declaration(Class(:0005))
+            Declaration(Class(:0006))
+            Declaration(Class(:0007))
+            Declaration(ObjectProperty(:part_of))
+            SubClassOf(:0001 owl:Thing)
+            SubClassOf(:0002 :0001)
+            SubClassOf(:0003 :0002)
+            SubClassOf(:0004 :0002)
+            SubClassOf(:0005 :0003)
+            SubClassOf(:0005 :0004)
+            SubClassOf(:0006 :0005)
+            SubClassOf(:0007 :0005)
+            SubClassOf(:0003 ObjectSomeValuesFrom(:part_of :0001))
+            SubClassOf(:0004 ObjectSomeValuesFrom(:part_of :0003))
+            SubClassOf(:0006 :0007)
+            EquivalentClasses(:0006 :0007)
+            SubClassOf(ObjectSomeValuesFrom(:part_of :0006) :0002)
+            SubClassOf(:0002 :0002)
+            )
+            """;
+
+    private OWLOntology ontology;
+
+    private OntologyIndex index;
+
+    private IOHelper ioHelper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ontology = OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new StringDocumentSource(ONTOLOGY));
+        index = OntologyIndex.build(ontology);
+        ioHelper = new IOHelper();
+    }
+
+    static Stream<String> hierarchySelectors() {
+        return Stream.of("parents", "children", "ancestors", "descendants");
+    }
+
+    @ParameterizedTest
+    @MethodSource("hierarchySelectors")
+    void shouldSelectWhatRobotSelectsForEachClass(String selector) throws Exception {
+        for (var owlClass : ontology.getClassesInSignature()) {
+            Set<OWLObject> objects = Set.of(owlClass);
+
+            assertThat(select(selector, objects))
+                    .as("%s of %s", selector, owlClass)
+                    .isEqualTo(RelatedObjectsHelper.select(ontology, ioHelper, objects, selector));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("hierarchySelectors")
+    void shouldSelectWhatRobotSelectsForAllClasses(String selector) throws Exception {
+        var objects = new HashSet<OWLObject>(ontology.getClassesInSignature());
+
+        assertThat(select(selector, objects))
+                .isEqualTo(RelatedObjectsHelper.select(ontology, ioHelper, objects, selector));
+    }
+
+    @Test
+    void shouldIgnoreObjectsOtherThanClasses() {
+        var objects = new HashSet<OWLObject>(ontology.getObjectPropertiesInSignature());
+        objects.addAll(ontology.getIndividualsInSignature());
+
+        assertThat(index.parents(objects)).isEmpty();
+        assertThat(index.ancestors(objects)).isEmpty();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"rdfs:label=~'.*e.*'", "rdfs:label='leaf'", "rdfs:comment='source'",
+            "rdfs:comment='asserted'", "oboInOwl:inSubset='slim'", "rdfs:label=@en"})
+    void shouldKeepEveryEntityRobotSelectsForAnAnnotation(String selector) throws Exception {
+        var objects = OntologyHelper.getObjects(ontology);
+        var property = ioHelper.createIRI(selector.split("=")[0]);
+
+        var candidates = index.annotatedWith(objects, property);
+
+        var expected = RelatedObjectsHelper.select(ontology, ioHelper, objects, selector);
+        assertThat(candidates).containsAll(expected);
+        assertThat(RelatedObjectsHelper.select(ontology, ioHelper, candidates, selector)).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldSelectPunnedEntitiesAnnotatedOnTheirIri() {
+        var objects = OntologyHelper.getObjects(ontology);
+        var label = IRI.create("http://www.w3.org/2000/01/rdf-schema#label");
+
+        var candidates = index.annotatedWith(objects, label);
+
+        assertThat(candidates).filteredOn(object -> object.toString().contains("EX_0009")).hasSize(2);
+        assertThat(index.annotatedWith(objects, IRI.create("http://example.org/unused"))).isEmpty();
+    }
+
+    @Test
+    void shouldSelectNothingFromAnEmptyOntology() throws Exception {
+        var empty = OWLManager.createOWLOntologyManager().createOntology();
+        var emptyIndex = OntologyIndex.build(empty);
+
+        assertThat(emptyIndex.descendants(List.of(OWLManager.getOWLDataFactory().getOWLThing()))).isEmpty();
+    }
+
+    static Stream<Set<String>> collapsedClasses() {
+        return Stream.of(
+                Set.of(),
+                Set.of("0002"),
+                Set.of("0005"),
+                Set.of("0003", "0004"),
+                Set.of("0002", "0003", "0005"),
+                Set.of("0001", "0002", "0003", "0004", "0005"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("collapsedClasses")
+    void shouldSpanGapsAsRobotDoes(Set<String> collapsed) throws Exception {
+        var spanOntology = loadOntology(SPAN_ONTOLOGY);
+        var remaining = remainingObjects(spanOntology, collapsed);
+
+        var spans = OntologyIndex.build(spanOntology)
+                .spanGaps(remaining::contains, spanOntology.getOWLOntologyManager().getOWLDataFactory());
+
+        assertThat(spans).containsExactlyInAnyOrderElementsOf(RelatedObjectsHelper.spanGaps(spanOntology, remaining)
+                .stream()
+                .filter(OWLSubClassOfAxiom.class::isInstance)
+                .map(OWLSubClassOfAxiom.class::cast)
+                .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void shouldCutCycleOfCollapsedClassesWhenSpanningGaps() throws Exception {
+        var cyclic = loadOntology("""
+                Prefix(:=<http://purl.obolibrary.org/obo/EX_>)
+                Ontology(<http://purl.obolibrary.org/obo/ex.owl>
+                Declaration(Class(:0001))
+                Declaration(Class(:0004))
+                SubClassOf(:0002 :0001)
+                SubClassOf(:0003 :0002)
+                SubClassOf(:0002 :0003)
+                SubClassOf(:0004 :0003)
+                )
+                """);
+        var remaining = remainingObjects(cyclic, Set.of("0002", "0003"));
+        var dataFactory = cyclic.getOWLOntologyManager().getOWLDataFactory();
+
+        var spans = OntologyIndex.build(cyclic).spanGaps(remaining::contains, dataFactory);
+
+        assertThat(spans).containsExactly(dataFactory.getOWLSubClassOfAxiom(
+                dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_0004")),
+                dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_0001"))));
+    }
+
+    private Set<OWLObject> select(String selector, Set<OWLObject> objects) {
+        return switch (selector) {
+            case "parents" -> index.parents(objects);
+            case "children" -> index.children(objects);
+            case "ancestors" -> index.ancestors(objects);
+            default -> index.descendants(objects);
+        };
+    }
+
+    /**
+     * Returns the objects of the axioms that do not mention the collapsed classes.
+     */
+    private static Set<OWLObject> remainingObjects(OWLOntology ontology, Set<String> collapsed) {
+        var collapsedClasses = collapsed.stream()
+                .map(id -> ontology.getOWLOntologyManager().getOWLDataFactory()
+                        .getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_" + id)))
+                .collect(Collectors.<OWLObject>toSet());
+        var remaining = new HashSet<OWLObject>();
+        for (var axiom : ontology.getAxioms()) {
+            var objects = OntologyHelper.getObjects(axiom);
+            if (objects.stream().noneMatch(collapsedClasses::contains)) {
+                remaining.addAll(objects);
+            }
+        }
+        return remaining;
+    }
+
+    private static OWLOntology loadOntology(String ontology) throws Exception {
+        return OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new StringDocumentSource(ontology));
+    }
+}
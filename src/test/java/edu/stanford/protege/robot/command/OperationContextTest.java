@@ -0,0 +1,168 @@
+package edu.stanford.protege.robot.command;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import edu.stanford.protege.robot.command.common.Reasoner;
+import edu.stanford.protege.robot.command.common.ReasonerPool;
+import edu.stanford.protege.robot.command.common.TautologyCache;
+import edu.stanford.protege.robot.command.extract.ModuleExtractorCache;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.obolibrary.robot.IOHelper;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.parameters.Imports;
+
+class OperationContextTest {
+
+    private static final String ONTOLOGY = """
+            Prefix(:=<http://purl.obolibrary.org/obo/EX_>)
+            Ontology(<http://purl.obolibrary.org/obo/ex.owl>
+            Declaration(Class(:0001))
+            Declaration(Class(:0002))
+            SubClassOf(:0002 :0001)
+            )
+            """;
+
+    private OperationContextFactory factory;
+
+    private ProjectId projectId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        factory = new OperationContextFactory(new IOHelper(),
+                new ModuleExtractorCache(1024 * 1024, 600, Duration.ofMinutes(1)),
+                new ReasonerPool(4, Duration.ofMinutes(1)), new TautologyCache(1024, Duration.ofMinutes(1)),
+                ForkJoinPool.commonPool());
+        projectId = ProjectId.generate();
+    }
+
+    @Test
+    void shouldShareModuleExtractorAcrossExecutionsOfSameRevision() throws Exception {
+        var first = loadOntology();
+        var second = loadOntology();
+
+        var extractor = factory.create(projectId, 1L, first).moduleExtractor(first, Imports.INCLUDED);
+        var reused = factory.create(projectId, 1L, second).moduleExtractor(second, Imports.INCLUDED);
+
+        assertThat(reused).isSameAs(extractor);
+    }
+
+    @Test
+    void shouldNotShareModuleExtractorOnceSnapshotIsModified() throws Exception {
+        var ontology = loadOntology();
+        var context = factory.create(projectId, 1L, ontology);
+        var cached = context.moduleExtractor(ontology, Imports.INCLUDED);
+
+        var manager = ontology.getOWLOntologyManager();
+        var dataFactory = manager.getOWLDataFactory();
+        manager.addAxiom(ontology, dataFactory.getOWLDeclarationAxiom(
+                dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_0003"))));
+
+        var rebuilt = context.moduleExtractor(ontology, Imports.INCLUDED);
+        assertThat(rebuilt).isNotSameAs(cached);
+        assertThat(rebuilt.axiomCount()).isEqualTo(cached.axiomCount() + 1);
+    }
+
+    @Test
+    void shouldNotShareModuleExtractorForOtherOntologies() throws Exception {
+        var snapshot = loadOntology();
+        var stageOutput = loadOntology();
+        var context = factory.create(projectId, 1L, snapshot);
+
+        var cached = context.moduleExtractor(snapshot, Imports.INCLUDED);
+
+        assertThat(context.moduleExtractor(stageOutput, Imports.INCLUDED)).isNotSameAs(cached);
+    }
+
+    @Test
+    void shouldShareReasonerAcrossExecutionsOfSameRevision() throws Exception {
+        var first = loadOntology();
+        var second = loadOntology();
+
+        var reasoner = factory.create(projectId, 1L, first)
+                .reason(first, Reasoner.ELK, "test", () -> first, owlReasoner -> owlReasoner);
+        var reused = factory.create(projectId, 1L, second)
+                .reason(second, Reasoner.ELK, "test", () -> second, owlReasoner -> owlReasoner);
+
+        assertThat(reused).isSameAs(reasoner);
+    }
+
+    @Test
+    void shouldNotShareReasonerOnceSnapshotIsModified() throws Exception {
+        var ontology = loadOntology();
+        var context = factory.create(projectId, 1L, ontology);
+        var pooled = context.reason(ontology, Reasoner.ELK, "test", () -> ontology, owlReasoner -> owlReasoner);
+
+        var manager = ontology.getOWLOntologyManager();
+        var dataFactory = manager.getOWLDataFactory();
+        var newClass = dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_0003"));
+        manager.addAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(newClass,
+                dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_0002"))));
+
+        var subClasses = context.reason(ontology, Reasoner.ELK, "test", () -> ontology,
+                owlReasoner -> {
+                    assertThat(owlReasoner).isNotSameAs(pooled);
+                    return owlReasoner.getSubClasses(dataFactory.getOWLClass(
+                            IRI.create("http://purl.obolibrary.org/obo/EX_0002")), true).getFlattened();
+                });
+        assertThat(subClasses).containsExactly(newClass);
+    }
+
+    @Test
+    void shouldShareOntologyIndexBetweenStagesOfExecution() throws Exception {
+        var ontology = loadOntology();
+        var context = factory.create(projectId, 1L, ontology);
+
+        var index = context.ontologyIndex(ontology);
+
+        assertThat(context.ontologyIndex(ontology)).isSameAs(index);
+    }
+
+    @Test
+    void shouldIndexModifiedOntologyForEachCall() throws Exception {
+        var ontology = loadOntology();
+        var context = factory.create(projectId, 1L, ontology);
+        var shared = context.ontologyIndex(ontology);
+
+        var manager = ontology.getOWLOntologyManager();
+        var dataFactory = manager.getOWLDataFactory();
+        var newClass = dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_0003"));
+        var root = dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_0001"));
+        manager.addAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(newClass,
+                dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_0002"))));
+
+        var rebuilt = context.ontologyIndex(ontology);
+        assertThat(rebuilt).isNotSameAs(shared);
+        assertThat(rebuilt.descendants(List.of(root))).contains(newClass);
+        assertThat(shared.descendants(List.of(root))).doesNotContain(newClass);
+    }
+
+    @Test
+    void shouldShareSignatureIndexUntilOntologyIsModified() throws Exception {
+        var ontology = loadOntology();
+        var context = factory.create(projectId, 1L, ontology);
+        var shared = context.signatureIndex(ontology);
+        assertThat(context.signatureIndex(ontology)).isSameAs(shared);
+
+        var dataFactory = ontology.getOWLOntologyManager().getOWLDataFactory();
+        var newClass = dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_0003"));
+        ontology.getOWLOntologyManager().addAxiom(ontology, dataFactory.getOWLDeclarationAxiom(newClass));
+
+        var rebuilt = context.signatureIndex(ontology);
+        assertThat(rebuilt).isNotSameAs(shared);
+        assertThat(rebuilt.objectId(newClass)).isNotNull();
+        assertThat(shared.objectId(newClass)).isNull();
+    }
+
+    private static OWLOntology loadOntology() throws Exception {
+        return OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new StringDocumentSource(ONTOLOGY));
+    }
+}
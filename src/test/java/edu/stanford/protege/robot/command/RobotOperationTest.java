@@ -0,0 +1,182 @@
+package edu.stanford.protege.robot.command;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import edu.stanford.protege.robot.command.collapse.RobotCollapseCommand;
+import edu.stanford.protege.robot.command.common.CommandFlags;
+import edu.stanford.protege.robot.command.common.Reasoner;
+import edu.stanford.protege.robot.command.common.ReasonerPool;
+import edu.stanford.protege.robot.command.common.TautologyCache;
+import edu.stanford.protege.robot.command.convert.OwlConvertStrategy;
+import edu.stanford.protege.robot.command.convert.RobotConvertCommand;
+import edu.stanford.protege.robot.command.extract.ExtractFlags;
+import edu.stanford.protege.robot.command.extract.ExtractIntermediates;
+import edu.stanford.protege.robot.command.extract.HandlingImports;
+import edu.stanford.protege.robot.command.extract.MireotExtractStrategy;
+import edu.stanford.protege.robot.command.extract.ModuleExtractorCache;
+import edu.stanford.protege.robot.command.extract.RobotExtractCommand;
+import edu.stanford.protege.robot.command.extract.SlmeExtractMethod;
+import edu.stanford.protege.robot.command.extract.SlmeExtractStrategy;
+import edu.stanford.protege.robot.command.filter.RobotFilterCommand;
+import edu.stanford.protege.robot.command.reduce.ReduceFlags;
+import edu.stanford.protege.robot.command.reduce.RobotReduceCommand;
+import edu.stanford.protege.robot.command.relax.RelaxFlags;
+import edu.stanford.protege.robot.command.relax.RobotRelaxCommand;
+import edu.stanford.protege.robot.command.remove.RobotRemoveCommand;
+import edu.stanford.protege.robot.command.repair.RepairFlags;
+import edu.stanford.protege.robot.command.repair.RobotRepairCommand;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.obolibrary.robot.CommandState;
+import org.obolibrary.robot.IOHelper;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+/**
+ * Checks that every direct {@link RobotOperation} leaves the same ontology as ROBOT's command-line
+ * execution of the same command.
+ */
+class RobotOperationTest {
+
+    private static final String ONTOLOGY = """
+            Prefix(:=<http://purl.obolibrary.org/obo/EX_>)
+            Prefix(obo:=<http://purl.obolibrary.org/obo/>)
+            Prefix(owl:=<http://www.w3.org/2002/07/owl#>)
+            Prefix(rdfs:=<http://www.w3.org/2000/01/rdf-schema#>)
+            Ontology(<http://purl.obolibrary.org/obo/ex.owl>
+            Annotation(rdfs:comment "Example ontology")
+            Declaration(Class(:0001))
+            Declaration(Class(:0002))
+            Declaration(Class(:0003))
+            Declaration(Class(:0004))
+            Declaration(Class(:0005))
+            Declaration(Class(:0006))
+            Declaration(Class(<http://example.org/Other>))
+            Declaration(ObjectProperty(:part_of))
+            AnnotationAssertion(rdfs:label :0001 "root")
+            AnnotationAssertion(rdfs:label :0002 "middle")
+            AnnotationAssertion(Annotation(rdfs:comment "source") rdfs:label :0003 "leaf")
+            AnnotationAssertion(Annotation(rdfs:comment "other source") rdfs:label :0003 "leaf")
+            AnnotationAssertion(rdfs:label :0004 "other leaf")
+            AnnotationAssertion(owl:deprecated :0006 "true"^^<http://www.w3.org/2001/XMLSchema#boolean>)
+            SubClassOf(:0002 :0001)
+            SubClassOf(:0003 :0002)
+            SubClassOf(:0003 :0001)
+            SubClassOf(:0004 :0002)
+            SubClassOf(:0005 :0006)
+            SubClassOf(:0005 ObjectSomeValuesFrom(:part_of :0001))
+            SubClassOf(<http://example.org/Other> :0001)
+            EquivalentClasses(:0004 ObjectIntersectionOf(:0002 ObjectSomeValuesFrom(:part_of :0003)))
+            )
+            """;
+
+    static Stream<RobotCommand> commandsWithOperations() {
+        return Stream.of(
+                new RobotReduceCommand(Reasoner.ELK),
+                new RobotReduceCommand(Reasoner.STRUCTURAL, ReduceFlags.NAMED_CLASSES_ONLY,
+                        ReduceFlags.PRESERVE_ANNOTATED_AXIOMS),
+                new RobotReduceCommand(Reasoner.ELK, ReduceFlags.NAMED_CLASSES_ONLY),
+                new RobotReduceCommand(Reasoner.ELK, ReduceFlags.INCLUDE_SUBPROPERTIES),
+                new RobotRelaxCommand(),
+                new RobotRelaxCommand(RelaxFlags.INCLUDE_NAMED_CLASSES, RelaxFlags.INCLUDE_SUBCLASS_OF),
+                new RobotRepairCommand(List.of()),
+                new RobotRepairCommand(List.of("rdfs:label"), RepairFlags.INVALID_REFERENCES,
+                        RepairFlags.MERGE_AXIOM_ANNOTATIONS),
+                new RobotCollapseCommand(null, List.of()),
+                new RobotCollapseCommand(3, List.of("obo:EX_0002")),
+                new RobotFilterCommand(null, List.of("obo:EX_0002"), null, null, null, null, null),
+                new RobotFilterCommand(null, List.of("obo:EX_0002"), List.of("obo:EX_0004"), List.of("obo:EX_0005"),
+                        List.of("self descendants annotations", "ontology"), List.of("logical"), List.of("all"),
+                        CommandFlags.SIGNATURE),
+                new RobotFilterCommand("http://purl.obolibrary.org/obo/EX_", null, null, null, null,
+                        List.of("internal"), null, CommandFlags.NO_PRESERVE_STRUCTURE, CommandFlags.NO_TRIM),
+                new RobotRemoveCommand(null, List.of("obo:EX_0002"), null, null, null, null, null),
+                new RobotRemoveCommand(null, List.of("obo:EX_0001"), null, List.of("obo:EX_0003"),
+                        List.of("descendants", "ontology"), List.of("subclass"), List.of("rdfs:comment")),
+                new RobotRemoveCommand(null, List.of("obo:EX_0002"), null, null, List.of("self ancestors"), null,
+                        null, CommandFlags.NO_PRESERVE_STRUCTURE, CommandFlags.ALLOW_PUNNING),
+                new RobotRemoveCommand(null, List.of("obo:EX_9999"), null, null, null, null, null),
+                new RobotFilterCommand(null, List.of("obo:EX_0003", "obo:EX_0005"), null, null,
+                        List.of("parents children", "self ancestors"), null, null),
+                new RobotFilterCommand(null, null, null, null, List.of("rdfs:label=~'.*leaf'", "descendants"), null,
+                        null),
+                new RobotFilterCommand(null, null, null, null, List.of("rdfs:comment='source' classes"), null, null,
+                        CommandFlags.NO_PRESERVE_STRUCTURE),
+                new RobotRemoveCommand(null, List.of("obo:EX_0001", "obo:part_of"), null, null,
+                        List.of("children descendants"), null, null),
+                new RobotRemoveCommand(null, null, null, null, List.of("owl:deprecated='true'^^xsd:boolean"), null,
+                        null),
+                new RobotFilterCommand(null, List.of("obo:EX_0002"), null, null,
+                        List.of("self descendants", "complement", "named"), List.of("subclass declaration"), null),
+                new RobotFilterCommand(null, null, null, null, List.of("classes properties", "complement anonymous"),
+                        List.of("all"), null, CommandFlags.NO_TRIM, CommandFlags.SIGNATURE),
+                new RobotRemoveCommand(null, null, List.of("obo:EX_0003"), null,
+                        List.of("anonymous", "complement", "classes"), List.of("logical annotation"), null),
+                new RobotRemoveCommand(null, List.of("obo:EX_0004"), null, null, List.of("self equivalents"), null,
+                        null, CommandFlags.NO_TRIM),
+                new RobotRemoveCommand(null, List.of("obo:EX_0002"), null, null, null, null, List.of("all")),
+                new RobotRemoveCommand(null, List.of("obo:EX_0004"), null, null, List.of("self parents"), null,
+                        List.of("rdfs:comment=~'other.*'")),
+                new RobotFilterCommand(null, List.of("obo:EX_0003"), null, null, List.of("self annotations"), null,
+                        List.of("rdfs:comment='source'")),
+                new RobotRelaxCommand(RelaxFlags.ENFORCE_OBO_FORMAT, RelaxFlags.INCLUDE_SUBCLASS_OF),
+                new RobotExtractCommand(new SlmeExtractStrategy(SlmeExtractMethod.BOT, List.of("obo:EX_0003")), null,
+                        null),
+                new RobotExtractCommand(new SlmeExtractStrategy(SlmeExtractMethod.STAR,
+                        List.of("obo:EX_0004", "http://purl.obolibrary.org/obo/EX_0005")), ExtractIntermediates.none,
+                        HandlingImports.exclude, ExtractFlags.COPY_ONTOLOGY_ANNOTATIONS),
+                new RobotExtractCommand(new SlmeExtractStrategy(SlmeExtractMethod.TOP, List.of("obo:EX_0002")),
+                        ExtractIntermediates.minimal, null));
+    }
+
+    @ParameterizedTest
+    @MethodSource("commandsWithOperations")
+    void shouldProduceSameOntologyAsCommandLine(RobotCommand command) throws Exception {
+        var commandLineState = command.getCommand().execute(stateWith(loadOntology()), command.getArgsArray());
+        var operation = command.getOperation();
+
+        assertThat(operation).isPresent();
+        var ontology = loadOntology();
+        // The context shares extractors and reasoners, so that the pooled path is the one compared
+        var factory = new OperationContextFactory(new IOHelper(),
+                new ModuleExtractorCache(1024 * 1024, 600, Duration.ofMinutes(1)),
+                new ReasonerPool(4, Duration.ofMinutes(1)), new TautologyCache(1024, Duration.ofMinutes(1)),
+                ForkJoinPool.commonPool());
+        var operationState = operation.get().execute(stateWith(ontology),
+                factory.create(ProjectId.generate(), 1L, ontology));
+
+        var expected = commandLineState.getOntology();
+        var actual = operationState.getOntology();
+        assertThat(actual.getOntologyID()).isEqualTo(expected.getOntologyID());
+        assertThat(actual.getAnnotations()).containsExactlyInAnyOrderElementsOf(expected.getAnnotations());
+        assertThat(actual.getAxioms()).containsExactlyInAnyOrderElementsOf(expected.getAxioms());
+    }
+
+    @Test
+    void shouldHaveNoOperationForCommandsExecutedThroughArguments() {
+        var convert = new RobotConvertCommand(new OwlConvertStrategy());
+        var mireotExtract = new RobotExtractCommand(
+                new MireotExtractStrategy(List.of("obo:EX_0002"), List.of(), List.of()), null, null);
+
+        assertThat(convert.getOperation()).isEmpty();
+        assertThat(mireotExtract.getOperation()).isEmpty();
+    }
+
+    private static CommandState stateWith(OWLOntology ontology) {
+        var state = new CommandState();
+        state.setOntology(ontology);
+        return state;
+    }
+
+    private static OWLOntology loadOntology() throws Exception {
+        return OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new StringDocumentSource(ONTOLOGY));
+    }
+}
@@ -0,0 +1,113 @@
+package edu.stanford.protege.robot.command;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.obolibrary.robot.IOHelper;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+class TermIndexTest {
+
+    private static final String ONTOLOGY = """
+            Prefix(:=<http://purl.obolibrary.org/obo/EX_>)
+            Prefix(rdfs:=<http://www.w3.org/2000/01/rdf-schema#>)
+            Ontology(<http://purl.obolibrary.org/obo/ex.owl>
+            Declaration(Class(:0001))
+            Declaration(Class(:0002))
+            Declaration(ObjectProperty(:0002))
+            AnnotationAssertion(rdfs:label :0001 "root class")
+            AnnotationAssertion(rdfs:label :0002 "punned")
+            )
+            """;
+
+    private static final IRI ROOT = IRI.create("http://purl.obolibrary.org/obo/EX_0001");
+
+    private static final IRI PUNNED = IRI.create("http://purl.obolibrary.org/obo/EX_0002");
+
+    private IOHelper ioHelper;
+
+    private OWLOntology ontology;
+
+    private TermIndex termIndex;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ioHelper = new IOHelper();
+        ontology = OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new StringDocumentSource(ONTOLOGY));
+        termIndex = TermIndex.create(ontology, ioHelper);
+    }
+
+    @Test
+    void shouldResolveCuriesLikeIoHelper() {
+        var terms = List.of("obo:EX_0001", "rdfs:label", "owl:Thing", "GO:0008150");
+
+        var iris = termIndex.resolveIris(terms);
+
+        assertThat(iris).containsExactlyInAnyOrderElementsOf(
+                terms.stream().map(ioHelper::createIRI).toList());
+    }
+
+    @Test
+    void shouldResolveFullIris() {
+        var iris = termIndex.resolveIris(List.of("http://purl.obolibrary.org/obo/EX_0001", " https://example.org/x "));
+
+        assertThat(iris).containsExactlyInAnyOrder(ROOT, IRI.create("https://example.org/x"));
+    }
+
+    @Test
+    void shouldResolveLabels() {
+        var iris = termIndex.resolveIris(List.of("root class"));
+
+        assertThat(iris).containsExactly(ROOT);
+    }
+
+    @Test
+    void shouldSkipTermsThatResolveToNothing() {
+        var iris = termIndex.resolveIris(List.of("no such label", "", "   ", "obo:EX_0001"));
+
+        assertThat(iris).containsExactly(ROOT);
+    }
+
+    @Test
+    void shouldSplitLinesAndSkipCommentsLikeRobot() {
+        var commented = "obo:EX_0001 # root class";
+        var multiLine = "# seeds\nobo:EX_0002\n  root class  \n";
+
+        var iris = termIndex.resolveIris(List.of(commented, multiLine));
+
+        assertThat(ioHelper.extractTerms(multiLine)).containsExactlyInAnyOrder("obo:EX_0002", "root class");
+        assertThat(iris).containsExactlyInAnyOrder(ioHelper.createIRI("obo:EX_0001"), PUNNED);
+    }
+
+    @Test
+    void shouldResolveEntitiesAgainstTheGivenOntology() {
+        var withoutPunning = termIndex.resolveEntities(ontology, List.of("root class", "obo:EX_0002"), false);
+        var withPunning = termIndex.resolveEntities(ontology, List.of("punned"), true);
+
+        assertThat(withoutPunning).extracting(entity -> entity.getIRI()).containsExactly(ROOT);
+        assertThat(withPunning).hasSize(2).allMatch(entity -> entity.getIRI().equals(PUNNED));
+    }
+
+    @Test
+    void shouldReturnMutableEmptySetForNoTerms() {
+        var entities = termIndex.resolveEntities(ontology, List.of(), false);
+
+        assertThat(entities).isEmpty();
+        assertThat(entities.add(ontology.getOWLOntologyManager().getOWLDataFactory().getOWLThing())).isTrue();
+    }
+
+    @Test
+    void shouldReturnSameIrisWhenResolvedAgain() {
+        var first = termIndex.resolveIris(List.of("obo:EX_0001", "punned"));
+        var second = termIndex.resolveIris(List.of("punned", "obo:EX_0001"));
+
+        assertThat(second).isEqualTo(first).isEqualTo(Set.of(ROOT, PUNNED));
+    }
+}
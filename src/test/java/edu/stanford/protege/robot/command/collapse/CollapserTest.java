@@ -0,0 +1,162 @@
+package edu.stanford.protege.robot.command.collapse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import edu.stanford.protege.robot.command.OntologyIndex;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.obolibrary.robot.OntologyHelper;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+class CollapserTest {
+
+    private static final int CLASSES = 150;
+
+    private static final String ONTOLOGY = """
+            Prefix(:=<http://purl.obolibrary.org/obo/EX_>)
+            Prefix(owl:=<http://www.w3.org/2002/07/owl#>)
+            Prefix(rdfs:=<http://www.w3.org/2000/01/rdf-schema#>)
+            Ontology(<http://purl.obolibrary.org/obo/ex.owl>
+            Declaration(Class(:0001))
+            Declaration(Class(:0002))
+            Declaration(Class(:0003))
+            Declaration(Class(:0004))
+            Declaration(Class(:0005))
+            Declaration(Class(:0006))
+            Declaration(Class(:0007))
+            Declaration(Class(:0008))
+            Declaration(Class(:0009))
+            Declaration(ObjectProperty(:part_of))
+            AnnotationAssertion(rdfs:label :0003 "intermediate")
+            SubClassOf(:0001 owl:Thing)
+            SubClassOf(:0002 :0001)
+            SubClassOf(:0003 :0002)
+            SubClassOf(:0004 :0003)
+            SubClassOf(:0005 :0004)
+            SubClassOf(:0006 :0004)
+            SubClassOf(:0007 :0002)
+            SubClassOf(:0008 :0007)
+            SubClassOf(:0009 :0007)
+            SubClassOf(:0009 ObjectSomeValuesFrom(:part_of :0003))
+            SubClassOf(ObjectSomeValuesFrom(:part_of :0004) :0003)
+            EquivalentClasses(:0008 ObjectIntersectionOf(:0007 ObjectSomeValuesFrom(:part_of :0004)))
+            )
+            """;
+
+    static Stream<Arguments> thresholdsAndPrecious() {
+        return Stream.of(
+                Arguments.of(2, Set.of()),
+                Arguments.of(3, Set.of()),
+                Arguments.of(4, Set.of()),
+                Arguments.of(2, Set.of(IRI.create("http://purl.obolibrary.org/obo/EX_0003"))),
+                Arguments.of(3, Set.of(IRI.create("http://purl.obolibrary.org/obo/EX_0004"),
+                        IRI.create("http://purl.obolibrary.org/obo/EX_0007"))));
+    }
+
+    @ParameterizedTest
+    @MethodSource("thresholdsAndPrecious")
+    void shouldCollapseAsRobotDoes(int threshold, Set<IRI> precious) throws Exception {
+        var expected = loadOntology();
+        OntologyHelper.collapseOntology(expected, threshold, precious, true);
+        var actual = loadOntology();
+
+        Collapser.collapse(actual, OntologyIndex.build(actual), threshold, precious);
+
+        assertThat(actual.getAxioms()).containsExactlyInAnyOrderElementsOf(expected.getAxioms());
+    }
+
+    static Stream<Arguments> seedsAndThresholds() {
+        return Stream.of(
+                Arguments.of(1L, 2),
+                Arguments.of(2L, 2),
+                Arguments.of(3L, 3),
+                Arguments.of(4L, 3),
+                Arguments.of(5L, 2),
+                Arguments.of(6L, 3));
+    }
+
+    @ParameterizedTest
+    @MethodSource("seedsAndThresholds")
+    void shouldCollapseGeneratedHierarchiesAsRobotDoes(long seed, int threshold) throws Exception {
+        var precious = Set.of(classIri(new Random(seed).nextInt(CLASSES)));
+        var expected = generateOntology(seed);
+        OntologyHelper.collapseOntology(expected, threshold, precious, true);
+        var actual = generateOntology(seed);
+
+        Collapser.collapse(actual, OntologyIndex.build(actual), threshold, precious);
+
+        assertThat(actual.getAxioms()).containsExactlyInAnyOrderElementsOf(expected.getAxioms());
+    }
+
+    /**
+     * Generates a hierarchy of classes with one to three superclasses each among the classes before
+     * it, with labels, restrictions, equivalences, annotated axioms and a property hierarchy.
+     */
+    private static OWLOntology generateOntology(long seed) throws Exception {
+        var random = new Random(seed);
+        var manager = OWLManager.createOWLOntologyManager();
+        var ontology = manager.createOntology(IRI.create("http://purl.obolibrary.org/obo/gen.owl"));
+        var dataFactory = manager.getOWLDataFactory();
+        var partOf = dataFactory.getOWLObjectProperty(IRI.create("http://purl.obolibrary.org/obo/EX_part_of"));
+        var hasPart = dataFactory.getOWLObjectProperty(IRI.create("http://purl.obolibrary.org/obo/EX_has_part"));
+        var seeAlso = dataFactory.getRDFSSeeAlso();
+        manager.addAxiom(ontology, dataFactory.getOWLSubObjectPropertyOfAxiom(hasPart, partOf));
+        var classes = new OWLClass[CLASSES];
+        for (var i = 0; i < CLASSES; i++) {
+            classes[i] = dataFactory.getOWLClass(classIri(i));
+            manager.addAxiom(ontology, dataFactory.getOWLDeclarationAxiom(classes[i]));
+            manager.addAxiom(ontology, dataFactory.getOWLAnnotationAssertionAxiom(classes[i].getIRI(),
+                    dataFactory.getOWLAnnotation(dataFactory.getRDFSLabel(), dataFactory.getOWLLiteral("c" + i))));
+            if (i == 0) {
+                manager.addAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(classes[i],
+                        dataFactory.getOWLThing()));
+                continue;
+            }
+            var superClasses = new HashSet<OWLClass>();
+            for (var j = random.nextInt(3); j >= 0; j--) {
+                superClasses.add(classes[Math.max(0, i - 1 - random.nextInt(Math.min(i, 8)))]);
+            }
+            for (var superClass : superClasses) {
+                var axiom = dataFactory.getOWLSubClassOfAxiom(classes[i], superClass);
+                if (random.nextInt(10) == 0) {
+                    axiom = dataFactory.getOWLSubClassOfAxiom(classes[i], superClass, Set.of(
+                            dataFactory.getOWLAnnotation(seeAlso, classes[random.nextInt(i)].getIRI())));
+                }
+                manager.addAxiom(ontology, axiom);
+            }
+            var filler = classes[random.nextInt(i)];
+            switch (random.nextInt(6)) {
+                case 0 -> manager.addAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(classes[i],
+                        dataFactory.getOWLObjectSomeValuesFrom(partOf, filler)));
+                case 1 -> manager.addAxiom(ontology, dataFactory.getOWLEquivalentClassesAxiom(classes[i],
+                        dataFactory.getOWLObjectIntersectionOf(superClasses.iterator().next(),
+                                dataFactory.getOWLObjectSomeValuesFrom(hasPart, filler))));
+                case 2 -> manager.addAxiom(ontology, dataFactory.getOWLAnnotationAssertionAxiom(seeAlso,
+                        classes[i].getIRI(), filler.getIRI()));
+                case 3 -> manager.addAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(
+                        dataFactory.getOWLObjectSomeValuesFrom(partOf, classes[i]), filler));
+                default -> {
+                }
+            }
+        }
+        return ontology;
+    }
+
+    private static IRI classIri(int i) {
+        return IRI.create("http://purl.obolibrary.org/obo/GEN_" + i);
+    }
+
+    private static OWLOntology loadOntology() throws Exception {
+        return OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new StringDocumentSource(ONTOLOGY));
+    }
+}
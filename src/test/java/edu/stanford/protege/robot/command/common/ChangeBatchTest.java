@@ -0,0 +1,90 @@
+package edu.stanford.protege.robot.command.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.AddAxiom;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAxiom;
+import org.semanticweb.owlapi.model.OWLDataFactory;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyChange;
+import org.semanticweb.owlapi.model.RemoveAxiom;
+
+class ChangeBatchTest {
+
+    private static final String ONTOLOGY = """
+            Prefix(:=<http://purl.obolibrary.org/obo/EX_>)
+            Ontology(<http://purl.obolibrary.org/obo/ex.owl>
+            Declaration(Class(:0001))
+            Declaration(Class(:0002))
+            SubClassOf(:0002 :0001)
+            )
+            """;
+
+    private OWLOntology ontology;
+
+    private OWLDataFactory dataFactory;
+
+    private List<List<OWLOntologyChange>> notifications;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        var manager = OWLManager.createOWLOntologyManager();
+        ontology = manager.loadOntologyFromOntologyDocument(new StringDocumentSource(ONTOLOGY));
+        dataFactory = manager.getOWLDataFactory();
+        notifications = new ArrayList<>();
+        manager.addOntologyChangeListener(changes -> notifications.add(List.copyOf(changes)));
+    }
+
+    @Test
+    void shouldApplyOnlyTheChangesThatChangeTheOntology() {
+        var existing = subClassOf("0002", "0001");
+        var added = subClassOf("0003", "0002");
+        var addedAndRemoved = subClassOf("0004", "0002");
+
+        var applied = new ChangeBatch(ontology)
+                .addAxioms(Set.of(existing, added, addedAndRemoved))
+                .removeAxioms(Set.of(existing, addedAndRemoved))
+                .addAxioms(Set.of(existing))
+                .apply();
+
+        assertThat(applied).containsExactly(new AddAxiom(ontology, added));
+        assertThat(ontology.getAxioms()).contains(existing, added).doesNotContain(addedAndRemoved);
+    }
+
+    @Test
+    void shouldNotifyListenersOnce() {
+        var removed = subClassOf("0002", "0001");
+        var added = List.of(subClassOf("0003", "0002"), subClassOf("0004", "0002"));
+
+        new ChangeBatch(ontology).removeAxioms(Set.of(removed)).addAxioms(added).apply();
+
+        assertThat(notifications).hasSize(1);
+        assertThat(notifications.get(0)).containsExactly(new RemoveAxiom(ontology, removed),
+                new AddAxiom(ontology, added.get(0)), new AddAxiom(ontology, added.get(1)));
+    }
+
+    @Test
+    void shouldNotNotifyListenersWhenNothingChanges() {
+        var batch = new ChangeBatch(ontology)
+                .addAxioms(Set.of(subClassOf("0002", "0001")))
+                .removeAxioms(Set.of(subClassOf("0003", "0001")));
+
+        assertThat(batch.apply()).isEmpty();
+        assertThat(batch.isEmpty()).isTrue();
+        assertThat(notifications).isEmpty();
+    }
+
+    private OWLAxiom subClassOf(String subClass, String superClass) {
+        return dataFactory.getOWLSubClassOfAxiom(
+                dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_" + subClass)),
+                dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_" + superClass)));
+    }
+}
@@ -0,0 +1,228 @@
+package edu.stanford.protege.robot.command.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import edu.stanford.protege.webprotege.common.ProjectId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLClass;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+
+class ReasonerPoolTest {
+
+    private static final String ONTOLOGY = """
+            Prefix(:=<http://purl.obolibrary.org/obo/EX_>)
+            Ontology(<http://purl.obolibrary.org/obo/ex.owl>
+            Declaration(Class(:0001))
+            Declaration(Class(:0002))
+            Declaration(Class(:0003))
+            SubClassOf(:0002 :0001)
+            SubClassOf(:0003 :0002)
+            )
+            """;
+
+    private static final Function<OWLReasoner, OWLReasoner> SELF = owlReasoner -> owlReasoner;
+
+    private OWLOntology ontology;
+
+    private AtomicInteger creations;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ontology = OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new StringDocumentSource(ONTOLOGY));
+        creations = new AtomicInteger();
+    }
+
+    @Test
+    void shouldReuseReasonerOfSameRevision() {
+        var pool = new ReasonerPool(4, Duration.ofMinutes(1));
+        var projectId = ProjectId.generate();
+
+        var first = pool.query(projectId, 1L, Reasoner.ELK, "view", this::reasoningOntology, SELF);
+        var second = pool.query(projectId, 1L, Reasoner.ELK, "view", this::reasoningOntology, SELF);
+
+        assertThat(second).isSameAs(first);
+        assertThat(creations).hasValue(1);
+    }
+
+    @Test
+    void shouldCreateSeparateReasonersPerRevisionReasonerAndView() {
+        var pool = new ReasonerPool(8, Duration.ofMinutes(1));
+        var projectId = ProjectId.generate();
+
+        pool.query(projectId, 1L, Reasoner.STRUCTURAL, "view", this::reasoningOntology, SELF);
+        pool.query(projectId, 2L, Reasoner.STRUCTURAL, "view", this::reasoningOntology, SELF);
+        pool.query(projectId, 1L, Reasoner.ELK, "view", this::reasoningOntology, SELF);
+        pool.query(projectId, 1L, Reasoner.STRUCTURAL, "other view", this::reasoningOntology, SELF);
+        pool.query(ProjectId.generate(), 1L, Reasoner.STRUCTURAL, "view", this::reasoningOntology, SELF);
+
+        assertThat(creations).hasValue(5);
+        assertThat(pool.size()).isEqualTo(5);
+    }
+
+    @Test
+    void shouldCarryElkReasonerForwardToLaterRevision() {
+        var pool = new ReasonerPool(4, Duration.ofMinutes(1));
+        var projectId = ProjectId.generate();
+        var first = pool.query(projectId, 1L, Reasoner.ELK, "view", this::reasoningOntology, SELF);
+
+        addSubClassOf("EX_0004", "EX_0002");
+        removeSubClassOf("EX_0003", "EX_0002");
+
+        var forward = pool.query(projectId, 2L, Reasoner.ELK, "view", this::reasoningOntology, SELF);
+        var subClasses = pool.query(projectId, 2L, Reasoner.ELK, "view", this::reasoningOntology,
+                owlReasoner -> owlReasoner.getSubClasses(owlClass("EX_0002"), true).getFlattened());
+
+        assertThat(forward).isSameAs(first);
+        assertThat(subClasses).containsExactly(owlClass("EX_0004"));
+        assertThat(pool.incrementalUpdates()).isEqualTo(1);
+        assertThat(pool.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldClassifyEarlierRevisionAgainOnceCarriedForward() {
+        var pool = new ReasonerPool(4, Duration.ofMinutes(1));
+        var projectId = ProjectId.generate();
+        var first = pool.query(projectId, 1L, Reasoner.ELK, "view", this::reasoningOntology, SELF);
+        pool.query(projectId, 2L, Reasoner.ELK, "view", this::reasoningOntology, SELF);
+
+        var earlier = pool.query(projectId, 1L, Reasoner.ELK, "view", this::reasoningOntology, SELF);
+
+        assertThat(earlier).isNotSameAs(first);
+        assertThat(pool.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldNotCarryForwardNonIncrementalReasoners() {
+        var pool = new ReasonerPool(4, Duration.ofMinutes(1));
+        var projectId = ProjectId.generate();
+
+        var first = pool.query(projectId, 1L, Reasoner.STRUCTURAL, "view", this::reasoningOntology, SELF);
+        var second = pool.query(projectId, 2L, Reasoner.STRUCTURAL, "view", this::reasoningOntology, SELF);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(pool.incrementalUpdates()).isZero();
+    }
+
+    @Test
+    void shouldNotCarryReasonerBackToEarlierRevision() {
+        var pool = new ReasonerPool(4, Duration.ofMinutes(1));
+        var projectId = ProjectId.generate();
+
+        var later = pool.query(projectId, 2L, Reasoner.ELK, "view", this::reasoningOntology, SELF);
+        var earlier = pool.query(projectId, 1L, Reasoner.ELK, "view", this::reasoningOntology, SELF);
+
+        assertThat(earlier).isNotSameAs(later);
+        assertThat(pool.incrementalUpdates()).isZero();
+    }
+
+    @Test
+    void shouldKeepNothingWhenDisabled() {
+        var pool = ReasonerPool.disabled();
+        var projectId = ProjectId.generate();
+
+        var first = pool.query(projectId, 1L, Reasoner.ELK, "view", this::reasoningOntology, SELF);
+        var second = pool.query(projectId, 1L, Reasoner.ELK, "view", this::reasoningOntology, SELF);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(creations).hasValue(2);
+        assertThat(pool.size()).isZero();
+    }
+
+    @Test
+    void shouldReasonOverCopyOfTheOntology() {
+        var pool = new ReasonerPool(4, Duration.ofMinutes(1));
+        var projectId = ProjectId.generate();
+        var dataFactory = ontology.getOWLOntologyManager().getOWLDataFactory();
+        var root = dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_0001"));
+        pool.query(projectId, 1L, Reasoner.STRUCTURAL, "view", this::reasoningOntology, SELF);
+
+        ontology.getOWLOntologyManager().addAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(
+                dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_0004")), root));
+
+        var subClasses = pool.query(projectId, 1L, Reasoner.STRUCTURAL, "view", this::reasoningOntology,
+                owlReasoner -> owlReasoner.getSubClasses(root, true).getFlattened());
+        assertThat(subClasses).extracting(owlClass -> owlClass.getIRI().getShortForm()).containsExactly("EX_0002");
+    }
+
+    @Test
+    void shouldCreateNewReasonerOnceEvicted() {
+        var pool = new ReasonerPool(1, Duration.ofMinutes(1));
+        var projectId = ProjectId.generate();
+
+        var first = pool.query(projectId, 1L, Reasoner.ELK, "view", this::reasoningOntology, SELF);
+        pool.query(projectId, 2L, Reasoner.ELK, "view", this::reasoningOntology, SELF);
+        var recreated = pool.query(projectId, 1L, Reasoner.ELK, "view", this::reasoningOntology, SELF);
+
+        assertThat(recreated).isNotSameAs(first);
+        assertThat(creations).hasValue(3);
+        assertThat(pool.size()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDisposeAllReasonersWhenInvalidated() {
+        var pool = new ReasonerPool(4, Duration.ofMinutes(1));
+        var projectId = ProjectId.generate();
+        var first = pool.query(projectId, 1L, Reasoner.ELK, "view", this::reasoningOntology, SELF);
+
+        pool.invalidateAll();
+
+        assertThat(pool.size()).isZero();
+        assertThat(pool.query(projectId, 1L, Reasoner.ELK, "view", this::reasoningOntology, SELF))
+                .isNotSameAs(first);
+    }
+
+    @Test
+    void shouldRethrowFailuresOfTheReasoningOntology() {
+        var pool = new ReasonerPool(4, Duration.ofMinutes(1));
+
+        assertThatThrownBy(() -> pool.query(ProjectId.generate(), 1L, Reasoner.ELK, "view", () -> {
+            throw new IllegalStateException("broken");
+        }, SELF)).isInstanceOf(IllegalStateException.class).hasMessage("broken");
+    }
+
+    @Test
+    void shouldPublishPoolMetrics() {
+        var pool = new ReasonerPool(4, Duration.ofMinutes(1));
+        var registry = new SimpleMeterRegistry();
+        pool.bindTo(registry);
+        var projectId = ProjectId.generate();
+
+        pool.query(projectId, 1L, Reasoner.ELK, "view", this::reasoningOntology, SELF);
+        pool.query(projectId, 1L, Reasoner.ELK, "view", this::reasoningOntology, SELF);
+
+        assertThat(registry.find("cache.gets").tag("cache", "robotReasoners").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    private void addSubClassOf(String subClass, String superClass) {
+        var dataFactory = ontology.getOWLOntologyManager().getOWLDataFactory();
+        ontology.getOWLOntologyManager().addAxiom(ontology,
+                dataFactory.getOWLSubClassOfAxiom(owlClass(subClass), owlClass(superClass)));
+    }
+
+    private void removeSubClassOf(String subClass, String superClass) {
+        var dataFactory = ontology.getOWLOntologyManager().getOWLDataFactory();
+        ontology.getOWLOntologyManager().removeAxiom(ontology,
+                dataFactory.getOWLSubClassOfAxiom(owlClass(subClass), owlClass(superClass)));
+    }
+
+    private static OWLClass owlClass(String id) {
+        return OWLManager.getOWLDataFactory().getOWLClass(IRI.create("http://purl.obolibrary.org/obo/" + id));
+    }
+
+    private OWLOntology reasoningOntology() {
+        creations.incrementAndGet();
+        return ontology;
+    }
+}
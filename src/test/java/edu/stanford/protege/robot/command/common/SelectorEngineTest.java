@@ -0,0 +1,203 @@
+package edu.stanford.protege.robot.command.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import edu.stanford.protege.robot.command.OperationContext;
+import edu.stanford.protege.robot.command.OperationContextFactory;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.obolibrary.robot.IOHelper;
+import org.obolibrary.robot.OntologyHelper;
+import org.obolibrary.robot.RelatedObjectsHelper;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLObject;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+class SelectorEngineTest {
+
+    private static final String ONTOLOGY = """
+            Prefix(:=<http://purl.obolibrary.org/obo/EX_>)
+            Prefix(owl:=<http://www.w3.org/2002/07/owl#>)
+            Prefix(rdfs:=<http://www.w3.org/2000/01/rdf-schema#>)
+            Ontology(<http://purl.obolibrary.org/obo/ex.owl>
+            Declaration(Class(:0001))
+            Declaration(Class(:0002))
+            Declaration(Class(:0003))
+            Declaration(Class(:0004))
+            Declaration(Class(:0005))
+            Declaration(ObjectProperty(:part_of))
+            Declaration(ObjectProperty(:has_part))
+            Declaration(DataProperty(:weight))
+            Declaration(AnnotationProperty(:see_also))
+            Declaration(NamedIndividual(:i1))
+            AnnotationAssertion(rdfs:label :0001 "root")
+            AnnotationAssertion(rdfs:label :0002 "middle")
+            AnnotationAssertion(Annotation(rdfs:comment "source") rdfs:label :0003 "leaf")
+            AnnotationAssertion(:see_also :0003 :0004)
+            AnnotationAssertion(rdfs:comment _:b1 "blank")
+            SubClassOf(:0002 :0001)
+            SubClassOf(Annotation(rdfs:comment "asserted") :0003 :0002)
+            SubClassOf(Annotation(:see_also :0001) :0004 :0003)
+            SubClassOf(:0004 ObjectSomeValuesFrom(:part_of :0003))
+            EquivalentClasses(:0005 ObjectIntersectionOf(:0001 ObjectSomeValuesFrom(:has_part :0002)))
+            SubObjectPropertyOf(:part_of :has_part)
+            DataPropertyDomain(:weight :0001)
+            ClassAssertion(:0003 :i1)
+            ClassAssertion(:0002 _:b1)
+            ObjectPropertyAssertion(:part_of :i1 _:b1)
+            DataPropertyAssertion(:weight :i1 "1")
+            )
+            """;
+
+    private OWLOntology ontology;
+
+    private IOHelper ioHelper;
+
+    private SelectorEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ontology = OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new StringDocumentSource(ONTOLOGY));
+        ioHelper = new IOHelper();
+        OperationContext context = OperationContextFactory.uncached(ioHelper)
+                .create(ProjectId.generate(), 1L, ontology);
+        engine = new SelectorEngine(ontology, context);
+    }
+
+    static Stream<Arguments> selections() {
+        var chains = List.of("self", "classes", "named", "anonymous", "individuals", "properties",
+                "object-properties data-properties annotation-properties", "complement", "named|complement",
+                "complement|complement", "classes|descendants", "classes|ancestors|complement",
+                "parents children", "properties|parents", "equivalents|named", "instances types",
+                "domains ranges", "rdfs:label=~'.*e.*'|ancestors", "rdfs:comment='source'",
+                "<http://purl.obolibrary.org/obo/EX_000*>", "obo:EX_000?|complement", "unknown");
+        var starts = List.of(List.<String>of(), List.of("EX_0002", "part_of"), List.of("EX_0004", "i1"));
+        return chains.stream().flatMap(chain -> starts.stream().map(start -> Arguments.of(chain, start)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("selections")
+    void shouldSelectWhatRobotSelects(String chain, List<String> terms) throws Exception {
+        var objects = terms.isEmpty() ? OntologyHelper.getObjects(ontology) : entities(terms);
+        var selectGroups = selectGroups(chain);
+
+        var selected = engine.objects(engine.selectGroups(engine.ids(objects), selectGroups));
+
+        assertThat(selected)
+                .as("%s from %s", chain, terms)
+                .isEqualTo(RelatedObjectsHelper.selectGroups(ontology, ioHelper, objects, selectGroups));
+    }
+
+    static Stream<Arguments> axiomFilters() {
+        var filters = new ArrayList<Arguments>();
+        for (var chain : List.of("self", "classes", "named", "complement", "classes|descendants", "properties",
+                "individuals anonymous")) {
+            for (var axiomSelectors : List.of("all", "logical", "annotation subclass", "abox type",
+                    "tbox declaration", "ClassAssertion", "internal", "external logical", "tautologies",
+                    "Structural-Tautologies subclass")) {
+                for (var partial : List.of(true, false)) {
+                    for (var namedOnly : List.of(true, false)) {
+                        filters.add(Arguments.of(chain, axiomSelectors, partial, namedOnly));
+                    }
+                }
+            }
+        }
+        return filters.stream();
+    }
+
+    @ParameterizedTest
+    @MethodSource("axiomFilters")
+    void shouldFilterAxiomsAsRobotDoes(String chain, String axiomSelectors, boolean partial, boolean namedOnly)
+            throws Exception {
+        var objects = RelatedObjectsHelper.selectGroups(ontology, ioHelper, OntologyHelper.getObjects(ontology),
+                selectGroups(chain));
+        var selectors = Arrays.asList(axiomSelectors.split(" "));
+        var baseNamespaces = List.of("http://purl.obolibrary.org/obo/EX_");
+
+        var filtered = engine.filterAxioms(engine.ids(objects), selectors, baseNamespaces, partial, namedOnly);
+
+        assertThat(filtered).containsExactlyInAnyOrderElementsOf(RelatedObjectsHelper.filterAxioms(
+                ontology.getAxioms(), objects, selectors, baseNamespaces, partial, namedOnly));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"abox", "ClassAssertion annotation", "logical"})
+    void shouldFilterTheAxiomsOfALargeAboxAsRobotDoes(String axiomSelectors) throws Exception {
+        var manager = ontology.getOWLOntologyManager();
+        var dataFactory = manager.getOWLDataFactory();
+        var partOf = dataFactory.getOWLObjectProperty(IRI.create("http://purl.obolibrary.org/obo/EX_part_of"));
+        for (var i = 0; i < 5000; i++) {
+            var individual = dataFactory.getOWLNamedIndividual(IRI.create("http://example.org/i" + i));
+            var type = dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_000" + (1 + i % 5)));
+            manager.addAxiom(ontology, dataFactory.getOWLClassAssertionAxiom(type, individual));
+            manager.addAxiom(ontology, dataFactory.getOWLObjectPropertyAssertionAxiom(partOf, individual,
+                    dataFactory.getOWLNamedIndividual(IRI.create("http://example.org/i" + i / 2))));
+            manager.addAxiom(ontology, dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getRDFSLabel(),
+                    individual.getIRI(), dataFactory.getOWLLiteral("individual " + i)));
+        }
+        var largeEngine = new SelectorEngine(ontology, OperationContextFactory.uncached(ioHelper)
+                .create(ProjectId.generate(), 1L, ontology));
+        var objects = RelatedObjectsHelper.select(ontology, ioHelper, OntologyHelper.getObjects(ontology),
+                List.of("<http://example.org/i1*>", "classes"));
+        var selectors = Arrays.asList(axiomSelectors.split(" "));
+
+        for (var partial : List.of(true, false)) {
+            var filtered = largeEngine.filterAxioms(largeEngine.ids(objects), selectors, List.of(), partial, false);
+
+            assertThat(filtered).containsExactlyInAnyOrderElementsOf(RelatedObjectsHelper.filterAxioms(
+                    ontology.getAxioms(), objects, selectors, List.of(), partial, false));
+        }
+    }
+
+    @Test
+    void shouldNumberObjectsThatAreNotInTheOntology() throws Exception {
+        var dataFactory = OWLManager.getOWLDataFactory();
+        var unused = dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_9999"));
+        var root = dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_0001"));
+        var ids = engine.ids(Set.of(unused, root));
+
+        assertThat(engine.objects(ids)).hasSize(2).contains(unused);
+        assertThat(engine.objects(engine.select(ids, "classes"))).contains(unused);
+        assertThat(engine.objects(engine.select(ids, "anonymous"))).isEmpty();
+        assertThat(engine.objects(engine.select(ids, "complement"))).doesNotContain(unused)
+                .isEqualTo(RelatedObjectsHelper.select(ontology, ioHelper, engine.objects(ids), "complement"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"classes", "complement", "descendants"})
+    void shouldNotChangeTheSelectionItSelectsFrom(String selector) throws Exception {
+        var ids = engine.all();
+        var before = (BitSet) ids.clone();
+
+        engine.select(ids, selector);
+
+        assertThat(ids).isEqualTo(before);
+    }
+
+    private Set<OWLObject> entities(List<String> terms) {
+        var entities = new HashSet<OWLObject>();
+        for (var term : terms) {
+            entities.addAll(ontology.getEntitiesInSignature(IRI.create("http://purl.obolibrary.org/obo/" + term)));
+        }
+        return entities;
+    }
+
+    private static List<List<String>> selectGroups(String chain) {
+        return Arrays.stream(chain.split("\\|")).map(group -> List.of(group.split(" "))).toList();
+    }
+}
@@ -0,0 +1,136 @@
+package edu.stanford.protege.robot.command.common;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.obolibrary.robot.RelatedObjectsHelper;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+class TautologyCacheTest {
+
+    private static final String ONTOLOGY = """
+            Prefix(:=<http://purl.obolibrary.org/obo/EX_>)
+            Prefix(owl:=<http://www.w3.org/2002/07/owl#>)
+            Prefix(rdfs:=<http://www.w3.org/2000/01/rdf-schema#>)
+            Ontology(<http://purl.obolibrary.org/obo/ex.owl>
+            Declaration(Class(:0001))
+            Declaration(Class(:0002))
+            Declaration(Class(owl:Thing))
+            Declaration(ObjectProperty(:part_of))
+            Declaration(DataProperty(:weight))
+            Declaration(NamedIndividual(:i1))
+            AnnotationAssertion(rdfs:label :0001 "root")
+            SubClassOf(:0001 owl:Thing)
+            SubClassOf(owl:Nothing :0002)
+            SubClassOf(:0002 :0001)
+            SubClassOf(:0002 ObjectUnionOf(:0002 :0001))
+            SubClassOf(ObjectIntersectionOf(:0001 :0002) :0001)
+            SubClassOf(:0001 ObjectSomeValuesFrom(:part_of :0002))
+            SubClassOf(ObjectSomeValuesFrom(:part_of owl:Nothing) :0002)
+            EquivalentClasses(:0001 :0001)
+            ClassAssertion(owl:Thing :i1)
+            ClassAssertion(owl:Thing _:b1)
+            ClassAssertion(:0001 :i1)
+            ClassAssertion(ObjectUnionOf(:0001 ObjectComplementOf(:0001)) :i1)
+            ObjectPropertyAssertion(owl:topObjectProperty :i1 _:b1)
+            ObjectPropertyAssertion(:part_of :i1 _:b1)
+            DataPropertyAssertion(:weight :i1 "1")
+            SubObjectPropertyOf(:part_of owl:topObjectProperty)
+            SubObjectPropertyOf(:part_of :part_of)
+            )
+            """;
+
+    private OWLOntology ontology;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ontology = OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new StringDocumentSource(ONTOLOGY));
+    }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void shouldFindTheTautologiesRobotFinds(boolean structural) throws Exception {
+        var cache = new TautologyCache(1024, Duration.ofMinutes(1));
+
+        var tautologies = cache.tautologies(ontology.getAxioms(), structural, ForkJoinPool.commonPool());
+
+        assertThat(tautologies).containsExactlyInAnyOrderElementsOf(
+                RelatedObjectsHelper.filterTautologicalAxioms(ontology.getAxioms(), structural));
+    }
+
+    @Test
+    void shouldOnlyReasonAboutAxiomsWithoutStructuralOrCachedVerdict() {
+        var cache = new TautologyCache(1024, Duration.ofMinutes(1));
+
+        var first = cache.tautologies(ontology.getAxioms(), false, ForkJoinPool.commonPool());
+        var checks = cache.reasonerChecks();
+        var second = cache.tautologies(ontology.getAxioms(), false, ForkJoinPool.commonPool());
+
+        // Eleven logical axioms are not structural tautologies
+        assertThat(checks).isEqualTo(11);
+        assertThat(cache.reasonerChecks()).isEqualTo(checks);
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void shouldNotReasonForStructuralTautologies() {
+        var cache = new TautologyCache(1024, Duration.ofMinutes(1));
+
+        cache.tautologies(ontology.getAxioms(), true, ForkJoinPool.commonPool());
+
+        assertThat(cache.reasonerChecks()).isZero();
+    }
+
+    @Test
+    void shouldSelectStructuralTautologiesThatHermitRejects() {
+        var manager = ontology.getOWLOntologyManager();
+        var dataFactory = manager.getOWLDataFactory();
+        var assertion = dataFactory.getOWLDataPropertyAssertionAxiom(dataFactory.getOWLTopDataProperty(),
+                dataFactory.getOWLAnonymousIndividual(), dataFactory.getOWLLiteral("1"));
+        manager.addAxiom(ontology, assertion);
+        var cache = new TautologyCache(1024, Duration.ofMinutes(1));
+
+        assertThat(cache.tautologies(ontology.getAxioms(), false, ForkJoinPool.commonPool())).contains(assertion);
+    }
+
+    @Test
+    void shouldReasonAgainWhenDisabled() {
+        var cache = TautologyCache.disabled();
+
+        cache.tautologies(ontology.getAxioms(), false, ForkJoinPool.commonPool());
+        cache.tautologies(ontology.getAxioms(), false, ForkJoinPool.commonPool());
+
+        assertThat(cache.reasonerChecks()).isEqualTo(22);
+    }
+
+    @Test
+    void shouldReasonAgainAfterInvalidation() {
+        var cache = new TautologyCache(1024, Duration.ofMinutes(1));
+        cache.tautologies(ontology.getAxioms(), false, ForkJoinPool.commonPool());
+
+        cache.invalidateAll();
+        cache.tautologies(ontology.getAxioms(), false, ForkJoinPool.commonPool());
+
+        assertThat(cache.reasonerChecks()).isEqualTo(22);
+    }
+
+    @Test
+    void shouldPublishReasonerChecks() {
+        var cache = new TautologyCache(1024, Duration.ofMinutes(1));
+        var registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.tautologies(ontology.getAxioms(), false, ForkJoinPool.commonPool());
+
+        assertThat(registry.get("robot.tautologies.reasoner.checks").functionCounter().count()).isEqualTo(11);
+    }
+}
@@ -0,0 +1,86 @@
+package edu.stanford.protege.robot.command.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import edu.stanford.protege.robot.command.export.ExportRowSorter.SortableRow;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ExportRowSorterTest {
+
+    @Test
+    void shouldSortByLastColumnFirstAndKeepInsertionOrderOfTies() throws Exception {
+        var rows = List.of(
+                row(0, "b", "x"),
+                row(1, "a", "y"),
+                row(2, "a", "x"),
+                row(3, "", "x"),
+                row(4, "a", " "),
+                row(5, "b", "x"));
+
+        var sorted = sort(rows, List.of(false, false), Long.MAX_VALUE);
+
+        assertThat(sorted).extracting(SortableRow::sequence).containsExactly(2L, 0L, 5L, 3L, 1L, 4L);
+    }
+
+    @Test
+    void shouldPutEmptyValuesFirstWhenReversed() throws Exception {
+        var rows = List.of(row(0, "a"), row(1, ""), row(2, "c"), row(3, "a"));
+
+        var sorted = sort(rows, List.of(true), Long.MAX_VALUE);
+
+        assertThat(sorted).extracting(SortableRow::sequence).containsExactly(1L, 2L, 0L, 3L);
+    }
+
+    @Test
+    void shouldMergeSpilledRunsIntoTheInMemoryOrder() throws Exception {
+        var random = new Random(42);
+        var rows = new ArrayList<SortableRow>();
+        for (var i = 0; i < 500; i++) {
+            rows.add(row(i, String.valueOf(random.nextInt(20)), random.nextInt(5) == 0 ? "" : "k" + random.nextInt(7)));
+        }
+
+        try (var sorter = new ExportRowSorter(List.of(true, false), 100)) {
+            for (var row : rows) {
+                sorter.add(row);
+            }
+            var sorted = new ArrayList<SortableRow>();
+            sorter.drainTo(sorted::add);
+
+            assertThat(sorter.spilledRuns()).isGreaterThan(1);
+            assertThat(sorted).containsExactlyElementsOf(sort(rows, List.of(true, false), Long.MAX_VALUE));
+        }
+    }
+
+    @Test
+    void shouldReadBackRowTextAndKeysFromSpilledRuns() throws Exception {
+        var row = new SortableRow(7, List.of("ünïcode", ""), "line\twith\nbreaks \"and\" quotes");
+
+        try (var sorter = new ExportRowSorter(List.of(false, false), 1)) {
+            sorter.add(row);
+            var sorted = new ArrayList<SortableRow>();
+            sorter.drainTo(sorted::add);
+
+            assertThat(sorter.spilledRuns()).isEqualTo(1);
+            assertThat(sorted).containsExactly(row);
+        }
+    }
+
+    private static List<SortableRow> sort(List<SortableRow> rows, List<Boolean> reverse, long maxBufferedChars)
+            throws Exception {
+        try (var sorter = new ExportRowSorter(reverse, maxBufferedChars)) {
+            for (var row : rows) {
+                sorter.add(row);
+            }
+            var sorted = new ArrayList<SortableRow>();
+            sorter.drainTo(sorted::add);
+            return sorted;
+        }
+    }
+
+    private static SortableRow row(long sequence, String... sortKeys) {
+        return new SortableRow(sequence, List.of(sortKeys), "row " + sequence);
+    }
+}
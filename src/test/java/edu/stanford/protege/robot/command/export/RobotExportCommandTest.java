@@ -2,13 +2,120 @@ package edu.stanford.protege.robot.command.export;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import edu.stanford.protege.robot.command.OperationContext;
+import edu.stanford.protege.robot.command.OperationContextFactory;
+import edu.stanford.protege.robot.command.StageDocument;
+import edu.stanford.protege.robot.pipeline.RelativePath;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.obolibrary.robot.CommandState;
 import org.obolibrary.robot.ExportCommand;
+import org.obolibrary.robot.IOHelper;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.OWLOntology;
 
 class RobotExportCommandTest {
 
+    private static final String ONTOLOGY = """
+            Prefix(:=<http://purl.obolibrary.org/obo/EX_>)
+            Prefix(rdfs:=<http://www.w3.org/2000/01/rdf-schema#>)
+            Ontology(<http://purl.obolibrary.org/obo/ex.owl>
+            Declaration(Class(:0001))
+            Declaration(Class(:0002))
+            AnnotationAssertion(rdfs:label :0001 "root")
+            AnnotationAssertion(rdfs:label :0002 "child")
+            SubClassOf(:0002 :0001)
+            )
+            """;
+
+    @Nested
+    class Operation {
+
+        @Test
+        void shouldLeaveStateUnchangedAndProduceDocument() throws Exception {
+            var command = new RobotExportCommand("ID|LABEL", null, List.of(), null, List.of(), null, null);
+            var ontology = loadOntology();
+            var axioms = ontology.getAxiomCount();
+            var context = createContext(ontology);
+
+            var state = command.getOperation().orElseThrow().execute(stateWith(ontology), context);
+
+            assertThat(state.getOntology()).isSameAs(ontology);
+            assertThat(ontology.getAxiomCount()).isEqualTo(axioms);
+            assertThat(context.outputs().takeDocument()).isPresent();
+            assertThat(context.outputs().takeDocument()).isEmpty();
+        }
+
+        @Test
+        void shouldTakeFormatFromOutputPath() throws Exception {
+            var command = new RobotExportCommand("ID|LABEL", null, List.of(), null, List.of(), null, null);
+
+            assertThat(write(command, "tables/terms.csv")).isEqualTo("""
+                    ID,LABEL
+                    obo:EX_0001,root
+                    obo:EX_0002,child
+                    """);
+            assertThat(write(command, "terms.txt")).startsWith("ID\tLABEL\n");
+        }
+
+        @Test
+        void shouldApplyAllSortColumns() throws Exception {
+            var command = new RobotExportCommand("ID|LABEL", ExportFormat.tsv, List.of("^LABEL", "ID"), null,
+                    List.of("classes"), null, null);
+
+            assertThat(write(command, "terms.csv")).isEqualTo("ID\tLABEL\nobo:EX_0001\troot\nobo:EX_0002\tchild\n");
+        }
+
+        @Test
+        void shouldWriteHtmlList() throws Exception {
+            var command = new RobotExportCommand("ID|LABEL", ExportFormat.html_list, List.of(), null, List.of(),
+                    null, null);
+
+            var document = write(command, "terms.html");
+
+            assertThat(document).startsWith("<head>").endsWith("</body>").contains("<b>LABEL:</b> root");
+        }
+
+        @Test
+        void shouldWriteFormatsRobotRendersAsWhole() throws Exception {
+            var html = new RobotExportCommand("ID|LABEL", ExportFormat.html, List.of(), null, List.of(), null, null);
+            var xlsx = new RobotExportCommand("ID|LABEL", null, List.of(), null, List.of(), null, null);
+
+            assertThat(write(html, "terms.html")).contains("<table").contains("root");
+            assertThat(write(xlsx, "terms.xlsx")).startsWith("PK");
+        }
+
+        private String write(RobotExportCommand command, String path) throws Exception {
+            var ontology = loadOntology();
+            var context = createContext(ontology);
+            command.getOperation().orElseThrow().execute(stateWith(ontology), context);
+            StageDocument document = context.outputs().takeDocument().orElseThrow();
+            var out = new ByteArrayOutputStream();
+            document.write(RelativePath.create(path), out);
+            return out.toString(StandardCharsets.UTF_8);
+        }
+
+        private OperationContext createContext(OWLOntology ontology) throws Exception {
+            return OperationContextFactory.uncached(new IOHelper()).create(ProjectId.generate(), 1L, ontology);
+        }
+
+        private CommandState stateWith(OWLOntology ontology) {
+            var state = new CommandState();
+            state.setOntology(ontology);
+            return state;
+        }
+
+        private OWLOntology loadOntology() throws Exception {
+            return OWLManager.createOWLOntologyManager()
+                    .loadOntologyFromOntologyDocument(new StringDocumentSource(ONTOLOGY));
+        }
+    }
+
     @Nested
     class GetCommand {
 
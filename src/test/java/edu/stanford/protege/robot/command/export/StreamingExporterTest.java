@@ -0,0 +1,283 @@
+package edu.stanford.protege.robot.command.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.obolibrary.robot.CommandState;
+import org.obolibrary.robot.ExportCommand;
+import org.obolibrary.robot.ExportOperation;
+import org.obolibrary.robot.IOHelper;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+class StreamingExporterTest {
+
+    private static final String ONTOLOGY = """
+            Prefix(:=<http://purl.obolibrary.org/obo/EX_>)
+            Prefix(rdfs:=<http://www.w3.org/2000/01/rdf-schema#>)
+            Prefix(oio:=<http://www.geneontology.org/formats/oboInOwl#>)
+            Prefix(xsd:=<http://www.w3.org/2001/XMLSchema#>)
+            Prefix(owl:=<http://www.w3.org/2002/07/owl#>)
+            Ontology(<http://purl.obolibrary.org/obo/ex.owl>
+            Declaration(Class(:0001))
+            Declaration(Class(:0002))
+            Declaration(Class(:0003))
+            Declaration(Class(:0004))
+            Declaration(Class(:0005))
+            Declaration(Class(:0006))
+            Declaration(Class(:0007))
+            Declaration(ObjectProperty(:part_of))
+            Declaration(DataProperty(:weight))
+            Declaration(AnnotationProperty(oio:hasExactSynonym))
+            Declaration(NamedIndividual(:i1))
+            Declaration(NamedIndividual(:i2))
+            Declaration(NamedIndividual(:i3))
+            AnnotationAssertion(rdfs:label :0001 "organism part")
+            AnnotationAssertion(rdfs:label :0002 "limb")
+            AnnotationAssertion(rdfs:label :0003 "arm")
+            AnnotationAssertion(rdfs:label :0004 "hand, left|right")
+            AnnotationAssertion(rdfs:label :0005 "finger")
+            AnnotationAssertion(rdfs:label :0007 "limb")
+            AnnotationAssertion(rdfs:label :part_of "part of")
+            AnnotationAssertion(rdfs:label :weight "weight")
+            AnnotationAssertion(rdfs:label :i1 "left arm of Bob")
+            AnnotationAssertion(oio:hasExactSynonym :0003 "upper limb")
+            AnnotationAssertion(oio:hasExactSynonym :0003 "brachium")
+            AnnotationAssertion(oio:hasExactSynonym :0004 "manus \\"tab\\"\t")
+            AnnotationAssertion(rdfs:comment :0005 "digit & <b>")
+            SubClassOf(:0002 :0001)
+            SubClassOf(:0003 :0002)
+            SubClassOf(:0004 :0002)
+            SubClassOf(:0004 ObjectSomeValuesFrom(:part_of :0003))
+            SubClassOf(:0005 ObjectSomeValuesFrom(:part_of :0004))
+            SubClassOf(:0005 ObjectExactCardinality(1 :part_of ObjectIntersectionOf(:0003 :0004)))
+            SubClassOf(:0005 DataSomeValuesFrom(:weight xsd:integer))
+            SubClassOf(:0006 owl:Thing)
+            EquivalentClasses(:0006 ObjectIntersectionOf(:0001 ObjectSomeValuesFrom(:part_of :0005)))
+            DisjointClasses(:0003 :0004 :0005)
+            ClassAssertion(:0003 :i1)
+            ObjectPropertyAssertion(:part_of :i1 :i2)
+            DataPropertyAssertion(:weight :i1 "12"^^xsd:integer)
+            ObjectPropertyDomain(:part_of :0001)
+            ObjectPropertyRange(:part_of :0001)
+            DataPropertyDomain(:weight :0001)
+            )
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    private OWLOntology ontology;
+
+    private IOHelper ioHelper;
+
+    private ForkJoinPool forkJoinPool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ontology = OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new StringDocumentSource(ONTOLOGY));
+        ioHelper = new IOHelper();
+        forkJoinPool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        forkJoinPool.shutdown();
+    }
+
+    static Stream<Arguments> exports() {
+        var headers = List.of(
+                "ID|LABEL|SubClass Of|SYNONYMS",
+                "IRI|LABEL|Equivalent Class|Disjoint With|SubClasses|Type",
+                "ID [IRI]|LABEL|part of [ID]|weight|rdfs:comment|SubClass Of [ANON]",
+                "CURIE|Type [LABEL]|Domain|Range|obo:EX_part_of [NAMED]|SubClass Of [NAMED LABEL]");
+        var options = List.of(
+                new String[] {},
+                new String[] {"--sort", "LABEL|ID"},
+                new String[] {"--sort", "^LABEL", "--include", "classes properties individuals"},
+                new String[] {"--include", "properties", "--entity-format", "IRI"},
+                new String[] {"--split", ";", "--entity-select", "NAMED", "--include", "classes,individuals"});
+        var arguments = new ArrayList<Arguments>();
+        for (var format : List.of("tsv", "csv", "json")) {
+            for (var header : headers) {
+                for (var option : options) {
+                    if (!sortsByHeaderColumns(header, option)) {
+                        continue;
+                    }
+                    arguments.add(Arguments.of(format, header, option));
+                }
+            }
+        }
+        return arguments.stream();
+    }
+
+    /**
+     * Whether every sort column is in the header; ROBOT fails on any other sort.
+     */
+    private static boolean sortsByHeaderColumns(String header, String[] options) {
+        var sortIndex = Arrays.asList(options).indexOf("--sort");
+        if (sortIndex == -1) {
+            return true;
+        }
+        var columns = Arrays.asList(header.split("\\|"));
+        return Arrays.stream(options[sortIndex + 1].split("\\|"))
+                .allMatch(column -> columns.contains(column.replace("^", "")));
+    }
+
+    @ParameterizedTest
+    @MethodSource("exports")
+    void shouldWriteWhatRobotWrites(String format, String header, String[] options) throws Exception {
+        var expected = robotExport(format, header, options);
+
+        // One row per spilled run, so that the merge decides the order of every row
+        var actual = streamingExport(format, header, options, 1, null);
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(streamingExport(format, header, options, StreamingExporter.DEFAULT_MAX_BUFFERED_CHARS, null))
+                .isEqualTo(expected);
+        assertThat(streamingExport(format, header, options, 1, forkJoinPool)).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldWriteWhatRobotWritesWhenRowsAreComputedInParallel() throws Exception {
+        // Several batches of classes whose superclass expressions render quoted names
+        var manager = OWLManager.createOWLOntologyManager();
+        var dataFactory = manager.getOWLDataFactory();
+        ontology = manager.createOntology();
+        var partOf = dataFactory.getOWLObjectProperty(IRI.create("http://purl.obolibrary.org/obo/EX_part_of"));
+        var classCount = StreamingExporter.ROWS_PER_BATCH * 2 + 100;
+        for (var i = 0; i < classCount; i++) {
+            var owlClass = dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_" + i));
+            var parent = dataFactory.getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_" + i / 2));
+            manager.addAxiom(ontology, dataFactory.getOWLAnnotationAssertionAxiom(dataFactory.getRDFSLabel(),
+                    owlClass.getIRI(), dataFactory.getOWLLiteral("class " + i % 1000)));
+            manager.addAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(owlClass,
+                    dataFactory.getOWLObjectSomeValuesFrom(partOf, parent)));
+        }
+        var header = "ID|LABEL|SubClass Of";
+        var options = new String[] {"--sort", "LABEL"};
+        var expected = robotExport("tsv", header, options);
+
+        var actual = streamingExport("tsv", header, options, StreamingExporter.DEFAULT_MAX_BUFFERED_CHARS,
+                forkJoinPool);
+
+        assertThat(actual).isEqualTo(expected);
+        assertThat(actual).contains("part_of some 'class 1'");
+    }
+
+    @Test
+    void shouldWriteTheHtmlListRobotRenders() throws Exception {
+        var options = ExportOperation.getDefaultOptions();
+        options.put("format", "html-list");
+        options.put("sort", "^ID");
+        var columns = List.of("ID", "IRI", "LABEL", "SubClass Of", "SYNONYMS");
+        var expected = ExportOperation.createExportTable(ontology, ioHelper, columns, options).toHTMLList();
+
+        var actual = new StreamingExporter(ontology, ioHelper, columns, "^ID", "|", "classes individuals", "NAME",
+                "ANY", 1, null);
+
+        assertThat(export(actual, "html-list")).isEqualTo(expected);
+    }
+
+    @Test
+    void shouldWriteHeaderOnlyWhenNothingIsExported() throws Exception {
+        var empty = OWLManager.createOWLOntologyManager().createOntology();
+        var exporter = new StreamingExporter(empty, ioHelper, List.of("ID", "LABEL"), null, "|",
+                "classes individuals", "NAME", "ANY", 1, null);
+
+        assertThat(export(exporter, "tsv")).isEqualTo("ID\tLABEL\n");
+        assertThat(export(exporter, "json")).isEqualTo("[]");
+    }
+
+    @Nested
+    class Errors {
+
+        @Test
+        void shouldRejectSortColumnOutsideHeader() {
+            var exporter = new StreamingExporter(ontology, ioHelper, List.of("ID", "LABEL"), "Type", "|",
+                    "classes", "NAME", "ANY", 1, null);
+
+            assertThatThrownBy(() -> export(exporter, "tsv"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("SORT ERROR");
+        }
+
+        @Test
+        void shouldRejectUnknownColumn() {
+            var exporter = new StreamingExporter(ontology, ioHelper, List.of("ID", "no such column"), null, "|",
+                    "classes", "NAME", "ANY", 1, null);
+
+            assertThatThrownBy(() -> export(exporter, "tsv"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("INVALID COLUMN ERROR");
+        }
+
+        @Test
+        void shouldRejectEmptyInclude() {
+            var exporter = new StreamingExporter(ontology, ioHelper, List.of("ID"), null, "|", "datatypes", "NAME",
+                    "ANY", 1, null);
+
+            assertThatThrownBy(() -> export(exporter, "tsv"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("INCLUDE NOTHING ERROR");
+        }
+
+        @Test
+        void shouldRejectFormatsThatCannotBeStreamed() {
+            var exporter = new StreamingExporter(ontology, ioHelper, List.of("ID"), null, "|", "classes", "NAME",
+                    "ANY", 1, null);
+
+            assertThat(StreamingExporter.canStream("xlsx")).isFalse();
+            assertThatThrownBy(() -> export(exporter, "xlsx")).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    private String robotExport(String format, String header, String[] options) throws Exception {
+        var file = tempDir.resolve("robot." + format);
+        var args = new ArrayList<>(List.of("--header", header, "--export", file.toString()));
+        args.addAll(Arrays.asList(options));
+        var state = new CommandState();
+        state.setOntology(ontology);
+        new ExportCommand().execute(state, args.toArray(String[]::new));
+        return Files.readString(file, StandardCharsets.UTF_8);
+    }
+
+    private String streamingExport(String format, String header, String[] options, long maxBufferedChars,
+            @Nullable ForkJoinPool pool) throws Exception {
+        var values = ExportOperation.getDefaultOptions();
+        for (var i = 0; i < options.length; i += 2) {
+            values.put(options[i].substring(2), options[i + 1]);
+        }
+        var exporter = new StreamingExporter(ontology, ioHelper, Arrays.asList(header.split("\\|")),
+                values.get("sort"), values.get("split"), values.get("include"), values.get("entity-format"),
+                values.get("entity-select"), maxBufferedChars, pool);
+        return export(exporter, format);
+    }
+
+    private static String export(StreamingExporter exporter, String format) throws Exception {
+        var out = new ByteArrayOutputStream();
+        exporter.export(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
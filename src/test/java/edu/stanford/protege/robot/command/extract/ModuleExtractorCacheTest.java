@@ -0,0 +1,136 @@
+package edu.stanford.protege.robot.command.extract;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import edu.stanford.protege.webprotege.common.ProjectId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLEntity;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.parameters.Imports;
+import uk.ac.manchester.cs.owlapi.modularity.ModuleType;
+
+class ModuleExtractorCacheTest {
+
+    private static final String ONTOLOGY = """
+            Prefix(:=<http://purl.obolibrary.org/obo/EX_>)
+            Ontology(<http://purl.obolibrary.org/obo/ex.owl>
+            Declaration(Class(:0001))
+            Declaration(Class(:0002))
+            Declaration(Class(:0003))
+            SubClassOf(:0002 :0001)
+            SubClassOf(:0003 :0002)
+            )
+            """;
+
+    private OWLOntology ontology;
+
+    private AtomicInteger builds;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ontology = OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new StringDocumentSource(ONTOLOGY));
+        builds = new AtomicInteger();
+    }
+
+    @Test
+    void shouldReuseExtractorOfSameRevision() {
+        var cache = new ModuleExtractorCache(1024 * 1024, 600, Duration.ofMinutes(1));
+        var projectId = ProjectId.generate();
+
+        var first = cache.get(projectId, 1L, Imports.INCLUDED, this::build);
+        var second = cache.get(projectId, 1L, Imports.INCLUDED, this::build);
+
+        assertThat(second).isSameAs(first);
+        assertThat(builds).hasValue(1);
+    }
+
+    @Test
+    void shouldBuildSeparateExtractorsPerRevisionAndImports() {
+        var cache = new ModuleExtractorCache(1024 * 1024, 600, Duration.ofMinutes(1));
+        var projectId = ProjectId.generate();
+
+        cache.get(projectId, 1L, Imports.INCLUDED, this::build);
+        cache.get(projectId, 2L, Imports.INCLUDED, this::build);
+        cache.get(projectId, 1L, Imports.EXCLUDED, this::build);
+        cache.get(ProjectId.generate(), 1L, Imports.INCLUDED, this::build);
+
+        assertThat(builds).hasValue(4);
+        assertThat(cache.size()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldKeepNothingWhenDisabled() {
+        var cache = ModuleExtractorCache.disabled();
+        var projectId = ProjectId.generate();
+
+        cache.get(projectId, 1L, Imports.INCLUDED, this::build);
+        cache.get(projectId, 1L, Imports.INCLUDED, this::build);
+
+        assertThat(builds).hasValue(2);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void shouldEvictWhenEstimatedHeapSizeIsExceeded() {
+        // Five axioms at 1 KB each, so that the maximum holds two extractors
+        var cache = new ModuleExtractorCache(10 * 1024, 1024, Duration.ofMinutes(1));
+        var projectId = ProjectId.generate();
+
+        for (long revision = 1; revision <= 5; revision++) {
+            cache.get(projectId, revision, Imports.INCLUDED, this::build);
+        }
+
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRethrowFailuresOfTheLoader() {
+        var cache = new ModuleExtractorCache(1024 * 1024, 600, Duration.ofMinutes(1));
+
+        assertThatThrownBy(() -> cache.get(ProjectId.generate(), 1L, Imports.INCLUDED, () -> {
+            throw new IllegalStateException("broken");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("broken");
+    }
+
+    @Test
+    void shouldExtractModulesOfDifferentTypesFromOneExtractor() {
+        var extractor = build();
+        var seed = Set.<OWLEntity>of(OWLManager.getOWLDataFactory()
+                .getOWLClass(IRI.create("http://purl.obolibrary.org/obo/EX_0003")));
+
+        var bot = extractor.extract(seed, ModuleType.BOT);
+        var top = extractor.extract(seed, ModuleType.TOP);
+        var botAgain = extractor.extract(seed, ModuleType.BOT);
+
+        assertThat(bot).hasSize(5);
+        assertThat(botAgain).isEqualTo(bot);
+        assertThat(top).isNotEqualTo(bot);
+    }
+
+    @Test
+    void shouldPublishCacheMetrics() {
+        var cache = new ModuleExtractorCache(1024 * 1024, 600, Duration.ofMinutes(1));
+        var registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.get(ProjectId.generate(), 1L, Imports.INCLUDED, this::build);
+
+        assertThat(registry.find("cache.gets").tag("cache", "robotModuleExtractors").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    private ModuleExtractor build() {
+        builds.incrementAndGet();
+        return ModuleExtractor.create(ontology, Imports.INCLUDED);
+    }
+}
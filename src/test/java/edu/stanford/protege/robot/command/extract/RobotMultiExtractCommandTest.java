@@ -0,0 +1,162 @@
+package edu.stanford.protege.robot.command.extract;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import edu.stanford.protege.robot.command.OperationContextFactory;
+import edu.stanford.protege.robot.command.StageOutputs;
+import edu.stanford.protege.robot.command.common.ReasonerPool;
+import edu.stanford.protege.robot.command.common.TautologyCache;
+import edu.stanford.protege.robot.pipeline.RelativePath;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.obolibrary.robot.CommandState;
+import org.obolibrary.robot.IOHelper;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+class RobotMultiExtractCommandTest {
+
+    private static final String ONTOLOGY = """
+            Prefix(:=<http://purl.obolibrary.org/obo/EX_>)
+            Prefix(rdfs:=<http://www.w3.org/2000/01/rdf-schema#>)
+            Ontology(<http://purl.obolibrary.org/obo/ex.owl>
+            Declaration(Class(:0001))
+            Declaration(Class(:0002))
+            Declaration(Class(:0003))
+            Declaration(Class(:0004))
+            Declaration(ObjectProperty(:part_of))
+            AnnotationAssertion(rdfs:label :0003 "leaf")
+            SubClassOf(:0002 :0001)
+            SubClassOf(:0003 :0002)
+            SubClassOf(:0004 :0001)
+            SubClassOf(:0004 ObjectSomeValuesFrom(:part_of :0003))
+            )
+            """;
+
+    private static final List<String> LEAF = List.of("obo:EX_0003");
+
+    private static final List<String> OTHER = List.of("obo:EX_0004");
+
+    private ForkJoinPool pool;
+
+    private OperationContextFactory factory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pool = new ForkJoinPool(2);
+        factory = new OperationContextFactory(new IOHelper(),
+                new ModuleExtractorCache(1024 * 1024, 600, Duration.ofMinutes(1)), ReasonerPool.disabled(),
+                TautologyCache.disabled(), pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    @Nested
+    class Operation {
+
+        @Test
+        void shouldProduceSameModulesAsSeparateExtracts() throws Exception {
+            var command = new RobotMultiExtractCommand(SlmeExtractMethod.BOT,
+                    List.of(new ExtractModule(LEAF, path("leaf.owl")), new ExtractModule(OTHER, path("other.owl"))),
+                    ExtractIntermediates.none, null);
+            var ontology = loadOntology();
+            var context = factory.create(ProjectId.generate(), 1L, ontology);
+
+            var state = command.getOperation().orElseThrow().execute(stateWith(ontology), context);
+
+            var outputs = context.outputs().drain();
+            assertThat(outputs).extracting(StageOutputs.StageOutput::path)
+                    .containsExactly(path("leaf.owl"), path("other.owl"));
+            assertThat(outputs.get(0).ontology().getAxioms())
+                    .containsExactlyInAnyOrderElementsOf(singleExtract(LEAF).getAxioms());
+            assertThat(outputs.get(1).ontology().getAxioms())
+                    .containsExactlyInAnyOrderElementsOf(singleExtract(OTHER).getAxioms());
+            assertThat(state.getOntology()).isSameAs(ontology);
+            assertThat(context.outputs().drain()).isEmpty();
+        }
+
+        @Test
+        void shouldLeaveInputUnchanged() throws Exception {
+            var command = new RobotMultiExtractCommand(SlmeExtractMethod.TOP,
+                    List.of(new ExtractModule(LEAF, path("leaf.owl"))), ExtractIntermediates.minimal, null);
+            var ontology = loadOntology();
+            var axioms = Set.copyOf(ontology.getAxioms());
+
+            command.getOperation().orElseThrow().execute(stateWith(ontology),
+                    factory.create(ProjectId.generate(), 1L, ontology));
+
+            assertThat(ontology.getAxioms()).containsExactlyInAnyOrderElementsOf(axioms);
+        }
+
+        private OWLOntology singleExtract(List<String> terms) throws Exception {
+            var command = new RobotExtractCommand(new SlmeExtractStrategy(SlmeExtractMethod.BOT, terms),
+                    ExtractIntermediates.none, null);
+            var state = command.getCommand().execute(stateWith(loadOntology()), command.getArgsArray());
+            return state.getOntology();
+        }
+    }
+
+    @Nested
+    class Construction {
+
+        @Test
+        void shouldRejectDuplicateOutputPaths() {
+            var modules = List.of(new ExtractModule(LEAF, path("module.owl")),
+                    new ExtractModule(OTHER, path("module.owl")));
+
+            assertThatThrownBy(() -> new RobotMultiExtractCommand(SlmeExtractMethod.BOT, modules, null, null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("module.owl");
+        }
+
+        @Test
+        void shouldCopyModules() {
+            var modules = new ArrayList<>(List.of(new ExtractModule(LEAF, path("leaf.owl"))));
+            var command = new RobotMultiExtractCommand(SlmeExtractMethod.BOT, modules, null, null);
+
+            modules.add(new ExtractModule(LEAF, path("leaf.owl")));
+
+            assertThat(command.modules()).containsExactly(new ExtractModule(LEAF, path("leaf.owl")));
+            assertThatThrownBy(() -> command.modules().clear()).isInstanceOf(UnsupportedOperationException.class);
+        }
+
+        @Test
+        void shouldDescribeOneExtractPerModule() {
+            var command = new RobotMultiExtractCommand(SlmeExtractMethod.STAR,
+                    List.of(new ExtractModule(LEAF, path("leaf.owl")), new ExtractModule(OTHER, path("other.owl"))),
+                    null, HandlingImports.exclude);
+
+            assertThat(command.getArgs()).containsExactly(
+                    "--method", "STAR", "--term", "obo:EX_0003", "--imports", "exclude", "--output", "leaf.owl",
+                    "--method", "STAR", "--term", "obo:EX_0004", "--imports", "exclude", "--output", "other.owl");
+        }
+    }
+
+    private static RelativePath path(String value) {
+        return RelativePath.create(value);
+    }
+
+    private static CommandState stateWith(OWLOntology ontology) {
+        var state = new CommandState();
+        state.setOntology(ontology);
+        return state;
+    }
+
+    private static OWLOntology loadOntology() throws Exception {
+        return OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new StringDocumentSource(ONTOLOGY));
+    }
+}
@@ -0,0 +1,117 @@
+package edu.stanford.protege.robot.command.reduce;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import edu.stanford.protege.robot.command.OperationContextFactory;
+import edu.stanford.protege.robot.command.common.Reasoner;
+import edu.stanford.protege.robot.command.common.ReasonerPool;
+import edu.stanford.protege.robot.command.common.TautologyCache;
+import edu.stanford.protege.robot.command.extract.ModuleExtractorCache;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.obolibrary.robot.IOHelper;
+import org.obolibrary.robot.ReduceOperation;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+class ReducerTest {
+
+    private static final String ONTOLOGY = """
+            Prefix(:=<http://purl.obolibrary.org/obo/EX_>)
+            Prefix(rdfs:=<http://www.w3.org/2000/01/rdf-schema#>)
+            Ontology(<http://purl.obolibrary.org/obo/ex.owl>
+            Declaration(Class(:0001))
+            Declaration(Class(:0002))
+            Declaration(Class(:0003))
+            Declaration(Class(:0004))
+            Declaration(Class(:0005))
+            Declaration(Class(:0006))
+            Declaration(Class(:0007))
+            Declaration(ObjectProperty(:part_of))
+            Declaration(ObjectProperty(:has_part))
+            Declaration(ObjectProperty(:component_of))
+            TransitiveObjectProperty(:part_of)
+            SubObjectPropertyOf(:component_of :part_of)
+            SubObjectPropertyOf(ObjectPropertyChain(:part_of :component_of) :part_of)
+            SubClassOf(:0002 :0001)
+            SubClassOf(:0003 :0002)
+            SubClassOf(:0003 :0001)
+            SubClassOf(Annotation(rdfs:comment "kept") :0004 :0001)
+            SubClassOf(:0004 :0003)
+            SubClassOf(:0005 ObjectSomeValuesFrom(:part_of :0003))
+            SubClassOf(:0005 ObjectSomeValuesFrom(:part_of :0002))
+            SubClassOf(:0006 ObjectSomeValuesFrom(:component_of :0003))
+            SubClassOf(:0006 ObjectSomeValuesFrom(:part_of :0003))
+            SubClassOf(ObjectSomeValuesFrom(:has_part :0007) :0002)
+            SubClassOf(ObjectSomeValuesFrom(:has_part :0007) :0001)
+            EquivalentClasses(:0007 ObjectIntersectionOf(:0003 ObjectSomeValuesFrom(:part_of :0005)))
+            )
+            """;
+
+    private ForkJoinPool pool;
+
+    private OperationContextFactory factory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pool = new ForkJoinPool(4);
+        factory = new OperationContextFactory(new IOHelper(),
+                new ModuleExtractorCache(1024 * 1024, 600, Duration.ofMinutes(1)),
+                new ReasonerPool(4, Duration.ofMinutes(1)), TautologyCache.disabled(), pool);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    static Stream<Arguments> reasonersAndFlags() {
+        var arguments = Stream.<Arguments>builder();
+        for (var reasoner : new Reasoner[] {Reasoner.ELK, Reasoner.HERMIT, Reasoner.STRUCTURAL}) {
+            for (var mask = 0; mask < 8; mask++) {
+                var flags = EnumSet.noneOf(ReduceFlags.class);
+                for (var flag : ReduceFlags.values()) {
+                    if ((mask & 1 << flag.ordinal()) != 0) {
+                        flags.add(flag);
+                    }
+                }
+                arguments.add(Arguments.of(reasoner, flags));
+            }
+        }
+        return arguments.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource("reasonersAndFlags")
+    void shouldRemoveSameAxiomsAsRobot(Reasoner reasoner, Set<ReduceFlags> flags) throws Exception {
+        var expected = loadOntology();
+        var options = ReduceOperation.getDefaultOptions();
+        flags.forEach(flag -> options.put(flag.getFlagName().substring(2), "true"));
+        ReduceOperation.reduce(expected, reasoner.createReasonerFactory(), options);
+
+        var projectId = ProjectId.generate();
+        var first = loadOntology();
+        Reducer.reduce(first, reasoner, flags, factory.create(projectId, 1L, first));
+        // The second run of the same revision queries the pooled reasoner
+        var second = loadOntology();
+        Reducer.reduce(second, reasoner, flags, factory.create(projectId, 1L, second));
+
+        assertThat(first.getAxioms()).containsExactlyInAnyOrderElementsOf(expected.getAxioms());
+        assertThat(second.getAxioms()).containsExactlyInAnyOrderElementsOf(expected.getAxioms());
+    }
+
+    private static OWLOntology loadOntology() throws Exception {
+        return OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new StringDocumentSource(ONTOLOGY));
+    }
+}
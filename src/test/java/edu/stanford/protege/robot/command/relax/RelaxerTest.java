@@ -0,0 +1,122 @@
+package edu.stanford.protege.robot.command.relax;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.obolibrary.robot.RelaxOperation;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+class RelaxerTest {
+
+    private static final String ONTOLOGY = """
+            Prefix(:=<http://purl.obolibrary.org/obo/EX_>)
+            Prefix(owl:=<http://www.w3.org/2002/07/owl#>)
+            Ontology(<http://purl.obolibrary.org/obo/ex.owl>
+            Declaration(Class(:0001))
+            Declaration(Class(:0002))
+            Declaration(Class(:0003))
+            Declaration(Class(:0004))
+            Declaration(Class(:0005))
+            Declaration(Class(:0006))
+            Declaration(ObjectProperty(:part_of))
+            Declaration(ObjectProperty(:has_part))
+            SubClassOf(:0002 :0001)
+            EquivalentClasses(:0003 ObjectIntersectionOf(:0002 ObjectSomeValuesFrom(:part_of :0001)
+                ObjectMinCardinality(2 :has_part :0004)))
+            EquivalentClasses(:0004 ObjectIntersectionOf(:0001 ObjectSomeValuesFrom(ObjectInverseOf(:part_of) :0002)
+                ObjectSomeValuesFrom(:part_of ObjectUnionOf(:0001 :0002)) ObjectMaxCardinality(1 :has_part)
+                ObjectExactCardinality(0 :part_of :0003)))
+            EquivalentClasses(:0005 :0006)
+            EquivalentClasses(:0005 ObjectSomeValuesFrom(:part_of :0003))
+            SubClassOf(:0006 ObjectIntersectionOf(:0003 ObjectSomeValuesFrom(:has_part :0002)))
+            SubClassOf(ObjectSomeValuesFrom(:part_of :0006) :0002)
+            EquivalentClasses(owl:Thing ObjectUnionOf(:0001 ObjectComplementOf(:0001)) :0006)
+            )
+            """;
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    static Stream<Arguments> flags() {
+        var arguments = Stream.<Arguments>builder();
+        for (var enforceOboFormat : new boolean[] {false, true}) {
+            for (var excludeNamedClasses : new boolean[] {false, true}) {
+                for (var includeSubclassOf : new boolean[] {false, true}) {
+                    arguments.add(Arguments.of(enforceOboFormat, excludeNamedClasses, includeSubclassOf));
+                }
+            }
+        }
+        return arguments.build();
+    }
+
+    @ParameterizedTest
+    @MethodSource("flags")
+    void shouldAddTheAxiomsRobotAdds(boolean enforceOboFormat, boolean excludeNamedClasses,
+            boolean includeSubclassOf) throws Exception {
+        var expected = loadOntology();
+        RelaxOperation.relax(expected, enforceOboFormat, excludeNamedClasses, includeSubclassOf);
+        var actual = loadOntology();
+
+        Relaxer.relax(actual, enforceOboFormat, excludeNamedClasses, includeSubclassOf, pool);
+
+        assertThat(actual.getAxioms()).containsExactlyInAnyOrderElementsOf(expected.getAxioms());
+    }
+
+    @ParameterizedTest
+    @MethodSource("flags")
+    void shouldRelaxManyEquivalencesAsRobotDoes(boolean enforceOboFormat, boolean excludeNamedClasses,
+            boolean includeSubclassOf) throws Exception {
+        var expected = loadLargeOntology();
+        RelaxOperation.relax(expected, enforceOboFormat, excludeNamedClasses, includeSubclassOf);
+        var actual = loadLargeOntology();
+
+        Relaxer.relax(actual, enforceOboFormat, excludeNamedClasses, includeSubclassOf, pool);
+
+        assertThat(actual.getAxioms()).containsExactlyInAnyOrderElementsOf(expected.getAxioms());
+    }
+
+    /**
+     * Adds a thousand defined classes, each equivalent to an intersection of its genus and a
+     * restriction, and a subclass restriction on each.
+     */
+    private static OWLOntology loadLargeOntology() throws Exception {
+        var ontology = loadOntology();
+        var manager = ontology.getOWLOntologyManager();
+        var dataFactory = manager.getOWLDataFactory();
+        var partOf = dataFactory.getOWLObjectProperty(IRI.create("http://purl.obolibrary.org/obo/EX_part_of"));
+        for (var i = 0; i < 1000; i++) {
+            var defined = dataFactory.getOWLClass(IRI.create("http://example.org/D" + i));
+            var genus = dataFactory.getOWLClass(IRI.create("http://example.org/G" + i % 50));
+            var filler = dataFactory.getOWLClass(IRI.create("http://example.org/D" + i / 2));
+            manager.addAxiom(ontology, dataFactory.getOWLEquivalentClassesAxiom(defined,
+                    dataFactory.getOWLObjectIntersectionOf(genus,
+                            dataFactory.getOWLObjectSomeValuesFrom(partOf, filler))));
+            manager.addAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(defined,
+                    dataFactory.getOWLObjectMinCardinality(1 + i % 3, partOf.getInverseProperty(), genus)));
+        }
+        return ontology;
+    }
+
+    private static OWLOntology loadOntology() throws Exception {
+        return OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new StringDocumentSource(ONTOLOGY));
+    }
+}
@@ -0,0 +1,197 @@
+package edu.stanford.protege.robot.command.repair;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.obolibrary.robot.IOHelper;
+import org.obolibrary.robot.RepairOperation;
+import org.obolibrary.robot.checks.InvalidReferenceChecker;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.io.StringDocumentSource;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLAnnotationProperty;
+import org.semanticweb.owlapi.model.OWLOntology;
+
+class RepairerTest {
+
+    private static final String ONTOLOGY = """
+            Prefix(:=<http://purl.obolibrary.org/obo/EX_>)
+            Prefix(obo:=<http://purl.obolibrary.org/obo/>)
+            Prefix(oio:=<http://www.geneontology.org/formats/oboInOwl#>)
+            Prefix(owl:=<http://www.w3.org/2002/07/owl#>)
+            Prefix(rdfs:=<http://www.w3.org/2000/01/rdf-schema#>)
+            Prefix(xsd:=<http://www.w3.org/2001/XMLSchema#>)
+            Ontology(<http://purl.obolibrary.org/obo/ex.owl>
+            Annotation(rdfs:seeAlso :0006)
+            Declaration(Class(:0001))
+            Declaration(Class(:0002))
+            Declaration(Class(:0003))
+            Declaration(Class(:0004))
+            Declaration(Class(:0005))
+            Declaration(Class(:0006))
+            Declaration(Class(:0007))
+            Declaration(Class(:0008))
+            Declaration(Class(:0009))
+            Declaration(ObjectProperty(:part_of))
+            Declaration(ObjectProperty(:old_part_of))
+            AnnotationAssertion(rdfs:label :0001 "root")
+            AnnotationAssertion(rdfs:label :0006 "obsolete root")
+            AnnotationAssertion(oio:hasDbXref :0006 "DB:1")
+            AnnotationAssertion(owl:deprecated :0006 "true"^^xsd:boolean)
+            AnnotationAssertion(obo:IAO_0100001 :0006 :0001)
+            AnnotationAssertion(owl:deprecated :0007 "true"^^xsd:boolean)
+            AnnotationAssertion(obo:IAO_0100001 :0007 "EX:0003")
+            AnnotationAssertion(owl:deprecated :0008 "true"^^xsd:boolean)
+            AnnotationAssertion(owl:deprecated :0009 "false"^^xsd:boolean)
+            AnnotationAssertion(obo:IAO_0100001 :0009 :0001)
+            AnnotationAssertion(owl:deprecated :old_part_of "true"^^xsd:boolean)
+            AnnotationAssertion(obo:IAO_0100001 :old_part_of :part_of)
+            AnnotationAssertion(rdfs:seeAlso :0005 :0006)
+            SubClassOf(:0002 :0001)
+            SubClassOf(:0006 :0002)
+            SubClassOf(:0003 :0006)
+            SubClassOf(Annotation(rdfs:comment "asserted") :0004 :0007)
+            SubClassOf(Annotation(rdfs:comment "imported") :0004 :0007)
+            SubClassOf(:0004 :0003)
+            SubClassOf(:0005 :0008)
+            SubClassOf(:0005 :0009)
+            SubClassOf(:0005 ObjectSomeValuesFrom(:old_part_of :0006))
+            SubClassOf(Annotation(rdfs:comment "one") :0005 ObjectSomeValuesFrom(:part_of :0007))
+            SubClassOf(Annotation(rdfs:comment "two") :0005 ObjectSomeValuesFrom(:part_of :0007))
+            SubObjectPropertyOf(:old_part_of :part_of)
+            EquivalentClasses(:0002 ObjectIntersectionOf(:0001 ObjectSomeValuesFrom(:old_part_of :0007)))
+            )
+            """;
+
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdown();
+    }
+
+    static Stream<Set<String>> migratedProperties() {
+        return Stream.of(
+                Set.of(),
+                Set.of("http://www.w3.org/2000/01/rdf-schema#label"),
+                Set.of("http://www.w3.org/2000/01/rdf-schema#label",
+                        "http://www.geneontology.org/formats/oboInOwl#hasDbXref"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("migratedProperties")
+    void shouldRepairInvalidReferencesAsRobotDoes(Set<String> migrated) throws Exception {
+        var expected = loadOntology(ONTOLOGY);
+        var properties = annotationProperties(expected, migrated);
+        RepairOperation.repairInvalidReferences(ioHelper(), expected,
+                InvalidReferenceChecker.getInvalidReferenceViolations(expected, true), properties);
+        var actual = loadOntology(ONTOLOGY);
+
+        Repairer.repairInvalidReferences(actual, ioHelper(), properties, pool);
+
+        assertThat(actual.getAxioms()).containsExactlyInAnyOrderElementsOf(expected.getAxioms());
+        assertThat(actual.getAnnotations()).containsExactlyInAnyOrderElementsOf(expected.getAnnotations());
+    }
+
+    @Test
+    void shouldRepairManyObsoletionsAsRobotDoes() throws Exception {
+        var expected = generateOntology();
+        RepairOperation.repairInvalidReferences(ioHelper(), expected,
+                InvalidReferenceChecker.getInvalidReferenceViolations(expected, true), Set.of());
+        var actual = generateOntology();
+
+        Repairer.repairInvalidReferences(actual, ioHelper(), Set.of(), pool);
+
+        assertThat(actual.getAxioms()).containsExactlyInAnyOrderElementsOf(expected.getAxioms());
+    }
+
+    @Test
+    void shouldMergeAxiomAnnotationsAsRobotDoes() throws Exception {
+        var expected = loadOntology(ONTOLOGY);
+        RepairOperation.mergeAxiomAnnotations(expected);
+        var actual = loadOntology(ONTOLOGY);
+
+        Repairer.mergeAxiomAnnotations(actual, pool);
+
+        assertThat(actual.getAxioms()).containsExactlyInAnyOrderElementsOf(expected.getAxioms());
+    }
+
+    @Test
+    void shouldLeaveOntologyWithoutDeprecatedEntitiesUnchanged() throws Exception {
+        var ontology = loadOntology("""
+                Prefix(:=<http://purl.obolibrary.org/obo/EX_>)
+                Ontology(<http://purl.obolibrary.org/obo/ex.owl>
+                SubClassOf(:0002 :0001)
+                )
+                """);
+        var changes = new ArrayList<Object>();
+        ontology.getOWLOntologyManager().addOntologyChangeListener(changes::addAll);
+
+        Repairer.repairInvalidReferences(ontology, ioHelper(), Set.of(), pool);
+        Repairer.mergeAxiomAnnotations(ontology, pool);
+
+        assertThat(changes).isEmpty();
+    }
+
+    /**
+     * Generates a thousand classes in a chain, every fifth one deprecated and replaced by the class
+     * above it, with a restriction on the class below each.
+     */
+    private static OWLOntology generateOntology() throws Exception {
+        var manager = OWLManager.createOWLOntologyManager();
+        var ontology = manager.createOntology(IRI.create("http://purl.obolibrary.org/obo/gen.owl"));
+        var dataFactory = manager.getOWLDataFactory();
+        var partOf = dataFactory.getOWLObjectProperty(IRI.create("http://purl.obolibrary.org/obo/EX_part_of"));
+        for (var i = 1; i < 1000; i++) {
+            var owlClass = dataFactory.getOWLClass(classIri(i));
+            var superClass = dataFactory.getOWLClass(classIri(i - 1));
+            manager.addAxiom(ontology, dataFactory.getOWLDeclarationAxiom(owlClass));
+            manager.addAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(owlClass, superClass));
+            manager.addAxiom(ontology, dataFactory.getOWLSubClassOfAxiom(superClass,
+                    dataFactory.getOWLObjectSomeValuesFrom(partOf, owlClass)));
+            if (i % 5 == 0) {
+                manager.addAxiom(ontology, dataFactory.getDeprecatedOWLAnnotationAssertionAxiom(classIri(i)));
+                manager.addAxiom(ontology, dataFactory.getOWLAnnotationAssertionAxiom(
+                        dataFactory.getOWLAnnotationProperty(IRI.create("http://purl.obolibrary.org/obo/IAO_0100001")),
+                        classIri(i), classIri(i - 1)));
+            }
+        }
+        return ontology;
+    }
+
+    private static IRI classIri(int i) {
+        return IRI.create("http://purl.obolibrary.org/obo/GEN_" + i);
+    }
+
+    private static Set<OWLAnnotationProperty> annotationProperties(OWLOntology ontology, Set<String> iris) {
+        var dataFactory = ontology.getOWLOntologyManager().getOWLDataFactory();
+        return iris.stream()
+                .map(iri -> dataFactory.getOWLAnnotationProperty(IRI.create(iri)))
+                .collect(Collectors.toSet());
+    }
+
+    private static IOHelper ioHelper() throws Exception {
+        var ioHelper = new IOHelper();
+        ioHelper.addPrefix("EX", "http://purl.obolibrary.org/obo/EX_");
+        return ioHelper;
+    }
+
+    private static OWLOntology loadOntology(String ontology) throws Exception {
+        return OWLManager.createOWLOntologyManager()
+                .loadOntologyFromOntologyDocument(new StringDocumentSource(ontology));
+    }
+}
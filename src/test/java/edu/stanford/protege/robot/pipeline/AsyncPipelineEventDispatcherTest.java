@@ -0,0 +1,212 @@
+package edu.stanford.protege.robot.pipeline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import edu.stanford.protege.robot.pipeline.event.ExecutePipelineFinishedEvent;
+import edu.stanford.protege.robot.pipeline.event.ExecutePipelineStartedEvent;
+import edu.stanford.protege.robot.pipeline.event.LoadOntologyStartedEvent;
+import edu.stanford.protege.webprotege.common.Event;
+import edu.stanford.protege.webprotege.common.EventId;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import edu.stanford.protege.webprotege.ipc.EventDispatcher;
+import edu.stanford.protege.webprotege.ipc.ExecutionContext;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class AsyncPipelineEventDispatcherTest {
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(5);
+
+    private final ProjectId projectId = ProjectId.generate();
+
+    private final PipelineId pipelineId = PipelineId.generate();
+
+    @Test
+    void dispatch_publishesEventsOfEachExecutionInOrder() {
+        var recorder = new RecordingEventDispatcher();
+        var dispatcher = new AsyncPipelineEventDispatcher(recorder, 100, 3, SHUTDOWN_TIMEOUT, "test-events");
+        var first = PipelineExecutionId.generate();
+        var second = PipelineExecutionId.generate();
+        var firstEvents = events(first, 10);
+        var secondEvents = events(second, 10);
+
+        for (int i = 0; i < 10; i++) {
+            dispatcher.dispatch(first, firstEvents.get(i));
+            dispatcher.dispatch(second, secondEvents.get(i));
+        }
+        dispatcher.close();
+
+        assertThat(recorder.eventsOf(first)).containsExactlyElementsOf(firstEvents);
+        assertThat(recorder.eventsOf(second)).containsExactlyElementsOf(secondEvents);
+    }
+
+    @Test
+    void dispatch_discardsOldestEventsWhenBufferIsFull() throws InterruptedException {
+        var recorder = new RecordingEventDispatcher();
+        var dispatcher = new AsyncPipelineEventDispatcher(recorder, 2, 1, SHUTDOWN_TIMEOUT, "test-events");
+        var executionId = PipelineExecutionId.generate();
+        var events = events(executionId, 5);
+        recorder.block();
+
+        dispatcher.dispatch(executionId, events.get(0));
+        recorder.awaitBlocked();
+        for (int i = 1; i < 5; i++) {
+            dispatcher.dispatch(executionId, events.get(i));
+        }
+        recorder.unblock();
+        dispatcher.close();
+
+        assertThat(recorder.eventsOf(executionId)).containsExactly(events.get(0), events.get(3), events.get(4));
+        assertThat(dispatcher.getDroppedEventCount()).isEqualTo(2);
+    }
+
+    @Test
+    void dispatch_continuesAfterDispatcherFailure() {
+        var recorder = new RecordingEventDispatcher();
+        recorder.failOnFirstEvent();
+        var dispatcher = new AsyncPipelineEventDispatcher(recorder, 10, 10, SHUTDOWN_TIMEOUT, "test-events");
+        var executionId = PipelineExecutionId.generate();
+        var events = events(executionId, 3);
+
+        events.forEach(event -> dispatcher.dispatch(executionId, event));
+        dispatcher.close();
+
+        assertThat(recorder.eventsOf(executionId)).containsExactly(events.get(1), events.get(2));
+    }
+
+    @Test
+    void dispatch_afterCloseDispatchesSynchronously() {
+        var recorder = new RecordingEventDispatcher();
+        var dispatcher = new AsyncPipelineEventDispatcher(recorder, 10, 10, SHUTDOWN_TIMEOUT, "test-events");
+        var executionId = PipelineExecutionId.generate();
+        var event = events(executionId, 1).get(0);
+        dispatcher.close();
+
+        dispatcher.dispatch(executionId, event);
+
+        assertThat(recorder.eventsOf(executionId)).containsExactly(event);
+    }
+
+    @Test
+    void dispatch_afterClosePublishesBehindBufferedEventsOfExecution() throws InterruptedException {
+        var recorder = new RecordingEventDispatcher();
+        var dispatcher = new AsyncPipelineEventDispatcher(recorder, 10, 1, SHUTDOWN_TIMEOUT, "test-events");
+        var executionId = PipelineExecutionId.generate();
+        var events = events(executionId, 4);
+        recorder.block();
+        dispatcher.dispatch(executionId, events.get(0));
+        recorder.awaitBlocked();
+        dispatcher.dispatch(executionId, events.get(1));
+        dispatcher.dispatch(executionId, events.get(2));
+        var closer = new Thread(dispatcher::close);
+        closer.start();
+        awaitState(closer, Thread.State.TIMED_WAITING);
+
+        var lateDispatcher = new Thread(() -> dispatcher.dispatch(executionId, events.get(3)));
+        lateDispatcher.start();
+        awaitState(lateDispatcher, Thread.State.BLOCKED);
+        recorder.unblock();
+        lateDispatcher.join();
+        closer.join();
+
+        assertThat(recorder.eventsOf(executionId)).containsExactlyElementsOf(events);
+    }
+
+    @Test
+    void pipelineLogger_closeDrainsPendingEvents() {
+        var recorder = new RecordingEventDispatcher();
+        var asyncDispatcher = new AsyncPipelineEventDispatcher(recorder, 10, 10, SHUTDOWN_TIMEOUT, "test-events");
+        var logger = new PipelineLogger(recorder, asyncDispatcher);
+        var executionId = PipelineExecutionId.generate();
+
+        logger.pipelineExecutionStarted(projectId, executionId, pipelineId);
+        logger.loadingOntologyStarted(projectId, executionId, pipelineId);
+        logger.pipelineExecutionFinishedWithSuccess(projectId, executionId, pipelineId);
+        logger.close();
+
+        assertThat(recorder.events)
+                .extracting(Event::getChannel)
+                .containsExactly(ExecutePipelineStartedEvent.CHANNEL, LoadOntologyStartedEvent.CHANNEL,
+                        ExecutePipelineFinishedEvent.CHANNEL);
+    }
+
+    /**
+     * Waits for a thread to reach the given state, or to terminate.
+     */
+    private static void awaitState(Thread thread, Thread.State state) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (thread.getState() != state && thread.isAlive() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private List<Event> events(PipelineExecutionId executionId, int count) {
+        return IntStream.range(0, count)
+                .<Event>mapToObj(i -> new LoadOntologyStartedEvent(projectId, executionId, pipelineId,
+                        EventId.generate()))
+                .toList();
+    }
+
+    private static final class RecordingEventDispatcher implements EventDispatcher {
+
+        private final List<Event> events = new CopyOnWriteArrayList<>();
+
+        private final CountDownLatch blocked = new CountDownLatch(1);
+
+        private volatile CountDownLatch gate;
+
+        private volatile boolean failNext = false;
+
+        void block() {
+            gate = new CountDownLatch(1);
+        }
+
+        void awaitBlocked() throws InterruptedException {
+            assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        void unblock() {
+            gate.countDown();
+        }
+
+        void failOnFirstEvent() {
+            failNext = true;
+        }
+
+        List<Event> eventsOf(PipelineExecutionId executionId) {
+            return events.stream()
+                    .filter(event -> event instanceof LoadOntologyStartedEvent loadEvent
+                            && loadEvent.executionId().equals(executionId))
+                    .toList();
+        }
+
+        @Override
+        public void dispatchEvent(Event event) {
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("Broker unavailable");
+            }
+            var currentGate = gate;
+            if (currentGate != null) {
+                blocked.countDown();
+                try {
+                    currentGate.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                gate = null;
+            }
+            events.add(event);
+        }
+
+        @Override
+        public void dispatchEvent(Event event, ExecutionContext executionContext) {
+            dispatchEvent(event);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package edu.stanford.protege.robot.pipeline;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+class PipelineExecutionCursorTest {
+
+    @Test
+    void pageToken_roundTrips() {
+        var cursor = new PipelineExecutionCursor(1_700_000_000_123L, PipelineExecutionId.generate());
+
+        var parsed = PipelineExecutionCursor.fromPageToken(cursor.asPageToken());
+
+        assertThat(parsed).isEqualTo(cursor);
+    }
+
+    @Test
+    void pageToken_isUrlSafe() {
+        var cursor = new PipelineExecutionCursor(42L, PipelineExecutionId.generate());
+
+        assertThat(cursor.asPageToken()).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void fromPageToken_rejectsMalformedToken() {
+        assertThatThrownBy(() -> PipelineExecutionCursor.fromPageToken("not a token"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Malformed page token");
+    }
+}
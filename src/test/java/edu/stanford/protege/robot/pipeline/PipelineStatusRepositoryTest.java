@@ -310,6 +310,84 @@ class PipelineStatusRepositoryTest {
         assertThat(found.get().stages().get(1).outputFile()).isEqualTo(outputPath2);
     }
 
+    @Test
+    void testFindExecutions_PagesNewestFirst() {
+        // Given
+        var pipeline = createSamplePipeline(PipelineId.generate());
+        var projectId = pipeline.projectId();
+        var baseTime = Instant.parse("2025-01-01T00:00:00Z");
+        for (int i = 0; i < 5; i++) {
+            var status = PipelineStatus.create(PipelineExecutionId.generate(), pipeline.pipelineId(),
+                    baseTime.plusSeconds(i), pipeline);
+            repository.saveStatus(status);
+        }
+
+        // When
+        var firstPage = repository.findExecutions(projectId, null, null, 2);
+        var secondPage = repository.findExecutions(projectId, null, firstPage.nextCursor(), 2);
+        var lastPage = repository.findExecutions(projectId, null, secondPage.nextCursor(), 2);
+
+        // Then
+        assertThat(firstPage.executions()).extracting(PipelineExecutionSummary::startTime)
+                .containsExactly(baseTime.plusSeconds(4), baseTime.plusSeconds(3));
+        assertThat(secondPage.executions()).extracting(PipelineExecutionSummary::startTime)
+                .containsExactly(baseTime.plusSeconds(2), baseTime.plusSeconds(1));
+        assertThat(lastPage.executions()).extracting(PipelineExecutionSummary::startTime)
+                .containsExactly(baseTime);
+        assertThat(lastPage.nextCursor()).isNull();
+    }
+
+    @Test
+    void testFindExecutions_FiltersByProjectAndPipeline() {
+        // Given
+        var pipeline = createSamplePipeline(PipelineId.generate());
+        var otherPipeline = new RobotPipeline(pipeline.projectId(), PipelineId.generate(), null, null,
+                pipeline.stages());
+        var otherProjectPipeline = createSamplePipeline(PipelineId.generate());
+        var executionId = PipelineExecutionId.generate();
+        repository.saveStatus(PipelineStatus.create(executionId, pipeline.pipelineId(), Instant.now(), pipeline));
+        repository.saveStatus(PipelineStatus.create(PipelineExecutionId.generate(), otherPipeline.pipelineId(),
+                Instant.now(), otherPipeline));
+        repository.saveStatus(PipelineStatus.create(PipelineExecutionId.generate(),
+                otherProjectPipeline.pipelineId(), Instant.now(), otherProjectPipeline));
+
+        // When
+        var projectPage = repository.findExecutions(pipeline.projectId(), null, null, 10);
+        var pipelinePage = repository.findExecutions(pipeline.projectId(), pipeline.pipelineId(), null, 10);
+
+        // Then
+        assertThat(projectPage.executions()).hasSize(2);
+        assertThat(pipelinePage.executions()).singleElement().satisfies(summary -> {
+            assertThat(summary.executionId()).isEqualTo(executionId);
+            assertThat(summary.pipelineId()).isEqualTo(pipeline.pipelineId());
+            assertThat(summary.state()).isEqualTo(StageStatus.WAITING);
+            assertThat(summary.endTime()).isNull();
+        });
+    }
+
+    @Test
+    void testFindExecutions_ReportsStateAndEndTime() {
+        // Given
+        var pipeline = createSamplePipeline(PipelineId.generate());
+        var executionId = PipelineExecutionId.generate();
+        var startTime = Instant.now().minusSeconds(60);
+        var endTime = Instant.now();
+        var status = PipelineStatus.create(executionId, pipeline.pipelineId(), startTime, pipeline);
+        status = PipelineStatus.withStageError(status, pipeline.stages().get(0).stageId());
+        status = PipelineStatus.withEndTime(status, endTime);
+        repository.saveStatus(status);
+
+        // When
+        var page = repository.findExecutions(pipeline.projectId(), null, null, 10);
+
+        // Then
+        assertThat(page.executions()).singleElement().satisfies(summary -> {
+            assertThat(summary.state()).isEqualTo(StageStatus.FINISHED_WITH_ERROR);
+            assertThat(summary.endTime()).isEqualTo(endTime);
+        });
+        assertThat(repository.findStatus(executionId).get()).usingRecursiveComparison().isEqualTo(status);
+    }
+
     /**
      * Helper method to create a sample pipeline for testing.
      */
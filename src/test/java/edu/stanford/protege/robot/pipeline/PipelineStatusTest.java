@@ -45,4 +45,49 @@ class PipelineStatusTest {
 
         assertThat(status.isFailed()).isTrue();
     }
+
+    @Test
+    void executionState_failedTakesPrecedenceOverWaitingStages() {
+        var pipeline = pipelineWithSingleStage();
+        var status = PipelineStatus.createWithPreparationStatus(PipelineExecutionId.generate(), pipeline.pipelineId(),
+                Instant.now(), pipeline, PipelinePreparationStatus.finishedWithError("boom"));
+
+        assertThat(status.executionState()).isEqualTo(StageStatus.FINISHED_WITH_ERROR);
+    }
+
+    @Test
+    void executionState_runningWhileStageRuns() {
+        var pipeline = pipelineWithSingleStage();
+        var status = PipelineStatus.create(PipelineExecutionId.generate(), pipeline.pipelineId(), Instant.now(),
+                pipeline);
+        status = PipelineStatus.withStageRunning(status, pipeline.stages().get(0).stageId());
+
+        assertThat(status.executionState()).isEqualTo(StageStatus.RUNNING);
+    }
+
+    @Test
+    void executionState_successWhenAllStagesSucceeded() {
+        var pipeline = pipelineWithSingleStage();
+        var status = PipelineStatus.create(PipelineExecutionId.generate(), pipeline.pipelineId(), Instant.now(),
+                pipeline);
+        status = PipelineStatus.withStageSuccess(status, pipeline.stages().get(0).stageId());
+
+        assertThat(status.executionState()).isEqualTo(StageStatus.FINISHED_WITH_SUCCESS);
+    }
+
+    @Test
+    void withStageSuccess_recordsStageMetrics() {
+        var pipeline = pipelineWithSingleStage();
+        var stageId = pipeline.stages().get(0).stageId();
+        var status = PipelineStatus.create(PipelineExecutionId.generate(), pipeline.pipelineId(), Instant.now(),
+                pipeline);
+        var metrics = new PipelineStageMetrics(120, 100, 10, 12, 5, 6, 1024);
+
+        status = PipelineStatus.withStageRunning(status, stageId);
+        assertThat(status.stages().get(0).metrics()).isNull();
+        status = PipelineStatus.withStageSuccess(status, stageId, metrics);
+
+        assertThat(status.stages().get(0).isSuccessful()).isTrue();
+        assertThat(status.stages().get(0).metrics()).isEqualTo(metrics);
+    }
 }
@@ -404,6 +404,25 @@ class PipelineSuccessResultRepositoryTest {
         assertThat(repository.findResult(executionId3).get().revisionNumber()).isEqualTo(3L);
     }
 
+    @Test
+    void testFindOutputFiles_ReturnsOnlyExistingResults() {
+        // Given
+        var projectId = ProjectId.generate();
+        var pipeline = createSamplePipeline(projectId, PipelineId.generate());
+        var executionId = PipelineExecutionId.generate();
+        var missingExecutionId = PipelineExecutionId.generate();
+        var outputFiles = Map.of(new RelativePath("output/result.owl"), new BlobLocation("bucket", "object-1"));
+        repository.saveResult(PipelineSuccessResult.create(executionId, projectId, 1L, pipeline,
+                Instant.now().minusSeconds(10), Instant.now(), outputFiles));
+
+        // When
+        var found = repository.findOutputFiles(List.of(executionId, missingExecutionId));
+
+        // Then
+        assertThat(found).containsOnlyKeys(executionId);
+        assertThat(found.get(executionId)).isEqualTo(outputFiles);
+    }
+
     /**
      * Helper method to create a sample pipeline for testing.
      */
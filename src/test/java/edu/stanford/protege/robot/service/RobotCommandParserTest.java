@@ -16,16 +16,20 @@ import edu.stanford.protege.robot.command.expand.ExpandFlags;
 import edu.stanford.protege.robot.command.expand.RobotExpandCommand;
 import edu.stanford.protege.robot.command.extract.ExtractFlags;
 import edu.stanford.protege.robot.command.extract.ExtractIntermediates;
+import edu.stanford.protege.robot.command.extract.ExtractModule;
 import edu.stanford.protege.robot.command.extract.HandlingImports;
 import edu.stanford.protege.robot.command.extract.MireotExtractStrategy;
 import edu.stanford.protege.robot.command.extract.RobotExtractCommand;
+import edu.stanford.protege.robot.command.extract.RobotMultiExtractCommand;
 import edu.stanford.protege.robot.command.extract.SlmeExtractMethod;
 import edu.stanford.protege.robot.command.extract.SlmeExtractStrategy;
 import edu.stanford.protege.robot.command.extract.SubsetExtractStrategy;
+import edu.stanford.protege.robot.pipeline.RelativePath;
 import edu.stanford.protege.robot.service.config.JacksonConfiguration;
 import edu.stanford.protege.robot.service.exception.RobotServiceException;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Objects;
 import org.junit.jupiter.api.Test;
 import org.semanticweb.owlapi.model.IRI;
@@ -227,6 +231,28 @@ class RobotCommandParserTest {
         assertThat(command.flags()).containsExactly(ExtractFlags.COPY_ONTOLOGY_ANNOTATIONS);
     }
 
+    /**
+     * Tests parsing multi-module extract command.
+     */
+    @Test
+    void testParseMultiExtractCommand() throws IOException, RobotServiceException {
+        // Load JSON from file
+        var json = getJsonContent("/json-examples/extract-multi-command.json");
+
+        // Parse single command
+        var command = (RobotMultiExtractCommand) parser.parseCommand(json);
+
+        // Verify multi-module extract command
+        assertThat(command.method()).isEqualTo(SlmeExtractMethod.BOT);
+        assertThat(command.modules()).containsExactly(
+                new ExtractModule(List.of("GO:0008150"), RelativePath.create("modules/biological-process.owl")),
+                new ExtractModule(List.of("GO:0003674", "GO:0005575"),
+                        RelativePath.create("modules/function-and-component.owl")));
+        assertThat(command.extractIntermediates()).isEqualTo(ExtractIntermediates.minimal);
+        assertThat(command.handlingImports()).isEqualTo(HandlingImports.exclude);
+        assertThat(command.flags()).containsExactly(ExtractFlags.COPY_ONTOLOGY_ANNOTATIONS);
+    }
+
     String getJsonContent(String path) throws IOException {
         return new String(Objects.requireNonNull(getClass().getResourceAsStream(path)).readAllBytes(),
                 StandardCharsets.UTF_8);
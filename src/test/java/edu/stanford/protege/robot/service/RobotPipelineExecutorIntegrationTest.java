@@ -10,14 +10,19 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.stanford.protege.robot.command.OperationContextFactory;
 import edu.stanford.protege.robot.pipeline.PipelineExecutionId;
 import edu.stanford.protege.robot.pipeline.PipelineLogger;
+import edu.stanford.protege.robot.pipeline.PipelineStageId;
+import edu.stanford.protege.robot.pipeline.PipelineStageMetrics;
 import edu.stanford.protege.robot.pipeline.PipelineStatusRepository;
 import edu.stanford.protege.robot.pipeline.PipelineSuccessResultRepository;
 import edu.stanford.protege.robot.pipeline.RobotPipeline;
 import edu.stanford.protege.robot.service.config.JacksonConfiguration;
+import edu.stanford.protege.robot.service.metrics.RobotPipelineMetrics;
 import edu.stanford.protege.robot.service.storer.MinioDocumentStorer;
 import edu.stanford.protege.webprotege.common.ProjectId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.inject.Provider;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
@@ -94,7 +99,8 @@ class RobotPipelineExecutorIntegrationTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         executor = new RobotPipelineExecutor(commandStateProvider, ioHelper, minioDocumentStorer, statusRepository,
-                successResultRepository, pipelineLogger);
+                successResultRepository, pipelineLogger, new RobotPipelineMetrics(new SimpleMeterRegistry()),
+                OperationContextFactory.uncached(ioHelper));
     }
 
     /**
@@ -176,12 +182,15 @@ class RobotPipelineExecutorIntegrationTest {
                 any(ProjectId.class),
                 any(PipelineExecutionId.class),
                 eq(pipeline.pipelineId()),
+                any(PipelineStageId.class),
                 any(Command.class));
         verify(pipelineLogger, times(4)).pipelineStageFinishedWithSuccess(
                 any(ProjectId.class),
                 any(PipelineExecutionId.class),
                 eq(pipeline.pipelineId()),
-                any(Command.class));
+                any(PipelineStageId.class),
+                any(Command.class),
+                any(PipelineStageMetrics.class));
 
         verify(pipelineLogger, atLeastOnce()).savingOntologyStarted(
                 any(ProjectId.class),
@@ -283,12 +292,15 @@ class RobotPipelineExecutorIntegrationTest {
                 any(ProjectId.class),
                 any(PipelineExecutionId.class),
                 eq(pipeline.pipelineId()),
+                any(PipelineStageId.class),
                 any(Command.class));
         verify(pipelineLogger, times(4)).pipelineStageFinishedWithSuccess(
                 any(ProjectId.class),
                 any(PipelineExecutionId.class),
                 eq(pipeline.pipelineId()),
-                any(Command.class));
+                any(PipelineStageId.class),
+                any(Command.class),
+                any(PipelineStageMetrics.class));
 
         // Verify ontology saving was logged
         verify(pipelineLogger, atLeastOnce()).savingOntologyStarted(
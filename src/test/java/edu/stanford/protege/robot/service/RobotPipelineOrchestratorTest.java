@@ -5,9 +5,11 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import edu.stanford.protege.robot.pipeline.*;
+import edu.stanford.protege.robot.service.metrics.RobotPipelineMetrics;
 import edu.stanford.protege.robot.service.snapshot.ProjectOntologySnapshot;
 import edu.stanford.protege.robot.service.snapshot.ProjectOntologySnapshotProvider;
 import edu.stanford.protege.webprotege.common.ProjectId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Executor;
@@ -59,7 +61,7 @@ class RobotPipelineOrchestratorTest {
         }).when(statusRepository).saveStatus(any());
         Executor directExecutor = Runnable::run;
         orchestrator = new RobotPipelineOrchestrator(executor, snapshotProvider, statusRepository, pipelineLogger,
-                directExecutor);
+                directExecutor, new RobotPipelineMetrics(new SimpleMeterRegistry()));
     }
 
     /**
@@ -0,0 +1,59 @@
+package edu.stanford.protege.robot.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.semanticweb.owlapi.apibinding.OWLManager;
+import org.semanticweb.owlapi.model.IRI;
+import org.semanticweb.owlapi.model.OWLOntology;
+import org.semanticweb.owlapi.model.OWLOntologyCreationException;
+
+class StageMetricsProbeTest {
+
+    @Test
+    void finish_reportsOntologySizeBeforeAndAfter() throws OWLOntologyCreationException {
+        var manager = OWLManager.createOWLOntologyManager();
+        var dataFactory = manager.getOWLDataFactory();
+        var before = manager.createOntology(IRI.create("http://example.org/before"));
+        var after = manager.createOntology(IRI.create("http://example.org/after"));
+        var a = dataFactory.getOWLClass(IRI.create("http://example.org/A"));
+        var b = dataFactory.getOWLClass(IRI.create("http://example.org/B"));
+        var c = dataFactory.getOWLClass(IRI.create("http://example.org/C"));
+        manager.addAxiom(before, dataFactory.getOWLSubClassOfAxiom(a, b));
+        manager.addAxiom(after, dataFactory.getOWLSubClassOfAxiom(a, b));
+        manager.addAxiom(after, dataFactory.getOWLSubClassOfAxiom(b, c));
+
+        var probe = StageMetricsProbe.start(before);
+        var metrics = probe.finish(after);
+
+        assertThat(metrics.axiomCountBefore()).isEqualTo(1);
+        assertThat(metrics.axiomCountAfter()).isEqualTo(2);
+        assertThat(metrics.entityCountBefore()).isEqualTo(2);
+        assertThat(metrics.entityCountAfter()).isEqualTo(3);
+        assertThat(metrics.wallTimeMillis()).isGreaterThanOrEqualTo(0);
+    }
+
+    @Test
+    void finish_reportsBytesAllocatedByTheCallingThread() {
+        var probe = StageMetricsProbe.start(null);
+        var allocated = new long[1 << 20];
+        var metrics = probe.finish(null);
+
+        assertThat(allocated).hasSize(1 << 20);
+        assertThat(metrics.callingThreadAllocatedBytes()).isGreaterThanOrEqualTo(8L << 20);
+    }
+
+    @Test
+    void finish_keepsInitialSizeWhenStageProducedNoOntology() throws OWLOntologyCreationException {
+        var manager = OWLManager.createOWLOntologyManager();
+        var dataFactory = manager.getOWLDataFactory();
+        OWLOntology ontology = manager.createOntology();
+        manager.addAxiom(ontology, dataFactory.getOWLDeclarationAxiom(
+                dataFactory.getOWLClass(IRI.create("http://example.org/A"))));
+
+        var metrics = StageMetricsProbe.start(ontology).finish(null);
+
+        assertThat(metrics.axiomCountAfter()).isEqualTo(metrics.axiomCountBefore()).isEqualTo(1);
+        assertThat(metrics.entityCountAfter()).isEqualTo(metrics.entityCountBefore()).isEqualTo(1);
+    }
+}
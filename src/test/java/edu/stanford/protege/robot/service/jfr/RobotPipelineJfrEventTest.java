@@ -0,0 +1,95 @@
+package edu.stanford.protege.robot.service.jfr;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import edu.stanford.protege.robot.pipeline.PipelineExecutionId;
+import edu.stanford.protege.robot.pipeline.PipelineId;
+import edu.stanford.protege.robot.pipeline.PipelineStageId;
+import edu.stanford.protege.webprotege.common.ProjectId;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RobotPipelineJfrEventTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ProjectId projectId = ProjectId.generate();
+
+    private final PipelineExecutionId executionId = PipelineExecutionId.generate();
+
+    private final PipelineId pipelineId = PipelineId.generate();
+
+    private final PipelineStageId stageId = PipelineStageId.generate();
+
+    @Test
+    void stageEvent_carriesPipelineContext() throws IOException {
+        var events = record(RunPipelineStageJfrEvent.NAME, () -> RunPipelineStageJfrEvent
+                .start(projectId, executionId, pipelineId, stageId, "reason")
+                .finish(true));
+
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.getString("projectId")).isEqualTo(projectId.id());
+            assertThat(event.getString("executionId")).isEqualTo(executionId.id());
+            assertThat(event.getString("pipelineId")).isEqualTo(pipelineId.id());
+            assertThat(event.getString("stageId")).isEqualTo(stageId.id());
+            assertThat(event.getString("command")).isEqualTo("reason");
+            assertThat(event.getBoolean("succeeded")).isTrue();
+        });
+    }
+
+    @Test
+    void uploadEvent_recordsSizeAndFailure() throws IOException {
+        var events = record(UploadDocumentJfrEvent.NAME, () -> {
+            var event = UploadDocumentJfrEvent.start(projectId, executionId, pipelineId, stageId, "convert",
+                    "out.owl");
+            event.setBytes(4096);
+            event.finish(false);
+        });
+
+        assertThat(events).singleElement().satisfies(event -> {
+            assertThat(event.getString("path")).isEqualTo("out.owl");
+            assertThat(event.getLong("bytes")).isEqualTo(4096);
+            assertThat(event.getBoolean("succeeded")).isFalse();
+        });
+    }
+
+    @Test
+    void events_areNotCommittedWhenDisabled() throws IOException {
+        var events = record(SnapshotOntologyJfrEvent.NAME, false, () -> SnapshotOntologyJfrEvent
+                .start(projectId, executionId, pipelineId)
+                .finish(true));
+
+        assertThat(events).extracting(event -> event.getEventType().getName())
+                .doesNotContain(SnapshotOntologyJfrEvent.NAME);
+    }
+
+    private List<RecordedEvent> record(String eventName, Runnable action) throws IOException {
+        return record(eventName, true, action);
+    }
+
+    private List<RecordedEvent> record(String eventName, boolean enabled, Runnable action) throws IOException {
+        var output = tempDir.resolve("recording.jfr");
+        try (var recording = new Recording()) {
+            if (enabled) {
+                recording.enable(eventName).withThreshold(Duration.ZERO);
+            } else {
+                recording.disable(eventName);
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(output);
+        }
+        return RecordingFile.readAllEvents(output).stream()
+                .filter(event -> event.getEventType().getName().startsWith("edu.stanford.protege.robot."))
+                .toList();
+    }
+}
@@ -0,0 +1,59 @@
+package edu.stanford.protege.robot.service.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import edu.stanford.protege.robot.pipeline.PipelineStageMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class RobotPipelineMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RobotPipelineMetrics metrics = new RobotPipelineMetrics(meterRegistry);
+
+    @Test
+    void recordStage_tagsMetersWithCommandNameAndOutcome() {
+        var stageMetrics = new PipelineStageMetrics(250, 200, 10, 12, 5, 6, 1024);
+
+        metrics.recordStage("reason", stageMetrics, true);
+        metrics.recordStage("reason", stageMetrics, false);
+
+        var timer = meterRegistry.get(RobotPipelineMetrics.STAGE_TIMER)
+                .tag("command", "reason")
+                .tag("outcome", RobotPipelineMetrics.SUCCESS)
+                .timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(250);
+        assertThat(meterRegistry.get(RobotPipelineMetrics.STAGE_CPU_TIMER)
+                .tag("command", "reason")
+                .timer()
+                .totalTime(TimeUnit.MILLISECONDS)).isEqualTo(200);
+        assertThat(meterRegistry.get(RobotPipelineMetrics.STAGE_AXIOMS_SUMMARY)
+                .tag("outcome", RobotPipelineMetrics.SUCCESS)
+                .summary()
+                .totalAmount()).isEqualTo(12);
+        assertThat(meterRegistry.get(RobotPipelineMetrics.STAGE_TIMER)
+                .tag("outcome", RobotPipelineMetrics.ERROR)
+                .timer()
+                .count()).isEqualTo(1);
+    }
+
+    @Test
+    void recordStage_skipsCpuTimeWhenUnsupported() {
+        metrics.recordStage("reduce", new PipelineStageMetrics(5, -1, 0, 0, 0, 0, 0), true);
+
+        assertThat(meterRegistry.find(RobotPipelineMetrics.STAGE_CPU_TIMER).timer()).isNull();
+    }
+
+    @Test
+    void recordUpload_recordsSizeOnlyOnSuccess() {
+        metrics.recordUpload(metrics.startTimer(), 2048, true);
+        metrics.recordUpload(metrics.startTimer(), 4096, false);
+
+        assertThat(meterRegistry.get(RobotPipelineMetrics.UPLOAD_TIMER).timers()).hasSize(2);
+        assertThat(meterRegistry.get(RobotPipelineMetrics.UPLOAD_SIZE_SUMMARY).summary().totalAmount())
+                .isEqualTo(2048);
+    }
+}
@@ -5,8 +5,10 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 import edu.stanford.protege.robot.service.exception.RobotServiceRuntimeException;
+import edu.stanford.protege.robot.service.metrics.RobotPipelineMetrics;
 import edu.stanford.protege.webprotege.common.ProjectId;
 import edu.stanford.protege.webprotege.revision.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.nio.file.Path;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,13 +38,16 @@ class ProjectOntologySnapshotProviderTest {
 
     private ProjectOntologySnapshotProvider snapshotProvider;
 
+    private SimpleMeterRegistry meterRegistry;
+
     @BeforeEach
     void setUp() {
         revisionManagerFactory = mock(RevisionManagerFactory.class);
         headRevisionNumberFinder = mock(HeadRevisionNumberFinder.class);
         changeHistoryFileFactory = mock(ChangeHistoryFileFactory.class);
+        meterRegistry = new SimpleMeterRegistry();
         snapshotProvider = new ProjectOntologySnapshotProvider(revisionManagerFactory, headRevisionNumberFinder,
-                changeHistoryFileFactory);
+                changeHistoryFileFactory, new RobotPipelineMetrics(meterRegistry));
     }
 
     /**
@@ -72,6 +77,10 @@ class ProjectOntologySnapshotProviderTest {
         assertThat(snapshot.revisionNumber()).isEqualTo(3L);
         assertThat(Set.of(withoutIri, withIri)).contains(snapshot.ontology());
         assertThat(snapshot.ontology()).isSameAs(withoutIri);
+        assertThat(meterRegistry.get(RobotPipelineMetrics.SNAPSHOT_TIMER)
+                .tag("outcome", RobotPipelineMetrics.SUCCESS)
+                .timer()
+                .count()).isEqualTo(1);
     }
 
     /**
@@ -116,5 +125,9 @@ class ProjectOntologySnapshotProviderTest {
         assertThatThrownBy(() -> snapshotProvider.createSnapshot(projectId))
                 .isInstanceOf(RobotServiceRuntimeException.class)
                 .hasMessageContaining("Change history file not found");
+        assertThat(meterRegistry.get(RobotPipelineMetrics.SNAPSHOT_TIMER)
+                .tag("outcome", RobotPipelineMetrics.ERROR)
+                .timer()
+                .count()).isEqualTo(1);
     }
 }
@@ -1,9 +1,25 @@
 package edu.stanford.protege.robot.service.storer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
+import edu.stanford.protege.robot.service.exception.StorageException;
+import edu.stanford.protege.robot.service.metrics.RobotPipelineMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.minio.BucketExistsArgs;
+import io.minio.MinioClient;
+import io.minio.PutObjectArgs;
+import java.io.IOException;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -123,24 +139,26 @@ class MinioDocumentStorerTest {
         assertThat(invokeContentType("ontology.rdf")).isEqualTo("application/octet-stream");
     }
 
+    // ROBOT export format tests
     @Test
-    void shouldReturnDefaultForCsvExtension() throws Exception {
-        assertThat(invokeContentType("export.csv")).isEqualTo("application/octet-stream");
+    void shouldReturnCsvForCsvExtension() throws Exception {
+        assertThat(invokeContentType("export.csv")).isEqualTo("text/csv");
     }
 
     @Test
-    void shouldReturnDefaultForTsvExtension() throws Exception {
-        assertThat(invokeContentType("export.tsv")).isEqualTo("application/octet-stream");
+    void shouldReturnTabSeparatedValuesForTsvExtension() throws Exception {
+        assertThat(invokeContentType("export.tsv")).isEqualTo("text/tab-separated-values");
     }
 
     @Test
-    void shouldReturnDefaultForHtmlExtension() throws Exception {
-        assertThat(invokeContentType("export.html")).isEqualTo("application/octet-stream");
+    void shouldReturnHtmlForHtmlExtension() throws Exception {
+        assertThat(invokeContentType("export.html")).isEqualTo("text/html");
     }
 
     @Test
-    void shouldReturnDefaultForXlsxExtension() throws Exception {
-        assertThat(invokeContentType("export.xlsx")).isEqualTo("application/octet-stream");
+    void shouldReturnSpreadsheetForXlsxExtension() throws Exception {
+        assertThat(invokeContentType("export.xlsx"))
+                .isEqualTo("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
     }
 
     // Real-world path examples
@@ -161,4 +179,92 @@ class MinioDocumentStorerTest {
         assertThat(invokeContentType("robot-output-550e8400-e29b-41d4-a716-446655440000.json"))
                 .isEqualTo("application/json");
     }
+
+    @Nested
+    class StreamedDocuments {
+
+        private MinioClient minioClient;
+
+        private MinioDocumentStorer storer;
+
+        private final AtomicReference<String> contentType = new AtomicReference<>();
+
+        @BeforeEach
+        void setUp() throws Exception {
+            minioClient = mock(MinioClient.class);
+            when(minioClient.bucketExists(any(BucketExistsArgs.class))).thenReturn(true);
+            var properties = new MinioProperties();
+            properties.setRobotOutputDocumentsBucketName("robot-output");
+            storer = new MinioDocumentStorer(minioClient, properties,
+                    new RobotPipelineMetrics(new SimpleMeterRegistry()));
+        }
+
+        @Test
+        void shouldUploadWhatTheWriterWrites() throws Exception {
+            var uploaded = new AtomicReference<byte[]>();
+            when(minioClient.putObject(any(PutObjectArgs.class))).thenAnswer(invocation -> {
+                PutObjectArgs args = invocation.getArgument(0);
+                contentType.set(args.contentType());
+                uploaded.set(args.stream().readAllBytes());
+                return null;
+            });
+            // Larger than the chunks the pipe holds, so that the writer waits for the upload
+            var document = "ID,LABEL\n".repeat(100_000).getBytes(StandardCharsets.UTF_8);
+
+            var location = storer.storeDocument("export.csv", out -> out.write(document));
+
+            assertThat(location.bucket()).isEqualTo("robot-output");
+            assertThat(uploaded.get()).isEqualTo(document);
+            assertThat(contentType.get()).isEqualTo("text/csv");
+        }
+
+        @Test
+        void shouldFailUploadWhenWriterFails() throws Exception {
+            var writerFailed = new CountDownLatch(1);
+            var readFailure = new AtomicReference<Throwable>();
+            when(minioClient.putObject(any(PutObjectArgs.class))).thenAnswer(invocation -> {
+                PutObjectArgs args = invocation.getArgument(0);
+                // Read only once the writer has thrown, when the document could have been ended
+                assertThat(writerFailed.await(5, TimeUnit.SECONDS)).isTrue();
+                try {
+                    args.stream().readAllBytes();
+                } catch (IOException e) {
+                    readFailure.set(e);
+                    throw e;
+                }
+                return null;
+            });
+
+            assertThatThrownBy(() -> storer.storeDocument("export.tsv", out -> {
+                try {
+                    out.write("ID\tLABEL\n".getBytes(StandardCharsets.UTF_8));
+                    throw new IllegalStateException("export failed");
+                } finally {
+                    writerFailed.countDown();
+                }
+            })).isInstanceOf(StorageException.class)
+                    .hasRootCauseInstanceOf(IllegalStateException.class);
+            assertThat(readFailure.get()).isInstanceOf(IOException.class)
+                    .hasRootCauseInstanceOf(IllegalStateException.class);
+        }
+
+        @Test
+        void shouldStopWriterWhenUploadFails() throws Exception {
+            var writeFailure = new AtomicReference<Throwable>();
+            when(minioClient.putObject(any(PutObjectArgs.class))).thenThrow(new IOException("connection reset"));
+
+            assertThatThrownBy(() -> storer.storeDocument("export.tsv", out -> {
+                try {
+                    var line = "ID\tLABEL\n".getBytes(StandardCharsets.UTF_8);
+                    for (var i = 0; i < 1_000_000; i++) {
+                        out.write(line);
+                    }
+                } catch (IOException e) {
+                    writeFailure.set(e);
+                    throw e;
+                }
+            })).isInstanceOf(StorageException.class);
+            assertThat(writeFailure.get()).isInstanceOf(IOException.class);
+        }
+    }
 }